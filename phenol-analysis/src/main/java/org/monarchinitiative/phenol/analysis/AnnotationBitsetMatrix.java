@@ -0,0 +1,285 @@
+package org.monarchinitiative.phenol.analysis;
+
+import org.monarchinitiative.phenol.graph.OntologyGraph;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.*;
+
+/**
+ * Compact, immutable encoding of the total (direct and propagated) annotations of a population.
+ * <p>
+ * Each domain item (e.g., gene) of the population is assigned a column index, and each ontology term
+ * is stored as a row holding the columns of the items annotated to it. Rows with many items are stored
+ * as bitsets ({@code long[]}); rows with few items, which are the majority in GO or HPO, are stored as
+ * sorted column arrays to keep the memory footprint small.
+ * </p>
+ * <p>
+ * The matrix is built once for a population and can then be shared (also between threads) to count the
+ * annotations of any number of study sets. A study set is encoded with {@link #itemBitset(Collection)},
+ * and the number of its items annotated to a term is obtained with {@link #countAnnotated(int, long[])}
+ * by bitwise AND and population count instead of building and intersecting hash sets.
+ * </p>
+ */
+public final class AnnotationBitsetMatrix {
+
+  /** Key: domain item id, value: column index of the item. */
+  private final Map<TermId, Integer> itemIndex;
+  /** Domain item ids by column index. */
+  private final TermId[] itemIds;
+  /** Key: ontology term id, value: row index of the term. */
+  private final Map<TermId, Integer> termIndex;
+  /** Ontology term ids by row index. */
+  private final TermId[] termIds;
+  /** Bitset of the items annotated to the term of each row, {@code null} if the row is sparse. */
+  private final long[][] denseRows;
+  /** Sorted columns of the items annotated to the term of each row, {@code null} if the row is dense. */
+  private final int[][] sparseRows;
+  /** Number of items annotated to the term of each row. */
+  private final int[] rowCounts;
+
+  private AnnotationBitsetMatrix(Map<TermId, Integer> itemIndex,
+                                 TermId[] itemIds,
+                                 Map<TermId, Integer> termIndex,
+                                 TermId[] termIds,
+                                 int[][] columnsByRow) {
+    this.itemIndex = itemIndex;
+    this.itemIds = itemIds;
+    this.termIndex = termIndex;
+    this.termIds = termIds;
+    int words = wordCount(itemIds.length);
+    this.denseRows = new long[termIds.length][];
+    this.sparseRows = new int[termIds.length][];
+    this.rowCounts = new int[termIds.length];
+    for (int row = 0; row < termIds.length; row++) {
+      int[] columns = columnsByRow[row];
+      rowCounts[row] = columns.length;
+      // an int column costs half of a long word, so use the bitset once it is the smaller representation
+      if (columns.length >= 2 * words) {
+        long[] bits = new long[words];
+        for (int column : columns) {
+          bits[column >>> 6] |= 1L << column;
+        }
+        denseRows[row] = bits;
+      } else {
+        sparseRows[row] = columns;
+      }
+    }
+  }
+
+  /**
+   * @param populationSet the population whose annotations are to be encoded
+   * @return matrix with the total annotations of the population
+   */
+  public static AnnotationBitsetMatrix of(StudySet populationSet) {
+    return of(populationSet.getAnnotationMap());
+  }
+
+  /**
+   * @param annotationMap Key: ontology term id; value: the items annotated to the term.
+   * @return matrix with the total annotations of the map
+   */
+  public static AnnotationBitsetMatrix of(Map<TermId, DirectAndIndirectTermAnnotations> annotationMap) {
+    SortedSet<TermId> items = new TreeSet<>();
+    for (DirectAndIndirectTermAnnotations annotations : annotationMap.values()) {
+      items.addAll(annotations.getTotalAnnotatedDomainItemSet());
+    }
+    TermId[] itemIds = items.toArray(new TermId[0]);
+    Map<TermId, Integer> itemIndex = new HashMap<>();
+    for (int i = 0; i < itemIds.length; i++) {
+      itemIndex.put(itemIds[i], i);
+    }
+
+    TermId[] termIds = annotationMap.keySet().stream().sorted().toArray(TermId[]::new);
+    Map<TermId, Integer> termIndex = new HashMap<>();
+    int[][] columnsByRow = new int[termIds.length][];
+    for (int row = 0; row < termIds.length; row++) {
+      termIndex.put(termIds[row], row);
+      Set<TermId> annotated = annotationMap.get(termIds[row]).getTotalAnnotatedDomainItemSet();
+      int[] columns = new int[annotated.size()];
+      int n = 0;
+      for (TermId item : annotated) {
+        columns[n++] = itemIndex.get(item);
+      }
+      Arrays.sort(columns);
+      columnsByRow[row] = columns;
+    }
+    return new AnnotationBitsetMatrix(itemIndex, itemIds, termIndex, termIds, columnsByRow);
+  }
+
+  /**
+   * Matrix for the parent-child union method: the row of each term holds the items that are annotated
+   * to at least one parent of the term. Rows and columns are the same as in this matrix, so that the row
+   * index of a term can be used for both matrices.
+   *
+   * @param graph the ontology graph
+   * @return matrix with the union of the annotations of the parents of each term
+   */
+  public AnnotationBitsetMatrix parentUnion(OntologyGraph<TermId> graph) {
+    return parentMatrix(graph, true);
+  }
+
+  /**
+   * Matrix for the parent-child intersection method: the row of each term holds the items that are
+   * annotated to all parents of the term. Rows and columns are the same as in this matrix, so that the
+   * row index of a term can be used for both matrices.
+   *
+   * @param graph the ontology graph
+   * @return matrix with the intersection of the annotations of the parents of each term
+   */
+  public AnnotationBitsetMatrix parentIntersection(OntologyGraph<TermId> graph) {
+    return parentMatrix(graph, false);
+  }
+
+  private AnnotationBitsetMatrix parentMatrix(OntologyGraph<TermId> graph, boolean union) {
+    int words = wordCount(itemIds.length);
+    long[] combined = new long[words];
+    long[] parentBits = new long[words];
+    int[][] columnsByRow = new int[termIds.length][];
+    for (int row = 0; row < termIds.length; row++) {
+      Arrays.fill(combined, 0L);
+      boolean first = true;
+      for (TermId parent : graph.getParents(termIds[row])) {
+        int parentRow = getTermIndex(parent);
+        if (parentRow < 0) {
+          // no population item is annotated to the parent
+          if (!union) {
+            Arrays.fill(combined, 0L);
+          }
+        } else {
+          rowBitset(parentRow, parentBits);
+          for (int w = 0; w < words; w++) {
+            combined[w] = union || first ? combined[w] | parentBits[w] : combined[w] & parentBits[w];
+          }
+        }
+        first = false;
+      }
+      columnsByRow[row] = columns(combined);
+    }
+    return new AnnotationBitsetMatrix(itemIndex, itemIds, termIndex, termIds, columnsByRow);
+  }
+
+  /** Write the bitset of the given row into {@code bits}. */
+  private void rowBitset(int row, long[] bits) {
+    if (denseRows[row] != null) {
+      System.arraycopy(denseRows[row], 0, bits, 0, bits.length);
+    } else {
+      Arrays.fill(bits, 0L);
+      for (int column : sparseRows[row]) {
+        bits[column >>> 6] |= 1L << column;
+      }
+    }
+  }
+
+  private static int[] columns(long[] bits) {
+    int[] columns = new int[cardinality(bits)];
+    int n = 0;
+    for (int w = 0; w < bits.length; w++) {
+      long word = bits[w];
+      while (word != 0) {
+        columns[n++] = (w << 6) + Long.numberOfTrailingZeros(word);
+        word &= word - 1;
+      }
+    }
+    return columns;
+  }
+
+  /** @return number of domain items (columns) in the population. */
+  public int getItemCount() {
+    return itemIds.length;
+  }
+
+  /** @return number of ontology terms (rows) with at least one annotation. */
+  public int getTermCount() {
+    return termIds.length;
+  }
+
+  /** @return the ontology term id of the given row. */
+  public TermId getTermId(int row) {
+    return termIds[row];
+  }
+
+  /** @return the row of the given ontology term id or -1 if no population item is annotated to it. */
+  public int getTermIndex(TermId termId) {
+    return termIndex.getOrDefault(termId, -1);
+  }
+
+  /** @return the domain item id of the given column. */
+  public TermId getItemId(int column) {
+    return itemIds[column];
+  }
+
+  /** @return the column of the given domain item id or -1 if the item is not part of the population. */
+  public int getItemIndex(TermId itemId) {
+    return itemIndex.getOrDefault(itemId, -1);
+  }
+
+  /** @return number of population items directly or indirectly annotated to the term of the given row. */
+  public int getTotalAnnotationCount(int row) {
+    return rowCounts[row];
+  }
+
+  /**
+   * @param termId an ontology term id
+   * @return number of population items directly or indirectly annotated to the term.
+   */
+  public int getTotalAnnotationCount(TermId termId) {
+    int row = getTermIndex(termId);
+    return row < 0 ? 0 : rowCounts[row];
+  }
+
+  /**
+   * Encode a set of items, e.g., a study set, as bitset over the columns of this matrix.
+   * Items that are not part of the population are ignored.
+   *
+   * @param items domain item ids
+   * @return bitset with the columns of the items
+   */
+  public long[] itemBitset(Collection<TermId> items) {
+    long[] bits = new long[wordCount(itemIds.length)];
+    for (TermId item : items) {
+      Integer column = itemIndex.get(item);
+      if (column != null) {
+        bits[column >>> 6] |= 1L << column;
+      }
+    }
+    return bits;
+  }
+
+  /**
+   * @param row         row of an ontology term
+   * @param itemBitset  bitset as returned by {@link #itemBitset(Collection)}
+   * @return number of items of the bitset that are directly or indirectly annotated to the term of the row
+   */
+  public int countAnnotated(int row, long[] itemBitset) {
+    long[] bits = denseRows[row];
+    int count = 0;
+    if (bits != null) {
+      for (int w = 0; w < bits.length; w++) {
+        count += Long.bitCount(bits[w] & itemBitset[w]);
+      }
+    } else {
+      for (int column : sparseRows[row]) {
+        if ((itemBitset[column >>> 6] & (1L << column)) != 0) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @param itemBitset bitset as returned by {@link #itemBitset(Collection)}
+   * @return number of items in the bitset
+   */
+  public static int cardinality(long[] itemBitset) {
+    int count = 0;
+    for (long word : itemBitset) {
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  private static int wordCount(int itemCount) {
+    return (itemCount + 63) >>> 6;
+  }
+}
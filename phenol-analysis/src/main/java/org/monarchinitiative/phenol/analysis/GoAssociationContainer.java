@@ -1,9 +1,9 @@
 package org.monarchinitiative.phenol.analysis;
 
-import org.monarchinitiative.phenol.analysis.util.Util;
+import org.monarchinitiative.phenol.analysis.util.AnnotationPropagation;
+import org.monarchinitiative.phenol.analysis.util.DomainItemIndex;
 import org.monarchinitiative.phenol.annotations.formats.go.GoGaf22Annotation;
 import org.monarchinitiative.phenol.annotations.io.go.GoGeneAnnotationParser;
-import org.monarchinitiative.phenol.ontology.algo.OntologyAlgorithm;
 import org.monarchinitiative.phenol.ontology.data.Ontology;
 import org.monarchinitiative.phenol.ontology.data.TermAnnotation;
 import org.monarchinitiative.phenol.ontology.data.TermId;
@@ -35,6 +35,11 @@ public class GoAssociationContainer implements AssociationContainer<TermId> {
    */
   private final int annotatingTermCount;
 
+  /**
+   * Inverted index for {@link #getDomainItemsAnnotatedByOntologyTerm(TermId)}, built lazily.
+   */
+  private volatile DomainItemIndex domainItemIndex;
+
   /**
    * Constructs the container using a list of TermAnnotations (for instance, a TermAnnotation can be one line of the GO GAF file).
    *
@@ -88,7 +93,24 @@ public class GoAssociationContainer implements AssociationContainer<TermId> {
 
   @Override
   public Set<TermId> getDomainItemsAnnotatedByOntologyTerm(TermId tid) {
-    return Util.getDomainItemsAnnotatedByOntologyTerm(tid, ontology, gene2associationMap);
+    return domainItemIndex().getDomainItemsAnnotatedByOntologyTerm(tid);
+  }
+
+  /**
+   * @return the term to items index, which is built on first use.
+   */
+  private DomainItemIndex domainItemIndex() {
+    DomainItemIndex index = domainItemIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = domainItemIndex;
+        if (index == null) {
+          index = DomainItemIndex.of(ontology, gene2associationMap);
+          domainItemIndex = index;
+        }
+      }
+    }
+    return index;
   }
 
   /**
@@ -135,22 +157,9 @@ public class GoAssociationContainer implements AssociationContainer<TermId> {
     if (not_found > 0) {
       LOGGER.warn("Cound not find annotations for {} ontology term ids (are versions in synch?)", not_found);
     }
-    Map<TermId, DirectAndIndirectTermAnnotations> annotationMap = new HashMap<>();
-    for (Map.Entry<TermId, Set<TermId>> entry : directAnnotationMap.entrySet()) {
-      TermId domainItemTermId = entry.getKey();
-      for (TermId ontologyId : entry.getValue()) {
-        annotationMap.computeIfAbsent(ontologyId, DirectAndIndirectTermAnnotations::new)
-          .addDirectAnnotatedItem(domainItemTermId);
-        // In addition to the direct annotation, the gene is also indirectly annotated
-        // to all of the GO Term's ancestors
-        Set<TermId> ancs = OntologyAlgorithm.getAncestorTerms(ontology, ontologyId, false);
-        for (TermId ancestor : ancs) {
-          annotationMap.computeIfAbsent(ancestor, DirectAndIndirectTermAnnotations::new)
-            .addIndirectAnnotatedItem(domainItemTermId);
-        }
-      }
-    }
-    return Map.copyOf(annotationMap);
+    // In addition to the direct annotation, the gene is also indirectly annotated
+    // to all of the GO Term's ancestors
+    return AnnotationPropagation.propagate(directAnnotationMap, ontology.graph());
   }
 
   /**
@@ -1,7 +1,8 @@
 package org.monarchinitiative.phenol.analysis;
 
 
-import org.monarchinitiative.phenol.analysis.util.Util;
+import org.monarchinitiative.phenol.analysis.util.AnnotationPropagation;
+import org.monarchinitiative.phenol.analysis.util.DomainItemIndex;
 import org.monarchinitiative.phenol.annotations.io.go.GoGeneAnnotationParser;
 import org.monarchinitiative.phenol.base.PhenolException;
 import org.monarchinitiative.phenol.ontology.data.*;
@@ -33,6 +34,11 @@ public class TermAssociationContainer implements AssociationContainer<TermId> {
 
   private final MinimalOntology ontology;
 
+  /**
+   * Inverted index for {@link #getDomainItemsAnnotatedByOntologyTerm(TermId)}, built lazily.
+   */
+  private volatile DomainItemIndex domainItemIndex;
+
 
   /**
    * Constructs the container using a list of TermAnnotations (for instance, a
@@ -111,7 +117,24 @@ public class TermAssociationContainer implements AssociationContainer<TermId> {
 
   @Override
   public Set<TermId> getDomainItemsAnnotatedByOntologyTerm(TermId tid) {
-    return Util.getDomainItemsAnnotatedByOntologyTerm(tid, ontology, gene2associationMap);
+    return domainItemIndex().getDomainItemsAnnotatedByOntologyTerm(tid);
+  }
+
+  /**
+   * @return the term to items index, which is built on first use.
+   */
+  private DomainItemIndex domainItemIndex() {
+    DomainItemIndex index = domainItemIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = domainItemIndex;
+        if (index == null) {
+          index = DomainItemIndex.of(ontology, gene2associationMap);
+          domainItemIndex = index;
+        }
+      }
+    }
+    return index;
   }
 
   /**
@@ -173,21 +196,9 @@ public class TermAssociationContainer implements AssociationContainer<TermId> {
     if (not_found > 0) {
       LOGGER.warn("Cound not find annotations for {} ontology term ids (are versions in synch?)", not_found);
     }
-    Map<TermId, DirectAndIndirectTermAnnotations> annotationMap = new HashMap<>();
-    for (Map.Entry<TermId, Set<TermId>> entry : directAnnotationMap.entrySet()) {
-      TermId domainItemTermId = entry.getKey();
-      for (TermId ontologyId : entry.getValue()) {
-        annotationMap.putIfAbsent(ontologyId, new DirectAndIndirectTermAnnotations(ontologyId));
-        annotationMap.get(ontologyId).addDirectAnnotatedItem(domainItemTermId);
-        // In addition to the direct annotation, the gene is also indirectly annotated
-        // to all of the GO Term's ancestors
-        for (TermId ancestor : ontology.graph().getAncestors(ontologyId, false)) {
-          annotationMap.putIfAbsent(ancestor, new DirectAndIndirectTermAnnotations(ancestor));
-          annotationMap.get(ancestor).addIndirectAnnotatedItem(domainItemTermId);
-        }
-      }
-    }
-    return Map.copyOf(annotationMap);
+    // In addition to the direct annotation, the gene is also indirectly annotated
+    // to all of the GO Term's ancestors
+    return AnnotationPropagation.propagate(directAnnotationMap, ontology.graph());
   }
 
 
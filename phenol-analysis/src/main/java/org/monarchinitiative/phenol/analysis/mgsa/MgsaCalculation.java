@@ -3,12 +3,17 @@ package org.monarchinitiative.phenol.analysis.mgsa;
 import org.monarchinitiative.phenol.analysis.GoAssociationContainer;
 import org.monarchinitiative.phenol.analysis.DirectAndIndirectTermAnnotations;
 import org.monarchinitiative.phenol.analysis.StudySet;
+import org.monarchinitiative.phenol.base.PhenolRuntimeException;
 import org.monarchinitiative.phenol.ontology.data.Ontology;
 import org.monarchinitiative.phenol.ontology.data.TermId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 
 
@@ -37,8 +42,18 @@ public class MgsaCalculation {
   private boolean randomStart = false;
   private final static int DEFAULT_MCMCSTEPS = 250_000;
   private final int mcmcSteps;
-  private final int burnin = 20000;
+  private int burnin = 20000;
   private int updateReportTime = 1000; /* Update report time in ms */
+  /** Number of independent MCMC chains. */
+  private int numberOfChains = 1;
+  /** Executor for running the chains in parallel. */
+  private Executor executor = ForkJoinPool.commonPool();
+  /** Stop once the Gelman-Rubin R-hat of all terms is below this threshold, NaN to run all steps. */
+  private double convergenceThreshold = Double.NaN;
+  /** Number of steps between two convergence checks. */
+  private int convergenceCheckInterval = 10_000;
+  /** Diagnostics of the last calculation. */
+  private MgsaConvergenceDiagnostics convergenceDiagnostics;
 
   private final GoAssociationContainer goAssociations;
 
@@ -204,6 +219,60 @@ public class MgsaCalculation {
     this.updateReportTime = updateReportTime;
   }
 
+  /**
+   * @param burnin number of MCMC steps before the states are recorded
+   */
+  public void setBurnin(int burnin) {
+    if (burnin < 0) {
+      throw new IllegalArgumentException("Burn-in must not be negative but was " + burnin);
+    }
+    this.burnin = burnin;
+  }
+
+  /**
+   * Sets the number of independent MCMC chains. Each chain uses its own seed derived from the seed of
+   * this calculation, and the marginal probabilities of all chains are pooled. The first chain uses the
+   * seed itself, so a calculation with one chain gives the same results as before.
+   *
+   * @param numberOfChains number of chains, at least 1
+   */
+  public void setNumberOfChains(int numberOfChains) {
+    if (numberOfChains < 1) {
+      throw new IllegalArgumentException("Number of chains must be positive but was " + numberOfChains);
+    }
+    this.numberOfChains = numberOfChains;
+  }
+
+  /**
+   * @param executor executor on which the chains are run if there is more than one chain
+   */
+  public void setExecutor(Executor executor) {
+    this.executor = Objects.requireNonNull(executor);
+  }
+
+  /**
+   * Stop the chains once the Gelman-Rubin R-hat of every term is below the given threshold
+   * (e.g., 1.1). The convergence is checked every {@code checkInterval} steps after the burn-in
+   * and requires at least two chains.
+   *
+   * @param threshold     R-hat threshold or {@code NaN} to always run all MCMC steps
+   * @param checkInterval number of steps between two convergence checks
+   */
+  public void setConvergenceThreshold(double threshold, int checkInterval) {
+    if (checkInterval < 1) {
+      throw new IllegalArgumentException("Check interval must be positive but was " + checkInterval);
+    }
+    this.convergenceThreshold = threshold;
+    this.convergenceCheckInterval = checkInterval;
+  }
+
+  /**
+   * @return the convergence diagnostics of the last calculation or {@code null} if nothing was calculated.
+   */
+  public MgsaConvergenceDiagnostics getConvergenceDiagnostics() {
+    return convergenceDiagnostics;
+  }
+
   public MgsaGOTermsResultContainer calculateStudySet(StudySet studySet) {
     MgsaGOTermsResultContainer result = new MgsaGOTermsResultContainer(ontology,
       goAssociations,
@@ -235,16 +304,16 @@ public class MgsaCalculation {
 
   private void calculateByMCMC(MgsaGOTermsResultContainer result,
                                StudySet studySet) {
-    Objects.requireNonNull(goAssociations);
-    TermToItemMatrix calcUtils = new TermToItemMatrix(goAssociations);
-    int[][] termLinks = calcUtils.getTermLinks();
-    boolean[] observedItems = calcUtils.getBooleanArrayobservedItems(studySet.getGeneSet()); //geneMapper.getDense(studyEnumerator.getGenes());
+    // the population matrix is prepared once in the constructor and shared by all study sets
+    int[][] termLinks = termToItemMatrix.getTermLinks();
+    boolean[] observedItems = termToItemMatrix.getBooleanArrayobservedItems(studySet.getGeneSet()); //geneMapper.getDense(studyEnumerator.getGenes());
     double[] marginalProbabilities = calculate(termLinks, observedItems);
+    result.setConvergenceDiagnostics(convergenceDiagnostics);
 
     for (int i = 0; i < marginalProbabilities.length; i++) {
-      TermId tid = calcUtils.getGoTermAtIndex(i);
+      TermId tid = termToItemMatrix.getGoTermAtIndex(i);
       MgsaGOTermResult prop = new MgsaGOTermResult(tid,
-        calcUtils.getAnnotatedGeneCount(tid),
+        termToItemMatrix.getAnnotatedGeneCount(i),
         populationSet.getAnnotatedItemCount(),
         marginalProbabilities[i]);
       result.addGOTermProperties(prop);
@@ -273,26 +342,17 @@ public class MgsaCalculation {
    */
   private double[] calculate(int[][] term2Items, boolean[] observedItems) {
     int numTerms = term2Items.length;
-    double[] res = new double[numTerms];
-
-    Random rnd = new Random(seed);
-    logger.info("Using random seed of: " + seed);
-
-    int maxIter;
-
-    double alpha;
-    double beta;
-    double expectedNumberOfTerms;
-    alpha = Double.NaN;
-    beta = Double.NaN;
-    expectedNumberOfTerms = Double.NaN;
-
-    maxIter = 1;
-
-    for (int i = 0; i < maxIter; i++) {
+    double alpha = Double.NaN;
+    double beta = Double.NaN;
+    double expectedNumberOfTerms = Double.NaN;
+
+    logger.info("Using random seed of: " + seed + " for " + numberOfChains + " chain(s)");
+    logger.info("MCMC only: " + alpha + "  " + beta + "  " + expectedNumberOfTerms);
+    List<MgsaChain> chains = new ArrayList<>(numberOfChains);
+    for (int k = 0; k < numberOfChains; k++) {
+      Random rnd = new Random(chainSeed(k));
       FixedAlphaBetaScore fixedAlphaBetaScore = new FixedAlphaBetaScore(rnd, term2Items, observedItems);
       fixedAlphaBetaScore.setIntegrateParams(integrateParams);
-      logger.info("MCMC only: " + alpha + "  " + beta + "  " + expectedNumberOfTerms);
       fixedAlphaBetaScore.setAlpha(alpha);
       if (this.alpha.hasMax())
         fixedAlphaBetaScore.setMaxAlpha(this.alpha.getMax());
@@ -301,127 +361,69 @@ public class MgsaCalculation {
         fixedAlphaBetaScore.setMaxBeta(this.beta.getMax());
       fixedAlphaBetaScore.setExpectedNumberOfTerms(expectedNumberOfTerms);
       fixedAlphaBetaScore.setUsePrior(usePrior);
+      chains.add(new MgsaChain(k, rnd, fixedAlphaBetaScore, randomStart, mcmcSteps, burnin, updateReportTime));
+    }
 
-      logger.info("Score of empty set: " + fixedAlphaBetaScore.getScore());
-
-      /* Provide a starting point */
-      if (randomStart) {
-        int numberOfTerms = fixedAlphaBetaScore.EXPECTED_NUMBER_OF_TERMS[rnd.nextInt(fixedAlphaBetaScore.EXPECTED_NUMBER_OF_TERMS.length)];
-        double pForStart = ((double) numberOfTerms) / term2Items.length;
-
-        for (int j = 0; j < term2Items.length; j++)
-          if (rnd.nextDouble() < pForStart) fixedAlphaBetaScore.switchState(j);
-
-        logger.info("Starting with " + fixedAlphaBetaScore.getActiveTerms().length + " terms (p=" + pForStart + ")");
-      }
-
-      double score = fixedAlphaBetaScore.getScore();
-      logger.info("Score of initial set: " + score);
-
-      int maxSteps = mcmcSteps;
-      int burnin = 20000;
-      int numAccepts = 0;
-      int numRejects = 0;
-
-
-      double maxScore = score;
-      int[] maxScoredTerms = fixedAlphaBetaScore.getActiveTerms();
-      double maxScoredAlpha = Double.NaN;
-      double maxScoredBeta = Double.NaN;
-      double maxScoredP = Double.NaN;
-      int maxWhenSeen = -1;
-
-      long start = System.currentTimeMillis();
-
-      for (int t = 0; t < maxSteps; t++) {
-        /* Remember maximum score and terms */
-        if (score > maxScore) {
-          maxScore = score;
-          maxScoredTerms = fixedAlphaBetaScore.getActiveTerms();
-          if (fixedAlphaBetaScore != null) {
-            maxScoredAlpha = fixedAlphaBetaScore.getAlpha();
-            maxScoredBeta = fixedAlphaBetaScore.getBeta();
-            maxScoredP = fixedAlphaBetaScore.getP();
-          }
-          maxWhenSeen = t;
-        }
-
-        long now = System.currentTimeMillis();
-        if (now - start > updateReportTime) {
-          logger.info((t * 100 / maxSteps) + "% (score=" + score + " maxScore=" + maxScore + " #terms=" + fixedAlphaBetaScore.getActiveTerms().length +
-            " accept/reject=" + (double) numAccepts / (double) numRejects +
-            " accept/steps=" + (double) numAccepts / (double) t +
-            " exp=" + expectedNumberOfTerms + " usePrior=" + usePrior + ")");
-          start = now;
-
-        }
-
-        long oldPossibilities = fixedAlphaBetaScore.getNeighborhoodSize();
-        long r = rnd.nextLong();
-        fixedAlphaBetaScore.proposeNewState(r);
-        double newScore = fixedAlphaBetaScore.getScore();
-        long newPossibilities = fixedAlphaBetaScore.getNeighborhoodSize();
-
-        double acceptProb = Math.exp(newScore - score) * (double) oldPossibilities / (double) newPossibilities; /* last quotient is the hasting ratio */
-
-        double u = rnd.nextDouble();
-        if (u >= acceptProb) {
-          fixedAlphaBetaScore.undoProposal();
-          numRejects++;
-        } else {
-          score = newScore;
-          numAccepts++;
-        }
-        //System.err.println("t="+t);
-        if (t > burnin)
-          fixedAlphaBetaScore.record();
-
+    boolean checkConvergence = !Double.isNaN(convergenceThreshold) && numberOfChains > 1;
+    boolean converged = false;
+    int steps = 0;
+    while (steps < mcmcSteps && !converged) {
+      int segment = checkConvergence ? Math.min(convergenceCheckInterval, mcmcSteps - steps) : mcmcSteps - steps;
+      runChains(chains, segment);
+      steps += segment;
+      if (checkConvergence && steps > burnin) {
+        MgsaConvergenceDiagnostics diagnostics = MgsaConvergenceDiagnostics.of(chains, false);
+        converged = diagnostics.getMaxRHat() < convergenceThreshold;
+        logger.info("Max R-hat after " + steps + " steps: " + diagnostics.getMaxRHat());
       }
+    }
+    if (converged) {
+      logger.info("Chains converged after " + steps + " of " + mcmcSteps + " steps");
+    }
 
-
-      if (i == maxIter - 1) {
-        for (int t = 0; t < numTerms; t++) {
-          res[t] = (double) fixedAlphaBetaScore.termActivationCounts[t] / fixedAlphaBetaScore.numRecords;
-        }
+    /* Pool the recorded states of all chains */
+    double[] res = new double[numTerms];
+    long numRecords = 0;
+    for (MgsaChain chain : chains) {
+      int[] counts = chain.getTermActivationCounts();
+      for (int t = 0; t < numTerms; t++) {
+        res[t] += counts[t];
       }
+      numRecords += chain.getNumRecords();
+      chain.logSummary(alpha, beta, expectedNumberOfTerms);
+    }
+    for (int t = 0; t < numTerms; t++) {
+      res[t] /= numRecords;
+    }
+    this.convergenceDiagnostics = MgsaConvergenceDiagnostics.of(chains, converged);
+    logger.info(convergenceDiagnostics.toString());
+    return res;
+  }
 
-      if (fixedAlphaBetaScore != null) {
-        if (Double.isNaN(alpha)) {
-          for (int j = 0; j < fixedAlphaBetaScore.totalAlpha.length; j++)
-            logger.info("alpha(" + fixedAlphaBetaScore.ALPHA[j] + ")=" + (double) fixedAlphaBetaScore.totalAlpha[j] / fixedAlphaBetaScore.numRecords);
-        }
-
-        if (Double.isNaN(beta)) {
-          for (int j = 0; j < fixedAlphaBetaScore.totalBeta.length; j++)
-            logger.info("beta(" + fixedAlphaBetaScore.BETA[j] + ")=" + (double) fixedAlphaBetaScore.totalBeta[j] / fixedAlphaBetaScore.numRecords);
-        }
-
-        if (Double.isNaN(expectedNumberOfTerms)) {
-          for (int j = 0; j < fixedAlphaBetaScore.totalExp.length; j++)
-            logger.info("exp(" + fixedAlphaBetaScore.EXPECTED_NUMBER_OF_TERMS[j] + ")=" + (double) fixedAlphaBetaScore.totalExp[j] / fixedAlphaBetaScore.numRecords);
-
-        }
-      }
+  /**
+   * The first chain uses the seed of the calculation, the other ones use seeds that are derived by
+   * adding multiples of the golden ratio constant (as, e.g., in {@link java.util.SplittableRandom}).
+   */
+  private long chainSeed(int chainIndex) {
+    return seed + chainIndex * 0x9E3779B97F4A7C15L;
+  }
 
-      logger.info("numAccepts=" + numAccepts + "  numRejects = " + numRejects);
-
-      if (logger.isInfoEnabled()) {
-        StringBuilder b = new StringBuilder();
-
-        logger.info("Term combination that reaches score of " + maxScore +
-          " when alpha=" + maxScoredAlpha +
-          ", beta=" + maxScoredBeta +
-          ", p=" + maxScoredP +
-          " at step " + maxWhenSeen);
-        b.append("Indices: ");
-        for (int t : maxScoredTerms) {
-          b.append(t);
-          b.append(", ");
-        }
-        logger.info(b.toString());
-      }
+  /**
+   * Advance all chains by the given number of steps, in parallel if there is more than one chain.
+   */
+  private void runChains(List<MgsaChain> chains, int numSteps) {
+    if (chains.size() == 1) {
+      chains.get(0).run(numSteps);
+      return;
+    }
+    CompletableFuture<?>[] futures = chains.stream()
+      .map(chain -> CompletableFuture.runAsync(() -> chain.run(numSteps), executor))
+      .toArray(CompletableFuture[]::new);
+    try {
+      CompletableFuture.allOf(futures).join();
+    } catch (CompletionException e) {
+      throw new PhenolRuntimeException("MGSA chain failed", e.getCause());
     }
-    return res;
   }
 
 }
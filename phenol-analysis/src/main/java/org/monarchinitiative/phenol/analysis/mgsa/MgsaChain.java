@@ -0,0 +1,205 @@
+package org.monarchinitiative.phenol.analysis.mgsa;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+
+/**
+ * One Metropolis-Hastings chain of the MGSA calculation. The chain can be advanced in several
+ * segments, e.g., to check the convergence of several chains in between. Each chain owns its
+ * random source and its {@link FixedAlphaBetaScore}, so that independent chains can run on
+ * different threads.
+ *
+ * @author Sebastian Bauer
+ * @author Peter Robinson
+ */
+class MgsaChain {
+  private static final Logger logger = LoggerFactory.getLogger(MgsaChain.class);
+
+  private final int index;
+  private final Random rnd;
+  private final FixedAlphaBetaScore fixedAlphaBetaScore;
+  /** Total number of steps the chain is expected to take, used for the progress report only. */
+  private final int maxSteps;
+  /** Number of steps after which the states are recorded. */
+  private final int burnin;
+  private final int updateReportTime;
+
+  private double score;
+  private int steps = 0;
+  private int numAccepts = 0;
+  private int numRejects = 0;
+
+  private double maxScore;
+  /** Reusable buffer of the terms of the best state, only the first {@link #numMaxScoredTerms} entries are valid. */
+  private final int[] maxScoredTerms;
+  private int numMaxScoredTerms;
+  private double maxScoredAlpha = Double.NaN;
+  private double maxScoredBeta = Double.NaN;
+  private double maxScoredP = Double.NaN;
+  private int maxWhenSeen = -1;
+
+  /**
+   * @param index            index of the chain (for logging)
+   * @param rnd              random source of this chain
+   * @param fixedAlphaBetaScore score object of this chain, already configured
+   * @param randomStart      true if a random start should be used
+   * @param maxSteps         total number of steps the chain is expected to take
+   * @param burnin           number of steps after which the states are recorded
+   * @param updateReportTime update report time in ms
+   */
+  MgsaChain(int index,
+            Random rnd,
+            FixedAlphaBetaScore fixedAlphaBetaScore,
+            boolean randomStart,
+            int maxSteps,
+            int burnin,
+            int updateReportTime) {
+    this.index = index;
+    this.rnd = rnd;
+    this.fixedAlphaBetaScore = fixedAlphaBetaScore;
+    this.maxSteps = maxSteps;
+    this.burnin = burnin;
+    this.updateReportTime = updateReportTime;
+
+    logger.info("Score of empty set: " + fixedAlphaBetaScore.getScore());
+    /* Provide a starting point */
+    if (randomStart) {
+      int numberOfTerms = fixedAlphaBetaScore.EXPECTED_NUMBER_OF_TERMS[rnd.nextInt(fixedAlphaBetaScore.EXPECTED_NUMBER_OF_TERMS.length)];
+      double pForStart = ((double) numberOfTerms) / fixedAlphaBetaScore.numTerms;
+
+      for (int j = 0; j < fixedAlphaBetaScore.numTerms; j++)
+        if (rnd.nextDouble() < pForStart) fixedAlphaBetaScore.switchState(j);
+
+      logger.info("Starting with " + fixedAlphaBetaScore.getNumActiveTerms() + " terms (p=" + pForStart + ")");
+    }
+    this.score = fixedAlphaBetaScore.getScore();
+    logger.info("Score of initial set: " + score);
+    this.maxScore = score;
+    this.maxScoredTerms = new int[fixedAlphaBetaScore.numTerms];
+    this.numMaxScoredTerms = fixedAlphaBetaScore.copyActiveTerms(maxScoredTerms);
+  }
+
+  /**
+   * Advance the chain. The loop does not allocate: the best state is copied into a reusable buffer, and
+   * the exponential of the score difference is only evaluated if the proposal is not accepted anyway.
+   * The uniform number for the acceptance is drawn in every step, so that the sequence of random numbers,
+   * and hence the result for a given seed, does not depend on this shortcut.
+   *
+   * @param numSteps number of steps to take
+   */
+  void run(int numSteps) {
+    long start = System.currentTimeMillis();
+    int end = steps + numSteps;
+    for (int t = steps; t < end; t++) {
+      /* Remember maximum score and terms */
+      if (score > maxScore) {
+        maxScore = score;
+        numMaxScoredTerms = fixedAlphaBetaScore.copyActiveTerms(maxScoredTerms);
+        maxScoredAlpha = fixedAlphaBetaScore.getAlpha();
+        maxScoredBeta = fixedAlphaBetaScore.getBeta();
+        maxScoredP = fixedAlphaBetaScore.getP();
+        maxWhenSeen = t;
+      }
+
+      long now = System.currentTimeMillis();
+      if (now - start > updateReportTime) {
+        logger.info("chain " + index + ": " + ((long) t * 100 / maxSteps) + "% (score=" + score + " maxScore=" + maxScore +
+          " #terms=" + fixedAlphaBetaScore.getNumActiveTerms() +
+          " accept/reject=" + (double) numAccepts / (double) numRejects +
+          " accept/steps=" + (double) numAccepts / (double) t + ")");
+        start = now;
+      }
+
+      long oldPossibilities = fixedAlphaBetaScore.getNeighborhoodSize();
+      long r = rnd.nextLong();
+      fixedAlphaBetaScore.proposeNewState(r);
+      double newScore = fixedAlphaBetaScore.getScore();
+      long newPossibilities = fixedAlphaBetaScore.getNeighborhoodSize();
+
+      double u = rnd.nextDouble();
+      boolean accept;
+      if (newScore >= score && oldPossibilities >= newPossibilities) {
+        /* acceptance probability is at least 1 */
+        accept = true;
+      } else {
+        double acceptProb = Math.exp(newScore - score) * (double) oldPossibilities / (double) newPossibilities; /* last quotient is the hasting ratio */
+        accept = u < acceptProb;
+      }
+      if (!accept) {
+        fixedAlphaBetaScore.undoProposal();
+        numRejects++;
+      } else {
+        score = newScore;
+        numAccepts++;
+      }
+      if (t > burnin)
+        fixedAlphaBetaScore.record();
+    }
+    steps = end;
+  }
+
+  /** @return number of steps taken so far. */
+  int getSteps() {
+    return steps;
+  }
+
+  /** @return fraction of the proposals that were accepted. */
+  double getAcceptanceRate() {
+    return steps == 0 ? Double.NaN : (double) numAccepts / steps;
+  }
+
+  /** @return number of recorded states. */
+  int getNumRecords() {
+    return fixedAlphaBetaScore.numRecords;
+  }
+
+  /** @return for each term, the number of recorded states in which the term was active. */
+  int[] getTermActivationCounts() {
+    return fixedAlphaBetaScore.termActivationCounts;
+  }
+
+  /**
+   * Log the sampled hyperparameters and the best state of this chain.
+   *
+   * @param alpha                 fixed alpha or NaN
+   * @param beta                  fixed beta or NaN
+   * @param expectedNumberOfTerms fixed expected number of terms or NaN
+   */
+  void logSummary(double alpha, double beta, double expectedNumberOfTerms) {
+    if (!logger.isInfoEnabled()) {
+      return;
+    }
+    int numRecords = fixedAlphaBetaScore.numRecords;
+    if (Double.isNaN(alpha)) {
+      for (int j = 0; j < fixedAlphaBetaScore.totalAlpha.length; j++)
+        logger.info("alpha(" + fixedAlphaBetaScore.ALPHA[j] + ")=" + (double) fixedAlphaBetaScore.totalAlpha[j] / numRecords);
+    }
+
+    if (Double.isNaN(beta)) {
+      for (int j = 0; j < fixedAlphaBetaScore.totalBeta.length; j++)
+        logger.info("beta(" + fixedAlphaBetaScore.BETA[j] + ")=" + (double) fixedAlphaBetaScore.totalBeta[j] / numRecords);
+    }
+
+    if (Double.isNaN(expectedNumberOfTerms)) {
+      for (int j = 0; j < fixedAlphaBetaScore.totalExp.length; j++)
+        logger.info("exp(" + fixedAlphaBetaScore.EXPECTED_NUMBER_OF_TERMS[j] + ")=" + (double) fixedAlphaBetaScore.totalExp[j] / numRecords);
+    }
+
+    logger.info("chain " + index + ": numAccepts=" + numAccepts + "  numRejects = " + numRejects);
+
+    StringBuilder b = new StringBuilder();
+    logger.info("Term combination that reaches score of " + maxScore +
+      " when alpha=" + maxScoredAlpha +
+      ", beta=" + maxScoredBeta +
+      ", p=" + maxScoredP +
+      " at step " + maxWhenSeen);
+    b.append("Indices: ");
+    for (int i = 0; i < numMaxScoredTerms; i++) {
+      b.append(maxScoredTerms[i]);
+      b.append(", ");
+    }
+    logger.info(b.toString());
+  }
+}
@@ -0,0 +1,148 @@
+package org.monarchinitiative.phenol.analysis.mgsa;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Convergence diagnostics of the Metropolis-Hastings chains of an MGSA calculation.
+ * <p>
+ * The potential scale reduction factor R&#770; of Gelman and Rubin is calculated for the activation
+ * indicator of each term from the recorded states of all chains. Values close to 1 indicate that the
+ * chains sample from the same distribution; values above about 1.1 indicate that more steps are needed.
+ * R&#770; can only be calculated for two or more chains, otherwise it is {@code NaN}.
+ * </p>
+ */
+public class MgsaConvergenceDiagnostics {
+
+  private final int numberOfChains;
+  private final int stepsPerChain;
+  private final double[] acceptanceRates;
+  private final double[] rHat;
+  private final double maxRHat;
+  private final boolean converged;
+
+  MgsaConvergenceDiagnostics(int stepsPerChain, double[] acceptanceRates, double[] rHat, boolean converged) {
+    this.numberOfChains = acceptanceRates.length;
+    this.stepsPerChain = stepsPerChain;
+    this.acceptanceRates = acceptanceRates;
+    this.rHat = rHat;
+    this.maxRHat = maxRHat(rHat);
+    this.converged = converged;
+  }
+
+  /**
+   * Calculate the diagnostics of the given chains.
+   *
+   * @param chains    the chains
+   * @param converged true if the calculation was stopped because the chains converged
+   * @return the diagnostics
+   */
+  static MgsaConvergenceDiagnostics of(List<MgsaChain> chains, boolean converged) {
+    double[] acceptanceRates = new double[chains.size()];
+    int[][] activationCounts = new int[chains.size()][];
+    int[] numRecords = new int[chains.size()];
+    for (int k = 0; k < chains.size(); k++) {
+      acceptanceRates[k] = chains.get(k).getAcceptanceRate();
+      activationCounts[k] = chains.get(k).getTermActivationCounts();
+      numRecords[k] = chains.get(k).getNumRecords();
+    }
+    return new MgsaConvergenceDiagnostics(chains.get(0).getSteps(), acceptanceRates,
+      gelmanRubin(activationCounts, numRecords), converged);
+  }
+
+  /**
+   * Gelman-Rubin potential scale reduction factor for binary draws (term is active or not).
+   *
+   * @param activationCounts for each chain and term, the number of recorded states with the term active
+   * @param numRecords       for each chain, the number of recorded states
+   * @return R&#770; for each term, {@code NaN} if fewer than two chains or records are available
+   */
+  static double[] gelmanRubin(int[][] activationCounts, int[] numRecords) {
+    int numChains = activationCounts.length;
+    int numTerms = numChains == 0 ? 0 : activationCounts[0].length;
+    double[] rHat = new double[numTerms];
+    int n = Integer.MAX_VALUE;
+    for (int records : numRecords) {
+      n = Math.min(n, records);
+    }
+    if (numChains < 2 || n < 2) {
+      Arrays.fill(rHat, Double.NaN);
+      return rHat;
+    }
+    for (int t = 0; t < numTerms; t++) {
+      double sumMeans = 0.0;
+      double sumVariances = 0.0;
+      double[] means = new double[numChains];
+      for (int k = 0; k < numChains; k++) {
+        double mean = (double) activationCounts[k][t] / numRecords[k];
+        means[k] = mean;
+        sumMeans += mean;
+        // sample variance of 0/1 draws
+        sumVariances += mean * (1.0 - mean) * numRecords[k] / (numRecords[k] - 1.0);
+      }
+      double grandMean = sumMeans / numChains;
+      double b = 0.0;
+      for (double mean : means) {
+        b += (mean - grandMean) * (mean - grandMean);
+      }
+      b = b * n / (numChains - 1); // between-chain variance
+      double w = sumVariances / numChains; // within-chain variance
+      if (w == 0.0) {
+        rHat[t] = b == 0.0 ? 1.0 : Double.POSITIVE_INFINITY;
+      } else {
+        double varPlus = (n - 1.0) / n * w + b / n;
+        rHat[t] = Math.sqrt(varPlus / w);
+      }
+    }
+    return rHat;
+  }
+
+  private static double maxRHat(double[] rHat) {
+    double max = Double.NaN;
+    for (double r : rHat) {
+      if (Double.isNaN(max) || r > max) {
+        max = r;
+      }
+    }
+    return max;
+  }
+
+  /** @return number of independent chains. */
+  public int getNumberOfChains() {
+    return numberOfChains;
+  }
+
+  /** @return number of steps taken by each chain. */
+  public int getStepsPerChain() {
+    return stepsPerChain;
+  }
+
+  /** @return fraction of accepted proposals of each chain. */
+  public double[] getAcceptanceRates() {
+    return acceptanceRates.clone();
+  }
+
+  /** @return the Gelman-Rubin R&#770; of each term, in the order of the term indices of the calculation. */
+  public double[] getRHat() {
+    return rHat.clone();
+  }
+
+  /** @return the largest R&#770; of all terms, {@code NaN} if it cannot be calculated. */
+  public double getMaxRHat() {
+    return maxRHat;
+  }
+
+  /** @return true if the calculation stopped early because the chains had converged. */
+  public boolean isConverged() {
+    return converged;
+  }
+
+  @Override
+  public String toString() {
+    return "MgsaConvergenceDiagnostics [numberOfChains=" + numberOfChains
+      + ", stepsPerChain=" + stepsPerChain
+      + ", acceptanceRates=" + Arrays.toString(acceptanceRates)
+      + ", maxRHat=" + maxRHat
+      + ", converged=" + converged + "]";
+  }
+}
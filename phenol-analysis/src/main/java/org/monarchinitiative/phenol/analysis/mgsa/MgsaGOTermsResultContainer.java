@@ -32,6 +32,9 @@ public class MgsaGOTermsResultContainer
 
     private final StudySet studySet;
 
+    /** Convergence diagnostics of the MCMC chains, if available. */
+    private MgsaConvergenceDiagnostics convergenceDiagnostics;
+
 
     public MgsaGOTermsResultContainer(Ontology go,
                                       GoAssociationContainer associations, StudySet studySet,
@@ -53,6 +56,17 @@ public class MgsaGOTermsResultContainer
         list.add(prop);
     }
 
+    void setConvergenceDiagnostics(MgsaConvergenceDiagnostics convergenceDiagnostics) {
+      this.convergenceDiagnostics = convergenceDiagnostics;
+    }
+
+    /**
+     * @return diagnostics of the MCMC chains that produced this result or {@code null} if not available.
+     */
+    public MgsaConvergenceDiagnostics getConvergenceDiagnostics() {
+      return convergenceDiagnostics;
+    }
+
     public void dumpToShell() {
       System.out.println("[INFO] Terms with marginal probability above 1%");
       for (MgsaGOTermResult agtp : this.list) {
@@ -201,6 +201,25 @@ public abstract class MgsaScore extends MgsaScoreBase {
     numRecords++;
   }
 
+  /**
+   * @return the number of terms that are currently activated
+   */
+  public int getNumActiveTerms() {
+    return numTerms - numInactiveTerms;
+  }
+
+  /**
+   * Copies the terms that are currently activated into the given buffer without allocating.
+   *
+   * @param buffer array with room for at least {@link #getNumActiveTerms()} entries
+   * @return the number of terms written to the buffer
+   */
+  public int copyActiveTerms(int[] buffer) {
+    int numActive = numTerms - numInactiveTerms;
+    System.arraycopy(termPartition, numInactiveTerms, buffer, 0, numActive);
+    return numActive;
+  }
+
   /**
    * @return the terms that are currently activated
    */
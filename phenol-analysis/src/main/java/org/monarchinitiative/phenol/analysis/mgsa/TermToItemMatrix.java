@@ -96,6 +96,14 @@ class TermToItemMatrix {
         return genes.length;
     }
 
+    /**
+     * @param termIndex index of a GO term
+     * @return number of genes annotated to the term
+     */
+    int getAnnotatedGeneCount(int termIndex) {
+        return this.termLinks[termIndex].length;
+    }
+
     public boolean []  getBooleanArrayobservedItems(Set<TermId> geneIds) {
         boolean [] observed = new boolean[this.n_genes];
         for (TermId gene : geneIds) {
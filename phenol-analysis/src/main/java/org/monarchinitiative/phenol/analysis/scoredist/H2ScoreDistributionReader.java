@@ -139,8 +139,14 @@ public class H2ScoreDistributionReader implements ScoreDistributionReader {
       throw new SQLException();
     }
     final int sampleSize = rs.getInt(3);
-    final double[] scores = (double[]) rs.getObject(4);
-    final double[] pValues = (double[]) rs.getObject(5);
+    final double[] scores;
+    final double[] pValues;
+    try {
+      scores = ScoreArrayCodec.decodeColumnValue(rs.getObject(4));
+      pValues = ScoreArrayCodec.decodeColumnValue(rs.getObject(5));
+    } catch (IllegalArgumentException e) {
+      throw new SQLException("Could not decode score distribution of " + objectId, e);
+    }
     final TreeMap<Double, Double> scoreDist = new TreeMap<>();
     for (int i = 0; i < scores.length; ++i) {
       scoreDist.put(scores[i], pValues[i]);
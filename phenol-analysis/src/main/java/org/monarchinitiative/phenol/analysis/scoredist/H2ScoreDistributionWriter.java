@@ -1,10 +1,8 @@
 package org.monarchinitiative.phenol.analysis.scoredist;
 
 import java.io.IOException;
-import java.io.Serializable;
 import java.sql.*;
 import java.util.List;
-import java.util.Map.Entry;
 
 import org.monarchinitiative.phenol.ontology.data.TermId;
 import org.slf4j.Logger;
@@ -19,6 +17,12 @@ import org.monarchinitiative.phenol.ontology.scoredist.ScoreDistribution;
  * <p>The database will be automatically created. If it exists, the table has to be re-created or
  * object initialization will fail.
  *
+ * <p>Rows are inserted using JDBC batches of configurable size (see {@link #DEFAULT_BATCH_SIZE}),
+ * each call to {@link #write(int, ScoreDistribution, int)} runs in a single transaction. The scores
+ * and p values are stored as compact little-endian {@code double} arrays in {@code VARBINARY}
+ * columns. For bulk loading a write-once table, index creation can be deferred until all rows have
+ * been inserted, see {@link #H2ScoreDistributionWriter(String, String, boolean, int, boolean)}.
+ *
  * <h4>H2 Dependency Notes</h4>
  *
  * <p>The class itself only uses JDBC. Thus, the ontolib module does not depend on H2 via maven but
@@ -40,13 +44,25 @@ public final class H2ScoreDistributionWriter implements ScoreDistributionWriter
   /** Connection of the database to use. */
   private final Connection conn;
 
+  /** Number of rows to insert with one JDBC batch. */
+  private final int batchSize;
+
+  /** Whether the indices have been created already. */
+  private boolean indicesCreated;
+
+  /** Default number of rows to insert with one JDBC batch. */
+  public static final int DEFAULT_BATCH_SIZE = 1_000;
+
   /** H2 statement for dropping table. */
   private static final String H2_DROP_TABLE_STATEMENT = "DROP TABLE %s";
 
   /** H2 statement for creating table. */
-  private static final String[] H2_CREATE_TABLE_STATEMENTS =
+  private static final String H2_CREATE_TABLE_STATEMENT =
+      "CREATE TABLE %s (num_terms INT, object_id VARCHAR, sample_size INT, scores VARBINARY, p_values VARBINARY)";
+
+  /** H2 statements for creating the indices. */
+  private static final String[] H2_CREATE_INDEX_STATEMENTS =
       new String[] {
-        "CREATE TABLE %s (num_terms INT, object_id VARCHAR, sample_size INT, scores OTHER, p_values OTHER)",
         "CREATE INDEX ON %s (num_terms)",
         "CREATE UNIQUE INDEX ON %s (num_terms, object_id)"
       };
@@ -65,9 +81,37 @@ public final class H2ScoreDistributionWriter implements ScoreDistributionWriter
    */
   public H2ScoreDistributionWriter(String pathDb, String dataTableName, boolean resetTableIfExists)
       throws PhenolException {
+    this(pathDb, dataTableName, resetTableIfExists, DEFAULT_BATCH_SIZE, false);
+  }
+
+  /**
+   * Object constructor.
+   *
+   * @param pathDb Path to the database to use.
+   * @param dataTableName Name of the table to use.
+   * @param resetTableIfExists Whether or not to reset the table if it already exists. Otherwise,
+   *     {@link PhenolException} will be thrown.
+   * @param batchSize Number of rows to send to the database in one JDBC batch, must be positive.
+   * @param deferIndexCreation Whether to create the indices only after all rows have been written,
+   *     i.e. in {@link #createIndices()} or {@link #close()}, rather than together with the table.
+   */
+  public H2ScoreDistributionWriter(
+      String pathDb,
+      String dataTableName,
+      boolean resetTableIfExists,
+      int batchSize,
+      boolean deferIndexCreation)
+      throws PhenolException {
+    if (batchSize <= 0) {
+      throw new PhenolException("Batch size must be positive but was " + batchSize);
+    }
     this.pathDb = pathDb;
     this.tableName = dataTableName;
+    this.batchSize = batchSize;
     this.conn = openConnection(resetTableIfExists);
+    if (!deferIndexCreation) {
+      createIndices();
+    }
   }
 
   /**
@@ -117,51 +161,121 @@ public final class H2ScoreDistributionWriter implements ScoreDistributionWriter
       }
     }
 
-    // CREATE table, add indices
-    LOGGER.info("Creating table {} and indices...", tableName);
-    for (String sql : H2_CREATE_TABLE_STATEMENTS) {
+    // CREATE table
+    LOGGER.info("Creating table {}...", tableName);
+    final String sqlStmt = String.format(H2_CREATE_TABLE_STATEMENT, tableName);
+    LOGGER.info("Executing SQL statement: {}", sqlStmt);
+    try (final PreparedStatement stmt = resultConn.prepareStatement(sqlStmt)) {
+      stmt.executeUpdate();
+    } catch (SQLException e) {
+      throw new PhenolException("Could execute table creation statement: " + sqlStmt, e);
+    }
+
+    LOGGER.info("Successfully connected and configured H2 database file.");
+
+    return resultConn;
+  }
+
+  /**
+   * Create the indices on the table, unless they exist already.
+   *
+   * <p>When index creation has been deferred, call this after the last {@link #write(int,
+   * ScoreDistribution, int)}. Otherwise, it will be called from {@link #close()}.
+   *
+   * @throws PhenolException if there was a problem creating the indices, e.g., because the same
+   *     object has been written twice for the same number of terms.
+   */
+  public void createIndices() throws PhenolException {
+    if (indicesCreated) {
+      return;
+    }
+    LOGGER.info("Creating indices on table {}...", tableName);
+    for (String sql : H2_CREATE_INDEX_STATEMENTS) {
       final String sqlStmt = String.format(sql, tableName);
       LOGGER.info("Executing SQL statement: {}", sqlStmt);
-      try (final PreparedStatement stmt = resultConn.prepareStatement(sqlStmt)) {
+      try (final PreparedStatement stmt = conn.prepareStatement(sqlStmt)) {
         stmt.executeUpdate();
       } catch (SQLException e) {
-        throw new PhenolException("Could execute table creation/index statement: " + sqlStmt, e);
+        throw new PhenolException("Could execute index statement: " + sqlStmt, e);
       }
     }
-
-    LOGGER.info("Successfully connected and configured H2 database file.");
-
-    return resultConn;
+    indicesCreated = true;
   }
 
   @Override
   public void close() throws IOException {
     try {
-      conn.close();
-    } catch (SQLException e) {
-      throw new IOException("Problem closing connection to database", e);
+      createIndices();
+    } catch (PhenolException e) {
+      throw new IOException("Problem creating indices before closing database", e);
+    } finally {
+      try {
+        conn.close();
+      } catch (SQLException e) {
+        throw new IOException("Problem closing connection to database", e);
+      }
     }
   }
 
   @Override
   public void write(int numTerms, ScoreDistribution scoreDistribution, int resolution)
       throws PhenolException {
-    for (TermId objectId : scoreDistribution.getObjectIds()) {
-      final ObjectScoreDistribution dist = scoreDistribution.getObjectScoreDistribution(objectId);
-      writeObjectScoreDistribution(numTerms, dist, resolution);
+    final String sqlStmt = String.format(H2_INSERT_STATEMENT, tableName);
+    try {
+      conn.setAutoCommit(false);
+      try (final PreparedStatement stmt = conn.prepareStatement(sqlStmt)) {
+        int pending = 0;
+        for (TermId objectId : scoreDistribution.getObjectIds()) {
+          final ObjectScoreDistribution dist = scoreDistribution.getObjectScoreDistribution(objectId);
+          addObjectScoreDistribution(stmt, numTerms, dist, resolution);
+          if (++pending == batchSize) {
+            stmt.executeBatch();
+            pending = 0;
+          }
+        }
+        if (pending > 0) {
+          stmt.executeBatch();
+        }
+      }
+      conn.commit();
+    } catch (SQLException e) {
+      rollback();
+      throw new PhenolException("Problem with inserting into score distribution table", e);
+    } catch (PhenolException e) {
+      rollback();
+      throw e;
+    } finally {
+      try {
+        conn.setAutoCommit(true);
+      } catch (SQLException e) {
+        LOGGER.warn("Could not restore auto-commit mode", e);
+      }
+    }
+  }
+
+  /** Roll back the current transaction, logging any problems. */
+  private void rollback() {
+    try {
+      conn.rollback();
+    } catch (SQLException e) {
+      LOGGER.warn("Could not roll back transaction", e);
     }
   }
 
   /**
-   * Write score distribution for one number of terms and one object.
+   * Add score distribution for one number of terms and one object to the current batch of {@code
+   * stmt}.
    *
+   * @param stmt The prepared insert statement.
    * @param numTerms Number of terms to write for.
    * @param dist {@link ObjectScoreDistribution} to write out.
    * @param resolution The resolution, {@code 0} for no change.
-   * @throws PhenolException In case of problems when writing to database.
+   * @throws PhenolException In case of problems with converting the object id.
+   * @throws SQLException In case of problems with adding to the batch.
    */
-  private <T extends Serializable> void writeObjectScoreDistribution(
-      int numTerms, ObjectScoreDistribution dist, int resolution) throws PhenolException {
+  private void addObjectScoreDistribution(
+      PreparedStatement stmt, int numTerms, ObjectScoreDistribution dist, int resolution)
+      throws PhenolException, SQLException {
     final double[] scores;
     final double[] pValues;
 
@@ -182,30 +296,19 @@ public final class H2ScoreDistributionWriter implements ScoreDistributionWriter
         pValues[i] = dist.estimatePValue(score);
       }
     } else {
-      scores = new double[dist.getCumulativeFrequencies().size()];
-      pValues = new double[dist.getCumulativeFrequencies().size()];
-
-      int i = 0;
-      for (Entry<Double, Double> e : dist.getCumulativeFrequencies().entrySet()) {
-        scores[i] = e.getKey();
-        pValues[i] = e.getValue();
-      }
+      scores = dist.getScoreArray();
+      pValues = dist.getCumulativeFrequencyArray();
     }
 
-    final String sqlStmt = String.format(H2_INSERT_STATEMENT, tableName);
-    try (final PreparedStatement stmt = conn.prepareStatement(sqlStmt)) {
-      stmt.setInt(1, numTerms);
-      try {
-        stmt.setString(2, ObjHexStringConverter.object2hex(dist.getObjectId()));
-      } catch (IOException e) {
-        throw new SQLException();
-      }
-      stmt.setInt(3, dist.getSampleSize());
-      stmt.setObject(4, scores);
-      stmt.setObject(5, pValues);
-      stmt.executeUpdate();
-    } catch (SQLException e) {
-      throw new PhenolException("Problem with inserting into score distribution table", e);
+    stmt.setInt(1, numTerms);
+    try {
+      stmt.setString(2, ObjHexStringConverter.object2hex(dist.getObjectId()));
+    } catch (IOException e) {
+      throw new PhenolException("Unable to convert object id to hexadecimal String: " + dist.getObjectId(), e);
     }
+    stmt.setInt(3, dist.getSampleSize());
+    stmt.setBytes(4, ScoreArrayCodec.encode(scores));
+    stmt.setBytes(5, ScoreArrayCodec.encode(pValues));
+    stmt.addBatch();
   }
 }
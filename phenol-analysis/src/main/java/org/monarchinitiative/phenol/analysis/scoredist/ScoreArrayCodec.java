@@ -0,0 +1,65 @@
+package org.monarchinitiative.phenol.analysis.scoredist;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Encode and decode {@code double[]} score and p-value arrays as compact binary blobs.
+ *
+ * <p>The arrays are written as raw little-endian IEEE 754 values without any header, i.e. an array
+ * of {@code n} doubles takes exactly {@code 8 * n} bytes. This is considerably smaller and faster to
+ * (de)serialize than storing the arrays as serialized Java objects.
+ */
+final class ScoreArrayCodec {
+
+  private ScoreArrayCodec() {}
+
+  /**
+   * Encode {@code values} into a byte array.
+   *
+   * @param values The values to encode.
+   * @return {@code byte[]} with {@code 8 * values.length} bytes.
+   */
+  static byte[] encode(double[] values) {
+    final ByteBuffer buffer =
+        ByteBuffer.allocate(values.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.asDoubleBuffer().put(values);
+    return buffer.array();
+  }
+
+  /**
+   * Decode a byte array written by {@link #encode(double[])}.
+   *
+   * @param bytes The bytes to decode.
+   * @return The decoded values.
+   * @throws IllegalArgumentException if length of {@code bytes} is not a multiple of {@code 8}.
+   */
+  static double[] decode(byte[] bytes) {
+    if (bytes.length % Double.BYTES != 0) {
+      throw new IllegalArgumentException(
+          "Length of encoded score array must be a multiple of " + Double.BYTES + " but was " + bytes.length);
+    }
+    final double[] values = new double[bytes.length / Double.BYTES];
+    ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(values);
+    return values;
+  }
+
+  /**
+   * Decode a value that has been read from a database column.
+   *
+   * <p>Tables written by older versions store the arrays as serialized {@code double[]} in an {@code
+   * OTHER} column, newer tables store them as {@code VARBINARY}. Both are supported here.
+   *
+   * @param value The column value as returned by {@link java.sql.ResultSet#getObject(int)}.
+   * @return The decoded values.
+   * @throws IllegalArgumentException if {@code value} is of an unsupported type.
+   */
+  static double[] decodeColumnValue(Object value) {
+    if (value instanceof byte[]) {
+      return decode((byte[]) value);
+    } else if (value instanceof double[]) {
+      return (double[]) value;
+    }
+    throw new IllegalArgumentException("Unsupported score array column value: " + value);
+  }
+}
@@ -0,0 +1,86 @@
+package org.monarchinitiative.phenol.analysis.scoredist;
+
+import org.monarchinitiative.phenol.base.PhenolException;
+import org.monarchinitiative.phenol.base.PhenolRuntimeException;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+import org.monarchinitiative.phenol.ontology.scoredist.ObjectScoreDistribution;
+import org.monarchinitiative.phenol.ontology.scoredist.ScoreDistribution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Convert score distributions between storage formats in bounded memory.
+ *
+ * <p>The typical use case is to convert the text files written during (distributed) precomputation
+ * into an H2 database, e.g., with an {@link H2ScoreDistributionWriter} with deferred index creation.
+ * The records are streamed from the {@link TextFileScoreDistributionReader} and handed to the
+ * {@link ScoreDistributionWriter} in chunks of at most {@code chunkSize} objects per term count, so
+ * at most {@code chunkSize} distributions per term count are held in memory at any time.
+ */
+public final class ScoreDistributionConverter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ScoreDistributionConverter.class);
+
+  /** Default number of object score distributions to hand to the writer at once. */
+  public static final int DEFAULT_CHUNK_SIZE = 10_000;
+
+  private ScoreDistributionConverter() {}
+
+  /**
+   * Copy all remaining records of {@code reader} to {@code writer} using {@link #DEFAULT_CHUNK_SIZE}.
+   *
+   * @see #convert(TextFileScoreDistributionReader, ScoreDistributionWriter, int)
+   */
+  public static long convert(TextFileScoreDistributionReader reader, ScoreDistributionWriter writer)
+      throws PhenolException {
+    return convert(reader, writer, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Copy all remaining records of {@code reader} to {@code writer}.
+   *
+   * <p>The distributions are written without resampling (i.e. with resolution {@code 0}) as they
+   * have already been resampled when writing the text file.
+   *
+   * @param reader The reader to stream the records from.
+   * @param writer The writer to write the records to.
+   * @param chunkSize Largest number of object score distributions per term count to write at once.
+   * @return The number of converted object score distributions.
+   * @throws PhenolException In the case of problems when reading or writing.
+   */
+  public static long convert(TextFileScoreDistributionReader reader, ScoreDistributionWriter writer, int chunkSize)
+      throws PhenolException {
+    if (chunkSize <= 0) {
+      throw new PhenolException("Chunk size must be positive but was " + chunkSize);
+    }
+    final Map<Integer, Map<TermId, ObjectScoreDistribution>> chunks = new HashMap<>();
+    long count = 0;
+    try {
+      final Iterator<ObjectScoreDistribution> iterator = reader.stream().iterator();
+      while (iterator.hasNext()) {
+        final ObjectScoreDistribution dist = iterator.next();
+        final Map<TermId, ObjectScoreDistribution> chunk =
+            chunks.computeIfAbsent(dist.getNumTerms(), k -> new HashMap<>());
+        chunk.put(dist.getObjectId(), dist);
+        if (chunk.size() == chunkSize) {
+          writer.write(dist.getNumTerms(), new ScoreDistribution(dist.getNumTerms(), chunk), 0);
+          chunks.remove(dist.getNumTerms());
+        }
+        if (++count % 100_000 == 0) {
+          LOGGER.info("Converted {} score distributions", count);
+        }
+      }
+    } catch (PhenolRuntimeException e) {
+      throw new PhenolException("Could not read score distributions", e);
+    }
+    for (Map.Entry<Integer, Map<TermId, ObjectScoreDistribution>> e : chunks.entrySet()) {
+      writer.write(e.getKey(), new ScoreDistribution(e.getKey(), e.getValue()), 0);
+    }
+    LOGGER.info("Converted {} score distributions", count);
+    return count;
+  }
+}
@@ -2,12 +2,21 @@ package org.monarchinitiative.phenol.analysis.scoredist;
 
 import java.io.*;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TreeMap;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.codec.DecoderException;
 import org.monarchinitiative.phenol.base.PhenolException;
+import org.monarchinitiative.phenol.base.PhenolRuntimeException;
 import org.monarchinitiative.phenol.ontology.data.TermId;
 import org.monarchinitiative.phenol.ontology.scoredist.ObjectScoreDistribution;
 import org.monarchinitiative.phenol.ontology.scoredist.ScoreDistribution;
@@ -15,6 +24,14 @@ import org.monarchinitiative.phenol.ontology.scoredist.ScoreDistribution;
 /**
  * Class for reading in {@link ScoreDistribution} objects from text files.
  *
+ * <p>Besides the methods of {@link ScoreDistributionReader} that collect the distributions in
+ * memory, the records can be processed one at a time with {@link #stream()} and {@link
+ * #stream(IntPredicate, Predicate)}. Records that are filtered out by term count are skipped
+ * without parsing the object ID or the distribution.
+ *
+ * <p>Note that the reader reads the file only once, each record can only be returned by one call to
+ * any of the reading methods.
+ *
  * @see ScoreDistributionReader
  * @see TextFileScoreDistributionWriter
  * @author <a href="mailto:manuel.holtgrewe@bihealth.de">Manuel Holtgrewe</a>
@@ -61,13 +78,45 @@ public class TextFileScoreDistributionReader implements ScoreDistributionReader
     nextLine = reader.readLine();
   }
 
+  /**
+   * Stream over all remaining records of the file.
+   *
+   * @return Lazily populated {@link Stream} of the {@link ObjectScoreDistribution}s.
+   * @see #stream(IntPredicate, Predicate)
+   */
+  public Stream<ObjectScoreDistribution> stream() {
+    return stream(numTerms -> true, objectId -> true);
+  }
+
+  /**
+   * Stream over the remaining records of the file that pass the given filters.
+   *
+   * <p>The file is read lazily, one record at a time, so memory usage does not depend on the file
+   * size. Problems with reading or parsing are reported as {@link PhenolRuntimeException}.
+   *
+   * @param termCountFilter Records with term counts not accepted by this filter are skipped.
+   * @param objectIdFilter Records with object IDs not accepted by this filter are skipped.
+   * @return Lazily populated {@link Stream} of the {@link ObjectScoreDistribution}s.
+   */
+  public Stream<ObjectScoreDistribution> stream(IntPredicate termCountFilter, Predicate<TermId> objectIdFilter) {
+    final Iterator<ObjectScoreDistribution> iterator = new RecordIterator(termCountFilter, objectIdFilter);
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+  }
+
   @Override
   public ScoreDistribution readForTermCount(int termCount) throws PhenolException {
-    final Map<Integer, ScoreDistribution> allDists = readAll();
-    if (!allDists.containsKey(termCount)) {
+    final Map<TermId, ObjectScoreDistribution> dists = new TreeMap<>();
+    try {
+      stream(numTerms -> numTerms == termCount, objectId -> true)
+          .forEach(dist -> dists.put(dist.getObjectId(), dist));
+    } catch (PhenolRuntimeException e) {
+      throw new PhenolException("Could not load score distributions", e);
+    }
+    if (dists.isEmpty()) {
       throw new PhenolException("Distribution not found for term count: " + termCount);
     } else {
-      return allDists.get(termCount);
+      return new ScoreDistribution(termCount, dists);
     }
   }
 
@@ -76,39 +125,12 @@ public class TextFileScoreDistributionReader implements ScoreDistributionReader
     final Map<Integer, ScoreDistribution> result = new HashMap<>();
 
     final Map<Integer, Map<TermId, ObjectScoreDistribution>> tmp = new HashMap<>();
-
-    while (nextLine != null) {
-      final String[] arr = nextLine.trim().split("\t");
-      final int numTerms = Integer.parseInt(arr[0]);
-      //final int entrezId = Integer.parseInt(arr[1]);
-      final TermId entrezId;
-      try {
-        entrezId = (TermId) ObjHexStringConverter.hex2obj(arr[1]);
-      } catch (DecoderException | IOException | ClassNotFoundException e) {
-        throw new PhenolException("Failed to parse hexadecimal string to object: " + arr[1]);
-      }
-      final int sampleSize = Integer.parseInt(arr[2]);
-      final String dist = arr[3];
-
-      final TreeMap<Double, Double> cumFreqs = new TreeMap<>();
-      for (String pairStr : dist.split(",")) {
-        final String[] pair = pairStr.split(":");
-        cumFreqs.put(Double.parseDouble(pair[0]), Double.parseDouble(pair[1]));
-      }
-
-      final ObjectScoreDistribution scoreDist =
-          new ObjectScoreDistribution(entrezId, numTerms, sampleSize, cumFreqs);
-
-      if (!tmp.containsKey(numTerms)) {
-        tmp.put(numTerms, new TreeMap<>());
-      }
-      tmp.get(numTerms).put(entrezId, scoreDist);
-
-      try {
-        nextLine = reader.readLine();
-      } catch (IOException e) {
-        throw new PhenolException("Could not load score distributions", e);
-      }
+    try {
+      stream().forEach(
+          dist -> tmp.computeIfAbsent(dist.getNumTerms(), k -> new TreeMap<>())
+              .put(dist.getObjectId(), dist));
+    } catch (PhenolRuntimeException e) {
+      throw new PhenolException("Could not load score distributions", e);
     }
 
     for (Entry<Integer, Map<TermId, ObjectScoreDistribution>> e : tmp.entrySet()) {
@@ -122,13 +144,13 @@ public class TextFileScoreDistributionReader implements ScoreDistributionReader
   @Override
   public ObjectScoreDistribution readForTermCountAndObject(int termCount, TermId objectId)
       throws PhenolException {
-    final ObjectScoreDistribution result =
-        readForTermCount(termCount).getObjectScoreDistribution(objectId);
-    if (result == null) {
-      throw new PhenolException(
-          "Distribution not found for term count: " + termCount + " and object ID: " + objectId);
-    } else {
-      return result;
+    try {
+      return stream(numTerms -> numTerms == termCount, objectId::equals)
+          .findFirst()
+          .orElseThrow(() -> new PhenolException(
+              "Distribution not found for term count: " + termCount + " and object ID: " + objectId));
+    } catch (PhenolRuntimeException e) {
+      throw new PhenolException("Could not load score distributions", e);
     }
   }
 
@@ -136,4 +158,98 @@ public class TextFileScoreDistributionReader implements ScoreDistributionReader
   public void close() throws IOException {
     this.reader.close();
   }
+
+  /**
+   * Parse the cumulative frequencies from the "distribution" column.
+   *
+   * @param dist Comma-separated {@code score:frequency} pairs.
+   * @return Mapping from score to cumulative frequency.
+   */
+  private static TreeMap<Double, Double> parseCumulativeFrequencies(String dist) {
+    final TreeMap<Double, Double> cumFreqs = new TreeMap<>();
+    int start = 0;
+    while (start < dist.length()) {
+      int end = dist.indexOf(',', start);
+      if (end < 0) {
+        end = dist.length();
+      }
+      final int colon = dist.indexOf(':', start);
+      if (colon < 0 || colon > end) {
+        throw new NumberFormatException("Invalid score:frequency pair: " + dist.substring(start, end));
+      }
+      cumFreqs.put(Double.parseDouble(dist.substring(start, colon)), Double.parseDouble(dist.substring(colon + 1, end)));
+      start = end + 1;
+    }
+    return cumFreqs;
+  }
+
+  /** Iterator over the remaining records of the file that reads one line at a time. */
+  private class RecordIterator implements Iterator<ObjectScoreDistribution> {
+
+    private final IntPredicate termCountFilter;
+
+    private final Predicate<TermId> objectIdFilter;
+
+    /** The next record to return, {@code null} if not yet read. */
+    private ObjectScoreDistribution next;
+
+    private RecordIterator(IntPredicate termCountFilter, Predicate<TermId> objectIdFilter) {
+      this.termCountFilter = termCountFilter;
+      this.objectIdFilter = objectIdFilter;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (next == null && nextLine != null) {
+        try {
+          next = parseLine(nextLine);
+        } catch (NumberFormatException e) {
+          throw new PhenolRuntimeException("Invalid number in line: " + nextLine, e);
+        }
+        try {
+          nextLine = reader.readLine();
+        } catch (IOException e) {
+          throw new PhenolRuntimeException("Could not read from " + inputFile, e);
+        }
+      }
+      return next != null;
+    }
+
+    @Override
+    public ObjectScoreDistribution next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final ObjectScoreDistribution result = next;
+      next = null;
+      return result;
+    }
+
+    /**
+     * Parse the given line.
+     *
+     * @return The parsed distribution or {@code null} if the line did not pass the filters.
+     */
+    private ObjectScoreDistribution parseLine(String line) {
+      final String[] arr = line.trim().split("\t");
+      if (arr.length != 4) {
+        throw new PhenolRuntimeException("Expected 4 columns but found " + arr.length + " in line: " + line);
+      }
+      final int numTerms = Integer.parseInt(arr[0]);
+      if (!termCountFilter.test(numTerms)) {
+        return null;
+      }
+      final TermId objectId;
+      try {
+        objectId = (TermId) ObjHexStringConverter.hex2obj(arr[1]);
+      } catch (DecoderException | IOException | ClassNotFoundException e) {
+        throw new PhenolRuntimeException("Failed to parse hexadecimal string to object: " + arr[1], e);
+      }
+      if (!objectIdFilter.test(objectId)) {
+        return null;
+      }
+      final int sampleSize = Integer.parseInt(arr[2]);
+      return new ObjectScoreDistribution(objectId, numTerms, sampleSize, parseCumulativeFrequencies(arr[3]));
+    }
+  }
 }
@@ -3,7 +3,6 @@ package org.monarchinitiative.phenol.analysis.scoredist;
 import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map.Entry;
 
 import org.monarchinitiative.phenol.ontology.data.TermId;
 import org.monarchinitiative.phenol.ontology.scoredist.ObjectScoreDistribution;
@@ -52,8 +51,10 @@ public class TextFileScoreDistributionWriter implements ScoreDistributionWriter
           points.add(score + ":" + pValue);
         }
       } else {
-        for (Entry<Double, Double> e : dist.getCumulativeFrequencies().entrySet()) {
-          points.add(e.getKey() + ":" + e.getValue());
+        final double[] observedScores = dist.getScoreArray();
+        final double[] cumulativeFrequencies = dist.getCumulativeFrequencyArray();
+        for (int i = 0; i < observedScores.length; ++i) {
+          points.add(observedScores[i] + ":" + cumulativeFrequencies[i]);
         }
       }
 
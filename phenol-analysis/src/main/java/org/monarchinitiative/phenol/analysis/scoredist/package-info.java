@@ -4,7 +4,9 @@
  * <p>Currently, score distributions can be read from and written to text files and H2 database
  * files. When generating scores, the text format is useful, the distributions can then be merged
  * into a table in an H2 database files. The final apps can then use the H2 database for smaller
- * file size and high query performance.
+ * file size and high query performance. Use {@link
+ * org.monarchinitiative.phenol.analysis.scoredist.ScoreDistributionConverter} for converting large
+ * text files in bounded memory.
  *
  * <h4>H2 Dependency Notes</h4>
  *
@@ -1,34 +1,68 @@
 package org.monarchinitiative.phenol.analysis.stats;
 
 
-import java.util.Vector;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class with static methods to calculate probabilities according to the
  * hypergeometric distribution.
+ * <p>
+ * Log factorials are looked up in an immutable, precomputed table and results of
+ * {@link #phypergeometric(int, int, int, int)} are memoized, because many terms of an ontology share
+ * the same annotation counts. Instances are therefore safe to share between threads, e.g., across
+ * concurrent enrichment analyses with the same population.
+ * </p>
  *
  * @author Peter N. Robinson, Sebastian Bauer
  */
 
 public class Hypergeometric {
 
+  /** Size of the log factorial table that is shared by all instances for populations up to this size. */
+  public static final int DEFAULT_TABLE_SIZE = 32_768;
+
+  /** Maximum number of memoized p values per instance, further results are calculated but not stored. */
+  private static final int MAX_CACHE_SIZE = 100_000;
+
   /**
-   * Initialize the object lfactorial, which will act as a cache for log
-   * factorial calculations.
+   * Table with the log factorials for each index value. Values beyond the table are calculated
+   * with Stirling's series.
    */
-  public Hypergeometric() {
+  private final double[] lfactorial;
 
-    lfactorial = new Vector<>();
-    lfactorial.add(0, 0.0); /* 0! = 1, therefore let log(0)=0 */
-    lfactorial.add(1, 0.0);
+  /** Memoized results of {@link #phypergeometric(int, int, int, int)}. */
+  private final Map<PValueKey, Double> pValueCache = new ConcurrentHashMap<>();
 
+  /**
+   * Create an object with a log factorial table of size {@link #DEFAULT_TABLE_SIZE}.
+   */
+  public Hypergeometric() {
+    this(DEFAULT_TABLE_SIZE);
   }
 
   /**
-   * This Vector contains log factorials for each index value and acts as a
-   * cache.
+   * Create an object whose log factorial table covers populations of the given size.
+   *
+   * @param populationSize the largest number of items (e.g., genes) expected in the population
    */
-  private final Vector<Double> lfactorial;
+  public Hypergeometric(int populationSize) {
+    this.lfactorial = populationSize <= DEFAULT_TABLE_SIZE ? DefaultTable.LFACTORIAL : logFactorialTable(populationSize);
+  }
+
+  private static double[] logFactorialTable(int maxN) {
+    double[] table = new double[maxN + 1];
+    table[0] = 0.0; /* 0! = 1, therefore let log(0)=0 */
+    for (int j = 1; j <= maxN; j++) {
+      table[j] = table[j - 1] + Math.log(j);
+    }
+    return table;
+  }
+
+  /** Holder of the shared default table, which is only computed if it is used. */
+  private static final class DefaultTable {
+    private static final double[] LFACTORIAL = logFactorialTable(DEFAULT_TABLE_SIZE);
+  }
 
   /**
    * <p>
@@ -76,6 +110,9 @@ public class Hypergeometric {
     double q = 1.0 - p;
     int np = (int) Math.round(n * p); // Round to nearest int
     int nq = (int) Math.round(n * q);
+    if (np + nq == n) {
+      return phypergeometric(n, np, k, r);
+    }
 
     double log_n_choose_k = lNchooseK(n, k);
     int top = Math.min(np, k);
@@ -120,6 +157,19 @@ public class Hypergeometric {
       return 1.0; // Not valid, probably something wrong with input data
     }
 
+    PValueKey key = new PValueKey(m, m_t, n, n_t);
+    Double cached = pValueCache.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    double sum = upperTail(m, m_t, n, n_t);
+    if (pValueCache.size() < MAX_CACHE_SIZE) {
+      pValueCache.put(key, sum);
+    }
+    return sum;
+  }
+
+  private double upperTail(int m, int m_t, int n, int n_t) {
     int nq = m - m_t;
     double log_n_choose_k = lNchooseK(m, n);
     int top = Math.min(m_t, n);
@@ -221,26 +271,45 @@ public class Hypergeometric {
   }
 
   /**
-   * return the log factorial of i. Use a cache to avoid repeatedly
-   * calculating this. If we have a cache miss, fill up all values from the
-   * last valid cache value to the value we currently need.
+   * return the log factorial of i. Values within the precomputed table are looked
+   * up, larger values are calculated with Stirling's series for log(i!).
    */
   public double logfact(int i) {
-    /*
-     * Make sure value is already in lfactorial. If not, calculate all
-     * values up to that for i
-     */
-    if (i > (lfactorial.size() - 1)) {
-      for (int j = lfactorial.size(); j <= i; j++) {
-        double lf = lfactorial.get(j - 1)
-          + Math.log(j);
-        lfactorial.add(j, lf);
-      }
+    if (i < lfactorial.length) {
+      return lfactorial[i];
     }
-
-    return lfactorial.get(i);
+    double x = i;
+    double x2 = x * x;
+    return x * Math.log(x) - x + 0.5 * Math.log(2.0 * Math.PI * x)
+      + (1.0 / 12.0 - (1.0 / 360.0 - 1.0 / (1260.0 * x2)) / x2) / x;
   }
 
+  /** Key for the memoized p values. */
+  private static final class PValueKey {
+    private final int m;
+    private final int m_t;
+    private final int n;
+    private final int n_t;
+
+    private PValueKey(int m, int m_t, int n, int n_t) {
+      this.m = m;
+      this.m_t = m_t;
+      this.n = n;
+      this.n_t = n_t;
+    }
 
-}
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof PValueKey)) return false;
+      PValueKey other = (PValueKey) o;
+      return m == other.m && m_t == other.m_t && n == other.n && n_t == other.n_t;
+    }
 
+    @Override
+    public int hashCode() {
+      return ((m * 31 + m_t) * 31 + n) * 31 + n_t;
+    }
+  }
+
+}
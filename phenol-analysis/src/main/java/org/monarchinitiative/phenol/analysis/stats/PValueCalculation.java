@@ -48,7 +48,7 @@ public abstract class PValueCalculation {
     this.ontology = graph;
     this.populationSet = populationSet;
     this.studySet = studySet;
-    this.hyperg = new Hypergeometric();
+    this.hyperg = new Hypergeometric(populationSet.getAnnotatedItemCount());
     this.testCorrection = mtc;
    // initAssociationMap(graph);
   }
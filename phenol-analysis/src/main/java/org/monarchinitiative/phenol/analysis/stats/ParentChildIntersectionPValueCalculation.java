@@ -1,14 +1,10 @@
 package org.monarchinitiative.phenol.analysis.stats;
 
 
+import org.monarchinitiative.phenol.analysis.AnnotationBitsetMatrix;
 import org.monarchinitiative.phenol.analysis.StudySet;
 import org.monarchinitiative.phenol.ontology.data.Ontology;
-import org.monarchinitiative.phenol.ontology.data.TermId;
 import org.monarchinitiative.phenol.analysis.stats.mtc.MultipleTestingCorrection;
-import org.monarchinitiative.phenol.utils.Sets;
-
-import java.util.HashSet;
-import java.util.Set;
 
 /**
  * Calculate p-values according to Grossmann S, Bauer S, Robinson PN, Vingron M.
@@ -22,30 +18,29 @@ public class ParentChildIntersectionPValueCalculation extends ParentChildPValues
                                                   StudySet populationSet,
                                                   StudySet studySet,
                                                   MultipleTestingCorrection mtc) {
-		super(graph, populationSet, studySet, mtc);
+		this(graph, populationSet, studySet, AnnotationBitsetMatrix.of(populationSet), mtc);
 	}
 
-  @Override
-  protected Counts getCounts(TermId goId, Iterable<TermId> parents) {
-    Set<TermId> parentsIntersection = new HashSet<>();
-    Set<TermId> genesAnnotatedToGoId = populationSet.getAnnotationMap().get(goId).getTotalAnnotatedDomainItemSet();
-    int m_t = genesAnnotatedToGoId.size(); // number of genes in population annotated to t
-    // the following step performs an intersection with the study set genes
-    Set<TermId> studs = studySet.getGeneSet();
-    int n_t = Sets.intersection(studs, genesAnnotatedToGoId).size();// number of genes in study set annotated to t
-    for (TermId par : parents) {
-      Set<TermId>  annotedGeneIds = populationSet.getAnnotationMap().get(par).getTotalAnnotatedDomainItemSet();
-      if (parentsIntersection.isEmpty()) {
-        parentsIntersection.addAll(annotedGeneIds);
-      } else {
-        // the following is set intersection
-        parentsIntersection.retainAll(annotedGeneIds);
-      }
-    }
-    int m_pa_t = parentsIntersection.size();
-    int n_pa_t = Sets.intersection(studs, parentsIntersection).size();
-    return new Counts(n_pa_t, m_pa_t, n_t, m_t);
+  private ParentChildIntersectionPValueCalculation(Ontology graph,
+                                                   StudySet populationSet,
+                                                   StudySet studySet,
+                                                   AnnotationBitsetMatrix populationMatrix,
+                                                   MultipleTestingCorrection mtc) {
+    this(graph, populationSet, studySet, populationMatrix, populationMatrix.parentIntersection(graph.graph()), mtc);
   }
 
-
+  /**
+   * Use this constructor to analyze several study sets against the same population.
+   *
+   * @param populationMatrix         annotations of the population, see {@link AnnotationBitsetMatrix#of(StudySet)}
+   * @param parentIntersectionMatrix {@code populationMatrix.parentIntersection(graph.graph())}
+   */
+  public ParentChildIntersectionPValueCalculation(Ontology graph,
+                                                  StudySet populationSet,
+                                                  StudySet studySet,
+                                                  AnnotationBitsetMatrix populationMatrix,
+                                                  AnnotationBitsetMatrix parentIntersectionMatrix,
+                                                  MultipleTestingCorrection mtc) {
+    super(graph, populationSet, studySet, populationMatrix, parentIntersectionMatrix, mtc);
+  }
 }
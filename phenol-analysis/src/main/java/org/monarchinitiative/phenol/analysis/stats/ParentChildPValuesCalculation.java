@@ -1,5 +1,6 @@
 package org.monarchinitiative.phenol.analysis.stats;
 
+import org.monarchinitiative.phenol.analysis.AnnotationBitsetMatrix;
 import org.monarchinitiative.phenol.analysis.DirectAndIndirectTermAnnotations;
 import org.monarchinitiative.phenol.analysis.StudySet;
 import org.monarchinitiative.phenol.ontology.data.Ontology;
@@ -30,13 +31,75 @@ public abstract class ParentChildPValuesCalculation extends PValueCalculation {
   private final TermId OWL_THING = TermId.of("owl:Thing");
 
   protected final Map<TermId, DirectAndIndirectTermAnnotations> studySetAnnotationMap;
+  /** Total annotations of the population. */
+  protected final AnnotationBitsetMatrix populationMatrix;
+  /** Population items annotated to the parent(s) of each term, same rows and columns as {@link #populationMatrix}. */
+  protected final AnnotationBitsetMatrix parentMatrix;
+  /** The study set items encoded over the columns of {@link #populationMatrix}. */
+  protected final long[] studyBitset;
+  // true if the counts are calculated by a subclass that overrides getCounts(TermId, Iterable)
+  private final boolean legacyCounts;
 
+  /**
+   * @deprecated use {@link #ParentChildPValuesCalculation(Ontology, StudySet, StudySet, AnnotationBitsetMatrix, AnnotationBitsetMatrix, MultipleTestingCorrection)}
+   * and the precomputed {@link #getCounts(TermId)} instead. The counts of a calculation created with this constructor
+   * are obtained from {@link #getCounts(TermId, Iterable)}. The constructor will be removed in <em>3.0.0</em>.
+   */
+  // REMOVE(3.0.0)
+  @Deprecated(forRemoval = true, since = "2.1.4")
   public ParentChildPValuesCalculation(Ontology graph,
                                        StudySet populationSet,
                                        StudySet studySet,
                                        MultipleTestingCorrection mtc) {
+    this(graph, populationSet, studySet, AnnotationBitsetMatrix.of(populationSet), mtc);
+  }
+
+  private ParentChildPValuesCalculation(Ontology graph,
+                                        StudySet populationSet,
+                                        StudySet studySet,
+                                        AnnotationBitsetMatrix populationMatrix,
+                                        MultipleTestingCorrection mtc) {
+    // The parent matrix is not used, the subclass counts the parent annotations in getCounts(TermId, Iterable).
+    this(graph, populationSet, studySet, populationMatrix, populationMatrix, mtc, true);
+  }
+
+  /**
+   * The population matrix and the parent matrix depend only on the population and can be shared by the
+   * calculations of any number of study sets.
+   *
+   * @param graph            the ontology
+   * @param populationSet    the population
+   * @param studySet         the study set
+   * @param populationMatrix annotations of the population, see {@link AnnotationBitsetMatrix#of(StudySet)}
+   * @param parentMatrix     parent annotations of the population, as derived from the population matrix by the subclass
+   * @param mtc              the multiple testing correction to apply
+   */
+  protected ParentChildPValuesCalculation(Ontology graph,
+                                          StudySet populationSet,
+                                          StudySet studySet,
+                                          AnnotationBitsetMatrix populationMatrix,
+                                          AnnotationBitsetMatrix parentMatrix,
+                                          MultipleTestingCorrection mtc) {
+    this(graph, populationSet, studySet, populationMatrix, parentMatrix, mtc, false);
+  }
+
+  private ParentChildPValuesCalculation(Ontology graph,
+                                        StudySet populationSet,
+                                        StudySet studySet,
+                                        AnnotationBitsetMatrix populationMatrix,
+                                        AnnotationBitsetMatrix parentMatrix,
+                                        MultipleTestingCorrection mtc,
+                                        boolean legacyCounts) {
     super(graph, populationSet, studySet, mtc);
+    if (populationMatrix.getItemCount() != parentMatrix.getItemCount()
+      || populationMatrix.getTermCount() != parentMatrix.getTermCount()) {
+      throw new IllegalArgumentException("Parent matrix was not derived from the population matrix");
+    }
     this.studySetAnnotationMap = this.studySet.getAnnotationMap();
+    this.populationMatrix = populationMatrix;
+    this.parentMatrix = parentMatrix;
+    this.studyBitset = populationMatrix.itemBitset(studySet.getGeneSet());
+    this.legacyCounts = legacyCounts;
   }
 
   @Override
@@ -68,8 +131,9 @@ public abstract class ParentChildPValuesCalculation extends PValueCalculation {
          * The study gene count is identical as with term for term, but we need to substitute the counts for the population
          */
 
-        // get parents of current GO term. Do not include original term in this set
-        Counts count = getCounts(goId, ontology.graph().getParents(goId, false));
+        Counts count = legacyCounts
+          ? getCounts(goId, ontology.graph().getParents(goId))
+          : getCounts(goId);
         double raw_pval;
         int m_pa_t = count.m_pa_t;
         int n_pa_t = count.n_pa_t;
@@ -146,12 +210,37 @@ public abstract class ParentChildPValuesCalculation extends PValueCalculation {
   }
 
   /**
-   * Calculate the counts for the given study set ids for the term.
-   * Implemented by the PC Union/Intersection subclasses.
+   * Calculate the counts for the given study set ids for the term. The population counts are
+   * precomputed, and the study counts are obtained by intersecting the study bitset with the rows of
+   * the term in the population and parent matrices.
+   *
+   * @return the count structure.
+   */
+  protected Counts getCounts(TermId goId) {
+    int row = populationMatrix.getTermIndex(goId);
+    if (row < 0) {
+      return new Counts(0, 0, 0, 0);
+    }
+    int m_t = populationMatrix.getTotalAnnotationCount(row); // number of genes in population annotated to t
+    int n_t = populationMatrix.countAnnotated(row, studyBitset); // number of genes in study set annotated to t
+    int m_pa_t = parentMatrix.getTotalAnnotationCount(row);
+    int n_pa_t = parentMatrix.countAnnotated(row, studyBitset);
+    return new Counts(n_pa_t, m_pa_t, n_t, m_t);
+  }
+
+  /**
+   * Calculate the counts for the given study set ids for the term and its parents.
    *
    * @return the count structure.
+   * @deprecated only called for the calculations created with the deprecated
+   * {@link #ParentChildPValuesCalculation(Ontology, StudySet, StudySet, MultipleTestingCorrection)} constructor.
+   * The method will be removed in <em>3.0.0</em>.
    */
-  protected abstract Counts getCounts(TermId goId, Iterable<TermId> parents);
+  // REMOVE(3.0.0)
+  @Deprecated(forRemoval = true, since = "2.1.4")
+  protected Counts getCounts(TermId goId, Iterable<TermId> parents) {
+    return getCounts(goId);
+  }
 
 
 }
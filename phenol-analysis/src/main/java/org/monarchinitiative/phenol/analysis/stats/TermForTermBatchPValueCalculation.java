@@ -0,0 +1,174 @@
+package org.monarchinitiative.phenol.analysis.stats;
+
+import org.monarchinitiative.phenol.analysis.AnnotationBitsetMatrix;
+import org.monarchinitiative.phenol.analysis.AssociationContainer;
+import org.monarchinitiative.phenol.analysis.StudySet;
+import org.monarchinitiative.phenol.analysis.stats.mtc.MultipleTestingCorrection;
+import org.monarchinitiative.phenol.base.PhenolRuntimeException;
+import org.monarchinitiative.phenol.ontology.data.MinimalOntology;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Term-for-term analysis of many study sets against one shared population.
+ * <p>
+ * The propagated annotations of the population are prepared once as an {@link AnnotationBitsetMatrix},
+ * and a single {@link Hypergeometric} is shared by all study sets, so that each study set only costs
+ * the encoding of its items and the counting of the annotations. Study sets are given as plain
+ * collections of items (e.g., genes) and are not propagated to {@link StudySet} objects.
+ * </p>
+ * <p>
+ * Many study sets can be evaluated in parallel on a caller-supplied {@link Executor} with
+ * {@link #calculatePVals(Map, Executor)}, which streams the results of each study set as soon as
+ * they are available. Instances are immutable and can be used from several threads.
+ * </p>
+ */
+public class TermForTermBatchPValueCalculation {
+
+  private final MinimalOntology ontology;
+
+  private final AnnotationBitsetMatrix populationMatrix;
+
+  private final Hypergeometric hyperg;
+
+  private final MultipleTestingCorrection testCorrection;
+
+  /**
+   * @param ontology         the ontology
+   * @param populationMatrix annotations of the population
+   * @param mtc              the multiple testing correction to apply to each study set
+   */
+  public TermForTermBatchPValueCalculation(MinimalOntology ontology,
+                                           AnnotationBitsetMatrix populationMatrix,
+                                           MultipleTestingCorrection mtc) {
+    this.ontology = ontology;
+    this.populationMatrix = populationMatrix;
+    this.hyperg = new Hypergeometric(populationMatrix.getItemCount());
+    this.testCorrection = mtc;
+  }
+
+  /**
+   * @param ontology      the ontology
+   * @param populationSet the population with propagated annotations
+   * @param mtc           the multiple testing correction to apply to each study set
+   */
+  public TermForTermBatchPValueCalculation(MinimalOntology ontology,
+                                           StudySet populationSet,
+                                           MultipleTestingCorrection mtc) {
+    this(ontology, AnnotationBitsetMatrix.of(populationSet), mtc);
+  }
+
+  /**
+   * Propagate the annotations of the population items once and prepare the batch calculation.
+   *
+   * @param ontology        the ontology
+   * @param container       the associations of the items
+   * @param populationItems the items (e.g., genes) of the population
+   * @param mtc             the multiple testing correction to apply to each study set
+   * @return calculation for study sets drawn from the population
+   */
+  public static TermForTermBatchPValueCalculation of(MinimalOntology ontology,
+                                                     AssociationContainer<TermId> container,
+                                                     Set<TermId> populationItems,
+                                                     MultipleTestingCorrection mtc) {
+    return new TermForTermBatchPValueCalculation(ontology,
+      AnnotationBitsetMatrix.of(container.getAssociationMap(populationItems)), mtc);
+  }
+
+  public AnnotationBitsetMatrix getPopulationMatrix() {
+    return populationMatrix;
+  }
+
+  /**
+   * @param studyItems the items (e.g., genes) of one study set
+   * @return List of results with p values and study/population counts for each term.
+   */
+  public List<GoTerm2PValAndCounts> calculatePVals(Collection<TermId> studyItems) {
+    return new TermForTermBitsetPValueCalculation(ontology, populationMatrix, studyItems, testCorrection, hyperg)
+      .calculatePVals();
+  }
+
+  /**
+   * Evaluate the given study sets in parallel.
+   * <p>
+   * All study sets are submitted to the executor when this method is called. The returned stream yields
+   * the results in the order in which the study sets complete, and blocks until the next one is
+   * available. A failure of a study set is reported as {@link PhenolRuntimeException} when the stream
+   * reaches it.
+   * </p>
+   *
+   * @param studySets Key: name of a study set, value: the items of the study set.
+   * @param executor  executor to run the study sets on
+   * @return stream with the results of each study set
+   */
+  public Stream<StudySetPValues> calculatePVals(Map<String, ? extends Collection<TermId>> studySets,
+                                                Executor executor) {
+    CompletionService<StudySetPValues> completionService = new ExecutorCompletionService<>(executor);
+    for (Map.Entry<String, ? extends Collection<TermId>> e : studySets.entrySet()) {
+      String name = e.getKey();
+      Collection<TermId> studyItems = e.getValue();
+      completionService.submit(() -> new StudySetPValues(name, calculatePVals(studyItems)));
+    }
+    int total = studySets.size();
+    Iterator<StudySetPValues> iterator = new Iterator<>() {
+      private int taken = 0;
+
+      @Override
+      public boolean hasNext() {
+        return taken < total;
+      }
+
+      @Override
+      public StudySetPValues next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        taken++;
+        try {
+          return completionService.take().get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new PhenolRuntimeException("Interrupted while waiting for study set results", e);
+        } catch (ExecutionException e) {
+          throw new PhenolRuntimeException("Could not calculate p values of study set", e.getCause());
+        }
+      }
+    };
+    return StreamSupport.stream(Spliterators.spliterator(iterator, total, Spliterator.NONNULL), false);
+  }
+
+  /**
+   * The term-for-term results of one study set.
+   */
+  public static final class StudySetPValues {
+    private final String name;
+    private final List<GoTerm2PValAndCounts> pValues;
+
+    StudySetPValues(String name, List<GoTerm2PValAndCounts> pValues) {
+      this.name = name;
+      this.pValues = pValues;
+    }
+
+    /** @return name of the study set */
+    public String getName() {
+      return name;
+    }
+
+    /** @return results with p values and study/population counts for each term */
+    public List<GoTerm2PValAndCounts> getPValues() {
+      return pValues;
+    }
+
+    @Override
+    public String toString() {
+      return name + " (" + pValues.size() + " p values)";
+    }
+  }
+}
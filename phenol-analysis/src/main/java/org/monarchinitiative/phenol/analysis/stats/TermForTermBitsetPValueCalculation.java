@@ -0,0 +1,86 @@
+package org.monarchinitiative.phenol.analysis.stats;
+
+import org.monarchinitiative.phenol.analysis.AnnotationBitsetMatrix;
+import org.monarchinitiative.phenol.analysis.StudySet;
+import org.monarchinitiative.phenol.analysis.stats.mtc.MultipleTestingCorrection;
+import org.monarchinitiative.phenol.ontology.data.MinimalOntology;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Term-for-term p-value calculation on an {@link AnnotationBitsetMatrix} of the population.
+ * <p>
+ * This calculation gives the same results as {@link TermForTermPValueCalculation}, but the study set is
+ * passed as plain collection of items and does not need to be propagated to a {@link StudySet}. The
+ * study counts of all terms are obtained from the bitset encoding of the study items, so that the
+ * (expensive) population matrix can be built once and reused for any number of study sets.
+ * </p>
+ * <p>
+ * Study items that are not part of the population are ignored. Since no {@link StudySet} objects are used,
+ * the {@link #populationSet} and {@link #studySet} fields of the base class are {@code null}.
+ * </p>
+ */
+public class TermForTermBitsetPValueCalculation extends PValueCalculation {
+
+  private final AnnotationBitsetMatrix populationMatrix;
+
+  private final long[] studyBitset;
+
+  /**
+   * @param graph            the ontology
+   * @param populationMatrix annotations of the population
+   * @param studyItems       the items (e.g., genes) of the study set
+   * @param mtc              the multiple testing correction to apply
+   */
+  public TermForTermBitsetPValueCalculation(MinimalOntology graph,
+                                            AnnotationBitsetMatrix populationMatrix,
+                                            Collection<TermId> studyItems,
+                                            MultipleTestingCorrection mtc) {
+    this(graph, populationMatrix, studyItems, mtc, new Hypergeometric(populationMatrix.getItemCount()));
+  }
+
+  /** Constructor that shares the given (thread-safe) {@link Hypergeometric} with other calculations. */
+  TermForTermBitsetPValueCalculation(MinimalOntology graph,
+                                     AnnotationBitsetMatrix populationMatrix,
+                                     Collection<TermId> studyItems,
+                                     MultipleTestingCorrection mtc,
+                                     Hypergeometric hyperg) {
+    this.ontology = graph;
+    this.hyperg = hyperg;
+    this.testCorrection = mtc;
+    this.populationMatrix = populationMatrix;
+    this.studyBitset = populationMatrix.itemBitset(studyItems);
+  }
+
+  /**
+   * Calculate the term-for-term p values for each ontology term being analyzed.
+   * Put all terms with at least two annotated genes in the study set into the
+   * list of results and discard other terms.
+   * @return List of results with p values and study/population counts for each term.
+   */
+  @Override
+  public List<GoTerm2PValAndCounts> calculatePVals() {
+    List<GoTerm2PValAndCounts> results = new ArrayList<>();
+    int popGeneCount = populationMatrix.getItemCount();
+    int studyGeneCount = AnnotationBitsetMatrix.cardinality(studyBitset);
+    for (int row = 0; row < populationMatrix.getTermCount(); row++) {
+      int goidAnnotatedStudyGeneCount = populationMatrix.countAnnotated(row, studyBitset);
+      if (goidAnnotatedStudyGeneCount < 2) {
+        continue; // at most a single annotated entry -- do not perform a statistical test
+      }
+      int goidAnnotatedPopGeneCount = populationMatrix.getTotalAnnotationCount(row);
+      double raw_pval = hyperg.phypergeometric(popGeneCount,
+        (double) goidAnnotatedPopGeneCount / (double) popGeneCount,
+        studyGeneCount,
+        goidAnnotatedStudyGeneCount);
+      results.add(new GoTerm2PValAndCounts(populationMatrix.getTermId(row), raw_pval,
+        goidAnnotatedStudyGeneCount, studyGeneCount, goidAnnotatedPopGeneCount, popGeneCount));
+    }
+    // Now do multiple testing correction
+    this.testCorrection.adjustPvals(results);
+    return results;
+  }
+}
@@ -0,0 +1,17 @@
+package org.monarchinitiative.phenol.analysis.stats.mtc;
+
+/**
+ * A multiple test correction that needs nothing but the raw p values and can therefore adjust an array
+ * of p values without creating a {@link org.monarchinitiative.phenol.analysis.stats.PValue} object per test.
+ */
+public interface ArrayMultipleTestingCorrection extends MultipleTestingCorrection {
+
+  /**
+   * Perform multiple test correction on an array of raw p values, e.g., for very large numbers of
+   * tests. The p values are adjusted in place, i.e., each entry is replaced by its adjusted p value
+   * and the order of the array is kept.
+   *
+   * @param pvals raw p values, replaced by the adjusted p values
+   */
+  void adjustPvals(double[] pvals);
+}
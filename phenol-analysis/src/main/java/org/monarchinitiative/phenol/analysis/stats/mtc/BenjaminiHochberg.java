@@ -22,18 +22,19 @@ import java.util.List;
  * @author Sebastian Bauer
  *
  */
-public class BenjaminiHochberg implements MultipleTestingCorrection
+public class BenjaminiHochberg implements ArrayMultipleTestingCorrection
 {
   @Override
   public void adjustPvals(List<? extends PValue> pvals) {
     Collections.sort(pvals);
-    int N=pvals.size();
-    for (int r=0;r<N;r++) {
-      PValue item = pvals.get(r);
-      double raw_p = item.getRawPValue();
-      item.setAdjustedPValue(raw_p * N/(r+1));
-    }
-    enforcePValueMonotony(pvals);
+    double[] p = PValueArrays.rawPValues(pvals);
+    adjustPvals(p);
+    PValueArrays.setAdjustedPValues(pvals, p);
+  }
+
+  @Override
+  public void adjustPvals(double[] pvals) {
+    PValueArrays.stepUp(pvals, pvals.length);
   }
 
 
@@ -5,26 +5,25 @@ import org.monarchinitiative.phenol.analysis.stats.PValue;
 import java.util.Collections;
 import java.util.List;
 
-public class BenjaminiYekutieli implements MultipleTestingCorrection {
+public class BenjaminiYekutieli implements ArrayMultipleTestingCorrection {
 
   @Override
   public void adjustPvals(List<? extends PValue> pvals) {
     Collections.sort(pvals);
-    int N = pvals.size();
+    double[] p = PValueArrays.rawPValues(pvals);
+    adjustPvals(p);
+    PValueArrays.setAdjustedPValues(pvals, p);
+  }
+
+  @Override
+  public void adjustPvals(double[] pvals) {
+    int N = pvals.length;
     double h = 0.0;
     for (int l = 1; l <= N; l++) {
       h += 1.0 / l;
     }
-    /* Adjust the p values according to BY. Note that all object
-     * within relevantP also are objects within p!
-     */
-    for (int r = 0; r < N; r++) {
-      PValue item = pvals.get(r);
-      double raw_p = item.getRawPValue();
-      double adj_p = raw_p * N * h / (r + 1);
-      item.setAdjustedPValue(adj_p);
-    }
-    enforcePValueMonotony(pvals);
+    /* Adjust the p values according to BY */
+    PValueArrays.stepUp(pvals, N * h);
   }
 
 
@@ -16,17 +16,23 @@ import java.util.List;
  *
  * @author Sebastian Bauer
  */
-public class Bonferroni implements MultipleTestingCorrection
+public class Bonferroni implements ArrayMultipleTestingCorrection
 {
 	/** The name of the correction method */
 	private static final String NAME = "Bonferroni";
 
   @Override
   public void adjustPvals(List<? extends PValue> pvals) {
-    int N=pvals.size();
-    for (PValue item : pvals) {
-      double p_raw= item.getRawPValue();
-      item.setAdjustedPValue(Math.min(1.0,N*p_raw));
+    double[] p = PValueArrays.rawPValues(pvals);
+    adjustPvals(p);
+    PValueArrays.setAdjustedPValues(pvals, p);
+  }
+
+  @Override
+  public void adjustPvals(double[] pvals) {
+    int N=pvals.length;
+    for (int i=0;i<N;i++) {
+      pvals[i] = Math.min(1.0,N*pvals[i]);
     }
   }
 
@@ -13,20 +13,21 @@ import java.util.*;
  * @author <a href="mailto:peter.robinson@jax.org>Peter Robinson</a>
  */
 
-public class BonferroniHolm implements MultipleTestingCorrection {
+public class BonferroniHolm implements ArrayMultipleTestingCorrection {
   /** The name of the correction method. */
   private static final String NAME = "Bonferroni-Holm";
 
   @Override
   public void adjustPvals(List<? extends PValue> pvals) {
     Collections.sort(pvals);
-    int N=pvals.size();
-    for (int r=0;r<N;r++) {
-      PValue item = pvals.get(r);
-      double raw_p = item.getRawPValue();
-      item.setAdjustedPValue(raw_p * N/(r+1));
-    }
-    enforcePValueMonotony(pvals);
+    double[] p = PValueArrays.rawPValues(pvals);
+    adjustPvals(p);
+    PValueArrays.setAdjustedPValues(pvals, p);
+  }
+
+  @Override
+  public void adjustPvals(double[] pvals) {
+    PValueArrays.stepUp(pvals, pvals.length);
   }
 
   @Override
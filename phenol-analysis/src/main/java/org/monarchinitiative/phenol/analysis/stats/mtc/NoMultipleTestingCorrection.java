@@ -8,7 +8,7 @@ import java.util.List;
  * This is the identity function and applies no multiple testing correction.
  * Doing like this makes for cleaner code where choosing No MTC can be do as with the other MTCs.
  */
-public class NoMultipleTestingCorrection implements MultipleTestingCorrection {
+public class NoMultipleTestingCorrection implements ArrayMultipleTestingCorrection {
   /** The name of the correction method */
   private static final String NAME = "None";
 
@@ -22,6 +22,11 @@ public class NoMultipleTestingCorrection implements MultipleTestingCorrection {
     return; // no op, no MTC performed
   }
 
+  @Override
+  public void adjustPvals(double[] pvals) {
+    // no op, no MTC performed
+  }
+
   public String getName()
   {
     return NAME;
@@ -0,0 +1,128 @@
+package org.monarchinitiative.phenol.analysis.stats.mtc;
+
+import org.monarchinitiative.phenol.analysis.stats.PValue;
+
+import java.util.List;
+
+/**
+ * Helpers for the {@code double[]} entry points of the multiple testing corrections. The p values are
+ * ranked with a primitive index sort, so that large numbers of p values can be corrected without
+ * creating an object per value.
+ */
+final class PValueArrays {
+
+  /** Ranges up to this size are sorted by insertion sort. */
+  private static final int INSERTION_SORT_THRESHOLD = 24;
+
+  private PValueArrays() {
+  }
+
+  /**
+   * @param values the values, must not contain {@code NaN}
+   * @return the indices of the values in increasing order of the values
+   */
+  static int[] ascending(double[] values) {
+    int[] order = new int[values.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    sort(values, order, 0, order.length - 1);
+    return order;
+  }
+
+  /**
+   * Step-up adjustment as used by Benjamini-Hochberg: the p value of rank r (starting at 0 for the
+   * smallest p value) is multiplied by {@code factor / (r + 1)}, and the adjusted p values are made
+   * monotone by taking the minimum with the adjusted p value of the next rank. The values are adjusted
+   * in place and keep their order in the array.
+   *
+   * @param pvals  raw p values, replaced by the adjusted p values
+   * @param factor multiplier of the p values, e.g., the number of tests
+   */
+  static void stepUp(double[] pvals, double factor) {
+    int[] order = ascending(pvals);
+    int n = pvals.length;
+    /* with at least two p values, the adjusted p values are capped at 1 */
+    double previous = n < 2 ? Double.POSITIVE_INFINITY : 1.0;
+    for (int r = n - 1; r >= 0; r--) {
+      int i = order[r];
+      double adjusted = Math.min(pvals[i] * factor / (r + 1), previous);
+      pvals[i] = adjusted;
+      previous = adjusted;
+    }
+  }
+
+  /**
+   * @param pvals p value objects
+   * @return the raw p values in the order of the list
+   */
+  static double[] rawPValues(List<? extends PValue> pvals) {
+    double[] values = new double[pvals.size()];
+    int i = 0;
+    for (PValue pval : pvals) {
+      values[i++] = pval.getRawPValue();
+    }
+    return values;
+  }
+
+  /**
+   * @param pvals    p value objects
+   * @param adjusted adjusted p values in the order of the list
+   */
+  static void setAdjustedPValues(List<? extends PValue> pvals, double[] adjusted) {
+    int i = 0;
+    for (PValue pval : pvals) {
+      pval.setAdjustedPValue(adjusted[i++]);
+    }
+  }
+
+  /**
+   * Quicksort with median-of-three pivot and three-way partitioning (many p values are tied, e.g., at 1),
+   * recursing into the smaller part only to bound the stack depth.
+   */
+  private static void sort(double[] values, int[] order, int lo, int hi) {
+    while (hi - lo >= INSERTION_SORT_THRESHOLD) {
+      double pivot = medianOfThree(values[order[lo]], values[order[(lo + hi) >>> 1]], values[order[hi]]);
+      int lt = lo;
+      int gt = hi;
+      int i = lo;
+      while (i <= gt) {
+        double v = values[order[i]];
+        if (v < pivot) {
+          swap(order, lt++, i++);
+        } else if (v > pivot) {
+          swap(order, i, gt--);
+        } else {
+          i++;
+        }
+      }
+      if (lt - lo < hi - gt) {
+        sort(values, order, lo, lt - 1);
+        lo = gt + 1;
+      } else {
+        sort(values, order, gt + 1, hi);
+        hi = lt - 1;
+      }
+    }
+    for (int i = lo + 1; i <= hi; i++) {
+      int index = order[i];
+      double v = values[index];
+      int j = i - 1;
+      while (j >= lo && values[order[j]] > v) {
+        order[j + 1] = order[j];
+        j--;
+      }
+      order[j + 1] = index;
+    }
+  }
+
+  private static double medianOfThree(double a, double b, double c) {
+    return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+  }
+
+  private static void swap(int[] order, int i, int j) {
+    int tmp = order[i];
+    order[i] = order[j];
+    order[j] = tmp;
+  }
+}
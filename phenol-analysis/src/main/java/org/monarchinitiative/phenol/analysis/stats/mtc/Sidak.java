@@ -9,7 +9,7 @@ import java.util.List;
  * @author Sebastian Bauer
  * @author Peter Robinson (refactored)
  */
-public class Sidak implements MultipleTestingCorrection
+public class Sidak implements ArrayMultipleTestingCorrection
 {
 	/** The name of the correction method */
 	private static final String NAME = "Sidak";
@@ -21,13 +21,18 @@ public class Sidak implements MultipleTestingCorrection
 
   @Override
   public void adjustPvals(List<? extends PValue> pvals) {
-	  int pvalsCount = pvals.size();
+    double[] p = PValueArrays.rawPValues(pvals);
+    adjustPvals(p);
+    PValueArrays.setAdjustedPValues(pvals, p);
+  }
+
+  @Override
+  public void adjustPvals(double[] pvals) {
+	  int pvalsCount = pvals.length;
     /* Adjust the values */
-    for (PValue pval : pvals)
+    for (int i = 0; i < pvalsCount; i++)
     {
-      double p = pval.getRawPValue();
-      double p_adjusted = 1.0 - Math.pow(1.0 - p, pvalsCount);
-      pval.setAdjustedPValue(p_adjusted);
+      pvals[i] = 1.0 - Math.pow(1.0 - pvals[i], pvalsCount);
     }
   }
 
@@ -0,0 +1,196 @@
+package org.monarchinitiative.phenol.analysis.stats.mtc;
+
+import org.monarchinitiative.phenol.analysis.AnnotationBitsetMatrix;
+import org.monarchinitiative.phenol.analysis.stats.Hypergeometric;
+import org.monarchinitiative.phenol.analysis.stats.PValue;
+import org.monarchinitiative.phenol.base.PhenolRuntimeException;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class implements the step-down min-P multiple test correction of Westfall and Young, which
+ * estimates the joint null distribution of the p values by resampling and therefore accounts for the
+ * strong dependence between the terms of an ontology.
+ * <p>
+ * In each permutation, the study set labels are permuted, i.e., a study set of the same size is drawn
+ * at random from the population, and the term-for-term p values of all tested terms are recalculated.
+ * The study counts are obtained from the {@link AnnotationBitsetMatrix} of the population, so no
+ * annotation sets are built during the resampling. Since the p values are monotone in the hypergeometric
+ * test statistic, the max-T variant with {@code T = -log(p)} gives the same adjustment.
+ * </p>
+ * <p>
+ * The permutations are run in parallel. Permutation {@code i} uses its own random source derived from the
+ * seed, so the adjusted p values depend only on the seed and not on the executor.
+ * </p>
+ * Westfall PH, Young SS. Resampling-Based Multiple Testing. Wiley, 1993.
+ */
+public class WestfallYoungMinP implements MultipleTestingCorrection {
+  /** The name of the correction method. */
+  private static final String NAME = "Westfall-Young min-P";
+  /** Number of permutations that are run as one task. */
+  private static final int PERMUTATIONS_PER_TASK = 64;
+
+  private final AnnotationBitsetMatrix populationMatrix;
+  private final int studySetSize;
+  private final int numberOfPermutations;
+  private final long seed;
+  private final Hypergeometric hyperg;
+  private Executor executor = ForkJoinPool.commonPool();
+
+  /**
+   * @param populationMatrix     annotations of the population, see {@link AnnotationBitsetMatrix#of(org.monarchinitiative.phenol.analysis.StudySet)}
+   * @param studySetSize         number of population items in the study set
+   * @param numberOfPermutations number of permutations, e.g., 1000
+   * @param seed                 seed of the random permutations
+   */
+  public WestfallYoungMinP(AnnotationBitsetMatrix populationMatrix,
+                           int studySetSize,
+                           int numberOfPermutations,
+                           long seed) {
+    if (studySetSize < 0 || studySetSize > populationMatrix.getItemCount()) {
+      throw new IllegalArgumentException("Study set size must be between 0 and " + populationMatrix.getItemCount()
+        + " but was " + studySetSize);
+    }
+    if (numberOfPermutations < 1) {
+      throw new IllegalArgumentException("Number of permutations must be positive but was " + numberOfPermutations);
+    }
+    this.populationMatrix = populationMatrix;
+    this.studySetSize = studySetSize;
+    this.numberOfPermutations = numberOfPermutations;
+    this.seed = seed;
+    this.hyperg = new Hypergeometric(populationMatrix.getItemCount());
+  }
+
+  /**
+   * @param executor executor on which the permutations are run
+   */
+  public void setExecutor(Executor executor) {
+    this.executor = Objects.requireNonNull(executor);
+  }
+
+  /**
+   * Adjust the p values of the terms in {@code pvals}, which must be the term-for-term p values of a
+   * study set of {@link #studySetSize} items. Terms that are not annotated in the population are kept in
+   * the family of tests but never reach a permuted p value below 1.
+   */
+  @Override
+  public void adjustPvals(List<? extends PValue> pvals) {
+    Collections.sort(pvals);
+    double[] p = new double[pvals.size()];
+    TermId[] termIds = new TermId[pvals.size()];
+    for (int j = 0; j < p.length; j++) {
+      p[j] = pvals.get(j).getRawPValue();
+      termIds[j] = pvals.get(j).getItem();
+    }
+    adjustPvals(p, termIds);
+    for (int j = 0; j < p.length; j++) {
+      pvals.get(j).setAdjustedPValue(p[j]);
+    }
+  }
+
+  /**
+   * Adjust the term-for-term p values in place, see {@link #adjustPvals(List)}.
+   *
+   * @param pvals   raw p values, replaced by the adjusted p values
+   * @param termIds the term of each p value
+   */
+  public void adjustPvals(double[] pvals, TermId[] termIds) {
+    if (pvals.length != termIds.length) {
+      throw new IllegalArgumentException("Got " + pvals.length + " p values but " + termIds.length + " terms");
+    }
+    int m = pvals.length;
+    if (m == 0) return;
+    int[] order = PValueArrays.ascending(pvals);
+    double[] observed = new double[m];
+    int[] rows = new int[m];
+    for (int j = 0; j < m; j++) {
+      observed[j] = pvals[order[j]];
+      rows[j] = populationMatrix.getTermIndex(termIds[order[j]]);
+    }
+
+    List<CompletableFuture<int[]>> futures = new ArrayList<>();
+    for (int start = 0; start < numberOfPermutations; start += PERMUTATIONS_PER_TASK) {
+      int first = start;
+      int last = Math.min(start + PERMUTATIONS_PER_TASK, numberOfPermutations);
+      futures.add(CompletableFuture.supplyAsync(() -> countExceedances(rows, observed, first, last), executor));
+    }
+    int[] exceedances = new int[m];
+    try {
+      for (CompletableFuture<int[]> future : futures) {
+        int[] counts = future.join();
+        for (int j = 0; j < m; j++) {
+          exceedances[j] += counts[j];
+        }
+      }
+    } catch (CompletionException e) {
+      throw new PhenolRuntimeException("Permutation failed", e.getCause());
+    }
+
+    /* step-down: the adjusted p values must not decrease with the raw p values */
+    double previous = 0.0;
+    for (int j = 0; j < m; j++) {
+      double adjusted = Math.max(previous, (double) exceedances[j] / numberOfPermutations);
+      pvals[order[j]] = adjusted;
+      previous = adjusted;
+    }
+  }
+
+  /**
+   * Run the permutations {@code first} (inclusive) to {@code last} (exclusive).
+   *
+   * @param rows     matrix rows of the tests, sorted by increasing observed p value
+   * @param observed observed p values, sorted increasingly
+   * @return for each test j, the number of permutations in which the minimum of the permuted p values of
+   * the tests j..m-1 was at most the observed p value of test j
+   */
+  private int[] countExceedances(int[] rows, double[] observed, int first, int last) {
+    int m = rows.length;
+    int popGeneCount = populationMatrix.getItemCount();
+    int[] counts = new int[m];
+    int[] columns = new int[popGeneCount];
+    long[] studyBitset = new long[(popGeneCount + 63) >>> 6];
+    for (int i = first; i < last; i++) {
+      /* draw a random study set of the same size (partial Fisher-Yates shuffle) */
+      Random random = new Random(seed + i * 0x9E3779B97F4A7C15L);
+      for (int c = 0; c < popGeneCount; c++) {
+        columns[c] = c;
+      }
+      Arrays.fill(studyBitset, 0L);
+      for (int c = 0; c < studySetSize; c++) {
+        int swap = c + random.nextInt(popGeneCount - c);
+        int column = columns[swap];
+        columns[swap] = columns[c];
+        columns[c] = column;
+        studyBitset[column >>> 6] |= 1L << column;
+      }
+      /* successive minima, starting with the test with the largest observed p value */
+      double min = 1.0;
+      for (int j = m - 1; j >= 0; j--) {
+        int row = rows[j];
+        if (row >= 0) {
+          int goidAnnotatedPopGeneCount = populationMatrix.getTotalAnnotationCount(row);
+          int goidAnnotatedStudyGeneCount = populationMatrix.countAnnotated(row, studyBitset);
+          double p = hyperg.phypergeometric(popGeneCount,
+            (double) goidAnnotatedPopGeneCount / (double) popGeneCount,
+            studySetSize,
+            goidAnnotatedStudyGeneCount);
+          min = Math.min(min, p);
+        }
+        if (min <= observed[j]) {
+          counts[j]++;
+        }
+      }
+    }
+    return counts;
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+}
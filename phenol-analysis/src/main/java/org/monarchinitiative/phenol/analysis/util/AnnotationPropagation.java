@@ -0,0 +1,99 @@
+package org.monarchinitiative.phenol.analysis.util;
+
+import org.monarchinitiative.phenol.analysis.DirectAndIndirectTermAnnotations;
+import org.monarchinitiative.phenol.graph.OntologyGraph;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Propagation of direct item (e.g., gene) annotations to the ancestors of the annotating ontology terms.
+ * <p>
+ * The items are grouped by annotating term first, so the ancestors of each distinct annotating term are
+ * traversed only once rather than once per annotated item. The items of each term are accumulated as
+ * {@link BitSet}s over item indices and converted into {@link DirectAndIndirectTermAnnotations} at the end.
+ * The accumulation of the terms is independent and is done in parallel for large inputs.
+ * </p>
+ */
+public final class AnnotationPropagation {
+
+  /** Minimum number of annotated items for which the propagation is done in parallel. */
+  public static final int PARALLEL_THRESHOLD = 5_000;
+
+  private AnnotationPropagation() {
+  }
+
+  /**
+   * Propagate direct annotations, in parallel if there are at least {@link #PARALLEL_THRESHOLD} items.
+   *
+   * @param directAnnotationMap Key: domain item; value: ontology terms (primary ids) directly annotating the item.
+   * @param graph               the ontology graph
+   * @return Map with key: ontology term id, value: {@link DirectAndIndirectTermAnnotations} object with domain ids
+   */
+  public static Map<TermId, DirectAndIndirectTermAnnotations> propagate(Map<TermId, ? extends Collection<TermId>> directAnnotationMap,
+                                                                        OntologyGraph<TermId> graph) {
+    return propagate(directAnnotationMap, graph, directAnnotationMap.size() >= PARALLEL_THRESHOLD);
+  }
+
+  /**
+   * @param directAnnotationMap Key: domain item; value: ontology terms (primary ids) directly annotating the item.
+   * @param graph               the ontology graph
+   * @param parallel            if {@code true}, the ancestors and the terms are processed in parallel
+   * @return Map with key: ontology term id, value: {@link DirectAndIndirectTermAnnotations} object with domain ids
+   */
+  public static Map<TermId, DirectAndIndirectTermAnnotations> propagate(Map<TermId, ? extends Collection<TermId>> directAnnotationMap,
+                                                                        OntologyGraph<TermId> graph,
+                                                                        boolean parallel) {
+    // 1. Index the items and collect the directly annotated items of each term.
+    TermId[] items = directAnnotationMap.keySet().toArray(new TermId[0]);
+    Map<TermId, BitSet> directItems = new HashMap<>();
+    for (int i = 0; i < items.length; i++) {
+      for (TermId ontologyId : directAnnotationMap.get(items[i])) {
+        directItems.computeIfAbsent(ontologyId, k -> new BitSet(items.length)).set(i);
+      }
+    }
+
+    // 2. Traverse the ancestors of each annotating term once. Key: ontology term;
+    // value: the annotating terms whose items are propagated to the key.
+    Map<TermId, List<TermId>> ancestors = stream(directItems.keySet(), parallel)
+      .collect(Collectors.toMap(Function.identity(), t -> {
+        List<TermId> ancs = new ArrayList<>();
+        graph.getAncestors(t).forEach(ancs::add);
+        return ancs;
+      }));
+    Map<TermId, List<TermId>> contributors = new HashMap<>();
+    for (Map.Entry<TermId, List<TermId>> e : ancestors.entrySet()) {
+      contributors.computeIfAbsent(e.getKey(), k -> new ArrayList<>()).add(e.getKey());
+      for (TermId ancestor : e.getValue()) {
+        contributors.computeIfAbsent(ancestor, k -> new ArrayList<>()).add(e.getKey());
+      }
+    }
+
+    // 3. Accumulate the items of each term.
+    Map<TermId, DirectAndIndirectTermAnnotations> annotationMap = stream(contributors.keySet(), parallel)
+      .collect(Collectors.toMap(Function.identity(), ontologyId -> {
+        BitSet total = new BitSet(items.length);
+        for (TermId contributor : contributors.get(ontologyId)) {
+          total.or(directItems.get(contributor));
+        }
+        BitSet direct = directItems.getOrDefault(ontologyId, new BitSet(0));
+        DirectAndIndirectTermAnnotations annotations = new DirectAndIndirectTermAnnotations(ontologyId);
+        for (int i = total.nextSetBit(0); i >= 0; i = total.nextSetBit(i + 1)) {
+          if (direct.get(i)) {
+            annotations.addDirectAnnotatedItem(items[i]);
+          } else {
+            annotations.addIndirectAnnotatedItem(items[i]);
+          }
+        }
+        return annotations;
+      }));
+    return Map.copyOf(annotationMap);
+  }
+
+  private static <T> Stream<T> stream(Collection<T> collection, boolean parallel) {
+    return parallel ? collection.parallelStream() : collection.stream();
+  }
+}
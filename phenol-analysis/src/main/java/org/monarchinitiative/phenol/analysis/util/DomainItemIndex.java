@@ -0,0 +1,109 @@
+package org.monarchinitiative.phenol.analysis.util;
+
+import org.monarchinitiative.phenol.analysis.ItemAnnotations;
+import org.monarchinitiative.phenol.ontology.data.MinimalOntology;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.*;
+
+/**
+ * Inverted index from ontology terms to the domain items (e.g., genes) that they directly annotate.
+ * <p>
+ * The items annotated by a term, including the items annotated by its descendants, are obtained as
+ * the union of the direct items of the term and of its descendants. The unions are computed on
+ * {@link BitSet}s over item indices and the unions of the {@value #MAX_CACHED_TERMS} most recently queried terms
+ * are cached, so that repeated queries for the same term (as made for each row of a result table) do not touch the
+ * ontology again. The least recently queried term is evicted first. This replaces the scan over all items
+ * of {@link Util#getDomainItemsAnnotatedByOntologyTerm(TermId, MinimalOntology, Map)}.
+ * </p>
+ * <p>
+ * Instances are safe to use from several threads.
+ * </p>
+ */
+public final class DomainItemIndex {
+
+  /** The maximum number of terms whose item unions are cached, each one takes one bit per item. */
+  static final int MAX_CACHED_TERMS = 1024;
+
+  private final MinimalOntology ontology;
+  /** Domain items by index. */
+  private final TermId[] items;
+  /** Key: ontology term; value: the indices of the items that are directly annotated by the term. */
+  private final Map<TermId, BitSet> directItems;
+  /**
+   * Key: ontology term; value: the indices of the items that are annotated by the term or its descendants.
+   * Ordered by access, the least recently queried term is evicted first.
+   */
+  private final Map<TermId, BitSet> totalItemsCache;
+
+  private DomainItemIndex(MinimalOntology ontology,
+                          Map<TermId, ? extends ItemAnnotations<TermId>> gene2associationMap,
+                          int maxCachedTerms) {
+    this.ontology = Objects.requireNonNull(ontology);
+    this.totalItemsCache = Collections.synchronizedMap(new LinkedHashMap<>(16, .75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<TermId, BitSet> eldest) {
+        return size() > maxCachedTerms;
+      }
+    });
+    this.items = gene2associationMap.keySet().toArray(new TermId[0]);
+    this.directItems = new HashMap<>();
+    for (int i = 0; i < items.length; i++) {
+      for (TermId ontologyTermId : gene2associationMap.get(items[i]).getAnnotatingTermIds()) {
+        directItems.computeIfAbsent(ontologyTermId, k -> new BitSet(items.length)).set(i);
+      }
+    }
+  }
+
+  /**
+   * @param ontology            the ontology of the annotating terms
+   * @param gene2associationMap Key: domain item; value: the annotations of the item.
+   * @return index of the annotations
+   */
+  public static DomainItemIndex of(MinimalOntology ontology,
+                                   Map<TermId, ? extends ItemAnnotations<TermId>> gene2associationMap) {
+    return of(ontology, gene2associationMap, MAX_CACHED_TERMS);
+  }
+
+  static DomainItemIndex of(MinimalOntology ontology,
+                            Map<TermId, ? extends ItemAnnotations<TermId>> gene2associationMap,
+                            int maxCachedTerms) {
+    return new DomainItemIndex(ontology, gene2associationMap, maxCachedTerms);
+  }
+
+  /**
+   * @param termId id of an ontology term
+   * @return A set of domain items annotated by the ontology term or by one of its descendants
+   */
+  public Set<TermId> getDomainItemsAnnotatedByOntologyTerm(TermId termId) {
+    BitSet total = totalItemsCache.get(termId);
+    if (total == null) {
+      // computed outside the lock, concurrent queries for the same term compute the same union
+      total = totalItems(termId);
+      totalItemsCache.put(termId, total);
+    }
+    Set<TermId> domainItemSet = new HashSet<>();
+    for (int i = total.nextSetBit(0); i >= 0; i = total.nextSetBit(i + 1)) {
+      domainItemSet.add(items[i]);
+    }
+    return domainItemSet;
+  }
+
+  /** @return {@code true} if the items of the term are currently cached. */
+  boolean isCached(TermId termId) {
+    // unlike get, containsKey does not count as an access
+    return totalItemsCache.containsKey(termId);
+  }
+
+  private BitSet totalItems(TermId termId) {
+    BitSet union = new BitSet(items.length);
+    // the following includes termId in the descendent set
+    for (TermId descendant : ontology.graph().extendWithDescendants(termId, true)) {
+      BitSet direct = directItems.get(descendant);
+      if (direct != null) {
+        union.or(direct);
+      }
+    }
+    return union;
+  }
+}
@@ -0,0 +1,155 @@
+package org.monarchinitiative.phenol.analysis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.phenol.analysis.util.AnnotationPropagation;
+import org.monarchinitiative.phenol.analysis.util.Util;
+import org.monarchinitiative.phenol.ontology.data.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TermAssociationContainerTest {
+
+  private static final TermId VEGETABLE = TermId.of("VO:0000001");
+  private static final TermId ROOT_VEGETABLE = TermId.of("VO:0000002");
+  private static final TermId LEAF_VEGETABLE = TermId.of("VO:0000003");
+  private static final TermId CARROT = TermId.of("VO:0000004");
+  private static final TermId BEET = TermId.of("VO:0000005");
+  private static final TermId PUMPKIN = TermId.of("VO:0000006");
+  private static final TermId BLUE_CARROT = TermId.of("VO:0000007");
+
+  private static final TermId GENE1 = TermId.of("NCBIGene:1");
+  private static final TermId GENE2 = TermId.of("NCBIGene:2");
+  private static final TermId GENE3 = TermId.of("NCBIGene:3");
+  private static final TermId GENE4 = TermId.of("NCBIGene:4");
+
+  private static Ontology ontology;
+  private static TermAssociationContainer container;
+
+  @BeforeAll
+  public static void init() {
+    List<Term> terms = List.of(
+      Term.of(VEGETABLE, "vegetable"),
+      Term.of(ROOT_VEGETABLE, "root vegetable"),
+      Term.of(LEAF_VEGETABLE, "leaf vegetable"),
+      Term.of(CARROT, "carrot"),
+      Term.of(BEET, "beet root"),
+      Term.of(PUMPKIN, "pumpkin"),
+      Term.of(BLUE_CARROT, "blue carrot"));
+    List<Relationship> relationships = List.of(
+      new Relationship(ROOT_VEGETABLE, VEGETABLE, 1, RelationshipType.IS_A),
+      new Relationship(LEAF_VEGETABLE, VEGETABLE, 2, RelationshipType.IS_A),
+      new Relationship(CARROT, ROOT_VEGETABLE, 3, RelationshipType.IS_A),
+      new Relationship(BEET, ROOT_VEGETABLE, 4, RelationshipType.IS_A),
+      new Relationship(BEET, LEAF_VEGETABLE, 5, RelationshipType.IS_A),
+      new Relationship(PUMPKIN, ROOT_VEGETABLE, 6, RelationshipType.IS_A),
+      new Relationship(BLUE_CARROT, CARROT, 7, RelationshipType.IS_A));
+    ontology = ImmutableOntology.builder()
+      .metaInfo(Map.of())
+      .terms(terms)
+      .relationships(relationships)
+      .build();
+
+    List<TermAnnotation> annotations = List.of(
+      new SimpleAnnotation(GENE1, BLUE_CARROT),
+      new SimpleAnnotation(GENE1, CARROT),
+      new SimpleAnnotation(GENE2, BEET),
+      new SimpleAnnotation(GENE3, PUMPKIN),
+      new SimpleAnnotation(GENE3, LEAF_VEGETABLE),
+      new SimpleAnnotation(GENE4, VEGETABLE));
+    container = TermAssociationContainer.fromGoTermAnnotations(annotations, ontology);
+  }
+
+  @Test
+  public void testGetAssociationMap() {
+    Map<TermId, DirectAndIndirectTermAnnotations> map =
+      container.getAssociationMap(Set.of(GENE1, GENE2, GENE3, GENE4));
+
+    assertEquals(7, map.size());
+    assertEquals(Set.of(GENE1, GENE2, GENE3, GENE4), map.get(VEGETABLE).getTotalAnnotatedDomainItemSet());
+    assertEquals(Set.of(GENE4), map.get(VEGETABLE).getDirectAnnotatedDomainItemSet());
+    assertEquals(Set.of(GENE1, GENE2, GENE3), map.get(ROOT_VEGETABLE).getTotalAnnotatedDomainItemSet());
+    assertTrue(map.get(ROOT_VEGETABLE).getDirectAnnotatedDomainItemSet().isEmpty());
+    assertEquals(Set.of(GENE2, GENE3), map.get(LEAF_VEGETABLE).getTotalAnnotatedDomainItemSet());
+    assertEquals(Set.of(GENE3), map.get(LEAF_VEGETABLE).getDirectAnnotatedDomainItemSet());
+    assertEquals(Set.of(GENE1), map.get(CARROT).getTotalAnnotatedDomainItemSet());
+    assertEquals(Set.of(GENE1), map.get(CARROT).getDirectAnnotatedDomainItemSet());
+    assertEquals(Set.of(GENE1), map.get(BLUE_CARROT).getDirectAnnotatedDomainItemSet());
+  }
+
+  @Test
+  public void testGetAssociationMapForSubset() {
+    Map<TermId, DirectAndIndirectTermAnnotations> map = container.getAssociationMap(Set.of(GENE2));
+
+    assertEquals(Set.of(BEET, ROOT_VEGETABLE, LEAF_VEGETABLE, VEGETABLE), map.keySet());
+    for (DirectAndIndirectTermAnnotations annotations : map.values()) {
+      assertEquals(Set.of(GENE2), annotations.getTotalAnnotatedDomainItemSet());
+    }
+  }
+
+  @Test
+  public void testParallelPropagationGivesSameResult() {
+    Map<TermId, Set<TermId>> direct = Map.of(
+      GENE1, Set.of(BLUE_CARROT, CARROT),
+      GENE2, Set.of(BEET),
+      GENE3, Set.of(PUMPKIN, LEAF_VEGETABLE));
+    Map<TermId, DirectAndIndirectTermAnnotations> sequential =
+      AnnotationPropagation.propagate(direct, ontology.graph(), false);
+    Map<TermId, DirectAndIndirectTermAnnotations> parallel =
+      AnnotationPropagation.propagate(direct, ontology.graph(), true);
+
+    assertEquals(sequential.keySet(), parallel.keySet());
+    for (TermId termId : sequential.keySet()) {
+      assertEquals(sequential.get(termId).getDirectAnnotatedDomainItemSet(),
+        parallel.get(termId).getDirectAnnotatedDomainItemSet());
+      assertEquals(sequential.get(termId).getTotalAnnotatedDomainItemSet(),
+        parallel.get(termId).getTotalAnnotatedDomainItemSet());
+    }
+  }
+
+  @Test
+  public void testGetDomainItemsAnnotatedByOntologyTerm() {
+    assertEquals(Set.of(GENE1, GENE2, GENE3, GENE4), container.getDomainItemsAnnotatedByOntologyTerm(VEGETABLE));
+    assertEquals(Set.of(GENE1, GENE2, GENE3), container.getDomainItemsAnnotatedByOntologyTerm(ROOT_VEGETABLE));
+    assertEquals(Set.of(GENE2, GENE3), container.getDomainItemsAnnotatedByOntologyTerm(LEAF_VEGETABLE));
+    assertEquals(Set.of(GENE1), container.getDomainItemsAnnotatedByOntologyTerm(CARROT));
+    // second query is answered from the cache
+    assertEquals(Set.of(GENE1), container.getDomainItemsAnnotatedByOntologyTerm(CARROT));
+    for (TermId termId : List.of(VEGETABLE, ROOT_VEGETABLE, LEAF_VEGETABLE, CARROT, BEET, PUMPKIN, BLUE_CARROT)) {
+      Map<TermId, GeneAnnotations> gene2associationMap = new HashMap<>();
+      for (TermId gene : container.getAllAnnotatedGenes()) {
+        gene2associationMap.put(gene, assertDoesNotThrow(() -> container.get(gene)));
+      }
+      assertEquals(Util.getDomainItemsAnnotatedByOntologyTerm(termId, ontology, gene2associationMap),
+        container.getDomainItemsAnnotatedByOntologyTerm(termId));
+    }
+  }
+
+  private static class SimpleAnnotation implements TermAnnotation {
+    private final TermId itemId;
+    private final TermId termId;
+
+    private SimpleAnnotation(TermId itemId, TermId termId) {
+      this.itemId = itemId;
+      this.termId = termId;
+    }
+
+    @Override
+    public TermId id() {
+      return termId;
+    }
+
+    @Override
+    public TermId getItemId() {
+      return itemId;
+    }
+
+    @Override
+    public int compareTo(TermAnnotation o) {
+      int cmp = itemId.compareTo(o.getItemId());
+      return cmp != 0 ? cmp : termId.compareTo(o.id());
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package org.monarchinitiative.phenol.analysis.mgsa;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.phenol.analysis.GoAssociationContainer;
+import org.monarchinitiative.phenol.analysis.StudySet;
+import org.monarchinitiative.phenol.annotations.formats.go.GoGaf22Annotation;
+import org.monarchinitiative.phenol.ontology.data.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Run MGSA end to end with several chains on a small ontology with six sibling terms, each annotating
+ * twenty genes, and a study set that consists mostly of the genes of one of them.
+ */
+public class MgsaCalculationTest {
+
+  private static final long SEED = 42L;
+  private static final int MCMC_STEPS = 200_000;
+  private static final int BURNIN = 2_000;
+  private static final double R_HAT_THRESHOLD = 1.02;
+
+  private static final TermId ROOT = TermId.of("GO:0000001");
+  private static final int NUMBER_OF_CHILDREN = 6;
+  private static final int GENES_PER_CHILD = 20;
+  private static final TermId ENRICHED = childTermId(3);
+
+  private static Ontology ontology;
+  private static GoAssociationContainer associations;
+  private static StudySet studySet;
+
+  @BeforeAll
+  public static void init() throws Exception {
+    List<Term> terms = new ArrayList<>();
+    List<Relationship> relationships = new ArrayList<>();
+    List<GoGaf22Annotation> annotations = new ArrayList<>();
+    Set<TermId> studyGenes = new HashSet<>();
+    terms.add(Term.of(ROOT, "root"));
+    for (int c = 0; c < NUMBER_OF_CHILDREN; c++) {
+      TermId child = childTermId(c);
+      terms.add(Term.of(child, "child " + c));
+      relationships.add(new Relationship(child, ROOT, c + 1, RelationshipType.IS_A));
+      for (int g = 0; g < GENES_PER_CHILD; g++) {
+        int gene = c * GENES_PER_CHILD + g + 1;
+        annotations.add(GoGaf22Annotation.parseAnnotation(String.join("\t", "UniProtKB", "P" + gene,
+          "GENE" + gene, "involved_in", child.getValue(), "PMID:1", "IDA", "", "P", "gene " + gene, "",
+          "protein", "taxon:9606", "20200101", "UniProt")));
+        // most genes of the enriched term and a few false positives of other terms
+        if (child.equals(ENRICHED) ? g < 12 : g < 2 && c % 2 == 0) {
+          studyGenes.add(TermId.of("UniProtKB", "P" + gene));
+        }
+      }
+    }
+    ontology = ImmutableOntology.builder()
+      .metaInfo(Map.of())
+      .terms(terms)
+      .relationships(relationships)
+      .build();
+    associations = GoAssociationContainer.fromGoTermAnnotations(annotations, ontology);
+    studySet = associations.fromGeneIds(studyGenes, "study");
+  }
+
+  private static TermId childTermId(int c) {
+    return TermId.of(String.format("GO:%07d", c + 2));
+  }
+
+  private static MgsaCalculation calculation(int numberOfChains) {
+    MgsaCalculation calculation = new MgsaCalculation(ontology, associations, MCMC_STEPS, SEED);
+    calculation.setBurnin(BURNIN);
+    // rule out the mode in which all terms are active and most of their genes are missed
+    calculation.setAlphaBounds(0.0, 0.5);
+    calculation.setBetaBounds(0.0, 0.5);
+    calculation.setNumberOfChains(numberOfChains);
+    // run the chains on the calling thread
+    calculation.setExecutor(Runnable::run);
+    return calculation;
+  }
+
+  private static Map<TermId, Double> marginals(MgsaGOTermsResultContainer result) {
+    Map<TermId, Double> marginals = new HashMap<>();
+    for (MgsaGOTermResult termResult : result.list) {
+      marginals.put(termResult.getTermId(), termResult.getMarg());
+    }
+    return marginals;
+  }
+
+  @Test
+  public void testChainsStopEarlyAndAgreeWithOneLongChain() {
+    MgsaCalculation multiChain = calculation(3);
+    multiChain.setConvergenceThreshold(R_HAT_THRESHOLD, 5_000);
+    MgsaGOTermsResultContainer pooled = multiChain.calculateStudySet(studySet);
+
+    MgsaConvergenceDiagnostics diagnostics = pooled.getConvergenceDiagnostics();
+    assertSame(diagnostics, multiChain.getConvergenceDiagnostics());
+    assertEquals(3, diagnostics.getNumberOfChains());
+    for (double acceptanceRate : diagnostics.getAcceptanceRates()) {
+      assertTrue(acceptanceRate > 0.0 && acceptanceRate < 1.0);
+    }
+    assertTrue(diagnostics.isConverged());
+    assertTrue(diagnostics.getMaxRHat() < R_HAT_THRESHOLD, "max R-hat was " + diagnostics.getMaxRHat());
+    assertTrue(diagnostics.getStepsPerChain() > BURNIN);
+    assertTrue(diagnostics.getStepsPerChain() < MCMC_STEPS,
+      "chains ran all " + diagnostics.getStepsPerChain() + " steps");
+
+    MgsaCalculation singleChain = calculation(1);
+    MgsaGOTermsResultContainer reference = singleChain.calculateStudySet(studySet);
+    assertEquals(1, singleChain.getConvergenceDiagnostics().getNumberOfChains());
+    assertEquals(MCMC_STEPS, singleChain.getConvergenceDiagnostics().getStepsPerChain());
+    assertFalse(singleChain.getConvergenceDiagnostics().isConverged());
+
+    Map<TermId, Double> pooledMarginals = marginals(pooled);
+    Map<TermId, Double> referenceMarginals = marginals(reference);
+    assertEquals(referenceMarginals.keySet(), pooledMarginals.keySet());
+    for (TermId termId : referenceMarginals.keySet()) {
+      assertEquals(referenceMarginals.get(termId), pooledMarginals.get(termId), 0.01, termId.getValue());
+      if (!termId.equals(ENRICHED)) {
+        assertTrue(pooledMarginals.get(ENRICHED) > pooledMarginals.get(termId),
+          termId.getValue() + " has a larger marginal than the enriched term");
+      }
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package org.monarchinitiative.phenol.analysis.mgsa;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Number of MCMC steps per second of a single MGSA chain on a synthetic population of
+ * 2000 terms and 20000 genes with a study set of 500 genes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MgsaChainBench {
+
+  private static final int STEPS = 10_000;
+
+  @State(Scope.Thread)
+  public static class Population {
+
+    @Param({"false", "true"})
+    public boolean integrateParams;
+
+    int[][] termLinks;
+    boolean[] observedItems;
+    private long seed = 0;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+      Random random = new Random(500);
+      int numGenes = 20_000;
+      termLinks = new int[2_000][];
+      for (int t = 0; t < termLinks.length; t++) {
+        // skewed term sizes, as in GO
+        int size = 5 + (int) (Math.exp(random.nextDouble() * Math.log(500)));
+        termLinks[t] = random.ints(0, numGenes).distinct().limit(size).sorted().toArray();
+      }
+      observedItems = new boolean[numGenes];
+      random.ints(0, numGenes).distinct().limit(500).forEach(i -> observedItems[i] = true);
+    }
+
+    MgsaChain newChain() {
+      Random rnd = new Random(seed++);
+      FixedAlphaBetaScore score = new FixedAlphaBetaScore(rnd, termLinks, observedItems);
+      score.setIntegrateParams(integrateParams);
+      score.setAlpha(Double.NaN);
+      score.setBeta(Double.NaN);
+      score.setExpectedNumberOfTerms(Double.NaN);
+      return new MgsaChain(0, rnd, score, false, STEPS, 0, Integer.MAX_VALUE);
+    }
+  }
+
+  /**
+   * One invocation runs {@link #STEPS} steps of a fresh chain, the score is reported in steps per second.
+   */
+  @Benchmark
+  @OperationsPerInvocation(STEPS)
+  public double steps(Population population) {
+    MgsaChain chain = population.newChain();
+    chain.run(STEPS);
+    return chain.getAcceptanceRate();
+  }
+}
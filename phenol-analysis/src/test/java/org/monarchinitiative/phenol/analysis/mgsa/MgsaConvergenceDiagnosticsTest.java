@@ -0,0 +1,83 @@
+package org.monarchinitiative.phenol.analysis.mgsa;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MgsaConvergenceDiagnosticsTest {
+
+  private static final double EPSILON = 1e-9;
+
+  /**
+   * Three terms: the first one is active in half of the states of both chains, the second one is always
+   * active in one chain and never in the other, and the third one is never active.
+   */
+  @Test
+  public void testGelmanRubin() {
+    int[][] activationCounts = {{50, 100, 0}, {50, 0, 0}};
+    int[] numRecords = {100, 100};
+    double[] rHat = MgsaConvergenceDiagnostics.gelmanRubin(activationCounts, numRecords);
+    assertEquals(Math.sqrt(0.99), rHat[0], EPSILON);
+    assertEquals(Double.POSITIVE_INFINITY, rHat[1]);
+    assertEquals(1.0, rHat[2], EPSILON);
+  }
+
+  @Test
+  public void testGelmanRubinNeedsTwoChains() {
+    double[] rHat = MgsaConvergenceDiagnostics.gelmanRubin(new int[][]{{10, 20}}, new int[]{100});
+    assertTrue(Double.isNaN(rHat[0]));
+    assertTrue(Double.isNaN(rHat[1]));
+  }
+
+  /**
+   * Independent chains on a small problem with one clearly enriched term should agree.
+   */
+  @Test
+  public void testIndependentChainsConverge() {
+    int numGenes = 100;
+    int[][] termLinks = new int[10][];
+    for (int t = 0; t < termLinks.length; t++) {
+      termLinks[t] = new int[10];
+      for (int j = 0; j < 10; j++) {
+        termLinks[t][j] = t * 10 + j;
+      }
+    }
+    boolean[] observed = new boolean[numGenes];
+    for (int j = 0; j < 10; j++) {
+      observed[30 + j] = true;
+    }
+
+    List<MgsaChain> chains = new ArrayList<>();
+    for (int k = 0; k < 3; k++) {
+      Random rnd = new Random(17 + k);
+      FixedAlphaBetaScore score = new FixedAlphaBetaScore(rnd, termLinks, observed);
+      score.setAlpha(Double.NaN);
+      score.setBeta(Double.NaN);
+      score.setExpectedNumberOfTerms(Double.NaN);
+      MgsaChain chain = new MgsaChain(k, rnd, score, false, 30_000, 1_000, 1000);
+      chain.run(10_000);
+      chain.run(20_000);
+      chains.add(chain);
+    }
+
+    MgsaConvergenceDiagnostics diagnostics = MgsaConvergenceDiagnostics.of(chains, false);
+    assertEquals(3, diagnostics.getNumberOfChains());
+    assertEquals(30_000, diagnostics.getStepsPerChain());
+    for (double acceptanceRate : diagnostics.getAcceptanceRates()) {
+      assertTrue(acceptanceRate > 0.0 && acceptanceRate < 1.0);
+    }
+    assertTrue(diagnostics.getMaxRHat() < 1.1, "max R-hat was " + diagnostics.getMaxRHat());
+    for (MgsaChain chain : chains) {
+      int[] counts = chain.getTermActivationCounts();
+      for (int t = 0; t < counts.length; t++) {
+        if (t != 3) {
+          assertTrue(counts[3] > counts[t], "term " + t + " was active more often than the enriched term");
+        }
+      }
+    }
+  }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.io.TempDir;
 import org.monarchinitiative.phenol.analysis.scoredist.H2ScoreDistributionWriter;
 import org.monarchinitiative.phenol.analysis.scoredist.ScoreDistributionWriter;
+import org.monarchinitiative.phenol.base.PhenolException;
 import org.monarchinitiative.phenol.ontology.data.TermId;
 import org.monarchinitiative.phenol.ontology.scoredist.ObjectScoreDistribution;
 import org.monarchinitiative.phenol.ontology.scoredist.ScoreDistribution;
@@ -72,4 +73,40 @@ public class H2ScoreDistributionWriterTest {
     assertDoesNotThrow(() -> dbWriter.write(2, objScoreDistribution));
   }
 
+  @Test
+  public void write_batched_with_deferred_indices() throws Exception {
+    Path dbpath = tempDir.resolve("batched.h2");
+    String dataTableName = "batchedTable";
+
+    Map<TermId, ObjectScoreDistribution> scoreDistributionMap = new HashMap<>();
+    for (int i = 1; i <= 5; ++i) {
+      TermId termId = TermId.of("OMIM", String.valueOf(i));
+      SortedMap<Double, Double> sortedMap = new TreeMap<>(Map.of(0.0, 0.2, 0.5 * i, 0.6, 1.0 * i, 1.0));
+      scoreDistributionMap.put(termId, new ObjectScoreDistribution(termId, 2, 10 * i, sortedMap));
+    }
+    ScoreDistribution scoreDistribution = new ScoreDistribution(2, scoreDistributionMap);
+
+    try (H2ScoreDistributionWriter writer = new H2ScoreDistributionWriter(dbpath.toFile().getAbsolutePath(), dataTableName, true, 2, true)) {
+      writer.write(2, scoreDistribution, 0);
+    }
+
+    try (ScoreDistributionReader reader = new H2ScoreDistributionReader(dbpath.toFile().getAbsolutePath(), dataTableName)) {
+      ScoreDistribution result = reader.readForTermCount(2);
+      assertEquals(scoreDistributionMap.keySet(), result.getObjectIds());
+      for (TermId termId : scoreDistributionMap.keySet()) {
+        ObjectScoreDistribution expected = scoreDistributionMap.get(termId);
+        ObjectScoreDistribution actual = result.getObjectScoreDistribution(termId);
+        assertEquals(expected.getSampleSize(), actual.getSampleSize());
+        assertEquals(expected.getCumulativeFrequencies(), actual.getCumulativeFrequencies());
+      }
+    }
+  }
+
+  @Test
+  public void write_rejects_non_positive_batch_size() {
+    Path dbpath = tempDir.resolve("invalid.h2");
+    assertThrows(PhenolException.class,
+      () -> new H2ScoreDistributionWriter(dbpath.toFile().getAbsolutePath(), "invalidTable", true, 0, false));
+  }
+
 }
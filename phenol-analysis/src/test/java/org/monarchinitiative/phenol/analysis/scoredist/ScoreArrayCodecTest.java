@@ -0,0 +1,32 @@
+package org.monarchinitiative.phenol.analysis.scoredist;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoreArrayCodecTest {
+
+  @Test
+  public void roundTrip() {
+    double[] values = {0., 0.125, 1.5, -3.25, Double.MAX_VALUE};
+    byte[] encoded = ScoreArrayCodec.encode(values);
+
+    assertEquals(values.length * Double.BYTES, encoded.length);
+    assertArrayEquals(values, ScoreArrayCodec.decode(encoded));
+  }
+
+  @Test
+  public void decodeColumnValue() {
+    double[] values = {0.5, 1.};
+
+    assertArrayEquals(values, ScoreArrayCodec.decodeColumnValue(ScoreArrayCodec.encode(values)));
+    assertArrayEquals(values, ScoreArrayCodec.decodeColumnValue(values));
+    assertThrows(IllegalArgumentException.class, () -> ScoreArrayCodec.decodeColumnValue("0.5"));
+  }
+
+  @Test
+  public void decodeRejectsTruncatedInput() {
+    assertThrows(IllegalArgumentException.class, () -> ScoreArrayCodec.decode(new byte[7]));
+  }
+
+}
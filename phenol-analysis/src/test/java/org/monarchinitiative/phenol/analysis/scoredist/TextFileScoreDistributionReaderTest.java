@@ -0,0 +1,120 @@
+package org.monarchinitiative.phenol.analysis.scoredist;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.phenol.base.PhenolException;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+import org.monarchinitiative.phenol.ontology.scoredist.ObjectScoreDistribution;
+import org.monarchinitiative.phenol.ontology.scoredist.ScoreDistribution;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextFileScoreDistributionReaderTest {
+
+  private static final TermId OMIM_1 = TermId.of("OMIM:1");
+  private static final TermId OMIM_2 = TermId.of("OMIM:2");
+
+  @TempDir
+  public Path tempDir;
+
+  private TextFileScoreDistributionReader reader;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    Path path = tempDir.resolve("scores.tsv");
+    try (TextFileScoreDistributionWriter writer = new TextFileScoreDistributionWriter(path.toFile())) {
+      for (int numTerms = 1; numTerms <= 3; numTerms++) {
+        Map<TermId, ObjectScoreDistribution> dists = new HashMap<>();
+        for (TermId objectId : List.of(OMIM_1, OMIM_2)) {
+          dists.put(objectId, new ObjectScoreDistribution(objectId, numTerms, 100 * numTerms,
+            new TreeMap<>(Map.of(0.0, 0.25, 0.5 * numTerms, 0.75, 1.0 * numTerms, 1.0))));
+        }
+        writer.write(numTerms, new ScoreDistribution(numTerms, dists), 0);
+      }
+    }
+    reader = new TextFileScoreDistributionReader(path.toFile());
+  }
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    reader.close();
+  }
+
+  @Test
+  public void stream() {
+    List<ObjectScoreDistribution> dists = reader.stream().collect(Collectors.toList());
+
+    assertEquals(6, dists.size());
+    assertEquals(Set.of(1, 2, 3), dists.stream().map(ObjectScoreDistribution::getNumTerms).collect(Collectors.toSet()));
+  }
+
+  @Test
+  public void streamWithFilters() {
+    List<ObjectScoreDistribution> dists = reader.stream(numTerms -> numTerms == 2, OMIM_2::equals)
+      .collect(Collectors.toList());
+
+    assertEquals(1, dists.size());
+    ObjectScoreDistribution dist = dists.get(0);
+    assertEquals(OMIM_2, dist.getObjectId());
+    assertEquals(2, dist.getNumTerms());
+    assertEquals(200, dist.getSampleSize());
+    assertEquals(new TreeMap<>(Map.of(0.0, 0.25, 1.0, 0.75, 2.0, 1.0)), dist.getCumulativeFrequencies());
+  }
+
+  @Test
+  public void readForTermCount() throws Exception {
+    ScoreDistribution dist = reader.readForTermCount(3);
+
+    assertEquals(3, dist.getNumTerms());
+    assertEquals(Set.of(OMIM_1, OMIM_2), dist.getObjectIds());
+  }
+
+  @Test
+  public void readForTermCountAndObject() throws Exception {
+    ObjectScoreDistribution dist = reader.readForTermCountAndObject(1, OMIM_1);
+
+    assertEquals(OMIM_1, dist.getObjectId());
+    assertEquals(1, dist.getNumTerms());
+  }
+
+  @Test
+  public void readForMissingTermCount() {
+    assertThrows(PhenolException.class, () -> reader.readForTermCount(4));
+  }
+
+  @Test
+  public void readAll() throws Exception {
+    Map<Integer, ScoreDistribution> all = reader.readAll();
+
+    assertEquals(Set.of(1, 2, 3), all.keySet());
+    all.values().forEach(dist -> assertEquals(Set.of(OMIM_1, OMIM_2), dist.getObjectIds()));
+  }
+
+  @Test
+  public void convertToH2() throws Exception {
+    String dbPath = tempDir.resolve("scores.h2").toFile().getAbsolutePath();
+    try (H2ScoreDistributionWriter writer = new H2ScoreDistributionWriter(dbPath, "scores", true, 2, true)) {
+      assertEquals(6L, ScoreDistributionConverter.convert(reader, writer, 1));
+    }
+
+    try (H2ScoreDistributionReader h2Reader = new H2ScoreDistributionReader(dbPath, "scores")) {
+      Map<Integer, ScoreDistribution> all = h2Reader.readAll();
+      assertEquals(Set.of(1, 2, 3), all.keySet());
+      ObjectScoreDistribution dist = h2Reader.readForTermCountAndObject(2, OMIM_1);
+      assertEquals(200, dist.getSampleSize());
+      assertEquals(new TreeMap<>(Map.of(0.0, 0.25, 1.0, 0.75, 2.0, 1.0)), dist.getCumulativeFrequencies());
+    }
+  }
+
+}
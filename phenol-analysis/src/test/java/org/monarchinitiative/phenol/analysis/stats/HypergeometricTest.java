@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -251,6 +252,41 @@ public class HypergeometricTest {
   }
 
 
+  /**
+   * Beyond the precomputed table, log factorials are calculated with Stirling's series
+   * and must agree with the summed logarithms.
+   */
+  @Test
+  public void testLogfactBeyondTable() {
+    Hypergeometric small = new Hypergeometric(10);
+    Hypergeometric large = new Hypergeometric(50_000);
+    for (int i : new int[]{11, 20, 100, 12_345, 40_000, 50_000}) {
+      assertEquals(large.logfact(i), small.logfact(i), 1e-9 * large.logfact(i));
+    }
+    assertEquals(hypergeometric.logfact(4), small.logfact(4), EPSILON);
+  }
+
+  @Test
+  public void testMemoizedPValueIsStable() {
+    double first = hypergeometric.phypergeometric(13668, 184, 1757, 59);
+    double second = hypergeometric.phypergeometric(13668, 184, 1757, 59);
+    assertEquals(first, second, 0.0);
+    assertEquals(first, new Hypergeometric(20_000).phypergeometric(13668, 184, 1757, 59), 0.0);
+  }
+
+  @Test
+  public void testSharedInstanceIsThreadSafe() {
+    Hypergeometric shared = new Hypergeometric();
+    double[] expected = new double[200];
+    for (int m_t = 0; m_t < expected.length; m_t++) {
+      expected[m_t] = new Hypergeometric().phypergeometric(13668, m_t + 10, 1757, 5 + m_t / 4);
+    }
+    IntStream.range(0, 20_000).parallel().forEach(i -> {
+      int m_t = i % expected.length;
+      assertEquals(expected[m_t], shared.phypergeometric(13668, m_t + 10, 1757, 5 + m_t / 4), 0.0);
+    });
+  }
+
   @Test
   public void bla() {
     Set<Integer> set1 = new HashSet<>();
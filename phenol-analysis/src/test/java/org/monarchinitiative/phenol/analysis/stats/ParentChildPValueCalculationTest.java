@@ -0,0 +1,185 @@
+package org.monarchinitiative.phenol.analysis.stats;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.phenol.analysis.DirectAndIndirectTermAnnotations;
+import org.monarchinitiative.phenol.analysis.StudySet;
+import org.monarchinitiative.phenol.analysis.stats.mtc.Bonferroni;
+import org.monarchinitiative.phenol.ontology.data.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParentChildPValueCalculationTest {
+
+  private static final TermId VEGETABLE = TermId.of("VO:0000001");
+  private static final TermId ROOT_VEGETABLE = TermId.of("VO:0000002");
+  private static final TermId LEAF_VEGETABLE = TermId.of("VO:0000003");
+  private static final TermId CARROT = TermId.of("VO:0000004");
+  private static final TermId BEET = TermId.of("VO:0000005");
+  private static final TermId PUMPKIN = TermId.of("VO:0000006");
+  private static final TermId BLUE_CARROT = TermId.of("VO:0000007");
+  private static final List<TermId> LEAVES = List.of(BEET, PUMPKIN, BLUE_CARROT, CARROT, LEAF_VEGETABLE);
+
+  private static Ontology ontology;
+  private static StudySet populationSet;
+  private static StudySet studySet;
+
+  /**
+   * 200 genes, each annotated to one or two random terms of a small DAG in which beet root has
+   * two parents, and propagated to the ancestors. Every third gene is in the study set.
+   */
+  @BeforeAll
+  public static void init() {
+    List<Term> terms = List.of(
+      Term.of(VEGETABLE, "vegetable"),
+      Term.of(ROOT_VEGETABLE, "root vegetable"),
+      Term.of(LEAF_VEGETABLE, "leaf vegetable"),
+      Term.of(CARROT, "carrot"),
+      Term.of(BEET, "beet root"),
+      Term.of(PUMPKIN, "pumpkin"),
+      Term.of(BLUE_CARROT, "blue carrot"));
+    List<Relationship> relationships = List.of(
+      new Relationship(ROOT_VEGETABLE, VEGETABLE, 1, RelationshipType.IS_A),
+      new Relationship(LEAF_VEGETABLE, VEGETABLE, 2, RelationshipType.IS_A),
+      new Relationship(CARROT, ROOT_VEGETABLE, 3, RelationshipType.IS_A),
+      new Relationship(BEET, ROOT_VEGETABLE, 4, RelationshipType.IS_A),
+      new Relationship(BEET, LEAF_VEGETABLE, 5, RelationshipType.IS_A),
+      new Relationship(PUMPKIN, ROOT_VEGETABLE, 6, RelationshipType.IS_A),
+      new Relationship(BLUE_CARROT, CARROT, 7, RelationshipType.IS_A));
+    ontology = ImmutableOntology.builder()
+      .metaInfo(Map.of())
+      .terms(terms)
+      .relationships(relationships)
+      .build();
+
+    Random random = new Random(7);
+    Map<TermId, DirectAndIndirectTermAnnotations> populationMap = new HashMap<>();
+    Map<TermId, DirectAndIndirectTermAnnotations> studyMap = new HashMap<>();
+    for (int g = 0; g < 200; g++) {
+      TermId gene = TermId.of("NCBIGene:" + (1000 + g));
+      int numTerms = 1 + random.nextInt(2);
+      for (int i = 0; i < numTerms; i++) {
+        TermId term = LEAVES.get(random.nextInt(LEAVES.size()));
+        Collection<TermId> annotated = ontology.graph().extendWithAncestors(term, true);
+        for (TermId t : annotated) {
+          populationMap.computeIfAbsent(t, DirectAndIndirectTermAnnotations::new).addDirectAnnotatedItem(gene);
+          if (g % 3 == 0) {
+            studyMap.computeIfAbsent(t, DirectAndIndirectTermAnnotations::new).addDirectAnnotatedItem(gene);
+          }
+        }
+      }
+    }
+    populationSet = StudySet.populationSet(populationMap);
+    studySet = new StudySet("study", studyMap);
+  }
+
+  @Test
+  public void testUnionCounts() {
+    ParentChildPValuesCalculation calculation =
+      new ParentChildUnionPValueCalculation(ontology, populationSet, studySet, new Bonferroni());
+    assertCounts(calculation, true);
+    assertFalse(calculation.calculatePVals().isEmpty());
+  }
+
+  @Test
+  public void testIntersectionCounts() {
+    ParentChildPValuesCalculation calculation =
+      new ParentChildIntersectionPValueCalculation(ontology, populationSet, studySet, new Bonferroni());
+    assertCounts(calculation, false);
+    assertFalse(calculation.calculatePVals().isEmpty());
+  }
+
+  /**
+   * The term has three parents with disjoint annotations and a fourth parent without annotations. The annotations are
+   * not propagated, so that the parents are disjoint. The intersection of the parents is empty, and a parent without
+   * annotations contributes no items to the union.
+   */
+  @Test
+  public void testCountsWithDisjointParents() {
+    TermId root = TermId.of("VO:0000100");
+    TermId first = TermId.of("VO:0000101");
+    TermId second = TermId.of("VO:0000102");
+    TermId third = TermId.of("VO:0000103");
+    TermId unannotated = TermId.of("VO:0000104");
+    TermId child = TermId.of("VO:0000105");
+    Ontology disjoint = ImmutableOntology.builder()
+      .metaInfo(Map.of())
+      .terms(List.of(Term.of(root, "root"), Term.of(first, "first"), Term.of(second, "second"),
+        Term.of(third, "third"), Term.of(unannotated, "unannotated"), Term.of(child, "child")))
+      .relationships(List.of(
+        new Relationship(first, root, 1, RelationshipType.IS_A),
+        new Relationship(second, root, 2, RelationshipType.IS_A),
+        new Relationship(third, root, 3, RelationshipType.IS_A),
+        new Relationship(unannotated, root, 4, RelationshipType.IS_A),
+        new Relationship(child, first, 5, RelationshipType.IS_A),
+        new Relationship(child, second, 6, RelationshipType.IS_A),
+        new Relationship(child, third, 7, RelationshipType.IS_A),
+        new Relationship(child, unannotated, 8, RelationshipType.IS_A)))
+      .build();
+    TermId g1 = TermId.of("NCBIGene:1");
+    TermId g2 = TermId.of("NCBIGene:2");
+    TermId g3 = TermId.of("NCBIGene:3");
+    TermId g4 = TermId.of("NCBIGene:4");
+    Map<TermId, DirectAndIndirectTermAnnotations> populationMap = new HashMap<>();
+    Map<TermId, DirectAndIndirectTermAnnotations> studyMap = new HashMap<>();
+    annotate(populationMap, first, g1, g2);
+    annotate(populationMap, second, g3);
+    annotate(populationMap, third, g1);
+    annotate(populationMap, child, g4);
+    annotate(studyMap, first, g1);
+    annotate(studyMap, second, g3);
+    annotate(studyMap, third, g1);
+    annotate(studyMap, child, g4);
+    StudySet population = StudySet.populationSet(populationMap);
+    StudySet study = new StudySet("study", studyMap);
+
+    ParentChildPValuesCalculation.Counts intersection =
+      new ParentChildIntersectionPValueCalculation(disjoint, population, study, new Bonferroni()).getCounts(child);
+    assertEquals(0, intersection.m_pa_t);
+    assertEquals(0, intersection.n_pa_t);
+    assertEquals(1, intersection.m_t);
+    assertEquals(1, intersection.n_t);
+
+    ParentChildPValuesCalculation.Counts union =
+      new ParentChildUnionPValueCalculation(disjoint, population, study, new Bonferroni()).getCounts(child);
+    assertEquals(3, union.m_pa_t);
+    assertEquals(2, union.n_pa_t);
+  }
+
+  private static void annotate(Map<TermId, DirectAndIndirectTermAnnotations> annotations, TermId termId, TermId... items) {
+    for (TermId item : items) {
+      annotations.computeIfAbsent(termId, DirectAndIndirectTermAnnotations::new).addDirectAnnotatedItem(item);
+    }
+  }
+
+  /**
+   * Compare the precomputed counts with the union or intersection of the gene sets of the parents.
+   */
+  private static void assertCounts(ParentChildPValuesCalculation calculation, boolean union) {
+    Set<TermId> studyGenes = studySet.getGeneSet();
+    for (TermId termId : populationSet.getAnnotationMap().keySet()) {
+      Set<TermId> parentGenes = null;
+      for (TermId parent : ontology.graph().getParents(termId)) {
+        Set<TermId> genes = populationSet.getAnnotationMap().get(parent).getTotalAnnotatedDomainItemSet();
+        if (parentGenes == null) {
+          parentGenes = new HashSet<>(genes);
+        } else if (union) {
+          parentGenes.addAll(genes);
+        } else {
+          parentGenes.retainAll(genes);
+        }
+      }
+      if (parentGenes == null) {
+        parentGenes = Set.of();
+      }
+      Set<TermId> termGenes = populationSet.getAnnotationMap().get(termId).getTotalAnnotatedDomainItemSet();
+      ParentChildPValuesCalculation.Counts counts = calculation.getCounts(termId);
+      assertEquals(termGenes.size(), counts.m_t);
+      assertEquals(termGenes.stream().filter(studyGenes::contains).count(), counts.n_t);
+      assertEquals(parentGenes.size(), counts.m_pa_t, termId.getValue());
+      assertEquals(parentGenes.stream().filter(studyGenes::contains).count(), counts.n_pa_t);
+    }
+  }
+}
@@ -0,0 +1,147 @@
+package org.monarchinitiative.phenol.analysis.stats;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.phenol.analysis.AnnotationBitsetMatrix;
+import org.monarchinitiative.phenol.analysis.DirectAndIndirectTermAnnotations;
+import org.monarchinitiative.phenol.analysis.StudySet;
+import org.monarchinitiative.phenol.analysis.stats.mtc.Bonferroni;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TermForTermBitsetPValueCalculationTest {
+
+  private static final double EPSILON = 1e-12;
+
+  private static Map<TermId, DirectAndIndirectTermAnnotations> populationMap;
+  private static Set<TermId> studyGenes;
+  private static StudySet populationSet;
+  private static StudySet studySet;
+
+  /**
+   * Create a random population of 300 genes annotated to 40 terms. Low-numbered terms are annotated
+   * to many genes, so that both the dense and the sparse rows of the matrix are exercised.
+   */
+  @BeforeAll
+  public static void init() {
+    Random random = new Random(42);
+    populationMap = new HashMap<>();
+    List<TermId> genes = new ArrayList<>();
+    for (int g = 0; g < 300; g++) {
+      TermId gene = TermId.of("NCBIGene:" + (1000 + g));
+      genes.add(gene);
+      for (int t = 0; t < 40; t++) {
+        if (random.nextInt(t + 2) == 0) {
+          TermId term = TermId.of(String.format("GO:%07d", t));
+          populationMap.computeIfAbsent(term, DirectAndIndirectTermAnnotations::new).addDirectAnnotatedItem(gene);
+        }
+      }
+    }
+    studyGenes = new HashSet<>();
+    for (TermId gene : genes) {
+      if (random.nextInt(5) == 0) {
+        studyGenes.add(gene);
+      }
+    }
+    Map<TermId, DirectAndIndirectTermAnnotations> studyMap = new HashMap<>();
+    for (Map.Entry<TermId, DirectAndIndirectTermAnnotations> e : populationMap.entrySet()) {
+      for (TermId gene : e.getValue().getTotalAnnotatedDomainItemSet()) {
+        if (studyGenes.contains(gene)) {
+          studyMap.computeIfAbsent(e.getKey(), DirectAndIndirectTermAnnotations::new).addDirectAnnotatedItem(gene);
+        }
+      }
+    }
+    populationSet = StudySet.populationSet(populationMap);
+    studySet = new StudySet("study", studyMap);
+  }
+
+  @Test
+  public void testMatrixCounts() {
+    AnnotationBitsetMatrix matrix = AnnotationBitsetMatrix.of(populationSet);
+    assertEquals(populationSet.getAnnotatedItemCount(), matrix.getItemCount());
+    assertEquals(populationMap.size(), matrix.getTermCount());
+    long[] studyBits = matrix.itemBitset(studyGenes);
+    assertEquals(studySet.getAnnotatedItemCount(), AnnotationBitsetMatrix.cardinality(studyBits));
+    for (int row = 0; row < matrix.getTermCount(); row++) {
+      TermId termId = matrix.getTermId(row);
+      assertEquals(row, matrix.getTermIndex(termId));
+      assertEquals(populationSet.getTotalAnnotationCount(termId), matrix.getTotalAnnotationCount(row));
+      assertEquals(studySet.getTotalAnnotationCount(termId), matrix.countAnnotated(row, studyBits));
+    }
+    assertEquals(-1, matrix.getTermIndex(TermId.of("GO:9999999")));
+    assertEquals(0, matrix.getTotalAnnotationCount(TermId.of("GO:9999999")));
+  }
+
+  @Test
+  public void testUnknownStudyItemsAreIgnored() {
+    AnnotationBitsetMatrix matrix = AnnotationBitsetMatrix.of(populationSet);
+    long[] bits = matrix.itemBitset(List.of(TermId.of("NCBIGene:1"), TermId.of("NCBIGene:1000")));
+    assertEquals(1, AnnotationBitsetMatrix.cardinality(bits));
+    assertEquals(-1, matrix.getItemIndex(TermId.of("NCBIGene:1")));
+    assertEquals(TermId.of("NCBIGene:1000"), matrix.getItemId(matrix.getItemIndex(TermId.of("NCBIGene:1000"))));
+  }
+
+  @Test
+  public void testSameResultsAsTermForTerm() {
+    List<GoTerm2PValAndCounts> expected =
+      new TermForTermPValueCalculation(null, populationSet, studySet, new Bonferroni()).calculatePVals();
+    AnnotationBitsetMatrix matrix = AnnotationBitsetMatrix.of(populationSet);
+    List<GoTerm2PValAndCounts> actual =
+      new TermForTermBitsetPValueCalculation(null, matrix, studyGenes, new Bonferroni()).calculatePVals();
+
+    assertFalse(expected.isEmpty());
+    assertEquals(expected.size(), actual.size());
+    Map<TermId, GoTerm2PValAndCounts> actualById = actual.stream()
+      .collect(Collectors.toMap(GoTerm2PValAndCounts::getGoTermId, Function.identity()));
+    for (GoTerm2PValAndCounts e : expected) {
+      GoTerm2PValAndCounts a = actualById.get(e.getGoTermId());
+      assertNotNull(a, "missing result for " + e.getGoTermId());
+      assertEquals(e.getAnnotatedStudyGenes(), a.getAnnotatedStudyGenes());
+      assertEquals(e.getTotalStudyGenes(), a.getTotalStudyGenes());
+      assertEquals(e.getAnnotatedPopulationGenes(), a.getAnnotatedPopulationGenes());
+      assertEquals(e.getTotalPopulationGenes(), a.getTotalPopulationGenes());
+      assertEquals(e.getRawPValue(), a.getRawPValue(), EPSILON);
+      assertEquals(e.getAdjustedPValue(), a.getAdjustedPValue(), EPSILON);
+    }
+  }
+
+  @Test
+  public void testBatchMatchesSingleStudySets() {
+    TermForTermBatchPValueCalculation batch =
+      new TermForTermBatchPValueCalculation(null, populationSet, new Bonferroni());
+    Map<String, Set<TermId>> studySets = new HashMap<>();
+    List<TermId> genes = new ArrayList<>(populationSet.getGeneSet());
+    Collections.sort(genes);
+    for (int i = 0; i < 10; i++) {
+      studySets.put("study" + i, new HashSet<>(genes.subList(i * 20, i * 20 + 40)));
+    }
+    studySets.put("original", studyGenes);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      Map<String, List<GoTerm2PValAndCounts>> results = batch.calculatePVals(studySets, executor)
+        .collect(Collectors.toMap(TermForTermBatchPValueCalculation.StudySetPValues::getName,
+          TermForTermBatchPValueCalculation.StudySetPValues::getPValues));
+      assertEquals(studySets.keySet(), results.keySet());
+      for (Map.Entry<String, Set<TermId>> e : studySets.entrySet()) {
+        List<GoTerm2PValAndCounts> expected = new TermForTermBitsetPValueCalculation(null,
+          batch.getPopulationMatrix(), e.getValue(), new Bonferroni()).calculatePVals();
+        List<GoTerm2PValAndCounts> actual = results.get(e.getKey());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+          assertEquals(expected.get(i).getGoTermId(), actual.get(i).getGoTermId());
+          assertEquals(expected.get(i).getAdjustedPValue(), actual.get(i).getAdjustedPValue(), EPSILON);
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
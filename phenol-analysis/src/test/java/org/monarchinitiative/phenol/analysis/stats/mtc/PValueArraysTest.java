@@ -0,0 +1,84 @@
+package org.monarchinitiative.phenol.analysis.stats.mtc;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.phenol.analysis.stats.PValue;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test the {@code double[]} entry points of the multiple testing corrections.
+ */
+public class PValueArraysTest {
+
+  private static final double EPSILON = 0.00001;
+
+  /** Raw p values of {@link MadeUpPValues} and the adjusted ones from R, p.adjust(p, method="BH"). */
+  private static final double[] RAW = {0.0001, 0.0004, 0.0019, 0.0095, 0.0201, 0.0278, 0.0298, 0.0344, 0.0459,
+    0.3240, 0.4262, 0.5719, 0.6528, 0.7590, 1.000};
+  private static final double[] BH = {0.00150000, 0.00300000, 0.00950000, 0.03562500, 0.06030000, 0.06385714,
+    0.06385714, 0.06450000, 0.07650000, 0.48600000, 0.58118182, 0.71487500, 0.75323077, 0.81321429, 1.00000000};
+
+  @Test
+  public void testBenjaminiHochbergKeepsOrderOfArray() {
+    int[] permutation = {14, 3, 7, 0, 11, 5, 9, 1, 13, 2, 8, 12, 4, 10, 6};
+    double[] pvals = new double[RAW.length];
+    for (int i = 0; i < permutation.length; i++) {
+      pvals[i] = RAW[permutation[i]];
+    }
+    new BenjaminiHochberg().adjustPvals(pvals);
+    for (int i = 0; i < permutation.length; i++) {
+      assertEquals(BH[permutation[i]], pvals[i], EPSILON);
+    }
+  }
+
+  @Test
+  public void testSameResultsAsObjects() {
+    List<ArrayMultipleTestingCorrection> corrections = List.of(new Bonferroni(), new BonferroniHolm(),
+      new BenjaminiHochberg(), new BenjaminiYekutieli(), new Sidak(), new NoMultipleTestingCorrection());
+    for (ArrayMultipleTestingCorrection correction : corrections) {
+      List<PValue> objects = new MadeUpPValues().getRawPValues();
+      Collections.shuffle(objects, new Random(1));
+      double[] pvals = objects.stream().mapToDouble(PValue::getRawPValue).toArray();
+      List<PValue> unsorted = new ArrayList<>(objects);
+      correction.adjustPvals(objects);
+      correction.adjustPvals(pvals);
+      for (int i = 0; i < pvals.length; i++) {
+        assertEquals(unsorted.get(i).getAdjustedPValue(), pvals[i], EPSILON, correction.getName());
+      }
+    }
+  }
+
+  /**
+   * Many tied p values and an array large enough for the quicksort.
+   */
+  @Test
+  public void testLargeArrayWithTies() {
+    Random random = new Random(42);
+    int n = 100_000;
+    double[] pvals = new double[n];
+    for (int i = 0; i < n; i++) {
+      pvals[i] = random.nextInt(4) == 0 ? 1.0 : random.nextInt(1000) / 1000.0;
+    }
+    double[] sorted = pvals.clone();
+    Arrays.sort(sorted);
+    int[] order = PValueArrays.ascending(pvals);
+    for (int r = 0; r < n; r++) {
+      assertEquals(sorted[r], pvals[order[r]]);
+    }
+
+    /* reference: BH on the sorted values */
+    double[] expected = new double[n];
+    double previous = 1.0;
+    for (int r = n - 1; r >= 0; r--) {
+      previous = Math.min(previous, sorted[r] * n / (r + 1));
+      expected[r] = previous;
+    }
+    double[] adjusted = pvals.clone();
+    new BenjaminiHochberg().adjustPvals(adjusted);
+    for (int r = 0; r < n; r++) {
+      assertEquals(expected[r], adjusted[order[r]], 1e-12);
+    }
+  }
+}
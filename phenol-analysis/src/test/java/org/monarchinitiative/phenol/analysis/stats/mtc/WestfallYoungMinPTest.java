@@ -0,0 +1,101 @@
+package org.monarchinitiative.phenol.analysis.stats.mtc;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.phenol.analysis.AnnotationBitsetMatrix;
+import org.monarchinitiative.phenol.analysis.DirectAndIndirectTermAnnotations;
+import org.monarchinitiative.phenol.analysis.stats.GoTerm2PValAndCounts;
+import org.monarchinitiative.phenol.analysis.stats.TermForTermBitsetPValueCalculation;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WestfallYoungMinPTest {
+
+  private static final TermId ENRICHED_TERM = TermId.of("GO:0000030");
+
+  private static AnnotationBitsetMatrix matrix;
+  private static Set<TermId> studyGenes;
+
+  /**
+   * Random population of 300 genes annotated to 40 terms, and a study set of 40 genes half of which are
+   * annotated to {@link #ENRICHED_TERM}.
+   */
+  @BeforeAll
+  public static void init() {
+    Random random = new Random(42);
+    Map<TermId, DirectAndIndirectTermAnnotations> populationMap = new HashMap<>();
+    List<TermId> genes = new ArrayList<>();
+    for (int g = 0; g < 300; g++) {
+      TermId gene = TermId.of("NCBIGene:" + (1000 + g));
+      genes.add(gene);
+      for (int t = 0; t < 40; t++) {
+        if (random.nextInt(t + 2) == 0) {
+          TermId term = TermId.of(String.format("GO:%07d", t));
+          populationMap.computeIfAbsent(term, DirectAndIndirectTermAnnotations::new).addDirectAnnotatedItem(gene);
+        }
+      }
+    }
+    matrix = AnnotationBitsetMatrix.of(populationMap);
+    studyGenes = new HashSet<>();
+    Iterator<TermId> enriched = populationMap.get(ENRICHED_TERM).getTotalAnnotatedDomainItemSet().iterator();
+    while (studyGenes.size() < 8 && enriched.hasNext()) {
+      studyGenes.add(enriched.next());
+    }
+    Collections.shuffle(genes, random);
+    for (TermId gene : genes) {
+      if (studyGenes.size() == 40) break;
+      studyGenes.add(gene);
+    }
+  }
+
+  private static List<GoTerm2PValAndCounts> adjust(Executor executor) {
+    List<GoTerm2PValAndCounts> pvals = new TermForTermBitsetPValueCalculation(null, matrix, studyGenes,
+      new NoMultipleTestingCorrection()).calculatePVals();
+    WestfallYoungMinP westfallYoung = new WestfallYoungMinP(matrix, studyGenes.size(), 500, 17L);
+    westfallYoung.setExecutor(executor);
+    westfallYoung.adjustPvals(pvals);
+    return pvals;
+  }
+
+  @Test
+  public void testAdjustedPValues() {
+    List<GoTerm2PValAndCounts> pvals = adjust(Runnable::run);
+    assertFalse(pvals.isEmpty());
+    double previous = 0.0;
+    for (GoTerm2PValAndCounts pval : pvals) {
+      assertTrue(pval.getAdjustedPValue() >= previous);
+      assertTrue(pval.getAdjustedPValue() <= 1.0);
+      previous = pval.getAdjustedPValue();
+    }
+    GoTerm2PValAndCounts enriched = pvals.get(0);
+    assertEquals(ENRICHED_TERM, enriched.getItem());
+    assertTrue(enriched.getAdjustedPValue() < 0.05);
+  }
+
+  @Test
+  public void testDeterministicInParallel() {
+    List<GoTerm2PValAndCounts> sequential = adjust(Runnable::run);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<GoTerm2PValAndCounts> parallel = adjust(executor);
+      assertEquals(sequential.size(), parallel.size());
+      for (int i = 0; i < sequential.size(); i++) {
+        assertEquals(sequential.get(i).getItem(), parallel.get(i).getItem());
+        assertEquals(sequential.get(i).getAdjustedPValue(), parallel.get(i).getAdjustedPValue());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testInvalidStudySetSize() {
+    assertThrows(IllegalArgumentException.class, () -> new WestfallYoungMinP(matrix, 301, 100, 1L));
+  }
+}
@@ -0,0 +1,75 @@
+package org.monarchinitiative.phenol.analysis.util;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.phenol.analysis.GeneAnnotations;
+import org.monarchinitiative.phenol.annotations.formats.hpo.HpoGeneAnnotation;
+import org.monarchinitiative.phenol.ontology.data.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DomainItemIndexTest {
+
+  private static final TermId ROOT = TermId.of("HP:0000001");
+  private static final TermId FIRST = TermId.of("HP:0000002");
+  private static final TermId SECOND = TermId.of("HP:0000003");
+  private static final TermId THIRD = TermId.of("HP:0000004");
+
+  private static final TermId GENE1 = TermId.of("NCBIGene:1");
+  private static final TermId GENE2 = TermId.of("NCBIGene:2");
+  private static final TermId GENE3 = TermId.of("NCBIGene:3");
+
+  private static Ontology ontology;
+  private static Map<TermId, GeneAnnotations> gene2associationMap;
+
+  @BeforeAll
+  public static void init() {
+    ontology = ImmutableOntology.builder()
+      .metaInfo(Map.of())
+      .terms(List.of(Term.of(ROOT, "root"), Term.of(FIRST, "first"), Term.of(SECOND, "second"), Term.of(THIRD, "third")))
+      .relationships(List.of(
+        new Relationship(FIRST, ROOT, 1, RelationshipType.IS_A),
+        new Relationship(SECOND, ROOT, 2, RelationshipType.IS_A),
+        new Relationship(THIRD, ROOT, 3, RelationshipType.IS_A)))
+      .build();
+    gene2associationMap = Map.of(
+      GENE1, GeneAnnotations.of(GENE1, List.of(new HpoGeneAnnotation(1, "GENE1", FIRST, "first"))),
+      GENE2, GeneAnnotations.of(GENE2, List.of(new HpoGeneAnnotation(2, "GENE2", SECOND, "second"))),
+      GENE3, GeneAnnotations.of(GENE3, List.of(new HpoGeneAnnotation(3, "GENE3", THIRD, "third"))));
+  }
+
+  @Test
+  public void testGetDomainItemsAnnotatedByOntologyTerm() {
+    DomainItemIndex index = DomainItemIndex.of(ontology, gene2associationMap);
+
+    assertEquals(Set.of(GENE1, GENE2, GENE3), index.getDomainItemsAnnotatedByOntologyTerm(ROOT));
+    assertEquals(Set.of(GENE1), index.getDomainItemsAnnotatedByOntologyTerm(FIRST));
+    assertEquals(Set.of(GENE2), index.getDomainItemsAnnotatedByOntologyTerm(SECOND));
+    assertEquals(Set.of(GENE3), index.getDomainItemsAnnotatedByOntologyTerm(THIRD));
+  }
+
+  @Test
+  public void testLeastRecentlyQueriedTermIsEvicted() {
+    DomainItemIndex index = DomainItemIndex.of(ontology, gene2associationMap, 2);
+
+    index.getDomainItemsAnnotatedByOntologyTerm(FIRST);
+    index.getDomainItemsAnnotatedByOntologyTerm(SECOND);
+    // FIRST is now the most recently queried term
+    index.getDomainItemsAnnotatedByOntologyTerm(FIRST);
+    index.getDomainItemsAnnotatedByOntologyTerm(THIRD);
+
+    assertTrue(index.isCached(FIRST));
+    assertFalse(index.isCached(SECOND));
+    assertTrue(index.isCached(THIRD));
+
+    // terms seen after the cache filled up are cached as well
+    assertEquals(Set.of(GENE1, GENE2, GENE3), index.getDomainItemsAnnotatedByOntologyTerm(ROOT));
+    assertTrue(index.isCached(ROOT));
+    assertEquals(Set.of(GENE2), index.getDomainItemsAnnotatedByOntologyTerm(SECOND));
+    assertTrue(index.isCached(SECOND));
+  }
+}
@@ -2,6 +2,8 @@ package org.monarchinitiative.phenol.annotations.formats.hpo;
 
 import org.monarchinitiative.phenol.annotations.assoc.*;
 import org.monarchinitiative.phenol.annotations.formats.GeneIdentifiers;
+import org.monarchinitiative.phenol.instrumentation.LoadListener;
+import org.monarchinitiative.phenol.instrumentation.LoadPhaseRecorder;
 import org.monarchinitiative.phenol.ontology.data.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,6 +31,9 @@ import java.util.*;
  * <p>
  * The builder throws {@link MissingFormatArgumentException} if any of the primary components is missing
  * and the secondary components are not provided.
+ * <p>
+ * The metrics of the {@code gene-identifiers}, {@code disease-to-gene-associations}, and {@code hpo-gene-annotations}
+ * phases are reported to the {@link #loadListener(LoadListener)} for the components that are built.
  */
 public class HpoAssociationDataBuilder {
 
@@ -53,6 +58,8 @@ public class HpoAssociationDataBuilder {
   private AnnotatedItemContainer<? extends AnnotatedItem> diseases;
   private HpoGeneAnnotations hpoGeneAnnotations;
 
+  private LoadListener loadListener = LoadListener.noOp();
+
   HpoAssociationDataBuilder(MinimalOntology hpo) {
     // private no-op
     this.hpo = Objects.requireNonNull(hpo);
@@ -102,7 +109,14 @@ public class HpoAssociationDataBuilder {
     return this;
   }
 
+  public HpoAssociationDataBuilder loadListener(LoadListener loadListener) {
+    this.loadListener = Objects.requireNonNull(loadListener);
+    return this;
+  }
+
   public HpoAssociationData build() throws MissingPhenolResourceException {
+    LoadPhaseRecorder phaseRecorder = LoadPhaseRecorder.of(HpoAssociationDataBuilder.class.getSimpleName(), loadListener);
+
     // GeneIdentifiers
     if (geneIdentifiers == null) {
       LOGGER.debug("Gene identifiers are unset.");
@@ -122,7 +136,9 @@ public class HpoAssociationDataBuilder {
         throw new MissingPhenolResourceException("Gene identifiers are unset and neither Homo sapiens gene info path nor HGNC complete set archive path is set!");
 
       try {
+        LoadPhaseRecorder.Phase phase = phaseRecorder.start("gene-identifiers");
         geneIdentifiers = loader.load(giPath);
+        phase.finish(geneIdentifiers.size());
       } catch (IOException e) {
         throw new MissingPhenolResourceException(e);
       }
@@ -134,7 +150,9 @@ public class HpoAssociationDataBuilder {
       if (mim2geneMedgenPath != null) {
         try {
           LOGGER.debug("Loading disease to gene associations from {}", mim2geneMedgenPath);
+          LoadPhaseRecorder.Phase phase = phaseRecorder.start("disease-to-gene-associations");
           diseaseToGeneAssociations = DiseaseToGeneAssociationLoader.loadDiseaseToGeneAssociations(mim2geneMedgenPath, orphaToGenePath, geneIdentifiers);
+          phase.finish(diseaseToGeneAssociations.diseaseIdToGeneAssociations().size());
         } catch (IOException e) {
           throw new MissingPhenolResourceException(e);
         }
@@ -148,7 +166,9 @@ public class HpoAssociationDataBuilder {
       LOGGER.debug("HPO gene annotations are unset.");
       if (diseases != null) {
         LOGGER.debug("Loading HPO gene annotations.");
+        LoadPhaseRecorder.Phase phase = phaseRecorder.start("hpo-gene-annotations");
         hpoGeneAnnotations = loadHpoGeneAnnotations(diseases, hpo, diseaseToGeneAssociations.diseaseIdToGeneAssociations());
+        phase.finish(hpoGeneAnnotations.size());
       } else {
         throw new MissingPhenolResourceException("HPO diseases are unset!");
       }
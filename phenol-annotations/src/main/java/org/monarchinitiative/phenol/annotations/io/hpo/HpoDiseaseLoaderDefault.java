@@ -7,6 +7,8 @@ import org.monarchinitiative.phenol.annotations.constants.hpo.HpoClinicalModifie
 import org.monarchinitiative.phenol.annotations.constants.hpo.HpoModeOfInheritanceTermIds;
 import org.monarchinitiative.phenol.annotations.formats.hpo.*;
 import org.monarchinitiative.phenol.annotations.constants.hpo.HpoSubOntologyRootTermIds;
+import org.monarchinitiative.phenol.instrumentation.LoadListener;
+import org.monarchinitiative.phenol.instrumentation.LoadPhaseRecorder;
 import org.monarchinitiative.phenol.ontology.data.MinimalOntology;
 import org.monarchinitiative.phenol.ontology.data.TermId;
 
@@ -28,6 +30,7 @@ class HpoDiseaseLoaderDefault implements HpoDiseaseLoader  {
   private static final Pattern PERCENTAGE_PATTERN = Pattern.compile("(?<value>\\d+\\.?(\\d+)?)%");
 
   private final HpoaDiseaseDataLoader loader;
+  private final LoadPhaseRecorder phaseRecorder;
   private final int cohortSize;
   private final boolean salvageNegatedFrequencies;
   protected final Set<DiseaseDatabase> databasePrefixes;
@@ -35,8 +38,14 @@ class HpoDiseaseLoaderDefault implements HpoDiseaseLoader  {
   protected final Set<TermId> inheritanceSubHierarchy;
 
   HpoDiseaseLoaderDefault(MinimalOntology hpo, HpoDiseaseLoaderOptions options) {
+    this(hpo, options, LoadListener.noOp());
+  }
+
+  HpoDiseaseLoaderDefault(MinimalOntology hpo, HpoDiseaseLoaderOptions options, LoadListener listener) {
     Objects.requireNonNull(hpo, "HPO ontology must not be null.");
     Objects.requireNonNull(options, "Options must not be null.");
+    Objects.requireNonNull(listener, "Listener must not be null.");
+    this.phaseRecorder = LoadPhaseRecorder.of(HpoDiseaseLoader.class.getSimpleName(), listener);
     this.cohortSize = options.cohortSize();
     this.salvageNegatedFrequencies = options.salvageNegatedFrequencies();
     this.databasePrefixes = options.includedDatabases();
@@ -53,13 +62,17 @@ class HpoDiseaseLoaderDefault implements HpoDiseaseLoader  {
   @Override
   public HpoDiseases load(InputStream is) throws IOException {
     // First, we load the disease data container.
+    LoadPhaseRecorder.Phase parse = phaseRecorder.start("parse");
     HpoaDiseaseDataContainer container = loader.loadDiseaseData(is);
+    parse.finish(container.diseaseData().size());
 
     // Then, we assemble the annotation lines into a HpoDisease objects.
+    LoadPhaseRecorder.Phase diseaseAssembly = phaseRecorder.start("disease-assembly");
     List<HpoDisease> diseases = container.stream()
       .map(this::assembleIntoDisease)
       .flatMap(Optional::stream)
       .collect(Collectors.toUnmodifiableList());
+    diseaseAssembly.finish(diseases.size());
 
     return HpoDiseases.of(container.version().orElse(null), diseases);
   }
@@ -1,5 +1,6 @@
 package org.monarchinitiative.phenol.annotations.io.hpo;
 
+import org.monarchinitiative.phenol.instrumentation.LoadListener;
 import org.monarchinitiative.phenol.ontology.data.MinimalOntology;
 import org.monarchinitiative.phenol.ontology.data.Ontology;
 
@@ -16,7 +17,20 @@ public class HpoDiseaseLoaders {
    * @return default disease loader.
    */
   public static HpoDiseaseLoader defaultLoader(MinimalOntology hpo, HpoDiseaseLoaderOptions options) {
-    return new HpoDiseaseLoaderDefault(hpo, options);
+    return defaultLoader(hpo, options, LoadListener.noOp());
+  }
+
+  /**
+   * Get default {@link HpoDiseaseLoader} implementation that reports the metrics of the {@code parse}
+   * and {@code disease-assembly} phases of each load to the {@code listener}.
+   *
+   * @param hpo HPO ontology.
+   * @param options loader options. <b>Note</b>: the default options are at {@link HpoDiseaseLoaderOptions#defaultOptions()}).
+   * @param listener listener to report the load phases to.
+   * @return default disease loader.
+   */
+  public static HpoDiseaseLoader defaultLoader(MinimalOntology hpo, HpoDiseaseLoaderOptions options, LoadListener listener) {
+    return new HpoDiseaseLoaderDefault(hpo, options, listener);
   }
 
   /**
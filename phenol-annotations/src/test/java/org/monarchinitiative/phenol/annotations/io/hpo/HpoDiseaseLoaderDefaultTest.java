@@ -12,11 +12,13 @@ import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDisease;
 import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDiseaseAnnotation;
 import org.monarchinitiative.phenol.annotations.formats.hpo.HpoDiseases;
 import org.monarchinitiative.phenol.annotations.formats.hpo.HpoOnset;
+import org.monarchinitiative.phenol.instrumentation.LoadPhaseMetrics;
 import org.monarchinitiative.phenol.io.OntologyLoader;
 import org.monarchinitiative.phenol.ontology.data.Ontology;
 import org.monarchinitiative.phenol.ontology.data.TermId;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -57,6 +59,18 @@ public class HpoDiseaseLoaderDefaultTest {
     assertThat(hpoDiseases.diseaseIds(), hasItems(TermId.of("OMIM:987654"), TermId.of("ORPHA:123456"), TermId.of("OMIM:111111")));
   }
 
+  @Test
+  public void loadPhasesAreReportedToListener() throws Exception {
+    List<LoadPhaseMetrics> metrics = new ArrayList<>();
+    HpoDiseaseLoader loader = HpoDiseaseLoaders.defaultLoader(HPO, OPTIONS, metrics::add);
+
+    loader.load(HPOA);
+
+    assertThat(metrics.stream().map(LoadPhaseMetrics::phase).collect(Collectors.toList()), contains("parse", "disease-assembly"));
+    assertThat(metrics.get(1).loader(), equalTo("HpoDiseaseLoader"));
+    assertThat(metrics.get(1).itemCount(), equalTo(3L));
+  }
+
   @SuppressWarnings("OptionalGetWithoutIsPresent")
   @Test
   public void testPresenceOfExpectedPhenotypesInOmimSyndrome() throws Exception {
@@ -4,6 +4,7 @@
 module org.monarchinitiative.phenol.core {
   exports org.monarchinitiative.phenol.base;
   exports org.monarchinitiative.phenol.graph;
+  exports org.monarchinitiative.phenol.instrumentation;
   exports org.monarchinitiative.phenol.ontology.data;
   exports org.monarchinitiative.phenol.ontology.data.impl to org.monarchinitiative.phenol.io;
   exports org.monarchinitiative.phenol.ontology.algo;
@@ -14,6 +15,7 @@ module org.monarchinitiative.phenol.core {
   requires transitive org.jgrapht.core; // due to DefaultDirectedGraph being exposed in MinimalOntology
   requires com.fasterxml.jackson.databind; // for annotating model classes
   requires org.slf4j;
+  requires static jdk.management; // for measuring the allocated bytes of the load phases, where available
 
   // To enable custom `TermId` serialization
   opens org.monarchinitiative.phenol.ontology.serialize to com.fasterxml.jackson.databind;
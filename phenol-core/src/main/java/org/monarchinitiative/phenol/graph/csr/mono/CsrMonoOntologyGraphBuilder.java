@@ -1,14 +1,13 @@
 package org.monarchinitiative.phenol.graph.csr.mono;
 
 import org.monarchinitiative.phenol.graph.*;
-import org.monarchinitiative.phenol.graph.csr.util.Util;
 import org.monarchinitiative.phenol.ontology.data.TermId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Builder for {@link CsrMonoOntologyGraphBuilder}.
@@ -39,66 +38,87 @@ public class CsrMonoOntologyGraphBuilder implements OntologyGraphBuilder<TermId>
 
   @Override
   public CsrMonoOntologyGraph<TermId> build(TermId root, Collection<? extends OntologyGraphEdge<TermId>> edges) {
-    LOGGER.debug("Extracting edges with target hierarchy relation {}", hierarchyRelation.label());
-    List<? extends OntologyGraphEdge<TermId>> hierarchyEdges = edges.stream()
-      .filter(e -> e.relationType().equals(hierarchyRelation))
-      .collect(Collectors.toList());
+    LOGGER.debug("Indexing graph nodes");
+    // Map each node to an int once, in the order of appearance.
+    Map<TermId, Integer> nodeToIdx = new HashMap<>();
+    List<TermId> nodes = new ArrayList<>();
+    int[] subjects = new int[edges.size()];
+    int[] objects = new int[edges.size()];
+    int hierarchyEdgeCount = 0;
+    for (OntologyGraphEdge<TermId> edge : edges) {
+      int subject = indexOf(edge.subject(), nodeToIdx, nodes);
+      int object = indexOf(edge.object(), nodeToIdx, nodes);
+      if (edge.relationType().equals(hierarchyRelation)) {
+        subjects[hierarchyEdgeCount] = subject;
+        objects[hierarchyEdgeCount] = object;
+        hierarchyEdgeCount++;
+      }
+    }
 
     LOGGER.debug("Sorting graph nodes");
-    List<TermId> nodes = edges.stream()
-      .flatMap(e -> Stream.of(e.subject(), e.object()))
-      .distinct()
-      .sorted(TermId::compareTo)
-      .collect(Collectors.toList());
+    TermId[] sorted = nodes.toArray(new TermId[0]);
+    Arrays.parallelSort(sorted, TermId::compareTo);
+    int[] rank = new int[sorted.length];
+    for (int i = 0; i < sorted.length; i++) {
+      // `put` returns the index in the order of appearance
+      rank[nodeToIdx.put(sorted[i], i)] = i;
+    }
+    for (int e = 0; e < hierarchyEdgeCount; e++) {
+      subjects[e] = rank[subjects[e]];
+      objects[e] = rank[objects[e]];
+    }
 
     LOGGER.debug("Building CSR arrays");
-    CsrData<TermId> csrData = makeCsrData(nodes, hierarchyEdges);
-    Map<TermId, Integer> nodeToIdx = new HashMap<>();
-    for (int i = 0; i < nodes.size(); i++) {
-      TermId node = nodes.get(i);
-      nodeToIdx.put(node, i);
-    }
+    CsrData<TermId> csrData = makeCsrData(sorted, subjects, objects, hierarchyEdgeCount);
 
     return new CsrMonoOntologyGraph<>(root, nodeToIdx, csrData.getParents(), csrData.getChildren());
   }
 
-  private CsrData<TermId> makeCsrData(List<TermId> nodes,
-                                      Collection<? extends OntologyGraphEdge<TermId>> edges) {
-    Map<Integer, List<OntologyGraphEdge<TermId>>> adjacentEdges = Util.findAdjacentEdges(nodes, edges);
-
-    List<Integer> parentIndptr = new ArrayList<>();
-    parentIndptr.add(0);
-    List<TermId> parents = new ArrayList<>();
-
-    List<Integer> childIndptr = new ArrayList<>();
-    childIndptr.add(0);
-    List<TermId> children = new ArrayList<>();
-
-    for (int rowIdx = 0; rowIdx < nodes.size(); rowIdx++) {
-      TermId source = nodes.get(rowIdx);
-      List<OntologyGraphEdge<TermId>> adjacent = adjacentEdges.getOrDefault(rowIdx, List.of());
-
-      for (OntologyGraphEdge<TermId> edge : adjacent) {
-        // `inverted == true` if `src == subject` (child) and `object` is parent.
-        boolean targetIsChild = source.equals(edge.object());
-        TermId target = targetIsChild ? edge.subject() : edge.object();
-        if (targetIsChild) {
-          // edge where `subject` is child and `object` is parent.
-          children.add(target);
-        } else {
-          // edge where `subject` is parent and `object` is child.
-          parents.add(target);
-        }
-      }
-
-      parentIndptr.add(parents.size());
-      childIndptr.add(children.size());
+  private static int indexOf(TermId node, Map<TermId, Integer> nodeToIdx, List<TermId> nodes) {
+    Integer idx = nodeToIdx.get(node);
+    if (idx == null) {
+      idx = nodes.size();
+      nodeToIdx.put(node, idx);
+      nodes.add(node);
     }
+    return idx;
+  }
 
-    StaticCsrArray<TermId> parentsArray = new StaticCsrArray<>(Util.toIntArray(parentIndptr), parents);
-    StaticCsrArray<TermId> childrenArray = new StaticCsrArray<>(Util.toIntArray(childIndptr), children);
+  /**
+   * Build the CSR arrays of the parents and the children with a counting sort. The two arrays are built in parallel.
+   * The parents (children) of a node are in the order of the edges.
+   */
+  private static CsrData<TermId> makeCsrData(TermId[] nodes, int[] subjects, int[] objects, int edgeCount) {
+    // edge where `subject` is child and `object` is parent.
+    CompletableFuture<StaticCsrArray<TermId>> children = CompletableFuture.supplyAsync(
+      () -> makeCsrArray(nodes, objects, subjects, edgeCount));
+    StaticCsrArray<TermId> parents = makeCsrArray(nodes, subjects, objects, edgeCount);
+    try {
+      return new CsrData<>(parents, children.join());
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException)
+        throw (RuntimeException) e.getCause();
+      throw e;
+    }
+  }
 
-    return new CsrData<>(parentsArray, childrenArray);
+  /**
+   * @param rows    the row node of each edge.
+   * @param columns the adjacent node of each edge.
+   */
+  private static StaticCsrArray<TermId> makeCsrArray(TermId[] nodes, int[] rows, int[] columns, int edgeCount) {
+    int[] indptr = new int[nodes.length + 1];
+    for (int e = 0; e < edgeCount; e++)
+      indptr[rows[e] + 1]++;
+    for (int i = 0; i < nodes.length; i++)
+      indptr[i + 1] += indptr[i];
+
+    int[] position = Arrays.copyOf(indptr, nodes.length);
+    TermId[] data = new TermId[edgeCount];
+    for (int e = 0; e < edgeCount; e++)
+      data[position[rows[e]]++] = nodes[columns[e]];
+
+    return new StaticCsrArray<>(indptr, Arrays.asList(data));
   }
 
 }
@@ -1,7 +1,13 @@
 package org.monarchinitiative.phenol.graph.util;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.monarchinitiative.phenol.graph.IdLabeledEdge;
 import org.monarchinitiative.phenol.graph.OntologyGraphEdge;
@@ -16,6 +22,17 @@ import org.slf4j.LoggerFactory;
 
 public class CompatibilityChecker {
   private static final Logger LOGGER = LoggerFactory.getLogger(CompatibilityChecker.class);
+  // The multi-edge check of smaller graphs is not worth running in parallel.
+  private static final int PARALLEL_THRESHOLD = 1 << 16;
+  private static final int MAX_CACHED_RESULTS = 16;
+  // SHA-256 hashes of the vertices and edges that passed the check, the oldest is evicted first.
+  private static final Set<ByteBuffer> VALIDATED = Collections.synchronizedSet(Collections.newSetFromMap(
+    new LinkedHashMap<>() {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<ByteBuffer, Boolean> eldest) {
+        return size() > MAX_CACHED_RESULTS;
+      }
+    }));
 
   private CompatibilityChecker() {
   }
@@ -54,96 +71,168 @@ public class CompatibilityChecker {
    */
   public static <V extends TermId> boolean checkCompatibility(Collection<V> vertices,
                                                               Collection<? extends OntologyGraphEdge<V>> edges) {
+    return checkCompatibility(vertices, edges, false);
+  }
+
+  /**
+   * Check if the {@code vertices} and the {@code edges} can be used to build an {@link OntologyGraph},
+   * see {@link #checkCompatibility(Collection, Collection)}.
+   * <p>
+   * The check runs in {@code O(V+E)} time on arrays of vertex indices. The same exception is thrown
+   * for the same input whether the check runs in parallel or not.
+   *
+   * @param parallel {@code true} if the multi-edge check of large graphs should run on the common fork-join pool.
+   */
+  public static <V extends TermId> boolean checkCompatibility(Collection<V> vertices,
+                                                              Collection<? extends OntologyGraphEdge<V>> edges,
+                                                              boolean parallel) {
     LOGGER.debug("Checking vertices ({}) and edges ({}) for compatibility...", vertices.size(), edges.size());
     if (vertices.isEmpty() || edges.isEmpty())
       throw new VerticesAndEdgesIncompatibleException(
         String.format("Collection of vertices (%d) or edges (%d) must not be empty!", vertices.size(), edges.size())
       );
 
-    checkVertexEdgeCompatibility(vertices, edges);
+    IndexedGraph<V> graph = IndexedGraph.of(vertices, edges);
     LOGGER.debug("Vertices and edges are compatible!");
 
-    checkIfGraphIsSimple(vertices, edges);
+    checkIfGraphIsSimple(graph, edges, parallel);
     LOGGER.debug("Graph is simple!");
 
-    checkIfGraphIsConnected(vertices, edges);
+    checkIfGraphIsConnected(graph);
     LOGGER.debug("Graph is connected!");
     return true;
   }
 
-  private static <V extends TermId> void checkVertexEdgeCompatibility(Collection<V> vertices,
-                                                                      Collection<? extends OntologyGraphEdge<V>> edges) {
-    Set<V> vertexSet = new HashSet<>(vertices);
-    for (OntologyGraphEdge<V> edge : edges) {
-      if (!vertexSet.contains(edge.subject()))
-        throw new VerticesAndEdgesIncompatibleException(String.format("Unknown subject %s in edge %s", edge.subject(), edge));
-      if (!vertexSet.contains(edge.object()))
-        throw new VerticesAndEdgesIncompatibleException(String.format("Unknown object %s in edge %s", edge.object(), edge));
+  /**
+   * Same as {@link #checkCompatibility(Collection, Collection, boolean)}, but the check is skipped if
+   * the same {@code vertices} and {@code edges}, e.g. of the same ontology release, passed the check before.
+   * The inputs are identified by a SHA-256 hash of their content. The hashes of the last
+   * {@value #MAX_CACHED_RESULTS} inputs that passed are kept.
+   */
+  public static <V extends TermId> boolean checkCompatibilityCached(Collection<V> vertices,
+                                                                    Collection<? extends OntologyGraphEdge<V>> edges,
+                                                                    boolean parallel) {
+    ByteBuffer fingerprint = fingerprint(vertices, edges);
+    if (VALIDATED.contains(fingerprint)) {
+      LOGGER.debug("Vertices ({}) and edges ({}) passed the compatibility check before", vertices.size(), edges.size());
+      return true;
     }
+    checkCompatibility(vertices, edges, parallel);
+    VALIDATED.add(fingerprint);
+    return true;
   }
 
-  private static <V extends TermId> void checkIfGraphIsSimple(Collection<V> vertices,
-                                                              Collection<? extends OntologyGraphEdge<V>> edges) {
-    Map<V, List<RelationshipStub<V>>> seen = new HashMap<>(vertices.size());
-    for (OntologyGraphEdge<V> edge : edges) {
-      if (edge.subject().equals(edge.object()))
-        throw new GraphNotSimpleException("Self-loop edge: " + edge);
+  private static <V extends TermId> void checkIfGraphIsSimple(IndexedGraph<V> graph,
+                                                              Collection<? extends OntologyGraphEdge<V>> edges,
+                                                              boolean parallel) {
+    int vertexCount = graph.vertices.size();
+    int[][] bySubject = groupEdges(graph.subjects, vertexCount);
+    int[] offsets = bySubject[0];
+    int[] order = bySubject[1];
+    // next edge with the same subject and object, shared by the tasks since they work on disjoint subjects
+    int[] next = new int[graph.subjects.length];
 
-      List<RelationshipStub<V>> stubs = seen.computeIfAbsent(edge.subject(), w -> new ArrayList<>());
-      boolean seenBefore = stubs.stream()
-        .anyMatch(stub -> stub.object.equals(edge.object()) && stub.relationType.equals(edge.relationType()));
-      if (seenBefore)
-        throw new GraphNotSimpleException("Saw edge twice: " + edge);
+    int firstMultiEdge;
+    if (parallel && graph.subjects.length >= PARALLEL_THRESHOLD) {
+      int chunks = 2 * ForkJoinPool.getCommonPoolParallelism();
+      firstMultiEdge = IntStream.range(0, chunks)
+        .parallel()
+        .map(c -> findFirstMultiEdge(graph, offsets, order, next,
+          (int) ((long) c * vertexCount / chunks), (int) ((long) (c + 1) * vertexCount / chunks)))
+        .min()
+        .orElse(Integer.MAX_VALUE);
+    } else {
+      firstMultiEdge = findFirstMultiEdge(graph, offsets, order, next, 0, vertexCount);
+    }
+
+    // Report the first offending edge, in the order of the edges.
+    if (graph.firstSelfLoop >= 0 && graph.firstSelfLoop < firstMultiEdge)
+      throw new GraphNotSimpleException("Self-loop edge: " + edgeAt(edges, graph.firstSelfLoop));
+    if (firstMultiEdge != Integer.MAX_VALUE)
+      throw new GraphNotSimpleException("Saw edge twice: " + edgeAt(edges, firstMultiEdge));
+  }
 
-      stubs.add(new RelationshipStub<>(edge.object(), edge.relationType()));
+  /**
+   * @return the index of the first edge whose subject is in {@code [from, to)} and that has the same subject, object,
+   * and relation type as an edge before it, or {@link Integer#MAX_VALUE} if there is no such edge.
+   */
+  private static int findFirstMultiEdge(IndexedGraph<?> graph, int[] offsets, int[] order, int[] next, int from, int to) {
+    int vertexCount = graph.vertices.size();
+    // stamp[o] is s + 1 if an edge from s to o was seen, and head[o] is the last such edge.
+    int[] stamp = new int[vertexCount];
+    int[] head = new int[vertexCount];
+    int first = Integer.MAX_VALUE;
+    for (int s = from; s < to; s++) {
+      edges:
+      for (int i = offsets[s]; i < offsets[s + 1]; i++) {
+        // the edges of a subject are ordered by their index, so the first multi-edge is the one to report
+        int e = order[i];
+        int o = graph.objects[e];
+        if (stamp[o] != s + 1) {
+          stamp[o] = s + 1;
+          head[o] = -1;
+        }
+        for (int f = head[o]; f >= 0; f = next[f]) {
+          if (graph.relations[f] == graph.relations[e]) {
+            first = Math.min(first, e);
+            break edges;
+          }
+        }
+        next[e] = head[o];
+        head[o] = e;
+      }
     }
+    return first;
   }
 
-  private static <V extends TermId> void checkIfGraphIsConnected(Collection<V> vertices,
-                                                                 Collection<? extends OntologyGraphEdge<V>> edges) {
-    // I) First, find the root
-    V root;
+  private static <V extends TermId> void checkIfGraphIsConnected(IndexedGraph<V> graph) {
+    int vertexCount = graph.vertices.size();
+    // I) First, find the root by following the first outgoing edge, starting with the subject of the first edge.
+    int root;
     {
-      // Create map for following is_a relationships up to the root
-      Map<V, List<OntologyGraphEdge<V>>> edgeMap = new HashMap<>(vertices.size());
-      for (OntologyGraphEdge<V> edge : edges)
-          edgeMap.computeIfAbsent(edge.subject(), whatever -> new ArrayList<>()).add(edge);
-
-      V current = edges.iterator().next().subject();
-      while (true) {
-        List<OntologyGraphEdge<V>> outgoing = edgeMap.getOrDefault(current, List.of());
-        if (outgoing.isEmpty())
-          break;
-        else
-          current = outgoing.get(0).object();
+      int[][] bySubject = groupEdges(graph.subjects, vertexCount);
+      int[] offsets = bySubject[0];
+      int[] order = bySubject[1];
+      int current = graph.subjects[0];
+      int steps = 0;
+      while (offsets[current] < offsets[current + 1]) {
+        current = graph.objects[order[offsets[current]]];
+        if (++steps > vertexCount)
+          throw new GraphNotConnectedException("Unable to find the root, found a cycle through " + graph.vertices.get(current).getValue());
       }
       root = current;
     }
 
     // II) Next, traverse from the root to the leaves, keeping track of the seen vertices.
-    Set<V> seen = new HashSet<>(vertices.size());
+    boolean[] seen = new boolean[vertexCount];
+    int seenCount;
     {
-      Map<V, List<OntologyGraphEdge<V>>> edgeMap = new HashMap<>(vertices.size());
-      for (OntologyGraphEdge<V> edge : edges)
-        edgeMap.computeIfAbsent(edge.object(), whatever -> new ArrayList<>()).add(edge);
-
-      // Initialize before looping/traversal.
-      Queue<OntologyGraphEdge<V>> buffer = new ArrayDeque<>(edgeMap.getOrDefault(root, List.of()));
-      seen.add(root);
-
-      // Traverse
-      while (!buffer.isEmpty()) {
-        OntologyGraphEdge<V> edge = buffer.poll();
-        V current = edge.subject();
-        seen.add(current);
-        buffer.addAll(edgeMap.getOrDefault(current, List.of()));
+      int[][] byObject = groupEdges(graph.objects, vertexCount);
+      int[] offsets = byObject[0];
+      int[] order = byObject[1];
+      int[] queue = new int[vertexCount];
+      queue[0] = root;
+      seen[root] = true;
+      seenCount = 1;
+      for (int head = 0; head < seenCount; head++) {
+        int current = queue[head];
+        for (int i = offsets[current]; i < offsets[current + 1]; i++) {
+          int child = graph.subjects[order[i]];
+          if (!seen[child]) {
+            seen[child] = true;
+            queue[seenCount++] = child;
+          }
+        }
       }
     }
 
     // III) Last, check and report unseen/unvisited vertices.
-    Set<V> vertexSet = new HashSet<>(vertices);
-    vertexSet.removeAll(seen);
-    if (!vertexSet.isEmpty()) {
+    if (seenCount < vertexCount) {
+      Set<V> vertexSet = new HashSet<>();
+      for (int v = 0; v < vertexCount; v++) {
+        if (!seen[v])
+          vertexSet.add(graph.vertices.get(v));
+      }
       String verticesSummary = vertexSet.stream()
         .limit(10)
         .map(V::getValue)
@@ -157,6 +246,59 @@ public class CompatibilityChecker {
     }
   }
 
+  /**
+   * Group the edges by a vertex with a counting sort. The sort is stable, the edges of a vertex are ordered by their index.
+   *
+   * @param keys the subject or object vertex of each edge.
+   * @return the offsets of the groups ({@code vertexCount + 1} values) and the edge indices ordered by group.
+   */
+  private static int[][] groupEdges(int[] keys, int vertexCount) {
+    int[] offsets = new int[vertexCount + 1];
+    for (int key : keys)
+      offsets[key + 1]++;
+    for (int v = 0; v < vertexCount; v++)
+      offsets[v + 1] += offsets[v];
+    int[] position = Arrays.copyOf(offsets, vertexCount);
+    int[] order = new int[keys.length];
+    for (int e = 0; e < keys.length; e++)
+      order[position[keys[e]]++] = e;
+    return new int[][]{offsets, order};
+  }
+
+  private static <E> E edgeAt(Collection<E> edges, int index) {
+    Iterator<E> iterator = edges.iterator();
+    for (int i = 0; i < index; i++)
+      iterator.next();
+    return iterator.next();
+  }
+
+  private static <V extends TermId> ByteBuffer fingerprint(Collection<V> vertices,
+                                                           Collection<? extends OntologyGraphEdge<V>> edges) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform must support SHA-256.
+      throw new IllegalStateException(e);
+    }
+    ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+    for (V vertex : vertices)
+      update(digest, length, vertex.getValue());
+    update(digest, length, "");
+    for (OntologyGraphEdge<V> edge : edges) {
+      update(digest, length, edge.subject().getValue());
+      update(digest, length, edge.relationType().id());
+      update(digest, length, edge.object().getValue());
+    }
+    return ByteBuffer.wrap(digest.digest());
+  }
+
+  private static void update(MessageDigest digest, ByteBuffer length, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    digest.update(length.clear().putInt(0, bytes.length));
+    digest.update(bytes);
+  }
+
   /**
    * Check compatibility of <code>vertices</code> and <code>edges</code>, i.e., there must not be a
    * vertex in <code>edges</code> that is not present in <code>vertices</code>.
@@ -196,14 +338,60 @@ public class CompatibilityChecker {
     LOGGER.debug("Graph is simple!");
   }
 
-  // This would be an excellent record if we were at or above Java 17.
-  private static class RelationshipStub<V extends TermId> {
-    private final V object;
-    private final RelationType relationType;
+  /**
+   * The vertices and edges, where the vertices are replaced by their indices in {@link #vertices}.
+   */
+  private static class IndexedGraph<V extends TermId> {
+    private final List<V> vertices;
+    private final int[] subjects;
+    private final int[] objects;
+    private final int[] relations;
+    // the index of the first self-loop edge or -1
+    private final int firstSelfLoop;
+
+    private IndexedGraph(List<V> vertices, int[] subjects, int[] objects, int[] relations, int firstSelfLoop) {
+      this.vertices = vertices;
+      this.subjects = subjects;
+      this.objects = objects;
+      this.relations = relations;
+      this.firstSelfLoop = firstSelfLoop;
+    }
+
+    private static <V extends TermId> IndexedGraph<V> of(Collection<V> vertices,
+                                                         Collection<? extends OntologyGraphEdge<V>> edges) {
+      Map<V, Integer> vertexIndex = new HashMap<>(vertices.size() * 4 / 3 + 1);
+      List<V> vertexList = new ArrayList<>(vertices.size());
+      for (V vertex : vertices) {
+        if (vertexIndex.putIfAbsent(vertex, vertexList.size()) == null)
+          vertexList.add(vertex);
+      }
 
-    private RelationshipStub(V object, RelationType relationType) {
-      this.object = object;
-      this.relationType = relationType;
+      Map<RelationType, Integer> relationIndex = new HashMap<>();
+      int[] subjects = new int[edges.size()];
+      int[] objects = new int[edges.size()];
+      int[] relations = new int[edges.size()];
+      int firstSelfLoop = -1;
+      int e = 0;
+      for (OntologyGraphEdge<V> edge : edges) {
+        Integer subject = vertexIndex.get(edge.subject());
+        if (subject == null)
+          throw new VerticesAndEdgesIncompatibleException(String.format("Unknown subject %s in edge %s", edge.subject(), edge));
+        Integer object = vertexIndex.get(edge.object());
+        if (object == null)
+          throw new VerticesAndEdgesIncompatibleException(String.format("Unknown object %s in edge %s", edge.object(), edge));
+        Integer relation = relationIndex.get(edge.relationType());
+        if (relation == null) {
+          relation = relationIndex.size();
+          relationIndex.put(edge.relationType(), relation);
+        }
+        if (firstSelfLoop < 0 && subject.equals(object))
+          firstSelfLoop = e;
+        subjects[e] = subject;
+        objects[e] = object;
+        relations[e] = relation;
+        e++;
+      }
+      return new IndexedGraph<>(vertexList, subjects, objects, relations, firstSelfLoop);
     }
   }
 }
@@ -0,0 +1,29 @@
+package org.monarchinitiative.phenol.instrumentation;
+
+/**
+ * Receives the metrics of the phases of a load, e.g. to find out how the startup time of an application splits
+ * between parsing the ontology and building the ontology graph.
+ * <p>
+ * The listener is called on the thread that runs the load, once per completed phase. The phases of a failed load
+ * are reported up to the failure.
+ *
+ * @see LoadPhaseRecorder
+ */
+@FunctionalInterface
+public interface LoadListener {
+
+  /**
+   * @return a listener that ignores all metrics, the default of the loaders.
+   */
+  static LoadListener noOp() {
+    return NoOpLoadListener.INSTANCE;
+  }
+
+  /**
+   * Called when a phase of a load is completed.
+   *
+   * @param metrics metrics of the completed phase.
+   */
+  void phaseCompleted(LoadPhaseMetrics metrics);
+
+}
@@ -0,0 +1,108 @@
+package org.monarchinitiative.phenol.instrumentation;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.OptionalLong;
+
+/**
+ * A record-like class with the metrics of a completed phase of a load.
+ *
+ * @see LoadListener
+ */
+public final class LoadPhaseMetrics {
+
+  private final String loader;
+  private final String phase;
+  private final long wallTimeNanos;
+  private final long itemCount;
+  private final long allocatedBytes;
+
+  /**
+   * @param loader         name of the loader, e.g. {@code MinimalOntologyLoader}.
+   * @param phase          name of the phase, e.g. {@code graph-build}.
+   * @param wallTimeNanos  wall time of the phase in nanoseconds.
+   * @param itemCount      number of items processed in the phase, e.g. the number of terms.
+   * @param allocatedBytes bytes allocated by the loading thread during the phase or a negative number if the JVM
+   *                       does not measure the allocations.
+   */
+  public static LoadPhaseMetrics of(String loader, String phase, long wallTimeNanos, long itemCount, long allocatedBytes) {
+    return new LoadPhaseMetrics(loader, phase, wallTimeNanos, itemCount, allocatedBytes);
+  }
+
+  private LoadPhaseMetrics(String loader, String phase, long wallTimeNanos, long itemCount, long allocatedBytes) {
+    this.loader = Objects.requireNonNull(loader);
+    this.phase = Objects.requireNonNull(phase);
+    this.wallTimeNanos = wallTimeNanos;
+    this.itemCount = itemCount;
+    this.allocatedBytes = allocatedBytes < 0 ? -1 : allocatedBytes;
+  }
+
+  /**
+   * @return name of the loader, e.g. {@code MinimalOntologyLoader}.
+   */
+  public String loader() {
+    return loader;
+  }
+
+  /**
+   * @return name of the phase, e.g. {@code graph-build}.
+   */
+  public String phase() {
+    return phase;
+  }
+
+  /**
+   * @return wall time of the phase.
+   */
+  public Duration wallTime() {
+    return Duration.ofNanos(wallTimeNanos);
+  }
+
+  /**
+   * @return wall time of the phase in nanoseconds.
+   */
+  public long wallTimeNanos() {
+    return wallTimeNanos;
+  }
+
+  /**
+   * @return number of items processed in the phase, e.g. the number of terms.
+   */
+  public long itemCount() {
+    return itemCount;
+  }
+
+  /**
+   * Get the bytes allocated by the loading thread during the phase. The allocations of the tasks that the phase
+   * runs on other threads, e.g. a parallel conversion of the ontology nodes, are not included.
+   *
+   * @return the allocated bytes or an empty optional if the JVM does not measure the allocations of a thread.
+   */
+  public OptionalLong allocatedBytes() {
+    return allocatedBytes < 0 ? OptionalLong.empty() : OptionalLong.of(allocatedBytes);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    LoadPhaseMetrics that = (LoadPhaseMetrics) o;
+    return wallTimeNanos == that.wallTimeNanos && itemCount == that.itemCount && allocatedBytes == that.allocatedBytes && loader.equals(that.loader) && phase.equals(that.phase);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(loader, phase, wallTimeNanos, itemCount, allocatedBytes);
+  }
+
+  @Override
+  public String toString() {
+    return "LoadPhaseMetrics{" +
+      "loader='" + loader + '\'' +
+      ", phase='" + phase + '\'' +
+      ", wallTimeNanos=" + wallTimeNanos +
+      ", itemCount=" + itemCount +
+      ", allocatedBytes=" + allocatedBytes +
+      '}';
+  }
+}
@@ -0,0 +1,111 @@
+package org.monarchinitiative.phenol.instrumentation;
+
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+
+/**
+ * Measures the phases of a load and reports them to a {@link LoadListener}.
+ * <p>
+ * A phase is measured from {@link #start(String)} to {@link Phase#finish(long)}, on the same thread. The allocated
+ * bytes are measured with the {@link com.sun.management.ThreadMXBean} of the platform, if the JVM supports it and
+ * the optional {@code jdk.management} module is available, e.g. with {@code --add-modules jdk.management} on the
+ * module path.
+ * Nothing is measured if the listener is {@link LoadListener#noOp()}.
+ */
+public final class LoadPhaseRecorder {
+
+  private static final LoadPhaseRecorder NO_OP = new LoadPhaseRecorder("", LoadListener.noOp());
+  private static final Phase NO_OP_PHASE = new Phase(NO_OP, "", 0, 0);
+
+  // null if the allocated bytes of a thread cannot be measured
+  private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = findThreadMXBean();
+
+  /**
+   * @param loader   name of the loader that is reported in the metrics, e.g. {@code MinimalOntologyLoader}.
+   * @param listener listener to report the phases to.
+   * @return the recorder
+   */
+  public static LoadPhaseRecorder of(String loader, LoadListener listener) {
+    Objects.requireNonNull(loader);
+    Objects.requireNonNull(listener);
+    return listener == LoadListener.noOp() ? NO_OP : new LoadPhaseRecorder(loader, listener);
+  }
+
+  /**
+   * @return a recorder that measures nothing.
+   */
+  public static LoadPhaseRecorder noOp() {
+    return NO_OP;
+  }
+
+  private final String loader;
+  private final LoadListener listener;
+
+  private LoadPhaseRecorder(String loader, LoadListener listener) {
+    this.loader = loader;
+    this.listener = listener;
+  }
+
+  /**
+   * Start measuring a phase on the current thread.
+   *
+   * @param phase name of the phase, e.g. {@code graph-build}.
+   * @return the phase to finish when it is completed.
+   */
+  public Phase start(String phase) {
+    if (this == NO_OP)
+      return NO_OP_PHASE;
+    return new Phase(this, phase, System.nanoTime(), allocatedBytes());
+  }
+
+  private static long allocatedBytes() {
+    return THREAD_MX_BEAN == null
+      ? -1
+      : THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  private static com.sun.management.ThreadMXBean findThreadMXBean() {
+    try {
+      java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (bean instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+        if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled())
+          return sunBean;
+      }
+    } catch (UnsupportedOperationException | LinkageError e) {
+      // The allocations are not measured.
+    }
+    return null;
+  }
+
+  /**
+   * A phase that is being measured.
+   */
+  public static final class Phase {
+
+    private final LoadPhaseRecorder recorder;
+    private final String name;
+    private final long startNanos;
+    private final long startAllocatedBytes;
+
+    private Phase(LoadPhaseRecorder recorder, String name, long startNanos, long startAllocatedBytes) {
+      this.recorder = recorder;
+      this.name = name;
+      this.startNanos = startNanos;
+      this.startAllocatedBytes = startAllocatedBytes;
+    }
+
+    /**
+     * Finish the phase and report its metrics to the listener. Must be called on the thread that started the phase.
+     *
+     * @param itemCount number of items processed in the phase, e.g. the number of terms.
+     */
+    public void finish(long itemCount) {
+      if (recorder == NO_OP)
+        return;
+      long wallTimeNanos = System.nanoTime() - startNanos;
+      long allocated = startAllocatedBytes < 0 ? -1 : allocatedBytes() - startAllocatedBytes;
+      recorder.listener.phaseCompleted(LoadPhaseMetrics.of(recorder.loader, name, wallTimeNanos, itemCount, allocated));
+    }
+  }
+}
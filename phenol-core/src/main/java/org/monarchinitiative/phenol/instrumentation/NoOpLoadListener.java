@@ -0,0 +1,19 @@
+package org.monarchinitiative.phenol.instrumentation;
+
+class NoOpLoadListener implements LoadListener {
+
+  static final NoOpLoadListener INSTANCE = new NoOpLoadListener();
+
+  private NoOpLoadListener() {
+  }
+
+  @Override
+  public void phaseCompleted(LoadPhaseMetrics metrics) {
+    // no-op
+  }
+
+  @Override
+  public String toString() {
+    return "NoOpLoadListener";
+  }
+}
@@ -0,0 +1,9 @@
+/**
+ * Instrumentation of the loading routines.
+ * <p>
+ * A {@link org.monarchinitiative.phenol.instrumentation.LoadListener} receives
+ * {@link org.monarchinitiative.phenol.instrumentation.LoadPhaseMetrics} with the wall time, the number of processed
+ * items, and the allocated bytes of each phase of a load, e.g. of an ontology or of the disease annotations.
+ * The loaders use {@link org.monarchinitiative.phenol.instrumentation.LoadPhaseRecorder} to measure the phases.
+ */
+package org.monarchinitiative.phenol.instrumentation;
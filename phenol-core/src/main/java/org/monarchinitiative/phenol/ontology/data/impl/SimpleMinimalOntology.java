@@ -7,6 +7,7 @@ import org.monarchinitiative.phenol.graph.OntologyGraph;
 import org.monarchinitiative.phenol.graph.OntologyGraphBuilder;
 import org.monarchinitiative.phenol.graph.OntologyGraphBuilders;
 import org.monarchinitiative.phenol.graph.util.CompatibilityChecker;
+import org.monarchinitiative.phenol.instrumentation.LoadPhaseRecorder;
 import org.monarchinitiative.phenol.ontology.data.*;
 import org.monarchinitiative.phenol.utils.IterableIteratorWrapper;
 import org.monarchinitiative.phenol.utils.OntologyUtils;
@@ -193,7 +194,10 @@ public class SimpleMinimalOntology implements MinimalOntology {
     private final List<Term> terms = new ArrayList<>();
     private final List<Relationship> relationships = new ArrayList<>();
     private boolean forceBuild = false;
+    private boolean cacheCompatibilityCheck = false;
+    private boolean parallelCompatibilityCheck = false;
     private GraphImplementation graphImplementation = GraphImplementation.MONO;
+    private LoadPhaseRecorder phaseRecorder = LoadPhaseRecorder.noOp();
 
     /**
      * Enum to choose from the {@link OntologyGraph} implementations.
@@ -270,6 +274,29 @@ public class SimpleMinimalOntology implements MinimalOntology {
       return this;
     }
 
+    /**
+     * Skip the compatibility checks if the same terms and relationships, e.g. of the same ontology release,
+     * passed the checks before in this JVM.
+     *
+     * @param value {@code true} if the result of the checks should be cached.
+     * @return the builder.
+     */
+    public Builder cacheCompatibilityCheck(boolean value) {
+      this.cacheCompatibilityCheck = value;
+      return this;
+    }
+
+    /**
+     * Run the multi-edge part of the compatibility checks of large ontologies on the common fork-join pool.
+     *
+     * @param value {@code true} if the checks should run in parallel.
+     * @return the builder.
+     */
+    public Builder parallelCompatibilityCheck(boolean value) {
+      this.parallelCompatibilityCheck = value;
+      return this;
+    }
+
     /**
      * Set the graph implementation to be used.
      *
@@ -281,6 +308,18 @@ public class SimpleMinimalOntology implements MinimalOntology {
       return this;
     }
 
+    /**
+     * Set the recorder for the build phases, {@code term-indexing}, {@code compatibility-check}
+     * (unless the build is forced), and {@code graph-build}. Nothing is recorded by default.
+     *
+     * @param phaseRecorder a non-null {@linkplain LoadPhaseRecorder}.
+     * @return the builder.
+     */
+    public Builder phaseRecorder(LoadPhaseRecorder phaseRecorder) {
+      this.phaseRecorder = Objects.requireNonNull(phaseRecorder);
+      return this;
+    }
+
     /**
      * Build the ontology from the provided {@code metaInfo}, {@code terms}, and {@code relationships}.
      * @return the built {@link SimpleMinimalOntology}.
@@ -292,6 +331,7 @@ public class SimpleMinimalOntology implements MinimalOntology {
       if (relationships.isEmpty())
         throw new IllegalStateException("No relationships were provided to build the ontology");
 
+      LoadPhaseRecorder.Phase termIndexing = phaseRecorder.start("term-indexing");
       // Then, find the root term and build the graph.
       // IMPORTANT - this must be done before working with terms and relationships because an artificial root
       // may be added!
@@ -316,16 +356,23 @@ public class SimpleMinimalOntology implements MinimalOntology {
 
       RelationshipContainer relationshipContainer = packageRelationships(relationships);
       TermIdCount termIdCount = new TermIdCount(all, all - nonObsolete, nonObsolete);
+      termIndexing.finish(terms.size());
 
       if (!forceBuild) {
+        LoadPhaseRecorder.Phase compatibilityCheck = phaseRecorder.start("compatibility-check");
         // Check if the vertices and edges meet the ontology graph requirements.
         List<TermId> vertices = primaryTerms.stream()
           .map(Term::id)
           .collect(Collectors.toList());
-        CompatibilityChecker.checkCompatibility(vertices, relationships);
+        if (cacheCompatibilityCheck)
+          CompatibilityChecker.checkCompatibilityCached(vertices, relationships, parallelCompatibilityCheck);
+        else
+          CompatibilityChecker.checkCompatibility(vertices, relationships, parallelCompatibilityCheck);
+        compatibilityCheck.finish(relationships.size());
       }
 
       // Build the graph.
+      LoadPhaseRecorder.Phase graphBuild = phaseRecorder.start("graph-build");
       OntologyGraphBuilder<TermId> graphBuilder;
       switch (graphImplementation) {
         case MONO:
@@ -339,6 +386,7 @@ public class SimpleMinimalOntology implements MinimalOntology {
       }
       OntologyGraph<TermId> ontologyGraph = graphBuilder.hierarchyRelation(hierarchyRelationshipType)
         .build(rootId, relationships);
+      graphBuild.finish(relationships.size());
 
       // Finally, wrap everything into the ontology!
       return new SimpleMinimalOntology(ontologyGraph,
@@ -4,6 +4,7 @@ import org.monarchinitiative.phenol.ontology.data.TermId;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.SortedMap;
@@ -12,13 +13,17 @@ import java.util.TreeMap;
 /**
  * Precomputed score distribution for a fixed number of terms and one world object Ids.
  *
+ * <p>The distribution is held in two parallel primitive arrays of observed scores (strictly
+ * ascending) and the corresponding cumulative frequencies. Use {@link #withResolution(int)} to
+ * obtain a compacted copy with a bounded number of points.
+ *
  * @author <a href="mailto:manuel.holtgrewe@bihealth.de">Manuel Holtgrewe</a>
  * @author <a href="mailto:sebastian.koehler@charite.de">Sebastian Koehler</a>
  */
 public final class ObjectScoreDistribution implements Serializable {
 
   /** Serial UId for serialization. */
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L;
 
   /** "World object" identifier. */
   private final TermId objectId;
@@ -29,9 +34,11 @@ public final class ObjectScoreDistribution implements Serializable {
   /** Number of iterations for sampling. */
   private final int sampleSize;
 
-  // TODO: maybe better replace by arrays?
-  /** Cumulative frequencies for the score. */
-  private final SortedMap<Double, Double> cumulativeFrequencies;
+  /** Observed scores, sorted ascendingly. */
+  private final double[] scores;
+
+  /** Cumulative frequencies for the score at the same index in {@link #scores}. */
+  private final double[] cumulativeFrequencies;
 
   /**
    * Construct score distribution for a given number of terms, sample size, and cumulative
@@ -46,40 +53,151 @@ public final class ObjectScoreDistribution implements Serializable {
     this.objectId = objectId;
     this.numTerms = numTerms;
     this.sampleSize = sampleSize;
-    this.cumulativeFrequencies = cumulativeFrequencies;
+    this.scores = new double[cumulativeFrequencies.size()];
+    this.cumulativeFrequencies = new double[cumulativeFrequencies.size()];
+    int i = 0;
+    for (Entry<Double, Double> entry : cumulativeFrequencies.entrySet()) {
+      this.scores[i] = entry.getKey();
+      this.cumulativeFrequencies[i] = entry.getValue();
+      ++i;
+    }
+  }
+
+  /**
+   * Construct score distribution for a given number of terms, sample size, and cumulative
+   * frequencies given as parallel arrays.
+   *
+   * @param objectId "World object" identifier.
+   * @param numTerms Number of terms used in precomputation.
+   * @param sampleSize Sample size used for precomputation.
+   * @param scores Observed scores, must be sorted strictly ascendingly.
+   * @param cumulativeFrequencies Cumulative frequencies of the scores, same length as {@code
+   *     scores}.
+   * @throws IllegalArgumentException if the array lengths differ or the scores are not sorted.
+   */
+  public ObjectScoreDistribution(TermId objectId, int numTerms, int sampleSize, double[] scores, double[] cumulativeFrequencies) {
+    if (scores.length != cumulativeFrequencies.length) {
+      throw new IllegalArgumentException("Got " + scores.length + " scores but "
+        + cumulativeFrequencies.length + " cumulative frequencies");
+    }
+    for (int i = 1; i < scores.length; ++i) {
+      if (!(scores[i - 1] < scores[i])) {
+        throw new IllegalArgumentException("Scores must be sorted strictly ascendingly");
+      }
+    }
+    this.objectId = objectId;
+    this.numTerms = numTerms;
+    this.sampleSize = sampleSize;
+    this.scores = scores.clone();
+    this.cumulativeFrequencies = cumulativeFrequencies.clone();
   }
 
   /**
    * Estimate p value from the given score.
    *
+   * <p>Between two observed scores, the cumulative frequency is interpolated with half of the score
+   * gap as the weight. The estimate is clamped to {@code [0, 1]} as the gaps of a compacted
+   * distribution may be wider than {@code 2}.
+   *
    * @param score The score to estimate p value for
    * @return Empirically estimated p value.
    */
   public double estimatePValue(double score) {
-    Entry<Double, Double> previous = null;
-    for (Entry<Double, Double> entry : cumulativeFrequencies.entrySet()) {
-      if (previous == null && score <= entry.getKey()) {
-        return 1.0; // smaller than all
+    if (scores.length == 0) {
+      return 0.0;
+    }
+    if (score <= scores[0]) {
+      return 1.0; // smaller than all
+    }
+    final int pos = Arrays.binarySearch(scores, score);
+    // Index of the largest observed score that is smaller than or equal to score.
+    final int previous = pos >= 0 ? pos : -pos - 2;
+    if (previous == scores.length - 1) {
+      // If we reach here, p value is 0.0
+      return 0.0;
+    }
+    // interpolate and return, keeping the estimate a probability when the points are far apart
+    final int next = previous + 1;
+    final double dx = (scores[next] - scores[previous]) / 2.0;
+    final double p = 1 - (cumulativeFrequencies[previous] + dx * (cumulativeFrequencies[next] - cumulativeFrequencies[previous]));
+    return Math.min(1.0, Math.max(0.0, p));
+  }
+
+  /**
+   * Compact the distribution to at most {@code resolution + 1} points.
+   *
+   * <p>The smallest and the largest observed score are always kept. In between, the first observed
+   * score reaching each cumulative frequency of {@code k / resolution} for {@code k = 1, ...,
+   * resolution - 1} is kept. The cumulative frequencies at the kept scores are exact and the
+   * cumulative frequencies between two kept scores differ by at most about {@code 1 / resolution}.
+   *
+   * @param resolution Number of quantile bins, {@code 0} for no compaction.
+   * @return Compacted distribution or {@code this} if there is nothing to compact.
+   * @throws IllegalArgumentException if {@code resolution} is negative.
+   */
+  public ObjectScoreDistribution withResolution(int resolution) {
+    if (resolution < 0) {
+      throw new IllegalArgumentException("Resolution must not be negative but was " + resolution);
+    }
+    if (resolution == 0 || scores.length <= resolution + 1) {
+      return this;
+    }
+
+    final int[] keep = new int[resolution + 1];
+    int kept = 0;
+    keep[kept++] = 0;
+    int idx = 0;
+    for (int k = 1; k < resolution; ++k) {
+      final double target = (double) k / resolution;
+      while (idx < scores.length - 1 && cumulativeFrequencies[idx] < target) {
+        ++idx;
       }
-      if (previous != null && previous.getKey() <= score && score < entry.getKey()) {
-        // interpolate and return
-        final double dx = (entry.getKey() - previous.getKey()) / 2.0;
-        return 1 - (previous.getValue() + dx * (entry.getValue() - previous.getValue()));
+      if (idx > keep[kept - 1] && idx < scores.length - 1) {
+        keep[kept++] = idx;
       }
-      previous = entry;
     }
-    // If we reach here, p value is 0.0
-    return 0.0;
+    keep[kept++] = scores.length - 1;
+
+    final double[] compactScores = new double[kept];
+    final double[] compactFrequencies = new double[kept];
+    for (int i = 0; i < kept; ++i) {
+      compactScores[i] = scores[keep[i]];
+      compactFrequencies[i] = cumulativeFrequencies[keep[i]];
+    }
+    return new ObjectScoreDistribution(objectId, numTerms, sampleSize, compactScores, compactFrequencies);
+  }
+
+  /** @return Number of points (observed scores) of the distribution. */
+  public int size() {
+    return scores.length;
   }
 
   /** @return List of copy of observed scores, sorted ascendingly. */
   public List<Double> observedScores() {
-    return new ArrayList<>(cumulativeFrequencies.keySet());
+    final List<Double> result = new ArrayList<>(scores.length);
+    for (double score : scores) {
+      result.add(score);
+    }
+    return result;
+  }
+
+  /** @return Copy of the observed scores, sorted ascendingly. */
+  public double[] getScoreArray() {
+    return scores.clone();
+  }
+
+  /** @return Copy of the cumulative frequencies of the scores returned by {@link #getScoreArray()}. */
+  public double[] getCumulativeFrequencyArray() {
+    return cumulativeFrequencies.clone();
   }
 
   /** @return Copy of the score distribution. */
   public SortedMap<Double, Double> getCumulativeFrequencies() {
-    return new TreeMap<>(cumulativeFrequencies);
+    final SortedMap<Double, Double> result = new TreeMap<>();
+    for (int i = 0; i < scores.length; ++i) {
+      result.put(scores[i], cumulativeFrequencies[i]);
+    }
+    return result;
   }
 
   /** @return The world object Id for which the score has been precomputed. */
@@ -106,7 +224,7 @@ public final class ObjectScoreDistribution implements Serializable {
         + ", sampleSize="
         + sampleSize
         + ", cumulativeFrequencies="
-        + cumulativeFrequencies
+        + getCumulativeFrequencies()
         + "]";
   }
 }
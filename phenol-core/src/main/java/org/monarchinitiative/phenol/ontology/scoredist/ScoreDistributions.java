@@ -26,6 +26,20 @@ public final class ScoreDistributions {
    * @throws CannotMergeScoreDistributions In case of problems with {@code distributions}.
    */
   public static ScoreDistribution merge(Collection<? extends ScoreDistribution> distributions) {
+    return merge(distributions, 0);
+  }
+
+  /**
+   * Merge a {@link Collection} of {@link ScoreDistribution} and compact the {@link
+   * ObjectScoreDistribution}s to the given resolution.
+   *
+   * @param distributions {@link Collection} of {@link ScoreDistribution}s to merge.
+   * @param resolution Number of quantile bins, {@code 0} for no compaction.
+   * @return Merge result.
+   * @throws CannotMergeScoreDistributions In case of problems with {@code distributions}.
+   * @see ObjectScoreDistribution#withResolution(int)
+   */
+  public static ScoreDistribution merge(Collection<? extends ScoreDistribution> distributions, int resolution) {
     if (distributions.isEmpty()) {
       throw new CannotMergeScoreDistributions("Cannot merge zero ScoreDistributions objects.");
     }
@@ -40,7 +54,7 @@ public final class ScoreDistributions {
         if (mapping.containsKey(objectId)) {
           throw new CannotMergeScoreDistributions("Duplicate object ID " + objectId + " detected");
         } else {
-          mapping.put(objectId, dist);
+          mapping.put(objectId, dist.withResolution(resolution));
         }
       }
     }
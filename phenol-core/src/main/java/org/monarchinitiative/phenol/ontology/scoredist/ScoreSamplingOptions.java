@@ -1,6 +1,7 @@
 package org.monarchinitiative.phenol.ontology.scoredist;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 /**
  * Configuration for score sampling.
@@ -34,6 +35,21 @@ public final class ScoreSamplingOptions implements Serializable, Cloneable {
   /** The seed to use for the precomputations. */
   private int seed = 42;
 
+  /** Whether to stop sampling early once the score distribution has converged. */
+  private boolean adaptiveSampling = false;
+
+  /** Number of iterations per block in adaptive sampling. */
+  private int adaptiveBlockSize = 5_000;
+
+  /** Largest change of cumulative frequency at the tail quantiles to consider as converged. */
+  private double adaptiveTolerance = 0.001;
+
+  /** Quantiles of the score distribution at which convergence is checked in adaptive sampling. */
+  private double[] adaptiveQuantiles = {0.9, 0.95, 0.99};
+
+  /** Number of quantile bins to compact the resulting distributions to, <code>0</code> for none. */
+  private int resolution = 0;
+
   /**
    * Default constructor.
    *
@@ -185,10 +201,120 @@ public final class ScoreSamplingOptions implements Serializable, Cloneable {
     this.numIterations = numIterations;
   }
 
+  /** @return Whether sampling stops early once the score distribution has converged. */
+  public boolean isAdaptiveSampling() {
+    return adaptiveSampling;
+  }
+
+  /**
+   * Set whether to use adaptive sampling.
+   *
+   * <p>In adaptive mode, the scores are sampled in blocks of {@link #getAdaptiveBlockSize()}
+   * iterations. After each block, the cumulative frequencies at the {@link #getAdaptiveQuantiles()}
+   * are compared with the ones before the block and sampling stops as soon as none of them changed
+   * by more than {@link #getAdaptiveTolerance()}. {@link #getNumIterations()} is the upper bound
+   * for the number of iterations.
+   *
+   * <p>The default is <code>false</code>.
+   *
+   * @param adaptiveSampling Whether to use adaptive sampling.
+   */
+  public void setAdaptiveSampling(boolean adaptiveSampling) {
+    this.adaptiveSampling = adaptiveSampling;
+  }
+
+  /** @return Number of iterations per block in adaptive sampling. */
+  public int getAdaptiveBlockSize() {
+    return adaptiveBlockSize;
+  }
+
+  /**
+   * Set the number of iterations per block in adaptive sampling.
+   *
+   * <p>The default is <code>5_000</code>.
+   *
+   * @param adaptiveBlockSize Number of iterations per block, must be positive.
+   */
+  public void setAdaptiveBlockSize(int adaptiveBlockSize) {
+    if (adaptiveBlockSize <= 0) {
+      throw new IllegalArgumentException("Block size must be positive but was " + adaptiveBlockSize);
+    }
+    this.adaptiveBlockSize = adaptiveBlockSize;
+  }
+
+  /** @return Largest change of cumulative frequency considered as converged in adaptive sampling. */
+  public double getAdaptiveTolerance() {
+    return adaptiveTolerance;
+  }
+
+  /**
+   * Set the largest absolute change of cumulative frequency at the tail quantiles that is
+   * considered as converged in adaptive sampling.
+   *
+   * <p>The default is <code>0.001</code>.
+   *
+   * @param adaptiveTolerance The tolerance, must not be negative.
+   */
+  public void setAdaptiveTolerance(double adaptiveTolerance) {
+    if (adaptiveTolerance < 0) {
+      throw new IllegalArgumentException("Tolerance must not be negative but was " + adaptiveTolerance);
+    }
+    this.adaptiveTolerance = adaptiveTolerance;
+  }
+
+  /** @return Copy of the quantiles at which convergence is checked in adaptive sampling. */
+  public double[] getAdaptiveQuantiles() {
+    return adaptiveQuantiles.clone();
+  }
+
+  /**
+   * Set the quantiles of the score distribution at which convergence is checked in adaptive
+   * sampling.
+   *
+   * <p>The default is <code>{0.9, 0.95, 0.99}</code>, i.e. the scores that correspond to p values of
+   * <code>0.1</code>, <code>0.05</code>, and <code>0.01</code>.
+   *
+   * @param adaptiveQuantiles The quantiles, each in <code>(0, 1)</code>.
+   */
+  public void setAdaptiveQuantiles(double... adaptiveQuantiles) {
+    for (double q : adaptiveQuantiles) {
+      if (!(q > 0. && q < 1.)) {
+        throw new IllegalArgumentException("Quantiles must be in (0, 1) but got " + q);
+      }
+    }
+    this.adaptiveQuantiles = adaptiveQuantiles.clone();
+  }
+
+  /** @return Number of quantile bins to compact the resulting distributions to. */
+  public int getResolution() {
+    return resolution;
+  }
+
+  /**
+   * Set the number of quantile bins to compact the resulting distributions to.
+   *
+   * <p>The default is <code>0</code>, i.e. all distinct rounded scores are kept.
+   *
+   * @param resolution Number of quantile bins, <code>0</code> for no compaction.
+   * @see ObjectScoreDistribution#withResolution(int)
+   */
+  public void setResolution(int resolution) {
+    if (resolution < 0) {
+      throw new IllegalArgumentException("Resolution must not be negative but was " + resolution);
+    }
+    this.resolution = resolution;
+  }
+
   @Override
   public Object clone() {
-    return new ScoreSamplingOptions(
+    ScoreSamplingOptions result = new ScoreSamplingOptions(
         numThreads, minObjectId, maxObjectId, minNumTerms, maxNumTerms, seed, numIterations);
+    result.adaptiveSampling = adaptiveSampling;
+    result.adaptiveBlockSize = adaptiveBlockSize;
+    result.adaptiveTolerance = adaptiveTolerance;
+    result.adaptiveQuantiles = adaptiveQuantiles.clone();
+    result.resolution = resolution;
+    return result;
   }
 
   @Override
@@ -207,6 +333,16 @@ public final class ScoreSamplingOptions implements Serializable, Cloneable {
         + numIterations
         + ", seed="
         + seed
+        + ", adaptiveSampling="
+        + adaptiveSampling
+        + ", adaptiveBlockSize="
+        + adaptiveBlockSize
+        + ", adaptiveTolerance="
+        + adaptiveTolerance
+        + ", adaptiveQuantiles="
+        + Arrays.toString(adaptiveQuantiles)
+        + ", resolution="
+        + resolution
         + "]";
   }
 }
@@ -14,9 +14,6 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import org.monarchinitiative.phenol.base.PhenolRuntimeException;
 import org.monarchinitiative.phenol.ontology.data.TermId;
@@ -160,46 +157,110 @@ public final class SimilarityScoreSampling {
    */
   private ObjectScoreDistribution performComputation(TermId objectId, Collection<TermId> terms, int numTerms) {
     // Sample per-object score distribution
+    final Similarity.PreparedTarget target = similarity.prepareTarget(terms);
+    final Map<Double, Long> counts = new HashMap<>();
+    final int sampleSize;
+    if (options.isAdaptiveSampling()) {
+      sampleSize = sampleScoresAdaptively(target, numTerms, counts);
+    } else {
+      sampleSize = options.getNumIterations();
+      sampleScores(target, numTerms, sampleSize, counts);
+    }
     return new ObjectScoreDistribution(
-        objectId,
-        numTerms,
-        options.getNumIterations(),
-        sampleScoreCumulativeRelFreq(terms, numTerms, options.getNumIterations()));
+        objectId, numTerms, sampleSize, cumulativeRelFreq(counts, sampleSize))
+        .withResolution(options.getResolution());
   }
 
   /**
-   * Compute cumulative relative frequencies for the gene with the given "world object Id, number of
-   * terms, iterations, and RNG using sampling.
+   * Sample scores in blocks until the cumulative relative frequencies at the configured tail
+   * quantiles have converged or the configured number of iterations has been reached.
    *
-   * @param terms The {@link TermId}s that this object is labeled with.
+   * @param target The {@link TermId}s that this object is labeled with, prepared for scoring.
    * @param numTerms Number of query terms to use for the computation.
-   * @return Mapping between score and cumulative relative frequency (to use for p value
-   *     computation).
+   * @param counts {@link Map} from rounded score to absolute frequency to update.
+   * @return The number of iterations that have been performed.
+   */
+  private int sampleScoresAdaptively(Similarity.PreparedTarget target, int numTerms, Map<Double, Long> counts) {
+    final int maxIterations = options.getNumIterations();
+    TreeMap<Double, Double> previous = null;
+    int numIterations = 0;
+    while (numIterations < maxIterations) {
+      final int blockSize = Math.min(options.getAdaptiveBlockSize(), maxIterations - numIterations);
+      sampleScores(target, numTerms, blockSize, counts);
+      numIterations += blockSize;
+
+      final TreeMap<Double, Double> current = cumulativeRelFreq(counts, numIterations);
+      if (previous != null && hasConverged(previous, current)) {
+        break;
+      }
+      previous = current;
+    }
+    return numIterations;
+  }
+
+  /**
+   * Check whether the cumulative relative frequencies at the tail quantiles of {@code current}
+   * differ by at most the configured tolerance from the ones in {@code previous}.
+   *
+   * @param previous Cumulative relative frequencies before the last block.
+   * @param current Cumulative relative frequencies after the last block.
+   * @return {@code true} if the distribution can be considered as converged.
    */
-  private TreeMap<Double, Double> sampleScoreCumulativeRelFreq(Collection<TermId> terms, int numTerms, int numIterations) {
+  private boolean hasConverged(TreeMap<Double, Double> previous, TreeMap<Double, Double> current) {
+    for (double quantile : options.getAdaptiveQuantiles()) {
+      // Smallest score whose cumulative relative frequency reaches the quantile.
+      Entry<Double, Double> atQuantile = current.lastEntry();
+      for (Entry<Double, Double> entry : current.entrySet()) {
+        if (entry.getValue() >= quantile) {
+          atQuantile = entry;
+          break;
+        }
+      }
+      final Entry<Double, Double> before = previous.floorEntry(atQuantile.getKey());
+      final double previousFreq = before == null ? 0.0 : before.getValue();
+      if (Math.abs(atQuantile.getValue() - previousFreq) > options.getAdaptiveTolerance()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Sample scores for the given object and add the absolute frequencies of the rounded scores to
+   * {@code counts}.
+   *
+   * @param target The {@link TermId}s that this object is labeled with, prepared for scoring.
+   * @param numTerms Number of query terms to use for the computation.
+   * @param numIterations Number of scores to sample.
+   * @param counts {@link Map} from rounded score to absolute frequency to update.
+   */
+  private void sampleScores(Similarity.PreparedTarget target, int numTerms, int numIterations, Map<Double, Long> counts) {
     // Now, perform the iterations: pick random terms, compute score, and increment absolute
     // frequency
-    Map<Double, Long> counts =
-        IntStream.range(0, numIterations - 1)
-            .boxed()
-            .map(
-                i -> {
-                  // Sample numTerms TermI objects from ontology.
-                  final List<TermId> randomTerms = selectRandomElements(primaryTermIds, numTerms);
-                  final double score = similarity.computeScore(randomTerms, terms);
-                  // Round to four decimal places.
-                  return Math.round(score * 1000.) / 1000.0;
-                })
-            .collect(Collectors.groupingByConcurrent(Function.identity(), Collectors.counting()));
-    counts.putIfAbsent(0.0, 0L);
-
-    // Create cumulative relative frequencies
-    TreeMap<Double, Double> result = new TreeMap<>();
-    for (Entry<Double, Long> entry : counts.entrySet()) {
-      result.put(entry.getKey(), (double) entry.getValue());
+    for (int i = 0; i < numIterations; ++i) {
+      // Sample numTerms TermI objects from ontology.
+      final List<TermId> randomTerms = selectRandomElements(primaryTermIds, numTerms);
+      final double score = target.computeScore(randomTerms);
+      // Round to three decimal places.
+      counts.merge(Math.round(score * 1000.) / 1000.0, 1L, Long::sum);
     }
+  }
+
+  /**
+   * Compute cumulative relative frequencies from the absolute frequencies of the scores.
+   *
+   * @param counts {@link Map} from rounded score to absolute frequency.
+   * @param numIterations Total number of sampled scores.
+   * @return Mapping between score and cumulative relative frequency (to use for p value
+   *     computation).
+   */
+  private static TreeMap<Double, Double> cumulativeRelFreq(Map<Double, Long> counts, int numIterations) {
+    final TreeMap<Double, Long> sorted = new TreeMap<>(counts);
+    sorted.putIfAbsent(0.0, 0L);
+
+    TreeMap<Double, Double> result = new TreeMap<>();
     double counter = 0.0;
-    for (Entry<Double, Double> entry : result.entrySet()) {
+    for (Entry<Double, Long> entry : sorted.entrySet()) {
       counter += entry.getValue();
       result.put(entry.getKey(), counter / numIterations);
     }
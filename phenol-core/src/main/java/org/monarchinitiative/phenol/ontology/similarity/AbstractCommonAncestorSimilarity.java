@@ -2,6 +2,9 @@ package org.monarchinitiative.phenol.ontology.similarity;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.monarchinitiative.phenol.ontology.data.TermId;
 
@@ -70,6 +73,18 @@ abstract class AbstractCommonAncestorSimilarity
     return sum / query.size();
   }
 
+  /**
+   * Prepare <code>target</code> for computing scores against many queries.
+   *
+   * <p>The pairwise similarities between a query term and all target terms are computed once per
+   * distinct query term and cached in the returned {@link PreparedTarget}. This pays off when the
+   * queries are drawn from a limited set of terms, such as when sampling score distributions.
+   */
+  @Override
+  public PreparedTarget prepareTarget(Collection<TermId> target) {
+    return new CachingPreparedTarget(List.copyOf(target));
+  }
+
   /** @return Whether score computation is to be symmetric. */
   public final boolean isSymmetric() {
     return symmetric;
@@ -78,4 +93,72 @@ abstract class AbstractCommonAncestorSimilarity
   public String getParameters() {
     return "{symmetric: " + this.isSymmetric() + "}";
   }
+
+  /**
+   * {@link PreparedTarget} that caches the pairwise similarities of each query term with all target
+   * terms.
+   */
+  private final class CachingPreparedTarget implements PreparedTarget {
+
+    /** Target terms, including duplicates. */
+    private final List<TermId> target;
+
+    /**
+     * Map from query term to the pairwise similarities with the target terms. The first
+     * <code>target.size()</code> entries are the scores of (query, target) pairs, the second half
+     * holds (target, query) scores and is only present for symmetric similarities.
+     */
+    private final Map<TermId, double[]> cache = new HashMap<>();
+
+    private CachingPreparedTarget(List<TermId> target) {
+      this.target = target;
+    }
+
+    private double[] pairwiseScores(TermId q) {
+      return cache.computeIfAbsent(q, k -> {
+        final int n = target.size();
+        final double[] scores = new double[symmetric ? 2 * n : n];
+        for (int j = 0; j < n; ++j) {
+          scores[j] = pairwiseSimilarity.computeScore(q, target.get(j));
+          if (symmetric) {
+            scores[n + j] = pairwiseSimilarity.computeScore(target.get(j), q);
+          }
+        }
+        return scores;
+      });
+    }
+
+    @Override
+    public double computeScore(Collection<TermId> query) {
+      final int n = target.size();
+      // Directed score query -> target.
+      double sum = 0;
+      final double[][] rows = new double[query.size()][];
+      int i = 0;
+      for (TermId q : query) {
+        final double[] scores = pairwiseScores(q);
+        rows[i++] = scores;
+        double maxValue = 0.0;
+        for (int j = 0; j < n; ++j) {
+          maxValue = Math.max(maxValue, scores[j]);
+        }
+        sum += maxValue;
+      }
+      final double forward = sum / query.size();
+      if (!symmetric) {
+        return forward;
+      }
+
+      // Directed score target -> query.
+      sum = 0;
+      for (int j = 0; j < n; ++j) {
+        double maxValue = 0.0;
+        for (double[] scores : rows) {
+          maxValue = Math.max(maxValue, scores[n + j]);
+        }
+        sum += maxValue;
+      }
+      return 0.5 * (forward + sum / n);
+    }
+  }
 }
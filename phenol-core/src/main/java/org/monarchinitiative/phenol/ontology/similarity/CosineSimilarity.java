@@ -68,4 +68,15 @@ public final class CosineSimilarity implements Similarity {
     return Sets.intersection(termIdsQuery, termIdsTarget).size()
         / (Math.sqrt(termIdsQuery.size()) * Math.sqrt(termIdsTarget.size()));
   }
+
+  @Override
+  public PreparedTarget prepareTarget(Collection<TermId> target) {
+    final Set<TermId> termIdsTarget = ontology.getAllAncestorTermIds(target, false);
+    final double sqrtTargetSize = Math.sqrt(termIdsTarget.size());
+    return query -> {
+      final Set<TermId> termIdsQuery = ontology.getAllAncestorTermIds(query, false);
+      return SetOverlap.intersectionSize(termIdsQuery, termIdsTarget)
+          / (Math.sqrt(termIdsQuery.size()) * sqrtTargetSize);
+    };
+  }
 }
@@ -74,4 +74,18 @@ public final class JaccardSimilarity implements Similarity {
       return intersectionSize;
     }
   }
+
+  @Override
+  public PreparedTarget prepareTarget(Collection<TermId> target) {
+    final Set<TermId> termIdsTarget = ontology.getAllAncestorTermIds(target, false);
+    return query -> {
+      final Set<TermId> termIdsQuery = ontology.getAllAncestorTermIds(query, false);
+      final int intersectionSize = SetOverlap.intersectionSize(termIdsQuery, termIdsTarget);
+      if (normalized) {
+        return (double) intersectionSize / (termIdsQuery.size() + termIdsTarget.size() - intersectionSize);
+      } else {
+        return intersectionSize;
+      }
+    };
+  }
 }
@@ -55,6 +55,23 @@ public final class PrecomputingPairwiseResnikSimilarity implements PairwiseSimil
     this.precomputedScores = precomputeScores(ontology, termToIc);
   }
 
+  private PrecomputingPairwiseResnikSimilarity(PrecomputedScores precomputedScores) {
+    this.precomputedScores = precomputedScores;
+  }
+
+  /**
+   * Restore the similarity from scores that were precomputed before, e.g. by a codec that reads them from a file.
+   *
+   * @param termIds the sorted term IDs, see {@link #getTermIds()}.
+   * @param scores  symmetric matrix with the score of each pair of {@code termIds}.
+   * @return the similarity.
+   */
+  public static PrecomputingPairwiseResnikSimilarity of(List<TermId> termIds, float[][] scores) {
+    if (scores.length != termIds.size())
+      throw new IllegalArgumentException("Got " + scores.length + " rows of scores for " + termIds.size() + " terms");
+    return new PrecomputingPairwiseResnikSimilarity(new PrecomputedScores(termIds, scores));
+  }
+
   /** Precompute similarity scores.
    *
    * @return container with precomputed scores.
@@ -94,6 +111,20 @@ public final class PrecomputingPairwiseResnikSimilarity implements PairwiseSimil
     return precomputedScores.get(query, target);
   }
 
+  /**
+   * @return the sorted term IDs, the score matrix is indexed by the position of a term ID in this list.
+   */
+  public List<TermId> getTermIds() {
+    return precomputedScores.termIds();
+  }
+
+  /**
+   * @return the score of the term IDs at {@code i} and {@code j} in {@link #getTermIds()}.
+   */
+  public float getScore(int i, int j) {
+    return precomputedScores.data[i][j];
+  }
+
   private static class SimilarityScoreContainer {
     private final TermId query;
     private final TermId target;
@@ -138,6 +169,22 @@ public final class PrecomputingPairwiseResnikSimilarity implements PairwiseSimil
       }
     }
 
+    PrecomputedScores(List<TermId> sortedTermIds, float[][] data) {
+      this.data = data;
+      termIdToIdx = new HashMap<>(sortedTermIds.size());
+      int i = 0;
+      for (TermId termId : sortedTermIds) {
+        termIdToIdx.put(termId, i++);
+      }
+    }
+
+    /** @return term IDs ordered by their index. */
+    List<TermId> termIds() {
+      TermId[] termIds = new TermId[data.length];
+      termIdToIdx.forEach((termId, idx) -> termIds[idx] = termId);
+      return List.of(termIds);
+    }
+
     /** Set score. */
     public synchronized void put(TermId lhs, TermId rhs, double value) {
       put(lhs, rhs, (float) value);
@@ -0,0 +1,28 @@
+package org.monarchinitiative.phenol.ontology.similarity;
+
+import java.util.Set;
+
+/**
+ * Static helpers for computing overlaps of sets without materializing the intersection.
+ */
+final class SetOverlap {
+
+  private SetOverlap() {}
+
+  /**
+   * Count the elements present in both <code>left</code> and <code>right</code>.
+   *
+   * @return the size of the intersection of <code>left</code> and <code>right</code>.
+   */
+  static <T> int intersectionSize(Set<T> left, Set<T> right) {
+    final Set<T> smaller = left.size() <= right.size() ? left : right;
+    final Set<T> larger = smaller == left ? right : left;
+    int count = 0;
+    for (T item : smaller) {
+      if (larger.contains(item)) {
+        ++count;
+      }
+    }
+    return count;
+  }
+}
@@ -30,4 +30,43 @@ public interface Similarity {
    * @return asymmetric similarity score
    */
   double computeScore(Collection<TermId> query, Collection<TermId> target);
+
+  /**
+   * Prepare <code>target</code> for computing scores against many queries.
+   *
+   * <p>Use this when the same target is compared to a large number of queries, e.g., when sampling
+   * score distributions. Implementations perform the work that only depends on the target (such as
+   * computing its ancestor closure) once, and may cache intermediate results between queries. The
+   * returned {@link PreparedTarget} yields the same scores as {@link #computeScore(Collection,
+   * Collection)}.
+   *
+   * <p>The default implementation does not prepare anything and simply delegates to {@link
+   * #computeScore(Collection, Collection)}.
+   *
+   * @param target Target collection of {@link TermId}s to use
+   * @return {@link PreparedTarget} for computing scores of queries against <code>target</code>.
+   */
+  default PreparedTarget prepareTarget(Collection<TermId> target) {
+    return query -> computeScore(query, target);
+  }
+
+  /**
+   * A target collection of {@link TermId}s that has been prepared for repeated score computation.
+   *
+   * <p>Prepared targets may cache results between calls and are not required to be thread-safe,
+   * each thread should prepare its own target.
+   *
+   * @see Similarity#prepareTarget(Collection)
+   */
+  @FunctionalInterface
+  interface PreparedTarget {
+
+    /**
+     * Compute similarity score between <code>query</code> and the prepared target.
+     *
+     * @param query Query collection of {@link TermId}s to use
+     * @return similarity score, same as {@link Similarity#computeScore(Collection, Collection)}
+     */
+    double computeScore(Collection<TermId> query);
+  }
 }
@@ -36,4 +36,10 @@ public final class SimpleFeatureVectorSimilarity implements Similarity {
   public double computeScore(Collection<TermId> query, Collection<TermId> target) {
     return Sets.intersection(Set.copyOf(query), Set.copyOf(target)).size();
   }
+
+  @Override
+  public PreparedTarget prepareTarget(Collection<TermId> target) {
+    final Set<TermId> targetSet = Set.copyOf(target);
+    return query -> SetOverlap.intersectionSize(Set.copyOf(query), targetSet);
+  }
 }
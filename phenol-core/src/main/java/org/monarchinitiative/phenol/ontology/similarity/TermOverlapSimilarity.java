@@ -76,4 +76,18 @@ public final class TermOverlapSimilarity
       return overlap / Math.min(termIdsQuery.size(), termIdsTarget.size());
     }
   }
+
+  @Override
+  public PreparedTarget prepareTarget(Collection<TermId> target) {
+    final Set<TermId> termIdsTarget = ontology.getAllAncestorTermIds(target, false);
+    return query -> {
+      final Set<TermId> termIdsQuery = ontology.getAllAncestorTermIds(query, false);
+      double overlap = SetOverlap.intersectionSize(termIdsQuery, termIdsTarget);
+      if (!normalized) {
+        return overlap;
+      } else {
+        return overlap / Math.min(termIdsQuery.size(), termIdsTarget.size());
+      }
+    };
+  }
 }
@@ -1,9 +1,12 @@
 package org.monarchinitiative.phenol.graph.csr.mono;
 
 import org.junit.jupiter.api.Test;
+import org.monarchinitiative.phenol.graph.OntologyGraphEdge;
 import org.monarchinitiative.phenol.graph.OntologyGraphEdges;
+import org.monarchinitiative.phenol.graph.RelationTypes;
 import org.monarchinitiative.phenol.ontology.data.TermId;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -34,6 +37,19 @@ public class CsrMonoOntologyGraphBuilderTest {
     assertThat(graph.getChildArray().getIndptr(), equalTo(new int[]{0, 2, 3, 4, 4, 7, 7, 7, 7, 7, 10}));
   }
 
+  @Test
+  public void nodesOfOtherRelationsAreIncluded() {
+    List<OntologyGraphEdge<TermId>> edges = new ArrayList<>(OntologyGraphEdges.hierarchyEdges());
+    edges.add(OntologyGraphEdge.of(TermId.of("HP:04"), OntologyGraphEdges.HP1, RelationTypes.partOf()));
+
+    CsrMonoOntologyGraph<TermId> graph = CsrMonoOntologyGraphBuilder.builder().build(ROOT, edges);
+
+    assertThat(graph.size(), equalTo(11));
+    // HP:04 is sorted between HP:03 and HP:1 and has no is_a parents or children
+    assertThat(graph.getParentArray().getIndptr(), equalTo(new int[]{0, 1, 2, 3, 5, 6, 7, 8, 9, 10, 10, 10}));
+    assertThat(graph.getChildArray().getIndptr(), equalTo(new int[]{0, 2, 3, 4, 4, 7, 7, 7, 7, 7, 7, 10}));
+  }
+
   @Test
   public void checkData() {
     CsrMonoOntologyGraphBuilder builder = CsrMonoOntologyGraphBuilder.builder();
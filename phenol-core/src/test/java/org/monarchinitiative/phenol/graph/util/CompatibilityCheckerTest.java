@@ -11,7 +11,10 @@ import org.monarchinitiative.phenol.graph.exc.VerticesAndEdgesIncompatibleExcept
 import org.monarchinitiative.phenol.ontology.data.RelationshipType;
 import org.monarchinitiative.phenol.ontology.data.TermId;
 
+import java.util.AbstractCollection;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -118,4 +121,66 @@ public class CompatibilityCheckerTest {
       () -> CompatibilityChecker.checkCompatibility(vertices, edges));
     assertThat(e.getMessage(), equalTo("Found 2 disconnected vertices: {HP:997, HP:998, HP:999}"));
   }
+
+  /**
+   * A binary tree large enough for the parallel check, with two multi-edges and a self-loop near the end.
+   */
+  @Test
+  public void parallelCheckReportsFirstOffendingEdge() {
+    int n = 100_000;
+    List<TermId> vertices = new ArrayList<>(n);
+    List<OntologyGraphEdge<TermId>> edges = new ArrayList<>(n + 2);
+    for (int i = 1; i <= n; i++) {
+      vertices.add(TermId.of("HP:" + i));
+      if (i > 1)
+        edges.add(OntologyGraphEdge.of(vertices.get(i - 1), vertices.get(i / 2 - 1), RelationTypes.isA()));
+    }
+    assertThat(CompatibilityChecker.checkCompatibility(vertices, edges, true), equalTo(true));
+
+    edges.add(OntologyGraphEdge.of(TermId.of("HP:90000"), TermId.of("HP:45000"), RelationTypes.isA()));
+    edges.add(OntologyGraphEdge.of(TermId.of("HP:3"), TermId.of("HP:1"), RelationTypes.isA()));
+    edges.add(OntologyGraphEdge.of(TermId.of("HP:5"), TermId.of("HP:5"), RelationTypes.isA()));
+    // a different relation type is not a multi-edge
+    edges.add(0, OntologyGraphEdge.of(TermId.of("HP:2"), TermId.of("HP:1"), RelationTypes.partOf()));
+
+    for (boolean parallel : new boolean[]{false, true}) {
+      GraphNotSimpleException e = assertThrows(GraphNotSimpleException.class,
+        () -> CompatibilityChecker.checkCompatibility(vertices, edges, parallel));
+      assertThat(e.getMessage(), equalTo("Saw edge twice: OntologyGraphEdgeDefault{subject=HP:90000, object=HP:45000, relationshipType=RelationshipType{id='is_a', label='is_a'}}"));
+    }
+  }
+
+  @Test
+  public void checkCompatibilityCached() {
+    List<TermId> vertices = OntologyGraphEdges.VERTICES;
+    List<OntologyGraphEdge<TermId>> edges = OntologyGraphEdges.hierarchyEdges();
+    int[] iterations = {0};
+    Collection<OntologyGraphEdge<TermId>> counted = new AbstractCollection<>() {
+      @Override
+      public Iterator<OntologyGraphEdge<TermId>> iterator() {
+        iterations[0]++;
+        return edges.iterator();
+      }
+
+      @Override
+      public int size() {
+        return edges.size();
+      }
+    };
+
+    assertThat(CompatibilityChecker.checkCompatibilityCached(vertices, counted, false), equalTo(true));
+    int checked = iterations[0];
+    assertThat(CompatibilityChecker.checkCompatibilityCached(vertices, counted, false), equalTo(true));
+    int cached = iterations[0] - checked;
+
+    // a cache hit only reads the edges to fingerprint them, the checks themselves are skipped
+    assertThat(cached, equalTo(1));
+    assertThat(checked, greaterThan(cached));
+
+    // a failed check is not cached
+    List<OntologyGraphEdge<TermId>> withSelfLoop = new ArrayList<>(edges);
+    withSelfLoop.add(OntologyGraphEdge.of(OntologyGraphEdges.HP01, OntologyGraphEdges.HP01, RelationTypes.isA()));
+    assertThrows(GraphNotSimpleException.class, () -> CompatibilityChecker.checkCompatibilityCached(vertices, withSelfLoop, false));
+    assertThrows(GraphNotSimpleException.class, () -> CompatibilityChecker.checkCompatibilityCached(vertices, withSelfLoop, false));
+  }
 }
@@ -0,0 +1,47 @@
+package org.monarchinitiative.phenol.instrumentation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LoadPhaseRecorderTest {
+
+  @Test
+  public void phasesAreReportedInOrder() {
+    List<LoadPhaseMetrics> metrics = new ArrayList<>();
+    LoadPhaseRecorder recorder = LoadPhaseRecorder.of("TestLoader", metrics::add);
+
+    LoadPhaseRecorder.Phase parse = recorder.start("parse");
+    parse.finish(10);
+    LoadPhaseRecorder.Phase build = recorder.start("build");
+    List<long[]> allocations = new ArrayList<>();
+    for (int i = 0; i < 100; i++)
+      allocations.add(new long[1024]);
+    build.finish(allocations.size());
+
+    assertThat(metrics, hasSize(2));
+    LoadPhaseMetrics first = metrics.get(0);
+    assertThat(first.loader(), equalTo("TestLoader"));
+    assertThat(first.phase(), equalTo("parse"));
+    assertThat(first.itemCount(), equalTo(10L));
+    assertThat(first.wallTimeNanos(), greaterThanOrEqualTo(0L));
+
+    LoadPhaseMetrics second = metrics.get(1);
+    assertThat(second.phase(), equalTo("build"));
+    assertThat(second.itemCount(), equalTo(100L));
+    // The allocations are measured on HotSpot, but are not available on every JVM.
+    second.allocatedBytes().ifPresent(bytes -> assertThat(bytes, greaterThanOrEqualTo(100L * 1024 * Long.BYTES)));
+  }
+
+  @Test
+  public void noOpListenerDoesNotRecord() {
+    LoadPhaseRecorder recorder = LoadPhaseRecorder.of("TestLoader", LoadListener.noOp());
+
+    assertThat(recorder, sameInstance(LoadPhaseRecorder.noOp()));
+    recorder.start("parse").finish(10);
+  }
+}
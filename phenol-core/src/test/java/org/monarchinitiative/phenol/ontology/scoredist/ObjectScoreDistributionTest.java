@@ -1,6 +1,6 @@
 package org.monarchinitiative.phenol.ontology.scoredist;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -40,5 +40,59 @@ public class ObjectScoreDistributionTest {
     assertEquals(0.0, objDist.estimatePValue(0.99), 0.01);
   }
 
+  @Test
+  public void testArrayConstruction() {
+    ObjectScoreDistribution fromArrays = new ObjectScoreDistribution(TermId.of("HP:test"), numTerms, sampleSize,
+      new double[]{0.1, 0.5, 0.9}, new double[]{0.1, 0.5, 0.9});
+
+    assertEquals(objDist.getCumulativeFrequencies(), fromArrays.getCumulativeFrequencies());
+    assertEquals(objDist.estimatePValue(0.2), fromArrays.estimatePValue(0.2), 1E-12);
+    assertThrows(IllegalArgumentException.class, () -> new ObjectScoreDistribution(TermId.of("HP:test"), numTerms,
+      sampleSize, new double[]{0.5, 0.1}, new double[]{0.1, 0.5}));
+    assertThrows(IllegalArgumentException.class, () -> new ObjectScoreDistribution(TermId.of("HP:test"), numTerms,
+      sampleSize, new double[]{0.1, 0.5}, new double[]{0.1}));
+  }
+
+  @Test
+  public void testWithResolution() {
+    int n = 1_000;
+    double[] scores = new double[n];
+    double[] cumulativeFrequencies = new double[n];
+    for (int i = 0; i < n; i++) {
+      scores[i] = i / 100.;
+      cumulativeFrequencies[i] = (i + 1.) / n;
+    }
+    ObjectScoreDistribution full = new ObjectScoreDistribution(TermId.of("HP:test"), numTerms, sampleSize, scores, cumulativeFrequencies);
+
+    ObjectScoreDistribution compact = full.withResolution(10);
 
+    assertEquals(11, compact.size());
+    assertEquals(scores[0], compact.getScoreArray()[0]);
+    assertEquals(scores[n - 1], compact.getScoreArray()[compact.size() - 1]);
+    assertEquals(sampleSize, compact.getSampleSize());
+    for (double score = 0.; score < 10.; score += 0.37) {
+      assertEquals(full.estimatePValue(score), compact.estimatePValue(score), 0.1);
+    }
+    assertSame(full, full.withResolution(0));
+    assertSame(objDist, objDist.withResolution(10));
+  }
+
+  @Test
+  public void testPValueOfCompactedDistributionIsProbability() {
+    // raw scores spread far wider than [0, 1], leaving large gaps between the kept points
+    int n = 500;
+    double[] scores = new double[n];
+    double[] cumulativeFrequencies = new double[n];
+    for (int i = 0; i < n; i++) {
+      scores[i] = i * i / 10.;
+      cumulativeFrequencies[i] = (i + 1.) / n;
+    }
+    ObjectScoreDistribution compact = new ObjectScoreDistribution(TermId.of("HP:test"), numTerms, sampleSize,
+      scores, cumulativeFrequencies).withResolution(4);
+
+    for (double score = -1.; score < scores[n - 1] + 1.; score += 7.3) {
+      double p = compact.estimatePValue(score);
+      assertTrue(0. <= p && p <= 1., "p value " + p + " of score " + score + " is not a probability");
+    }
+  }
 }
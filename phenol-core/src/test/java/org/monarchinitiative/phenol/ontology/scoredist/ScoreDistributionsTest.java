@@ -8,6 +8,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.monarchinitiative.phenol.ontology.data.TermId;
 
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -44,4 +45,11 @@ public class ScoreDistributionsTest {
     assertEquals(tid1, result.getObjectScoreDistribution(tid1).getObjectId());
     assertEquals(tid2, result.getObjectScoreDistribution(tid2).getObjectId());
   }
+
+  @Test
+  public void mergeWithResolution() {
+    ScoreDistribution result = ScoreDistributions.merge(List.of(dist1, dist2), 1);
+    assertEquals(2, result.getObjectScoreDistribution(tid1).size());
+    assertEquals(2, result.getObjectScoreDistribution(tid2).size());
+  }
 }
@@ -1,6 +1,7 @@
 package org.monarchinitiative.phenol.ontology.scoredist;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
 
@@ -13,7 +14,7 @@ public class ScoreSamplingOptionsTest {
     samplingOptions = new ScoreSamplingOptions();
 
     assertEquals(
-        "ScoreSamplingOptions [numThreads=1, minObjectId=null, maxObjectId=null, minNumTerms=1, maxNumTerms=20, numIterations=100000, seed=42]",
+        "ScoreSamplingOptions [numThreads=1, minObjectId=null, maxObjectId=null, minNumTerms=1, maxNumTerms=20, numIterations=100000, seed=42, adaptiveSampling=false, adaptiveBlockSize=5000, adaptiveTolerance=0.001, adaptiveQuantiles=[0.9, 0.95, 0.99], resolution=0]",
         samplingOptions.toString());
   }
 
@@ -21,7 +22,29 @@ public class ScoreSamplingOptionsTest {
   public void testFullConstruction() {
     samplingOptions = new ScoreSamplingOptions(1, 1, 2, 3, 4, 5, 6);
     assertEquals(
-        "ScoreSamplingOptions [numThreads=1, minObjectId=1, maxObjectId=2, minNumTerms=3, maxNumTerms=4, numIterations=6, seed=5]",
+        "ScoreSamplingOptions [numThreads=1, minObjectId=1, maxObjectId=2, minNumTerms=3, maxNumTerms=4, numIterations=6, seed=5, adaptiveSampling=false, adaptiveBlockSize=5000, adaptiveTolerance=0.001, adaptiveQuantiles=[0.9, 0.95, 0.99], resolution=0]",
         samplingOptions.toString());
   }
+
+  @Test
+  public void testCloneCopiesAdaptiveSettings() {
+    samplingOptions = new ScoreSamplingOptions();
+    samplingOptions.setAdaptiveSampling(true);
+    samplingOptions.setAdaptiveBlockSize(100);
+    samplingOptions.setAdaptiveTolerance(0.01);
+    samplingOptions.setAdaptiveQuantiles(0.95);
+    samplingOptions.setResolution(10);
+
+    assertEquals(samplingOptions.toString(), samplingOptions.clone().toString());
+  }
+
+  @Test
+  public void testInvalidAdaptiveSettings() {
+    samplingOptions = new ScoreSamplingOptions();
+
+    assertThrows(IllegalArgumentException.class, () -> samplingOptions.setAdaptiveBlockSize(0));
+    assertThrows(IllegalArgumentException.class, () -> samplingOptions.setAdaptiveTolerance(-0.1));
+    assertThrows(IllegalArgumentException.class, () -> samplingOptions.setAdaptiveQuantiles(0.5, 1.0));
+    assertThrows(IllegalArgumentException.class, () -> samplingOptions.setResolution(-1));
+  }
 }
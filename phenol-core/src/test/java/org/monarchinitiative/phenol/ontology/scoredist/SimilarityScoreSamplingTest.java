@@ -15,19 +15,24 @@ import org.monarchinitiative.phenol.ontology.testdata.vegetables.VegetableOntolo
 import org.monarchinitiative.phenol.ontology.testdata.vegetables.VegetableRecipeAnnotation;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 public class SimilarityScoreSamplingTest extends VegetableOntologyTestBase {
 
   private SimilarityScoreSampling scoreSampling;
 
+  private Map<TermId, Collection<TermId>> termLabels;
+
+  private ResnikSimilarity resnikSimilarity;
+
   @BeforeEach
   public void setUp() {
     InformationContentComputation computation = new InformationContentComputation(ontology);
-    Map<TermId, Collection<TermId>> termLabels = TermAnnotations.constructTermAnnotationToLabelsMap(ontology, recipeAnnotations);
+    termLabels = TermAnnotations.constructTermAnnotationToLabelsMap(ontology, recipeAnnotations);
     Map<TermId, Double> informationContent = computation.computeInformationContent(termLabels);
     PairwiseResnikSimilarity pairwise = new PairwiseResnikSimilarity(ontology, informationContent);
-    ResnikSimilarity resnikSimilarity = new ResnikSimilarity(pairwise, true);
+    resnikSimilarity = new ResnikSimilarity(pairwise, true);
 
     ScoreSamplingOptions options = new ScoreSamplingOptions(1, null, null, 2, 2, 10_000, 42);
     scoreSampling = new SimilarityScoreSampling(ontology.nonObsoleteTermIdsStream()
@@ -60,4 +65,31 @@ public class SimilarityScoreSamplingTest extends VegetableOntologyTestBase {
     // todo add more testing of distribution
   }
 
+  @Test
+  public void adaptiveSamplingStopsBeforeMaximalIterationCount() {
+    ScoreSamplingOptions options = new ScoreSamplingOptions(1, null, null, 2, 2, 42, 1_000_000);
+    options.setAdaptiveSampling(true);
+    options.setAdaptiveBlockSize(1_000);
+    options.setAdaptiveTolerance(0.01);
+    Map<TermId, Collection<TermId>> objectLabels = TermAnnotations.constructTermLabelToAnnotationsMap(ontology, recipeAnnotations);
+    SimilarityScoreSampling adaptiveSampling = new SimilarityScoreSampling(ontology.nonObsoleteTermIdsStream()
+      .collect(Collectors.toList()),
+      resnikSimilarity,
+      options,
+      objectLabels);
+
+    ScoreDistribution distribution = adaptiveSampling.performSampling().get(2);
+
+    assertEquals(objectLabels.keySet(), distribution.getObjectIds());
+    for (TermId objectId : distribution.getObjectIds()) {
+      ObjectScoreDistribution objectDistribution = distribution.getObjectScoreDistribution(objectId);
+      int sampleSize = objectDistribution.getSampleSize();
+      assertTrue(sampleSize >= 2_000, "at least two blocks are needed to check convergence");
+      assertTrue(sampleSize < 1_000_000);
+      assertEquals(0, sampleSize % 1_000);
+      SortedMap<Double, Double> cumulativeFrequencies = objectDistribution.getCumulativeFrequencies();
+      assertEquals(1.0, cumulativeFrequencies.get(cumulativeFrequencies.lastKey()), 1E-9);
+    }
+  }
+
 }
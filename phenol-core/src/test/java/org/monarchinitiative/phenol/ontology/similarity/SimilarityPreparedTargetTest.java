@@ -0,0 +1,54 @@
+package org.monarchinitiative.phenol.ontology.similarity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.monarchinitiative.phenol.ontology.algo.InformationContentComputation;
+import org.monarchinitiative.phenol.ontology.data.TermAnnotations;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+import org.monarchinitiative.phenol.ontology.testdata.vegetables.VegetableOntologyTestBase;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Checks that {@link Similarity#prepareTarget(Collection)} scores the same as
+ * {@link Similarity#computeScore(Collection, Collection)} for all similarity measures.
+ */
+public class SimilarityPreparedTargetTest extends VegetableOntologyTestBase {
+
+  @ParameterizedTest
+  @MethodSource("similarities")
+  public void testPreparedTargetMatchesComputeScore(Similarity similarity) {
+    List<TermId> target = List.of(idCarrot, idPumpkin);
+    Similarity.PreparedTarget prepared = similarity.prepareTarget(target);
+    List<List<TermId>> queries = List.of(
+      List.of(idBeet),
+      List.of(idBlueCarrot, idLeafVegetable),
+      List.of(idPumpkin, idCarrot, idBeet),
+      // repeated to score a query whose terms have been seen before
+      List.of(idBeet));
+    for (List<TermId> query : queries) {
+      assertEquals(similarity.computeScore(query, target), prepared.computeScore(query), 1E-12);
+    }
+  }
+
+  public static Stream<Similarity> similarities() {
+    InformationContentComputation computation = new InformationContentComputation(ontology);
+    Map<TermId, Collection<TermId>> termLabels =
+      TermAnnotations.constructTermAnnotationToLabelsMap(ontology, recipeAnnotations);
+    Map<TermId, Double> informationContent = computation.computeInformationContent(termLabels);
+    PairwiseResnikSimilarity pairwise = new PairwiseResnikSimilarity(ontology, informationContent);
+
+    return Stream.of(
+      new CosineSimilarity(ontology),
+      new JaccardSimilarity(ontology),
+      new ResnikSimilarity(pairwise, true),
+      new ResnikSimilarity(pairwise, false),
+      new TermOverlapSimilarity(ontology),
+      new SimpleFeatureVectorSimilarity());
+  }
+}
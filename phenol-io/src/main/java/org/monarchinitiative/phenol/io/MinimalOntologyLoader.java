@@ -1,25 +1,28 @@
 package org.monarchinitiative.phenol.io;
 
 import org.geneontology.obographs.core.model.GraphDocument;
+import org.monarchinitiative.phenol.base.PhenolRuntimeException;
+import org.monarchinitiative.phenol.instrumentation.LoadPhaseRecorder;
 import org.monarchinitiative.phenol.io.obographs.OboGraphDocumentAdaptor;
 import org.monarchinitiative.phenol.io.utils.CurieUtil;
 import org.monarchinitiative.phenol.io.utils.CurieUtilBuilder;
-import org.monarchinitiative.phenol.io.utils.OntologyLoadingRoutines;
 import org.monarchinitiative.phenol.ontology.data.MinimalOntology;
 import org.monarchinitiative.phenol.ontology.data.RelationshipType;
 import org.monarchinitiative.phenol.ontology.data.impl.SimpleMinimalOntology;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
-import java.io.InputStream;
+import java.io.*;
 import java.util.Set;
 
 /**
  * Entry class for loading a {@link MinimalOntology} implemented using vanilla Java.
  * <p>
- * The loader methods start from a {@linkplain File} or an {@link InputStream} and can read ontologies in OWL, OBO,
- * or JSON format.
+ * The loader methods start from a {@linkplain File} or an {@link InputStream} and can read ontologies in OBO
+ * or JSON format, optionally gzip compressed.
+ * <p>
+ * The {@link OntologyLoaderOptions#loadListener()} receives the metrics of the {@code parse}, {@code node-conversion},
+ * {@code edge-conversion}, {@code term-indexing}, {@code compatibility-check}, and {@code graph-build} phases.
  * <p>
  * See {@link OntologyLoader} for more details.
  *
@@ -28,6 +31,7 @@ import java.util.Set;
 public class MinimalOntologyLoader {
 
   private static final Logger logger = LoggerFactory.getLogger(MinimalOntologyLoader.class);
+  private static final String LOADER_NAME = MinimalOntologyLoader.class.getSimpleName();
 
   private MinimalOntologyLoader() {
   }
@@ -41,8 +45,7 @@ public class MinimalOntologyLoader {
   }
 
   public static MinimalOntology loadOntology(File file, CurieUtil curieUtil, String... termIdPrefixes) {
-    GraphDocument graphDocument = OntologyLoadingRoutines.loadGraphDocument(file);
-    return loadOntology(graphDocument, curieUtil, termIdPrefixes);
+    return loadOntology(file, curieUtil, OntologyLoaderOptions.defaultOptions(), termIdPrefixes);
   }
 
   public static MinimalOntology loadOntology(InputStream inputStream) {
@@ -67,16 +70,23 @@ public class MinimalOntologyLoader {
                                              CurieUtil curieUtil,
                                              OntologyLoaderOptions options,
                                              String... termIdPrefixes) {
-    GraphDocument graphDocument = OntologyLoadingRoutines.loadGraphDocument(file);
-    return loadOntology(graphDocument, curieUtil, options, termIdPrefixes);
+    try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+      return loadOntology(inputStream, curieUtil, options, termIdPrefixes);
+    } catch (IOException e) {
+      throw new PhenolRuntimeException("Unable to load ontology", e);
+    }
   }
 
   public static MinimalOntology loadOntology(InputStream inputStream,
                                              CurieUtil curieUtil,
                                              OntologyLoaderOptions options,
                                              String... termIdPrefixes) {
-    GraphDocument graphDocument = OntologyLoadingRoutines.loadGraphDocument(inputStream);
-    return loadOntology(graphDocument, curieUtil, options, termIdPrefixes);
+    LoadPhaseRecorder phaseRecorder = LoadPhaseRecorder.of(LOADER_NAME, options.loadListener());
+    // stream the JSON document or the OBO flat file instead of building the GraphDocument object model
+    OboGraphDocumentAdaptor graphDocumentAdaptor = adaptorBuilder(curieUtil, options, termIdPrefixes)
+      .phaseRecorder(phaseRecorder)
+      .buildFromStream(inputStream);
+    return buildOntology(graphDocumentAdaptor, options, phaseRecorder);
   }
 
   public static MinimalOntology loadOntology(GraphDocument graphDocument,
@@ -85,15 +95,32 @@ public class MinimalOntologyLoader {
                                              String... termIdPrefixes) {
     logger.debug("Finished loading ontology");
     logger.debug("Creating minimal ontology");
-    OboGraphDocumentAdaptor graphDocumentAdaptor = OboGraphDocumentAdaptor.builder()
+    LoadPhaseRecorder phaseRecorder = LoadPhaseRecorder.of(LOADER_NAME, options.loadListener());
+    OboGraphDocumentAdaptor graphDocumentAdaptor = adaptorBuilder(curieUtil, options, termIdPrefixes)
+      .phaseRecorder(phaseRecorder)
+      .build(graphDocument);
+    return buildOntology(graphDocumentAdaptor, options, phaseRecorder);
+  }
+
+  private static OboGraphDocumentAdaptor.Builder adaptorBuilder(CurieUtil curieUtil,
+                                                                OntologyLoaderOptions options,
+                                                                String... termIdPrefixes) {
+    return OboGraphDocumentAdaptor.builder()
       .curieUtil(curieUtil)
       .wantedTermIdPrefixes(Set.of(termIdPrefixes))
       .discardNonPropagatingRelationships(options.discardNonPropagatingRelationships())
-      .discardDuplicatedRelationships(options.discardDuplicatedRelationships())
-      .build(graphDocument);
+      .termFields(options.termFields())
+      .discardDuplicatedRelationships(options.discardDuplicatedRelationships());
+  }
 
+  private static MinimalOntology buildOntology(OboGraphDocumentAdaptor graphDocumentAdaptor,
+                                               OntologyLoaderOptions options,
+                                               LoadPhaseRecorder phaseRecorder) {
     SimpleMinimalOntology ontology = SimpleMinimalOntology.builder()
+      .phaseRecorder(phaseRecorder)
       .forceBuild(options.forceBuild())
+      .cacheCompatibilityCheck(options.cacheCompatibilityCheck())
+      .parallelCompatibilityCheck(options.parallelCompatibilityCheck())
       .hierarchyRelationshipType(RelationshipType.IS_A)
       .graphImplementation(SimpleMinimalOntology.Builder.GraphImplementation.MONO)
       .metaInfo(graphDocumentAdaptor.getMetaInfo())
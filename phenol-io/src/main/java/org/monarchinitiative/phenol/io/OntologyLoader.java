@@ -1,10 +1,11 @@
 package org.monarchinitiative.phenol.io;
 
 import org.geneontology.obographs.core.model.GraphDocument;
+import org.monarchinitiative.phenol.base.PhenolRuntimeException;
+import org.monarchinitiative.phenol.instrumentation.LoadPhaseRecorder;
 import org.monarchinitiative.phenol.io.obographs.OboGraphDocumentAdaptor;
 import org.monarchinitiative.phenol.io.utils.CurieUtil;
 import org.monarchinitiative.phenol.io.utils.CurieUtilBuilder;
-import org.monarchinitiative.phenol.io.utils.OntologyLoadingRoutines;
 import org.monarchinitiative.phenol.ontology.data.ImmutableOntology;
 import org.monarchinitiative.phenol.ontology.data.Ontology;
 import org.slf4j.Logger;
@@ -14,19 +15,23 @@ import java.io.*;
 import java.util.Set;
 
 /**
- * Entry class for loading an ontology from a File or InputStream. Files can be in OWL, OBO or JSON format and will be
- * handled transparently.
+ * Entry class for loading an ontology from a File or InputStream. Files can be in OBO or JSON format, optionally gzip
+ * compressed, and will be handled transparently.
  * <p>
  * The default for loading from a file is that all terms will be loaded into the graph. For simpler ontologies with only
  * one namespace e.g. HPO it is safe to load the ontology without supplying any termId prefixes. For the GO, which
  * contains a mixture of GO, RO and BFO terms it is advisable to supply the 'GO' termId prefix otherwise there may be
  * relationships with RelationshipType.UNKNOWN. It is left to the user how best to specify what is loaded.
+ * <p>
+ * The {@link OntologyLoaderOptions#loadListener()} receives the metrics of the {@code parse}, {@code node-conversion},
+ * {@code edge-conversion}, and {@code ontology-build} phases.
  *
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  */
 public class OntologyLoader {
 
   private static final Logger logger = LoggerFactory.getLogger(OntologyLoader.class);
+  private static final String LOADER_NAME = OntologyLoader.class.getSimpleName();
 
   private OntologyLoader() {
   }
@@ -40,8 +45,7 @@ public class OntologyLoader {
   }
 
   public static Ontology loadOntology(File file, CurieUtil curieUtil, String... termIdPrefixes) {
-    GraphDocument graphDocument = OntologyLoadingRoutines.loadGraphDocument(file);
-    return loadOntology(graphDocument, curieUtil, termIdPrefixes);
+    return loadOntology(file, curieUtil, OntologyLoaderOptions.defaultOptions(), termIdPrefixes);
   }
 
   public static Ontology loadOntology(InputStream inputStream) {
@@ -60,16 +64,23 @@ public class OntologyLoader {
                                       CurieUtil curieUtil,
                                       OntologyLoaderOptions options,
                                       String... termIdPrefixes) {
-    GraphDocument graphDocument = OntologyLoadingRoutines.loadGraphDocument(file);
-    return loadOntology(graphDocument, curieUtil, options, termIdPrefixes);
+    try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+      return loadOntology(inputStream, curieUtil, options, termIdPrefixes);
+    } catch (IOException e) {
+      throw new PhenolRuntimeException("Unable to load ontology", e);
+    }
   }
 
   public static Ontology loadOntology(InputStream inputStream,
                                       CurieUtil curieUtil,
                                       OntologyLoaderOptions options,
                                       String... termIdPrefixes) {
-    GraphDocument graphDocument = OntologyLoadingRoutines.loadGraphDocument(inputStream);
-    return loadOntology(graphDocument, curieUtil, options, termIdPrefixes);
+    LoadPhaseRecorder phaseRecorder = LoadPhaseRecorder.of(LOADER_NAME, options.loadListener());
+    // stream the JSON document or the OBO flat file instead of building the GraphDocument object model
+    OboGraphDocumentAdaptor graphDocumentAdaptor = adaptorBuilder(curieUtil, options, termIdPrefixes)
+      .phaseRecorder(phaseRecorder)
+      .buildFromStream(inputStream);
+    return buildOntology(graphDocumentAdaptor, phaseRecorder);
   }
 
   public static Ontology loadOntology(GraphDocument graphDocument, CurieUtil curieUtil, String... termIdPrefixes) {
@@ -82,17 +93,31 @@ public class OntologyLoader {
                                       String... termIdPrefixes) {
     logger.debug("Finished loading ontology");
     logger.debug("Creating phenol ontology");
-    OboGraphDocumentAdaptor graphDocumentAdaptor = OboGraphDocumentAdaptor.builder()
+    LoadPhaseRecorder phaseRecorder = LoadPhaseRecorder.of(LOADER_NAME, options.loadListener());
+    OboGraphDocumentAdaptor graphDocumentAdaptor = adaptorBuilder(curieUtil, options, termIdPrefixes)
+      .phaseRecorder(phaseRecorder)
+      .build(graphDocument);
+    return buildOntology(graphDocumentAdaptor, phaseRecorder);
+  }
+
+  private static OboGraphDocumentAdaptor.Builder adaptorBuilder(CurieUtil curieUtil,
+                                                                OntologyLoaderOptions options,
+                                                                String... termIdPrefixes) {
+    return OboGraphDocumentAdaptor.builder()
       .curieUtil(curieUtil)
       .wantedTermIdPrefixes(Set.of(termIdPrefixes))
       .discardNonPropagatingRelationships(options.discardNonPropagatingRelationships())
-      .build(graphDocument);
+      .termFields(options.termFields());
+  }
 
+  private static Ontology buildOntology(OboGraphDocumentAdaptor graphDocumentAdaptor, LoadPhaseRecorder phaseRecorder) {
+    LoadPhaseRecorder.Phase ontologyBuild = phaseRecorder.start("ontology-build");
     Ontology ontology = ImmutableOntology.builder()
       .metaInfo(graphDocumentAdaptor.getMetaInfo())
       .terms(graphDocumentAdaptor.getTerms())
       .relationships(graphDocumentAdaptor.getRelationships())
       .build();
+    ontologyBuild.finish(ontology.getTerms().size());
     logger.debug("Parsed a total of {} terms", ontology.getTerms().size());
     return ontology;
   }
@@ -1,6 +1,9 @@
 package org.monarchinitiative.phenol.io;
 
+import org.monarchinitiative.phenol.instrumentation.LoadListener;
+
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * A record-like class with options for parameterizing the ontology loader process.
@@ -41,11 +44,19 @@ public class OntologyLoaderOptions {
   private final boolean discardNonPropagatingRelationships;
   private final boolean discardDuplicatedRelationships;
   private final boolean forceBuild;
+  private final boolean cacheCompatibilityCheck;
+  private final boolean parallelCompatibilityCheck;
+  private final Set<TermField> termFields;
+  private final LoadListener loadListener;
 
   private OntologyLoaderOptions(Builder builder) {
     this.discardNonPropagatingRelationships = builder.discardNonPropagatingRelationships;
     this.discardDuplicatedRelationships = builder.discardDuplicatedRelationships;
     this.forceBuild = builder.forceBuild;
+    this.cacheCompatibilityCheck = builder.cacheCompatibilityCheck;
+    this.parallelCompatibilityCheck = builder.parallelCompatibilityCheck;
+    this.termFields = builder.termFields;
+    this.loadListener = builder.loadListener;
   }
 
   /**
@@ -69,17 +80,45 @@ public class OntologyLoaderOptions {
     return forceBuild;
   }
 
+  /**
+   * @return {@code true} if the compatibility checks should be skipped for an ontology that passed them before.
+   */
+  public boolean cacheCompatibilityCheck() {
+    return cacheCompatibilityCheck;
+  }
+
+  /**
+   * @return {@code true} if the compatibility checks of large ontologies should run in parallel.
+   */
+  public boolean parallelCompatibilityCheck() {
+    return parallelCompatibilityCheck;
+  }
+
+  /**
+   * @return the optional {@link org.monarchinitiative.phenol.ontology.data.Term} fields that should be populated.
+   */
+  public Set<TermField> termFields() {
+    return termFields;
+  }
+
+  /**
+   * @return the listener that receives the metrics of the load phases.
+   */
+  public LoadListener loadListener() {
+    return loadListener;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     OntologyLoaderOptions options = (OntologyLoaderOptions) o;
-    return discardNonPropagatingRelationships == options.discardNonPropagatingRelationships && discardDuplicatedRelationships == options.discardDuplicatedRelationships && forceBuild == options.forceBuild;
+    return discardNonPropagatingRelationships == options.discardNonPropagatingRelationships && discardDuplicatedRelationships == options.discardDuplicatedRelationships && forceBuild == options.forceBuild && cacheCompatibilityCheck == options.cacheCompatibilityCheck && parallelCompatibilityCheck == options.parallelCompatibilityCheck && termFields.equals(options.termFields) && loadListener.equals(options.loadListener);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(discardNonPropagatingRelationships, discardDuplicatedRelationships, forceBuild);
+    return Objects.hash(discardNonPropagatingRelationships, discardDuplicatedRelationships, forceBuild, cacheCompatibilityCheck, parallelCompatibilityCheck, termFields, loadListener);
   }
 
   @Override
@@ -88,6 +127,10 @@ public class OntologyLoaderOptions {
       "discardNonPropagatingRelationships=" + discardNonPropagatingRelationships +
       ", discardDuplicatedRelationships=" + discardDuplicatedRelationships +
       ", forceBuild=" + forceBuild +
+      ", cacheCompatibilityCheck=" + cacheCompatibilityCheck +
+      ", parallelCompatibilityCheck=" + parallelCompatibilityCheck +
+      ", termFields=" + termFields +
+      ", loadListener=" + loadListener +
       '}';
   }
 
@@ -98,6 +141,10 @@ public class OntologyLoaderOptions {
     private boolean discardNonPropagatingRelationships = false;
     private boolean discardDuplicatedRelationships = false;
     private boolean forceBuild = false;
+    private boolean cacheCompatibilityCheck = false;
+    private boolean parallelCompatibilityCheck = false;
+    private Set<TermField> termFields = TermField.all();
+    private LoadListener loadListener = LoadListener.noOp();
 
     private Builder(){}
 
@@ -122,6 +169,57 @@ public class OntologyLoaderOptions {
       return this;
     }
 
+    /**
+     * Skip the compatibility checks if the same ontology, e.g. the same release, passed them before in this JVM.
+     * The ontologies are identified by a hash of their terms and relationships.
+     *
+     * @param value {@code true} if the result of the checks should be cached, and {@code false} otherwise.
+     * @return the builder.
+     */
+    public Builder cacheCompatibilityCheck(boolean value) {
+      this.cacheCompatibilityCheck = value;
+      return this;
+    }
+
+    /**
+     * Run the compatibility checks of large ontologies, e.g. with more than 65k relationships, on the common
+     * fork-join pool. The checks run on the calling thread by default.
+     *
+     * @param value {@code true} if the checks should run in parallel, and {@code false} otherwise.
+     * @return the builder.
+     */
+    public Builder parallelCompatibilityCheck(boolean value) {
+      this.parallelCompatibilityCheck = value;
+      return this;
+    }
+
+    /**
+     * Populate only the given optional {@link org.monarchinitiative.phenol.ontology.data.Term} fields.
+     * The other fields are left empty, and they are skipped without being parsed where the input format allows it.
+     * All fields are populated by default.
+     *
+     * @param termFields the fields to populate, e.g. {@link TermField#minimal()}.
+     * @return the builder.
+     */
+    public Builder termFields(Set<TermField> termFields) {
+      Objects.requireNonNull(termFields);
+      this.termFields = Set.copyOf(termFields);
+      return this;
+    }
+
+    /**
+     * Report the wall time, the item count, and the allocated bytes of each load phase, e.g. {@code parse} or
+     * {@code graph-build}, to the listener. The phases are not measured by default.
+     *
+     * @param loadListener the listener to report the phases to.
+     * @return the builder.
+     */
+    public Builder loadListener(LoadListener loadListener) {
+      Objects.requireNonNull(loadListener);
+      this.loadListener = loadListener;
+      return this;
+    }
+
     public OntologyLoaderOptions build() {
       return new OntologyLoaderOptions(this);
     }
@@ -0,0 +1,41 @@
+package org.monarchinitiative.phenol.io;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Optional fields of a {@link org.monarchinitiative.phenol.ontology.data.Term} that can be populated
+ * by the ontology loader. The term id and name are always populated.
+ *
+ * @see OntologyLoaderOptions.Builder#termFields(Set)
+ */
+public enum TermField {
+  /** The definition and the cross-references of the definition. */
+  DEFINITION,
+  COMMENT,
+  SUBSETS,
+  SYNONYMS,
+  XREFS,
+  OBSOLETE,
+  ALT_TERM_IDS,
+  /** The creation date and the creator of the term. */
+  CREATION,
+  EXACT_MATCHES;
+
+  private static final Set<TermField> ALL = Set.copyOf(EnumSet.allOf(TermField.class));
+  private static final Set<TermField> MINIMAL = Set.copyOf(EnumSet.of(OBSOLETE, ALT_TERM_IDS));
+
+  /**
+   * @return all fields, the default.
+   */
+  public static Set<TermField> all() {
+    return ALL;
+  }
+
+  /**
+   * @return the fields needed to resolve term ids, i.e. the obsolete flag and the alternative term ids.
+   */
+  public static Set<TermField> minimal() {
+    return MINIMAL;
+  }
+}
@@ -0,0 +1,556 @@
+package org.monarchinitiative.phenol.io.obographs;
+
+import org.geneontology.obographs.core.model.Meta;
+import org.geneontology.obographs.core.model.Node;
+import org.geneontology.obographs.core.model.meta.BasicPropertyValue;
+import org.geneontology.obographs.core.model.meta.DefinitionPropertyValue;
+import org.geneontology.obographs.core.model.meta.SynonymPropertyValue;
+import org.geneontology.obographs.core.model.meta.XrefPropertyValue;
+import org.monarchinitiative.phenol.io.TermField;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads an ontology in the OBO 1.4 flat-file format in a single pass and hands its elements to a
+ * {@link OboGraphStreamingReader.Sink} as obographs {@link Node}s and edges.
+ * <p>
+ * The identifiers are expanded to IRIs as in the OBO to OWL translation, e.g. {@code HP:0000118} becomes
+ * {@code http://purl.obolibrary.org/obo/HP_0000118}, and the metadata uses the same predicates as obographs JSON.
+ * The elements are therefore converted to terms and relationships exactly as the elements of the JSON document of the
+ * same ontology. Only the metadata that is needed for the wanted {@link TermField}s is read.
+ * </p>
+ * <p>
+ * Only one stanza is kept in memory at a time. The exception are the {@code relationship} tags with relation
+ * shorthands like {@code part_of}, whose IRI depends on the {@code [Typedef]} stanzas that usually come at the end of
+ * the file. These edges are reported after all stanzas. Logical definitions ({@code intersection_of},
+ * {@code union_of}, ...), {@code [Instance]} stanzas, and the relations between {@code [Typedef]}s are skipped.
+ * </p>
+ */
+class OboFlatFileReader {
+
+  private static final String OBO_PURL = "http://purl.obolibrary.org/obo/";
+  private static final String OBO_IN_OWL = "http://www.geneontology.org/formats/oboInOwl#";
+  // Prefixes that are not OBO id spaces, unless the header declares them with an idspace tag
+  private static final Map<String, String> BUILT_IN_ID_SPACES = Map.of(
+    "dc", "http://purl.org/dc/elements/1.1/",
+    "dcterms", "http://purl.org/dc/terms/",
+    "foaf", "http://xmlns.com/foaf/0.1/",
+    "oboInOwl", OBO_IN_OWL,
+    "owl", "http://www.w3.org/2002/07/owl#",
+    "rdf", "http://www.w3.org/1999/02/22-rdf-syntax-ns#",
+    "rdfs", "http://www.w3.org/2000/01/rdf-schema#",
+    "skos", "http://www.w3.org/2004/02/skos/core#",
+    "xsd", "http://www.w3.org/2001/XMLSchema#");
+
+  private enum StanzaType {HEADER, TERM, TYPEDEF, OTHER}
+
+  private final Set<TermField> termFields;
+  private final OboGraphStreamingReader.Sink sink;
+  private final Map<String, String> idSpaces = new HashMap<>(BUILT_IN_ID_SPACES);
+  // IRIs of the relation shorthands declared by the [Typedef] stanzas
+  private final Map<String, String> relationIris = new HashMap<>();
+  // subject, relation shorthand, and object of the edges that are reported at the end
+  private final List<String> deferredEdges = new ArrayList<>();
+  // tag and value pairs of the current stanza
+  private final List<String> clauses = new ArrayList<>();
+  private String ontologyId = "";
+
+  private OboFlatFileReader(Set<TermField> termFields, OboGraphStreamingReader.Sink sink) {
+    this.termFields = termFields;
+    this.sink = sink;
+  }
+
+  /**
+   * Read the OBO flat file. The stream is not closed.
+   *
+   * @param inputStream OBO flat file
+   * @param termFields  the optional term fields that are needed, the metadata of the other fields is skipped
+   * @param sink        receiver of the elements of the ontology
+   * @throws IOException if the stream cannot be read
+   */
+  static void read(InputStream inputStream, Set<TermField> termFields, OboGraphStreamingReader.Sink sink) throws IOException {
+    new OboFlatFileReader(termFields, sink).read(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+  }
+
+  private void read(BufferedReader reader) throws IOException {
+    StanzaType stanzaType = StanzaType.HEADER;
+    String line;
+    boolean firstLine = true;
+    while ((line = readLogicalLine(reader)) != null) {
+      if (firstLine) {
+        // skip the byte order mark
+        if (line.startsWith("\uFEFF")) line = line.substring(1);
+        firstLine = false;
+      }
+      line = line.strip();
+      if (line.isEmpty() || line.charAt(0) == '!') {
+        continue;
+      }
+      if (line.charAt(0) == '[' && line.endsWith("]")) {
+        finishStanza(stanzaType);
+        stanzaType = stanzaType(line.substring(1, line.length() - 1).strip());
+        continue;
+      }
+      int colon = line.indexOf(':');
+      if (colon > 0 && stanzaType != StanzaType.OTHER) {
+        clauses.add(line.substring(0, colon).strip());
+        clauses.add(line.substring(colon + 1).strip());
+      }
+    }
+    finishStanza(stanzaType);
+
+    for (int i = 0; i < deferredEdges.size(); i += 3) {
+      String relation = deferredEdges.get(i + 1);
+      sink.edge(deferredEdges.get(i), relationIris.getOrDefault(relation, expandId(relation)), deferredEdges.get(i + 2));
+    }
+  }
+
+  /**
+   * @return the next line, with the lines ending with an escaped line break joined
+   */
+  private static String readLogicalLine(BufferedReader reader) throws IOException {
+    String line = reader.readLine();
+    if (line == null || !endsWithEscape(line)) {
+      return line;
+    }
+    StringBuilder logicalLine = new StringBuilder(line);
+    while (endsWithEscape(line)) {
+      logicalLine.setCharAt(logicalLine.length() - 1, '\n');
+      line = reader.readLine();
+      if (line == null) break;
+      logicalLine.append(line);
+    }
+    return logicalLine.toString();
+  }
+
+  private static boolean endsWithEscape(String line) {
+    int backslashes = 0;
+    for (int i = line.length() - 1; i >= 0 && line.charAt(i) == '\\'; i--) {
+      backslashes++;
+    }
+    return backslashes % 2 == 1;
+  }
+
+  private static StanzaType stanzaType(String name) {
+    switch (name) {
+      case "Term":
+        return StanzaType.TERM;
+      case "Typedef":
+        return StanzaType.TYPEDEF;
+      default:
+        return StanzaType.OTHER;
+    }
+  }
+
+  private void finishStanza(StanzaType stanzaType) {
+    switch (stanzaType) {
+      case HEADER:
+        readHeader();
+        break;
+      case TERM:
+        readTerm();
+        break;
+      case TYPEDEF:
+        readTypedef();
+        break;
+      default:
+        break;
+    }
+    clauses.clear();
+  }
+
+  private void readHeader() {
+    // the ontology id and the id spaces are needed to expand the other identifiers
+    for (int i = 0; i < clauses.size(); i += 2) {
+      String tag = clauses.get(i);
+      String value = stripTrailingModifiers(clauses.get(i + 1));
+      if ("ontology".equals(tag)) {
+        ontologyId = value;
+      } else if ("idspace".equals(tag)) {
+        String[] tokens = value.split("\\s+", 3);
+        if (tokens.length >= 2) idSpaces.put(tokens[0], tokens[1]);
+      }
+    }
+
+    Meta.Builder meta = new Meta.Builder();
+    for (int i = 0; i < clauses.size(); i += 2) {
+      String tag = clauses.get(i);
+      String value = clauses.get(i + 1);
+      switch (tag) {
+        case "data-version":
+          String dataVersion = stripTrailingModifiers(value).replace(' ', '_');
+          meta.version(ontologyId.isEmpty()
+            ? dataVersion
+            : OBO_PURL + ontologyId + '/' + dataVersion + '/' + ontologyId + ".owl");
+          break;
+        case "date":
+        case "saved-by":
+        case "auto-generated-by":
+        case "default-namespace":
+        case "logical-definition-view-relation":
+          meta.addBasicPropertyValue(basicPropertyValue(OBO_IN_OWL + tag, stripTrailingModifiers(value)));
+          break;
+        case "remark":
+          meta.addBasicPropertyValue(basicPropertyValue("http://www.w3.org/2000/01/rdf-schema#comment", unescape(value)));
+          break;
+        case "property_value":
+          BasicPropertyValue propertyValue = propertyValue(stripTrailingModifiers(value));
+          if (propertyValue != null) meta.addBasicPropertyValue(propertyValue);
+          break;
+        default:
+          break;
+      }
+    }
+    sink.meta(meta.build());
+  }
+
+  private void readTerm() {
+    String id = null;
+    String name = null;
+    Meta.Builder meta = new Meta.Builder();
+    boolean hasMeta = false;
+    List<String> edges = new ArrayList<>();
+    for (int i = 0; i < clauses.size(); i += 2) {
+      String tag = clauses.get(i);
+      String value = clauses.get(i + 1);
+      switch (tag) {
+        case "id":
+          id = expandId(stripTrailingModifiers(value));
+          break;
+        case "name":
+          name = unescape(value);
+          break;
+        case "def":
+          if (termFields.contains(TermField.DEFINITION)) {
+            meta.definition(definition(stripTrailingModifiers(value)));
+            hasMeta = true;
+          }
+          break;
+        case "comment":
+          if (termFields.contains(TermField.COMMENT)) {
+            meta.addComment(unescape(value));
+            hasMeta = true;
+          }
+          break;
+        case "subset":
+          if (termFields.contains(TermField.SUBSETS)) {
+            meta.addSubset(expandId(stripTrailingModifiers(value)));
+            hasMeta = true;
+          }
+          break;
+        case "synonym":
+          if (termFields.contains(TermField.SYNONYMS)) {
+            meta.addSynonym(synonym(stripTrailingModifiers(value)));
+            hasMeta = true;
+          }
+          break;
+        case "xref":
+          if (termFields.contains(TermField.XREFS)) {
+            meta.addXref(new XrefPropertyValue.Builder().val(firstToken(stripTrailingModifiers(value))).build());
+            hasMeta = true;
+          }
+          break;
+        case "is_obsolete":
+          if (termFields.contains(TermField.OBSOLETE)) {
+            meta.deprecated("true".equals(stripTrailingModifiers(value)));
+            hasMeta = true;
+          }
+          break;
+        case "alt_id":
+          if (termFields.contains(TermField.ALT_TERM_IDS)) {
+            meta.addBasicPropertyValue(basicPropertyValue(OBO_IN_OWL + "hasAlternativeId", stripTrailingModifiers(value)));
+            hasMeta = true;
+          }
+          break;
+        case "creation_date":
+        case "created_by":
+          if (termFields.contains(TermField.CREATION)) {
+            meta.addBasicPropertyValue(basicPropertyValue(OBO_IN_OWL + tag, stripTrailingModifiers(value)));
+            hasMeta = true;
+          }
+          break;
+        case "property_value":
+          // e.g. the exact matches or `terms:creator`, the same values as in the JSON documents
+          if (OboGraphStreamingReader.needsBasicPropertyValues(termFields)) {
+            BasicPropertyValue propertyValue = propertyValue(stripTrailingModifiers(value));
+            if (propertyValue != null) {
+              meta.addBasicPropertyValue(propertyValue);
+              hasMeta = true;
+            }
+          }
+          break;
+        case "is_a":
+          edges.add("is_a");
+          edges.add(stripTrailingModifiers(value));
+          break;
+        case "relationship":
+          String[] tokens = stripTrailingModifiers(value).split("\\s+");
+          if (tokens.length >= 2) {
+            edges.add(tokens[0]);
+            edges.add(tokens[1]);
+          }
+          break;
+        default:
+          break;
+      }
+    }
+    if (id == null) {
+      return;
+    }
+
+    sink.node(new Node.Builder()
+      .id(id)
+      .label(name)
+      .type(Node.RDFTYPES.CLASS)
+      .meta(hasMeta ? meta.build() : null)
+      .build());
+    for (int i = 0; i < edges.size(); i += 2) {
+      String relation = edges.get(i);
+      String object = expandId(edges.get(i + 1));
+      if ("is_a".equals(relation) || isPrefixedOrIri(relation)) {
+        sink.edge(id, "is_a".equals(relation) ? relation : expandId(relation), object);
+      } else {
+        deferredEdges.add(id);
+        deferredEdges.add(relation);
+        deferredEdges.add(object);
+      }
+    }
+  }
+
+  private void readTypedef() {
+    String id = null;
+    String name = null;
+    String xref = null;
+    for (int i = 0; i < clauses.size(); i += 2) {
+      String tag = clauses.get(i);
+      String value = clauses.get(i + 1);
+      if ("id".equals(tag)) {
+        id = stripTrailingModifiers(value);
+      } else if ("name".equals(tag)) {
+        name = unescape(value);
+      } else if ("xref".equals(tag) && xref == null) {
+        String candidate = firstToken(stripTrailingModifiers(value));
+        if (isPrefixedOrIri(candidate)) xref = candidate;
+      }
+    }
+    if (id == null) {
+      return;
+    }
+
+    // a relation shorthand stands for the prefixed identifier in its xref, e.g. part_of for BFO:0000050
+    String iri = expandId(isPrefixedOrIri(id) || xref == null ? id : xref);
+    relationIris.put(id, iri);
+    sink.node(new Node.Builder()
+      .id(iri)
+      .label(name)
+      .type(Node.RDFTYPES.PROPERTY)
+      .build());
+  }
+
+  /**
+   * Parse {@code "text" [xref, ...]}.
+   */
+  private static DefinitionPropertyValue definition(String value) {
+    int end = endOfQuotedString(value);
+    DefinitionPropertyValue.Builder definition = new DefinitionPropertyValue.Builder()
+      .val(unquote(value, end));
+    definition.addAllXrefs(xrefList(value.substring(end)));
+    return definition.build();
+  }
+
+  /**
+   * Parse {@code "text" SCOPE [TYPE] [xref, ...]}.
+   */
+  private SynonymPropertyValue synonym(String value) {
+    int end = endOfQuotedString(value);
+    SynonymPropertyValue.Builder synonym = new SynonymPropertyValue.Builder()
+      .val(unquote(value, end));
+    String rest = value.substring(end);
+    int bracket = rest.indexOf('[');
+    String[] tokens = (bracket < 0 ? rest : rest.substring(0, bracket)).strip().split("\\s+");
+    String scope = tokens[0].isEmpty() ? "RELATED" : tokens[0];
+    synonym.pred("has" + scope.charAt(0) + scope.substring(1).toLowerCase() + "Synonym");
+    if (tokens.length > 1) {
+      synonym.synonymType(expandId(tokens[1]));
+    }
+    synonym.addAllXrefs(xrefList(rest));
+    return synonym.build();
+  }
+
+  /**
+   * Parse {@code relation value [datatype]}. A value without a datatype is an identifier and is expanded to an IRI.
+   */
+  private BasicPropertyValue propertyValue(String value) {
+    int space = indexOfWhitespace(value);
+    if (space < 0) {
+      return null;
+    }
+    String pred = expandId(value.substring(0, space));
+    String rest = value.substring(space).strip();
+    String val;
+    if (rest.startsWith("\"")) {
+      val = unquote(rest, endOfQuotedString(rest));
+    } else {
+      String[] tokens = rest.split("\\s+");
+      val = tokens.length > 1 ? tokens[0] : expandId(tokens[0]);
+    }
+    return basicPropertyValue(pred, val);
+  }
+
+  private static BasicPropertyValue basicPropertyValue(String pred, String val) {
+    return new BasicPropertyValue.Builder().pred(pred).val(val).build();
+  }
+
+  /**
+   * Expand an OBO identifier to an IRI: a prefixed id {@code X:1} to the OBO PURL {@code X_1} unless the prefix is a
+   * declared id space, and an unprefixed id to a fragment of the ontology IRI. IRIs are returned as they are.
+   */
+  private String expandId(String id) {
+    if (id.contains("://")) {
+      return id;
+    }
+    int colon = id.indexOf(':');
+    if (colon > 0) {
+      String prefix = id.substring(0, colon);
+      String idSpace = idSpaces.get(prefix);
+      return idSpace != null
+        ? idSpace + id.substring(colon + 1)
+        : OBO_PURL + prefix + '_' + id.substring(colon + 1);
+    }
+    return OBO_PURL + ontologyId + '#' + id;
+  }
+
+  private static boolean isPrefixedOrIri(String id) {
+    return id.indexOf(':') > 0;
+  }
+
+  /**
+   * Remove the trailing modifiers {@code {...}} and the comment after {@code !} outside quoted strings.
+   */
+  private static String stripTrailingModifiers(String value) {
+    boolean quoted = false;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\') {
+        i++;
+      } else if (c == '"') {
+        quoted = !quoted;
+      } else if (!quoted && (c == '{' || c == '!') && (i == 0 || Character.isWhitespace(value.charAt(i - 1)))) {
+        return value.substring(0, i).strip();
+      }
+    }
+    return value;
+  }
+
+  /**
+   * @return the index after the closing quote of the quoted string at the start of the value
+   */
+  private static int endOfQuotedString(String value) {
+    if (value.isEmpty() || value.charAt(0) != '"') {
+      return 0;
+    }
+    for (int i = 1; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\') {
+        i++;
+      } else if (c == '"') {
+        return i + 1;
+      }
+    }
+    return value.length();
+  }
+
+  private static String unquote(String value, int end) {
+    if (end == 0) {
+      return unescape(value);
+    }
+    boolean closed = end >= 2 && value.charAt(end - 1) == '"';
+    return unescape(value.substring(1, closed ? end - 1 : end));
+  }
+
+  /**
+   * @return the identifiers of the xref list {@code [a, b "description", ...]} in the value, without descriptions
+   */
+  private static List<String> xrefList(String value) {
+    int start = value.indexOf('[');
+    if (start < 0) {
+      return List.of();
+    }
+    List<String> xrefs = new ArrayList<>();
+    StringBuilder xref = new StringBuilder();
+    boolean quoted = false;
+    for (int i = start + 1; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\' && i + 1 < value.length()) {
+        xref.append(c).append(value.charAt(++i));
+      } else if (c == '"') {
+        quoted = !quoted;
+        xref.append(c);
+      } else if (!quoted && (c == ',' || c == ']')) {
+        addXref(xrefs, xref);
+        xref.setLength(0);
+        if (c == ']') break;
+      } else {
+        xref.append(c);
+      }
+    }
+    return xrefs;
+  }
+
+  private static void addXref(List<String> xrefs, StringBuilder xref) {
+    String id = firstToken(xref.toString().strip());
+    if (!id.isEmpty()) {
+      xrefs.add(unescape(id));
+    }
+  }
+
+  private static String firstToken(String value) {
+    int space = indexOfWhitespace(value);
+    return space < 0 ? value : value.substring(0, space);
+  }
+
+  private static int indexOfWhitespace(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      if (Character.isWhitespace(value.charAt(i))) return i;
+    }
+    return -1;
+  }
+
+  private static String unescape(String value) {
+    if (value.indexOf('\\') < 0) {
+      return value;
+    }
+    StringBuilder unescaped = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\' && i + 1 < value.length()) {
+        char next = value.charAt(++i);
+        switch (next) {
+          case 'n':
+            unescaped.append('\n');
+            break;
+          case 't':
+            unescaped.append('\t');
+            break;
+          case 'W':
+            unescaped.append(' ');
+            break;
+          default:
+            unescaped.append(next);
+        }
+      } else {
+        unescaped.append(c);
+      }
+    }
+    return unescaped.toString();
+  }
+}
@@ -4,18 +4,26 @@ import org.geneontology.obographs.core.model.*;
 import org.geneontology.obographs.core.model.meta.BasicPropertyValue;
 import org.monarchinitiative.phenol.base.PhenolRuntimeException;
 import org.monarchinitiative.phenol.graph.RelationType;
+import org.monarchinitiative.phenol.instrumentation.LoadPhaseRecorder;
+import org.monarchinitiative.phenol.io.TermField;
 import org.monarchinitiative.phenol.io.utils.CurieUtil;
 import org.monarchinitiative.phenol.io.utils.CurieUtilBuilder;
+import org.monarchinitiative.phenol.io.utils.OntologyLoadingRoutines;
 import org.monarchinitiative.phenol.ontology.data.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import static java.util.stream.Collectors.toMap;
-
 
 /**
  * Adaptor class for converting {@link GraphDocument} instances to
@@ -26,6 +34,8 @@ import static java.util.stream.Collectors.toMap;
 public class OboGraphDocumentAdaptor {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(OboGraphDocumentAdaptor.class);
+  // Number of nodes or edges that are converted as one task.
+  private static final int BATCH_SIZE = 4096;
 
   private final Map<String, String> metaInfo;
   private final List<Term> terms;
@@ -76,6 +86,9 @@ public class OboGraphDocumentAdaptor {
     // An option used for discarding non-propagating relationships during loading.
     private boolean discardNonPropagatingRelationships = false;
     private boolean discardDuplicatedRelationships = false;
+    private Set<TermField> termFields = TermField.all();
+    private Executor executor = ForkJoinPool.commonPool();
+    private LoadPhaseRecorder phaseRecorder = LoadPhaseRecorder.noOp();
 
     public Builder curieUtil(CurieUtil curieUtil) {
       Objects.requireNonNull(curieUtil);
@@ -99,7 +112,139 @@ public class OboGraphDocumentAdaptor {
       return this;
     }
 
+    /**
+     * @param termFields the optional {@link Term} fields to populate, the other ones are left empty.
+     * @return the builder
+     */
+    public Builder termFields(Set<TermField> termFields) {
+      Objects.requireNonNull(termFields);
+      this.termFields = termFields;
+      return this;
+    }
+
+    /**
+     * @param executor executor on which the nodes and edges are converted, the common pool by default
+     * @return the builder
+     */
+    public Builder executor(Executor executor) {
+      Objects.requireNonNull(executor);
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * Set the recorder for the conversion phases. The {@code parse} phase of the streaming builders covers reading
+     * the input, while the nodes and edges are already being converted in parallel. The {@code node-conversion} and
+     * {@code edge-conversion} phases cover the rest of the conversion that is done after the input was read.
+     *
+     * @param phaseRecorder recorder of the phases, nothing is recorded by default
+     * @return the builder
+     */
+    public Builder phaseRecorder(LoadPhaseRecorder phaseRecorder) {
+      Objects.requireNonNull(phaseRecorder);
+      this.phaseRecorder = phaseRecorder;
+      return this;
+    }
+
     public OboGraphDocumentAdaptor build(GraphDocument graphDocument) {
+      checkWantedTermIdPrefixes();
+      Graph oboGraph = getFirstGraph(graphDocument);
+
+      LOGGER.debug("Converting graph document...");
+      ElementSink sink = new ElementSink();
+      sink.meta(oboGraph.getMeta());
+      if (oboGraph.getNodes() != null) {
+        oboGraph.getNodes().forEach(sink::node);
+      }
+      if (oboGraph.getEdges() != null) {
+        oboGraph.getEdges().forEach(edge -> sink.edge(edge.getSub(), edge.getPred(), edge.getObj()));
+      }
+      sink.finish();
+
+      return new OboGraphDocumentAdaptor(this);
+    }
+
+    /**
+     * Convert the first graph of an obographs JSON document that is read with a streaming parser.
+     * The results are the same as for {@link #build(GraphDocument)} of the deserialized document, but the
+     * {@link GraphDocument} object model is never built. The node metadata of the {@link Term} fields that are not
+     * wanted is skipped without being parsed. The stream is closed.
+     *
+     * @param inputStream stream with an obographs JSON document
+     * @return the adaptor
+     */
+    public OboGraphDocumentAdaptor buildFromJson(InputStream inputStream) {
+      checkWantedTermIdPrefixes();
+      LOGGER.debug("Streaming graph document...");
+      ElementSink sink = new ElementSink();
+      LoadPhaseRecorder.Phase parse = phaseRecorder.start("parse");
+      try (InputStream jsonStream = OntologyLoadingRoutines.openJsonGraphDocument(inputStream)) {
+        if (!OboGraphStreamingReader.read(jsonStream, termFields, sink)) {
+          throw new PhenolRuntimeException("GraphDocument is empty");
+        }
+      } catch (IOException e) {
+        throw new PhenolRuntimeException("Error loading JSON", e);
+      }
+      parse.finish(sink.elementCount());
+      sink.finish();
+
+      return new OboGraphDocumentAdaptor(this);
+    }
+
+    /**
+     * Convert an ontology in the OBO 1.4 flat-file format that is read in a single pass. The results are the same as
+     * for {@link #buildFromJson(InputStream)} of the JSON document of the same ontology, apart from the order of the
+     * relationships. The stream is closed.
+     *
+     * @param inputStream stream with an OBO flat file
+     * @return the adaptor
+     */
+    public OboGraphDocumentAdaptor buildFromObo(InputStream inputStream) {
+      checkWantedTermIdPrefixes();
+      LOGGER.debug("Streaming OBO flat file...");
+      ElementSink sink = new ElementSink();
+      LoadPhaseRecorder.Phase parse = phaseRecorder.start("parse");
+      try (InputStream oboStream = inputStream) {
+        OboFlatFileReader.read(oboStream, termFields, sink);
+      } catch (IOException e) {
+        throw new PhenolRuntimeException("Error loading OBO", e);
+      }
+      parse.finish(sink.elementCount());
+      sink.finish();
+
+      return new OboGraphDocumentAdaptor(this);
+    }
+
+    /**
+     * Convert an ontology from an obographs JSON document or an OBO flat file, either of which may be gzip
+     * compressed. The format and the compression are detected from the first bytes of the stream. The stream is closed.
+     *
+     * @param inputStream stream with an obographs JSON document or an OBO flat file
+     * @return the adaptor
+     */
+    public OboGraphDocumentAdaptor buildFromStream(InputStream inputStream) {
+      InputStream uncompressedStream = null;
+      boolean obo;
+      try {
+        uncompressedStream = OntologyLoadingRoutines.openDecompressed(inputStream);
+        obo = OntologyLoadingRoutines.isOboFlatFile(uncompressedStream);
+      } catch (IOException e) {
+        // stop the decompressing thread of a gzip compressed stream
+        closeQuietly(uncompressedStream == null ? inputStream : uncompressedStream, e);
+        throw new PhenolRuntimeException("Unable to load ontology", e);
+      }
+      return obo ? buildFromObo(uncompressedStream) : buildFromJson(uncompressedStream);
+    }
+
+    private static void closeQuietly(InputStream inputStream, IOException cause) {
+      try {
+        inputStream.close();
+      } catch (IOException e) {
+        cause.addSuppressed(e);
+      }
+    }
+
+    private void checkWantedTermIdPrefixes() {
       // check the curieUtil contains a mapping for the requested prefixes otherwise
       // they will not be included in the output and users will not get the graph they asked for
       List<String> unMappedIdPrefixes = getWantedButUnmappedIdPrefixes();
@@ -107,22 +252,163 @@ public class OboGraphDocumentAdaptor {
         String message = String.format("Unable to filter terms for prefix(s) %s as these not mapped. Add the mapping to CurieUtil.", unMappedIdPrefixes);
         throw new PhenolRuntimeException(message);
       }
+    }
 
-      OboGraphTermFactory factory = new OboGraphTermFactory(curieUtil);
+    /**
+     * Converts the elements of a graph as they come, keeping only the terms and the (subject, predicate, object)
+     * stubs of the edges. The relationships are built at the end, since the labels of the properties are needed.
+     * <p>
+     * The class nodes and the edges are collected in batches that are converted in parallel. The batches are joined
+     * in the order in which they were submitted, so the terms and relationships are in document order.
+     * </p>
+     */
+    private class ElementSink implements OboGraphStreamingReader.Sink {
+      private final OboGraphTermFactory factory = new OboGraphTermFactory(curieUtil, termFields);
+      private final List<CompletableFuture<List<Term>>> termBatches = new ArrayList<>();
+      private final List<CompletableFuture<List<EdgeStub>>> edgeStubBatches = new ArrayList<>();
+      private final Map<String, String> propertyIdLabels = new HashMap<>();
+      // IRIs resolved during this load, the edges share the term ids of the nodes
+      private final Map<String, Optional<TermId>> termIdCache = new ConcurrentHashMap<>();
+      private List<Node> classNodes = new ArrayList<>(BATCH_SIZE);
+      // subject, predicate, and object of the edges of the current batch
+      private String[] edgeTriples = new String[3 * BATCH_SIZE];
+      private int edgeTriplesSize = 0;
+      private Map<String, String> meta = Map.of();
+      private int nodeCount = 0;
+      private int edgeCount = 0;
+
+      @Override
+      public void meta(Meta meta) {
+        LOGGER.debug("Converting metadata...");
+        // Metadata about the ontology
+        this.meta = convertMetaData(meta);
+      }
 
-      Graph oboGraph = getFirstGraph(graphDocument);
+      @Override
+      public void node(Node node) {
+        nodeCount++;
+        // only take classes, otherwise we may get some OIO and IAO entities
+        if (node.getType() != null && node.getType() == Node.RDFTYPES.CLASS) {
+          classNodes.add(node);
+          if (classNodes.size() == BATCH_SIZE) {
+            submitClassNodes();
+          }
+        } else if (node.getType() == Node.RDFTYPES.PROPERTY && node.getId() != null && node.getLabel() != null) {
+          String previous = propertyIdLabels.putIfAbsent(node.getId(), node.getLabel());
+          if (previous != null) {
+            throw new IllegalStateException(String.format("Duplicate key %s (attempted merging values %s and %s)",
+              node.getId(), previous, node.getLabel()));
+          }
+        }
+      }
 
-      LOGGER.debug("Converting graph document...");
-      LOGGER.debug("Converting metadata...");
-      // Metadata about the ontology
-      this.metaInfo = convertMetaData(oboGraph.getMeta());
-      LOGGER.debug("Converting nodes to terms...");
-      this.terms = convertNodesToTerms(oboGraph.getNodes(), factory);
-      LOGGER.debug("Converting edges to relationships...");
-      // Mapping edges in obographs to termIds in phenol
-      this.relationships = convertEdgesToRelationships(oboGraph.getEdges(), oboGraph.getNodes());
+      @Override
+      public void edge(String subject, String predicate, String object) {
+        edgeCount++;
+        edgeTriples[edgeTriplesSize++] = subject;
+        edgeTriples[edgeTriplesSize++] = predicate;
+        edgeTriples[edgeTriplesSize++] = object;
+        if (edgeTriplesSize == edgeTriples.length) {
+          submitEdges();
+        }
+      }
 
-      return new OboGraphDocumentAdaptor(this);
+      private void submitClassNodes() {
+        List<Node> batch = classNodes;
+        termBatches.add(CompletableFuture.supplyAsync(() -> convertClassNodes(batch), executor));
+        classNodes = new ArrayList<>(BATCH_SIZE);
+      }
+
+      private void submitEdges() {
+        String[] batch = edgeTriples;
+        int size = edgeTriplesSize;
+        edgeStubBatches.add(CompletableFuture.supplyAsync(() -> convertEdges(batch, size), executor));
+        edgeTriples = new String[3 * BATCH_SIZE];
+        edgeTriplesSize = 0;
+      }
+
+      private List<Term> convertClassNodes(List<Node> nodes) {
+        List<Term> terms = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+          TermId termId = getCachedTermIdOrNull(node.getId());
+          if (termId != null) {
+            terms.add(factory.constructTerm(node, termId));
+          }
+        }
+        return terms;
+      }
+
+      private List<EdgeStub> convertEdges(String[] triples, int size) {
+        List<EdgeStub> stubs = new ArrayList<>(size / 3);
+        for (int i = 0; i < size; i += 3) {
+          // Mapping edges in obographs to termIds in phenol
+          TermId subjectTermId = getCachedTermIdOrNull(triples[i]);
+          TermId objectTermId = getCachedTermIdOrNull(triples[i + 2]);
+          if (subjectTermId != null && objectTermId != null) {
+            stubs.add(new EdgeStub(subjectTermId, triples[i + 1], objectTermId));
+          }
+        }
+        return stubs;
+      }
+
+      /**
+       * Resolve each IRI only once per load, so that all terms and relationships share one {@link TermId} instance
+       * per IRI.
+       */
+      private TermId getCachedTermIdOrNull(String iri) {
+        Optional<TermId> termId = termIdCache.get(iri);
+        if (termId == null) {
+          termId = termIdCache.computeIfAbsent(iri, id -> Optional.ofNullable(getTermIdOrNull(id)));
+        }
+        return termId.orElse(null);
+      }
+
+      long elementCount() {
+        return (long) nodeCount + edgeCount;
+      }
+
+      void finish() {
+        if (!classNodes.isEmpty()) {
+          submitClassNodes();
+        }
+        if (edgeTriplesSize > 0) {
+          submitEdges();
+        }
+        LoadPhaseRecorder.Phase nodeConversion = phaseRecorder.start("node-conversion");
+        List<Term> termsList = joinInOrder(termBatches);
+        nodeConversion.finish(termsList.size());
+        LoadPhaseRecorder.Phase edgeConversion = phaseRecorder.start("edge-conversion");
+        List<EdgeStub> edgeStubs = joinInOrder(edgeStubBatches);
+
+        metaInfo = meta;
+        if (nodeCount == 0) {
+          LOGGER.warn("No nodes found in loaded ontology.");
+          throw new PhenolRuntimeException("No nodes found in loaded ontology.");
+        }
+        terms = List.copyOf(termsList);
+        if (edgeCount == 0) {
+          LOGGER.warn("No edges found in loaded ontology.");
+          throw new PhenolRuntimeException("No edges found in loaded ontology.");
+        }
+        LOGGER.debug("Converting edges to relationships...");
+        relationships = convertEdgesToRelationships(edgeStubs, propertyIdLabels);
+        edgeConversion.finish(relationships.size());
+      }
+    }
+
+    private static <T> List<T> joinInOrder(List<CompletableFuture<List<T>>> batches) {
+      List<T> joined = new ArrayList<>();
+      try {
+        for (CompletableFuture<List<T>> batch : batches) {
+          joined.addAll(batch.join());
+        }
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw new PhenolRuntimeException("Conversion failed", e.getCause());
+      }
+      return joined;
     }
 
     private Graph getFirstGraph(GraphDocument graphDocument) {
@@ -202,38 +488,8 @@ public class OboGraphDocumentAdaptor {
       }
     }
 
-    private List<Term> convertNodesToTerms(List<Node> nodes, OboGraphTermFactory factory) {
-      List<Term> termsList = new ArrayList<>();
-      if (nodes == null || nodes.isEmpty()) {
-        LOGGER.warn("No nodes found in loaded ontology.");
-        throw new PhenolRuntimeException("No nodes found in loaded ontology.");
-      }
-      // Mapping nodes in obographs to termIds in phenol
-      for (Node node : nodes) {
-//        LOGGER.info("{} {} {}", node.getType(), node.getId(), node.getLabel());
-        // only take classes, otherwise we may get some OIO and IAO entities
-        if (node.getType() != null && node.getType() == Node.RDFTYPES.CLASS) {
-          TermId termId = getTermIdOrNull(node.getId());
-          if (termId != null) {
-            Term term = factory.constructTerm(node, termId);
-            termsList.add(term);
-          }
-        }
-      }
-      return List.copyOf(termsList);
-    }
-
-    private List<Relationship> convertEdgesToRelationships(List<Edge> edges, List<Node> nodes) {
-      Map<String, String> propertyIdLabels = nodes.stream()
-        .filter(node -> node.getType() == Node.RDFTYPES.PROPERTY)
-        .filter(node -> node.getId() != null && node.getLabel() != null)
-        .collect(toMap(Node::getId, Node::getLabel));
-
+    private List<Relationship> convertEdgesToRelationships(List<EdgeStub> edges, Map<String, String> propertyIdLabels) {
       List<Relationship> relationshipsList = new ArrayList<>();
-      if (edges == null || edges.isEmpty()) {
-        LOGGER.warn("No edges found in loaded ontology.");
-        throw new PhenolRuntimeException("No edges found in loaded ontology.");
-      }
 
       Map<TermId, List<Relationship>> relationshipStubs = null;
       if (discardDuplicatedRelationships)
@@ -241,33 +497,31 @@ public class OboGraphDocumentAdaptor {
         relationshipStubs = new HashMap<>(edges.size());
 
       int edgeId = 0;
-      for (Edge edge : edges) {
-        TermId subjectTermId = getTermIdOrNull(edge.getSub());
-        TermId objectTermId = getTermIdOrNull(edge.getObj());
-
-        if (subjectTermId != null && objectTermId != null) {
-          RelationshipType relType = RelationshipType.of(edge.getPred(), propertyIdLabels.getOrDefault(edge.getPred(), "unknown"));
-          if (discardNonPropagatingRelationships && !relType.propagates()) {
-            // The user decided to drop non-propagating relationships.
-            LOGGER.trace("Dropping non-propagating relationship {} {} {}",
+      for (EdgeStub edge : edges) {
+        TermId subjectTermId = edge.subject;
+        TermId objectTermId = edge.object;
+
+        RelationshipType relType = RelationshipType.of(edge.predicate, propertyIdLabels.getOrDefault(edge.predicate, "unknown"));
+        if (discardNonPropagatingRelationships && !relType.propagates()) {
+          // The user decided to drop non-propagating relationships.
+          LOGGER.trace("Dropping non-propagating relationship {} {} {}",
+            subjectTermId.getValue(), relType.getLabel(), objectTermId.getValue());
+          continue;
+        }
+
+        if (discardDuplicatedRelationships) {
+          List<Relationship> existing = relationshipStubs.get(subjectTermId);
+          if (existing != null && relationshipsAreEqual(subjectTermId, objectTermId, relType, existing)) {
+            LOGGER.trace("Dropping duplicated relationship {} {} {}",
               subjectTermId.getValue(), relType.getLabel(), objectTermId.getValue());
             continue;
           }
-
-          if (discardDuplicatedRelationships) {
-            List<Relationship> existing = relationshipStubs.get(subjectTermId);
-            if (existing != null && relationshipsAreEqual(subjectTermId, objectTermId, relType, existing)) {
-              LOGGER.trace("Dropping duplicated relationship {} {} {}",
-                subjectTermId.getValue(), relType.getLabel(), objectTermId.getValue());
-              continue;
-            }
-          }
-
-          Relationship relationship = new Relationship(subjectTermId, objectTermId, edgeId++, relType);
-          relationshipsList.add(relationship);
-          if (discardDuplicatedRelationships)
-            relationshipStubs.computeIfAbsent(subjectTermId, whatever -> new ArrayList<>()).add(relationship);
         }
+
+        Relationship relationship = new Relationship(subjectTermId, objectTermId, edgeId++, relType);
+        relationshipsList.add(relationship);
+        if (discardDuplicatedRelationships)
+          relationshipStubs.computeIfAbsent(subjectTermId, whatever -> new ArrayList<>()).add(relationship);
       }
       return List.copyOf(relationshipsList);
     }
@@ -289,6 +543,21 @@ public class OboGraphDocumentAdaptor {
     }
   }
 
+  /**
+   * An edge whose subject and object are wanted terms.
+   */
+  private static class EdgeStub {
+    private final TermId subject;
+    private final String predicate;
+    private final TermId object;
+
+    private EdgeStub(TermId subject, String predicate, TermId object) {
+      this.subject = subject;
+      this.predicate = predicate;
+      this.object = object;
+    }
+  }
+
   private static boolean relationshipsAreEqual(TermId subject,
                                                TermId object,
                                                RelationType relationType,
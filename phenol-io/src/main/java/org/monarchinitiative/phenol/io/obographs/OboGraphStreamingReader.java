@@ -0,0 +1,199 @@
+package org.monarchinitiative.phenol.io.obographs;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.geneontology.obographs.core.model.Meta;
+import org.geneontology.obographs.core.model.Node;
+import org.monarchinitiative.phenol.base.PhenolRuntimeException;
+import org.monarchinitiative.phenol.io.TermField;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads the first graph of an obographs JSON document with the Jackson streaming API, without building the
+ * {@link org.geneontology.obographs.core.model.GraphDocument} object model.
+ * <p>
+ * Nodes are bound one at a time to obographs {@link Node} objects, so that they are converted to terms
+ * exactly as in the {@code GraphDocument} path, and are then handed to the {@link Sink} and dropped.
+ * Edges are read directly from the tokens, since only the subject, predicate, and object are needed.
+ * Only one node is alive at any time, instead of the complete document.
+ * </p>
+ * <p>
+ * The node metadata that is not needed for the wanted {@link TermField}s is skipped by the parser and is never bound.
+ * </p>
+ */
+class OboGraphStreamingReader {
+
+  // ObjectMapper is thread-safe after configuration, the default configuration is used by OgJsonReader as well.
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  // Node mappers that skip a set of the Meta properties.
+  private static final Map<Set<String>, ObjectMapper> NODE_MAPPERS = new ConcurrentHashMap<>();
+
+  /**
+   * Receives the elements of the graph in the order in which they are found in the document.
+   */
+  interface Sink {
+    void meta(Meta meta);
+
+    void node(Node node);
+
+    void edge(String subject, String predicate, String object);
+  }
+
+  private OboGraphStreamingReader() {
+  }
+
+  /**
+   * Read the first graph of the JSON document. The stream is not closed.
+   *
+   * @param inputStream JSON graph document
+   * @param termFields  the optional term fields that are needed, the metadata of the other fields is skipped
+   * @param sink        receiver of the elements of the graph
+   * @return {@code true} if the document contains a graph
+   * @throws IOException if the stream cannot be read
+   */
+  static boolean read(InputStream inputStream, Set<TermField> termFields, Sink sink) throws IOException {
+    ObjectMapper nodeMapper = nodeMapper(skippedMetaProperties(termFields));
+    try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(inputStream)) {
+      expect(parser.nextToken(), JsonToken.START_OBJECT, parser);
+      boolean foundGraph = false;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.getCurrentName();
+        JsonToken value = parser.nextToken();
+        if ("graphs".equals(field) && value == JsonToken.START_ARRAY) {
+          while (parser.nextToken() == JsonToken.START_OBJECT) {
+            if (foundGraph) {
+              // We assume there is only one graph instance in the graph document instance.
+              parser.skipChildren();
+            } else {
+              readGraph(parser, nodeMapper, sink);
+              foundGraph = true;
+            }
+          }
+        } else {
+          parser.skipChildren();
+        }
+      }
+      return foundGraph;
+    }
+  }
+
+  private static void readGraph(JsonParser parser, ObjectMapper nodeMapper, Sink sink) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if ("meta".equals(field) && value == JsonToken.START_OBJECT) {
+        sink.meta(OBJECT_MAPPER.readValue(parser, Meta.class));
+      } else if ("nodes".equals(field) && value == JsonToken.START_ARRAY) {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+          sink.node(nodeMapper.readValue(parser, Node.class));
+        }
+      } else if ("edges".equals(field) && value == JsonToken.START_ARRAY) {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+          readEdge(parser, sink);
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  private static void readEdge(JsonParser parser, Sink sink) throws IOException {
+    String subject = null;
+    String predicate = null;
+    String object = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      parser.nextToken();
+      switch (field) {
+        case "sub":
+          subject = parser.getValueAsString();
+          break;
+        case "pred":
+          predicate = parser.getValueAsString();
+          break;
+        case "obj":
+          object = parser.getValueAsString();
+          break;
+        default:
+          parser.skipChildren();
+      }
+    }
+    sink.edge(subject, predicate, object);
+  }
+
+  /**
+   * @return names of the JSON properties of {@link Meta} that are not needed for any of the {@code termFields}
+   */
+  static Set<String> skippedMetaProperties(Set<TermField> termFields) {
+    Set<String> skipped = new HashSet<>();
+    if (!termFields.contains(TermField.DEFINITION)) skipped.add("definition");
+    if (!termFields.contains(TermField.COMMENT)) skipped.add("comments");
+    if (!termFields.contains(TermField.SUBSETS)) skipped.add("subsets");
+    if (!termFields.contains(TermField.SYNONYMS)) skipped.add("synonyms");
+    if (!termFields.contains(TermField.XREFS)) skipped.add("xrefs");
+    if (!termFields.contains(TermField.OBSOLETE)) skipped.add("deprecated");
+    if (!needsBasicPropertyValues(termFields)) {
+      skipped.add("basicPropertyValues");
+    }
+    return Set.copyOf(skipped);
+  }
+
+  /**
+   * @return {@code true} if any of the fields is read from the basic property values of a node, i.e. the alt ids,
+   * the creation date and the creator, and the exact matches.
+   */
+  static boolean needsBasicPropertyValues(Set<TermField> termFields) {
+    return termFields.contains(TermField.ALT_TERM_IDS)
+      || termFields.contains(TermField.CREATION)
+      || termFields.contains(TermField.EXACT_MATCHES);
+  }
+
+  private static ObjectMapper nodeMapper(Set<String> skippedMetaProperties) {
+    if (skippedMetaProperties.isEmpty()) {
+      return OBJECT_MAPPER;
+    }
+    return NODE_MAPPERS.computeIfAbsent(skippedMetaProperties, skipped -> new ObjectMapper()
+      .registerModule(new SimpleModule().setDeserializerModifier(new SkipMetaProperties(skipped))));
+  }
+
+  /**
+   * Turns the given properties of {@link Meta} into ignored properties, whose values are skipped by the parser.
+   */
+  private static class SkipMetaProperties extends BeanDeserializerModifier {
+    private final Set<String> skipped;
+
+    private SkipMetaProperties(Set<String> skipped) {
+      this.skipped = skipped;
+    }
+
+    @Override
+    public BeanDeserializerBuilder updateBuilder(DeserializationConfig config,
+                                                 BeanDescription beanDesc,
+                                                 BeanDeserializerBuilder builder) {
+      // Meta is deserialized through its generated Meta.Json delegate class
+      if (beanDesc.getBeanClass().getEnclosingClass() == Meta.class) {
+        for (String property : skipped) {
+          builder.removeProperty(PropertyName.construct(property));
+          builder.addIgnorable(property);
+        }
+      }
+      return builder;
+    }
+  }
+
+  private static void expect(JsonToken actual, JsonToken expected, JsonParser parser) {
+    if (actual != expected) {
+      throw new PhenolRuntimeException("Expected " + expected + " but found " + actual + " at " + parser.getCurrentLocation());
+    }
+  }
+}
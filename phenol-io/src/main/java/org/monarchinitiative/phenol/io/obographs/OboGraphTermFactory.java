@@ -6,6 +6,7 @@ import org.geneontology.obographs.core.model.meta.BasicPropertyValue;
 import org.geneontology.obographs.core.model.meta.DefinitionPropertyValue;
 import org.geneontology.obographs.core.model.meta.SynonymPropertyValue;
 import org.geneontology.obographs.core.model.meta.XrefPropertyValue;
+import org.monarchinitiative.phenol.io.TermField;
 import org.monarchinitiative.phenol.io.utils.CurieUtil;
 import org.monarchinitiative.phenol.ontology.data.*;
 import org.slf4j.Logger;
@@ -16,10 +17,11 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Factory class for constructing {@link Term} and {@link Relationship} objects from
- * Obographs's Nodes.
+ * Obographs's Nodes. The factory does not keep any state, so it can be used by several threads at once.
  *
  * @author <a href="mailto:HyeongSikKim@lbl.gov">HyeongSik Kim</a>
  * @author <a href="mailto:peter.robinson@jax.org">Peter Robinson</a>
@@ -29,9 +31,18 @@ class OboGraphTermFactory {
   private static final Logger LOGGER = LoggerFactory.getLogger(OboGraphTermFactory.class);
 
   private final CurieUtil curieUtil;
+  private final Set<TermField> termFields;
 
   OboGraphTermFactory(CurieUtil curieUtil) {
+    this(curieUtil, TermField.all());
+  }
+
+  /**
+   * @param termFields the optional fields to populate, the other ones are left empty.
+   */
+  OboGraphTermFactory(CurieUtil curieUtil, Set<TermField> termFields) {
     this.curieUtil = Objects.requireNonNull(curieUtil);
+    this.termFields = Objects.requireNonNull(termFields);
   }
 
   Term constructTerm(Node node, TermId termId) {
@@ -48,48 +59,60 @@ class OboGraphTermFactory {
     }
 
     // 1. definition
-    DefinitionPropertyValue definitionPropertyValue = meta.getDefinition();
-    String definition = getDefinition(definitionPropertyValue);
-    termBuilder.definition(definition);
+    if (termFields.contains(TermField.DEFINITION)) {
+      DefinitionPropertyValue definitionPropertyValue = meta.getDefinition();
+      String definition = getDefinition(definitionPropertyValue);
+      termBuilder.definition(definition);
 
-    List<SimpleXref> simpleXrefs = convertToXrefs(definitionPropertyValue);
-    termBuilder.databaseXrefs(simpleXrefs);
+      List<SimpleXref> simpleXrefs = convertToXrefs(definitionPropertyValue);
+      termBuilder.databaseXrefs(simpleXrefs);
+    }
 
     // 2. comments
     List<String> comments = meta.getComments();
-    if (comments != null) {
+    if (comments != null && termFields.contains(TermField.COMMENT)) {
       termBuilder.comment(String.join(", ", comments));
     }
 
     // 3. subsets
     List<String> subsets = meta.getSubsets();
-    if (subsets != null) {
+    if (subsets != null && termFields.contains(TermField.SUBSETS)) {
       termBuilder.subsets(subsets);
     }
 
     // 4. synonyms
-    List<TermSynonym> termSynonyms = convertToSynonyms(meta.getSynonyms());
-    termBuilder.synonyms(termSynonyms);
+    if (termFields.contains(TermField.SYNONYMS)) {
+      List<TermSynonym> termSynonyms = convertToSynonyms(meta.getSynonyms());
+      termBuilder.synonyms(termSynonyms);
+    }
 
     // 5. xrefs
-    List<Dbxref> xrefs = convertToDbXrefs(meta.getXrefs());
-    termBuilder.xrefs(xrefs);
+    if (termFields.contains(TermField.XREFS)) {
+      List<Dbxref> xrefs = convertToDbXrefs(meta.getXrefs());
+      termBuilder.xrefs(xrefs);
+    }
 
-    // 6. obsolete; the obsolete/deprecated field in Meta is somehow not accessible,
-    // so we use Java reflection to pull the value of that field.
-    boolean isObsolete = isObsolete(meta);
-    termBuilder.obsolete(isObsolete);
+    // 6. obsolete
+    if (termFields.contains(TermField.OBSOLETE)) {
+      termBuilder.obsolete(meta.getDeprecated());
+    }
 
     // 7. altIds
-    List<TermId> altIds = convertToAltIds(meta.getBasicPropertyValues());
-    termBuilder.altTermIds(altIds);
+    if (termFields.contains(TermField.ALT_TERM_IDS)) {
+      List<TermId> altIds = convertToAltIds(meta.getBasicPropertyValues());
+      termBuilder.altTermIds(altIds);
+    }
 
     // 8. creation date & created by
-    findCreationDateAndCreator(termBuilder, meta.getBasicPropertyValues());
+    if (termFields.contains(TermField.CREATION)) {
+      findCreationDateAndCreator(termBuilder, meta.getBasicPropertyValues());
+    }
 
     // 9. exactMatches
-    List<TermId> exactMatches = convertToExactMatchIds(meta.getBasicPropertyValues());
-    termBuilder.exactMatches(exactMatches);
+    if (termFields.contains(TermField.EXACT_MATCHES)) {
+      List<TermId> exactMatches = convertToExactMatchIds(meta.getBasicPropertyValues());
+      termBuilder.exactMatches(exactMatches);
+    }
 
     return termBuilder.build();
   }
@@ -203,15 +226,6 @@ class OboGraphTermFactory {
   }
 
 
-  private static boolean isObsolete(Meta meta) {
-    try {
-      return meta.getDeprecated();
-    } catch (Exception e) {
-      LOGGER.error(e.getMessage());
-    }
-    return false;
-  }
-
   private static List<TermId> convertToAltIds(List<BasicPropertyValue> basicPropertyValues) {
     if (basicPropertyValues == null || basicPropertyValues.isEmpty()) {
       return List.of();
@@ -0,0 +1,140 @@
+package org.monarchinitiative.phenol.io.ser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses the data in chunks of fixed size that are deflated in parallel.
+ * <p>
+ * Each chunk is written as the uncompressed length, the compressed length, and the deflated bytes. The chunks are
+ * written in order and are followed by a chunk with uncompressed length {@code 0}. The data is read back by
+ * {@link ChunkedInflaterInputStream}.
+ * </p>
+ */
+class ChunkedDeflaterOutputStream extends OutputStream {
+
+  private final DataOutputStream out;
+  private final Executor executor;
+  private final int chunkSize;
+  private final int maxPendingChunks;
+  private final Deque<CompletableFuture<Chunk>> pending = new ArrayDeque<>();
+  private byte[] buffer;
+  private int count = 0;
+  private boolean closed = false;
+
+  /**
+   * @param maxPendingChunks the number of chunks that may be compressed at the same time, limits the memory use.
+   */
+  ChunkedDeflaterOutputStream(OutputStream out, Executor executor, int chunkSize, int maxPendingChunks) {
+    if (chunkSize < 1 || maxPendingChunks < 1)
+      throw new IllegalArgumentException("Chunk size and number of pending chunks must be positive");
+    this.out = new DataOutputStream(out);
+    this.executor = executor;
+    this.chunkSize = chunkSize;
+    this.maxPendingChunks = maxPendingChunks;
+    this.buffer = new byte[chunkSize];
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    buffer[count++] = (byte) b;
+    if (count == chunkSize)
+      submitChunk();
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    while (len > 0) {
+      int n = Math.min(len, chunkSize - count);
+      System.arraycopy(b, off, buffer, count, n);
+      count += n;
+      off += n;
+      len -= n;
+      if (count == chunkSize)
+        submitChunk();
+    }
+  }
+
+  private void submitChunk() throws IOException {
+    byte[] data = buffer;
+    int length = count;
+    pending.add(CompletableFuture.supplyAsync(() -> Chunk.deflate(data, length), executor));
+    buffer = new byte[chunkSize];
+    count = 0;
+    while (pending.size() >= maxPendingChunks)
+      writeChunk(pending.poll());
+  }
+
+  private void writeChunk(CompletableFuture<Chunk> future) throws IOException {
+    Chunk chunk;
+    try {
+      chunk = future.join();
+    } catch (CompletionException e) {
+      throw new IOException("Could not compress chunk", e.getCause());
+    }
+    out.writeInt(chunk.uncompressedLength);
+    out.writeInt(chunk.compressed.length);
+    out.write(chunk.compressed);
+  }
+
+  /**
+   * Compresses and writes all complete chunks. The last, incomplete chunk is written on {@link #close()}.
+   */
+  @Override
+  public void flush() throws IOException {
+    while (!pending.isEmpty())
+      writeChunk(pending.poll());
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed)
+      return;
+    closed = true;
+    try {
+      if (count > 0)
+        submitChunk();
+      flush();
+      out.writeInt(0);
+      out.flush();
+    } finally {
+      out.close();
+    }
+  }
+
+  private static class Chunk {
+    private final int uncompressedLength;
+    private final byte[] compressed;
+
+    private Chunk(int uncompressedLength, byte[] compressed) {
+      this.uncompressedLength = uncompressedLength;
+      this.compressed = compressed;
+    }
+
+    private static Chunk deflate(byte[] data, int length) {
+      Deflater deflater = new Deflater();
+      try {
+        deflater.setInput(data, 0, length);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+        byte[] buffer = new byte[64 * 1024];
+        while (!deflater.finished()) {
+          int n = deflater.deflate(buffer);
+          compressed.write(buffer, 0, n);
+        }
+        return new Chunk(length, compressed.toByteArray());
+      } finally {
+        deflater.end();
+      }
+    }
+  }
+}
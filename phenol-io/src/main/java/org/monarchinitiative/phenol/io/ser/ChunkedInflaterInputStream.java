@@ -0,0 +1,125 @@
+package org.monarchinitiative.phenol.io.ser;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the chunks written by {@link ChunkedDeflaterOutputStream}. The next chunks are read ahead and inflated in
+ * parallel while the current chunk is consumed.
+ */
+class ChunkedInflaterInputStream extends InputStream {
+
+  private static final byte[] EMPTY = new byte[0];
+
+  private final DataInputStream in;
+  private final Executor executor;
+  private final int maxPendingChunks;
+  private final Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+  private boolean lastChunkRead = false;
+  private byte[] current = EMPTY;
+  private int position = 0;
+
+  /**
+   * @param maxPendingChunks the number of chunks that may be inflated at the same time, limits the memory use.
+   */
+  ChunkedInflaterInputStream(InputStream in, Executor executor, int maxPendingChunks) {
+    if (maxPendingChunks < 1)
+      throw new IllegalArgumentException("Number of pending chunks must be positive");
+    this.in = new DataInputStream(in);
+    this.executor = executor;
+    this.maxPendingChunks = maxPendingChunks;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (position == current.length && !nextChunk())
+      return -1;
+    return current[position++] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0)
+      return 0;
+    if (position == current.length && !nextChunk())
+      return -1;
+    int n = Math.min(len, current.length - position);
+    System.arraycopy(current, position, b, off, n);
+    position += n;
+    return n;
+  }
+
+  @Override
+  public int available() {
+    return current.length - position;
+  }
+
+  /**
+   * @return {@code false} if there are no more chunks.
+   */
+  private boolean nextChunk() throws IOException {
+    do {
+      while (!lastChunkRead && pending.size() < maxPendingChunks)
+        submitChunk();
+      if (pending.isEmpty())
+        return false;
+      try {
+        current = pending.poll().join();
+      } catch (CompletionException e) {
+        throw new IOException("Could not decompress chunk", e.getCause());
+      }
+      position = 0;
+    } while (current.length == 0);
+    return true;
+  }
+
+  private void submitChunk() throws IOException {
+    int uncompressedLength = in.readInt();
+    if (uncompressedLength == 0) {
+      lastChunkRead = true;
+      return;
+    }
+    int compressedLength = in.readInt();
+    if (uncompressedLength < 0 || compressedLength < 0)
+      throw new IOException("Corrupt chunk header");
+    byte[] compressed = new byte[compressedLength];
+    in.readFully(compressed);
+    pending.add(CompletableFuture.supplyAsync(() -> inflate(compressed, uncompressedLength), executor));
+  }
+
+  private static byte[] inflate(byte[] compressed, int uncompressedLength) {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(compressed);
+      byte[] data = new byte[uncompressedLength];
+      int n = 0;
+      while (n < uncompressedLength && !inflater.finished()) {
+        int inflated = inflater.inflate(data, n, uncompressedLength - n);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+          break;
+        n += inflated;
+      }
+      if (n != uncompressedLength)
+        throw new CompletionException(new IOException("Chunk is shorter than " + uncompressedLength + " bytes"));
+      return data;
+    } catch (DataFormatException e) {
+      throw new CompletionException(new IOException("Corrupt chunk", e));
+    } finally {
+      inflater.end();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    pending.clear();
+    in.close();
+  }
+}
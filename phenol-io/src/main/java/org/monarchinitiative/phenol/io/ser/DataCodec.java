@@ -0,0 +1,31 @@
+package org.monarchinitiative.phenol.io.ser;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes objects of type {@code T} to a compact binary form and reads them back, as an alternative to Java
+ * serialization in {@link DataSerializer}.
+ * <p>
+ * Implementations must read exactly the bytes that they write. Codecs for phenol's core types are in
+ * {@link DataCodecs}.
+ *
+ * @param <T> type of the encoded objects.
+ */
+public interface DataCodec<T> {
+
+  /**
+   * Write {@code value} to {@code out}.
+   *
+   * @throws IOException if the value cannot be written.
+   */
+  void write(DataOutput out, T value) throws IOException;
+
+  /**
+   * Read a value that was written by {@link #write(DataOutput, Object)}.
+   *
+   * @throws IOException if the value cannot be read.
+   */
+  T read(DataInput in) throws IOException;
+}
@@ -0,0 +1,190 @@
+package org.monarchinitiative.phenol.io.ser;
+
+import org.monarchinitiative.phenol.ontology.data.TermId;
+import org.monarchinitiative.phenol.ontology.scoredist.ObjectScoreDistribution;
+import org.monarchinitiative.phenol.ontology.scoredist.ScoreDistribution;
+import org.monarchinitiative.phenol.ontology.similarity.PrecomputingPairwiseResnikSimilarity;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link DataCodec}s for phenol's core types.
+ * <p>
+ * Numeric arrays are written in bulk as big-endian values, so they are read without boxing and without the
+ * per-object overhead of Java serialization.
+ */
+public final class DataCodecs {
+
+  private static final DataCodec<TermId> TERM_ID = new DataCodec<>() {
+    @Override
+    public void write(DataOutput out, TermId value) throws IOException {
+      out.writeUTF(value.getValue());
+    }
+
+    @Override
+    public TermId read(DataInput in) throws IOException {
+      return TermId.of(in.readUTF());
+    }
+  };
+
+  private static final DataCodec<ObjectScoreDistribution> OBJECT_SCORE_DISTRIBUTION = new DataCodec<>() {
+    @Override
+    public void write(DataOutput out, ObjectScoreDistribution value) throws IOException {
+      TERM_ID.write(out, value.getObjectId());
+      out.writeInt(value.getNumTerms());
+      out.writeInt(value.getSampleSize());
+      writeDoubles(out, value.getScoreArray());
+      writeDoubles(out, value.getCumulativeFrequencyArray());
+    }
+
+    @Override
+    public ObjectScoreDistribution read(DataInput in) throws IOException {
+      TermId objectId = TERM_ID.read(in);
+      int numTerms = in.readInt();
+      int sampleSize = in.readInt();
+      double[] scores = readDoubles(in);
+      double[] cumulativeFrequencies = readDoubles(in);
+      return new ObjectScoreDistribution(objectId, numTerms, sampleSize, scores, cumulativeFrequencies);
+    }
+  };
+
+  private static final DataCodec<ScoreDistribution> SCORE_DISTRIBUTION = new DataCodec<>() {
+    @Override
+    public void write(DataOutput out, ScoreDistribution value) throws IOException {
+      out.writeInt(value.getNumTerms());
+      out.writeInt(value.getObjectIds().size());
+      for (TermId objectId : value.getObjectIds()) {
+        TERM_ID.write(out, objectId);
+        OBJECT_SCORE_DISTRIBUTION.write(out, value.getObjectScoreDistribution(objectId));
+      }
+    }
+
+    @Override
+    public ScoreDistribution read(DataInput in) throws IOException {
+      int numTerms = in.readInt();
+      int size = checkSize(in.readInt());
+      Map<TermId, ObjectScoreDistribution> distributions = new HashMap<>(size * 4 / 3 + 1);
+      for (int i = 0; i < size; i++) {
+        TermId objectId = TERM_ID.read(in);
+        distributions.put(objectId, OBJECT_SCORE_DISTRIBUTION.read(in));
+      }
+      return new ScoreDistribution(numTerms, distributions);
+    }
+  };
+
+  /**
+   * Only the upper triangle of the symmetric score matrix is written.
+   */
+  private static final DataCodec<PrecomputingPairwiseResnikSimilarity> PRECOMPUTING_PAIRWISE_RESNIK_SIMILARITY = new DataCodec<>() {
+    @Override
+    public void write(DataOutput out, PrecomputingPairwiseResnikSimilarity value) throws IOException {
+      List<TermId> termIds = value.getTermIds();
+      int n = termIds.size();
+      out.writeInt(n);
+      for (TermId termId : termIds) {
+        TERM_ID.write(out, termId);
+      }
+      ByteBuffer row = ByteBuffer.allocate(Float.BYTES * n);
+      for (int i = 0; i < n; i++) {
+        row.clear();
+        for (int j = i; j < n; j++) {
+          row.putFloat(value.getScore(i, j));
+        }
+        out.write(row.array(), 0, row.position());
+      }
+    }
+
+    @Override
+    public PrecomputingPairwiseResnikSimilarity read(DataInput in) throws IOException {
+      int n = checkSize(in.readInt());
+      List<TermId> termIds = new ArrayList<>(n);
+      for (int i = 0; i < n; i++) {
+        termIds.add(TERM_ID.read(in));
+      }
+      float[][] scores = new float[n][n];
+      byte[] row = new byte[Float.BYTES * n];
+      for (int i = 0; i < n; i++) {
+        int length = n - i;
+        in.readFully(row, 0, Float.BYTES * length);
+        ByteBuffer.wrap(row, 0, Float.BYTES * length).asFloatBuffer().get(scores[i], i, length);
+        for (int j = i + 1; j < n; j++) {
+          scores[j][i] = scores[i][j];
+        }
+      }
+      return PrecomputingPairwiseResnikSimilarity.of(termIds, scores);
+    }
+  };
+
+  private DataCodecs() {
+  }
+
+  public static DataCodec<TermId> termId() {
+    return TERM_ID;
+  }
+
+  public static DataCodec<ObjectScoreDistribution> objectScoreDistribution() {
+    return OBJECT_SCORE_DISTRIBUTION;
+  }
+
+  public static DataCodec<ScoreDistribution> scoreDistribution() {
+    return SCORE_DISTRIBUTION;
+  }
+
+  public static DataCodec<PrecomputingPairwiseResnikSimilarity> precomputingPairwiseResnikSimilarity() {
+    return PRECOMPUTING_PAIRWISE_RESNIK_SIMILARITY;
+  }
+
+  /**
+   * @return codec for lists of elements written by {@code elementCodec}.
+   */
+  public static <T> DataCodec<List<T>> listOf(DataCodec<T> elementCodec) {
+    return new DataCodec<>() {
+      @Override
+      public void write(DataOutput out, List<T> value) throws IOException {
+        out.writeInt(value.size());
+        for (T element : value) {
+          elementCodec.write(out, element);
+        }
+      }
+
+      @Override
+      public List<T> read(DataInput in) throws IOException {
+        int size = checkSize(in.readInt());
+        List<T> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          list.add(elementCodec.read(in));
+        }
+        return list;
+      }
+    };
+  }
+
+  private static void writeDoubles(DataOutput out, double[] values) throws IOException {
+    out.writeInt(values.length);
+    ByteBuffer buffer = ByteBuffer.allocate(Double.BYTES * values.length);
+    buffer.asDoubleBuffer().put(values);
+    out.write(buffer.array());
+  }
+
+  private static double[] readDoubles(DataInput in) throws IOException {
+    int length = checkSize(in.readInt());
+    byte[] bytes = new byte[Double.BYTES * length];
+    in.readFully(bytes);
+    double[] values = new double[length];
+    ByteBuffer.wrap(bytes).asDoubleBuffer().get(values);
+    return values;
+  }
+
+  private static int checkSize(int size) throws IOException {
+    if (size < 0)
+      throw new IOException("Negative size " + size + ", the data is corrupt");
+    return size;
+  }
+}
@@ -1,12 +1,21 @@
 package org.monarchinitiative.phenol.io.ser;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -32,11 +41,23 @@ public final class DataSerializer {
   /** Minimal supported version of Jannovar in this version */
   private final String minVersion;
 
+  /** Marker written after the magic bytes by {@link #save(Object, DataCodec)}, distinct from the gzip header */
+  private static final byte[] CODEC_FORMAT_MARKER = "PHC1".getBytes(StandardCharsets.US_ASCII);
+
+  /** Size of the chunks that are compressed independently by {@link #save(Object, DataCodec)} */
+  private static final int CHUNK_SIZE = 1 << 20;
+
+  /** Executor for compressing and decompressing the chunks */
+  private Executor executor = ForkJoinPool.commonPool();
+
   /** @return Version string loaded from {@code /project.properties}. */
   public static String getVersion() {
     final Properties properties = new Properties();
-    try {
-      properties.load(DataSerializer.class.getResourceAsStream("/project.properties"));
+    try (InputStream is = DataSerializer.class.getResourceAsStream("/project.properties")) {
+      if (is == null) {
+        throw new SerializationRuntimeException("Could not find project.properties for obtaining version");
+      }
+      properties.load(is);
     } catch (IOException e) {
       throw new SerializationRuntimeException(
           "Could not load project.properties for obtaining version", e);
@@ -57,6 +78,18 @@ public final class DataSerializer {
     this.filename = filename;
   }
 
+  /**
+   * Set the executor for compressing and decompressing the data in {@link #save(Object, DataCodec)} and
+   * {@link #load(DataCodec)}. The common {@link ForkJoinPool} is used by default.
+   *
+   * @param executor the executor to use
+   * @return this serializer
+   */
+  public DataSerializer executor(Executor executor) {
+    this.executor = Objects.requireNonNull(executor, "Executor must not be null");
+    return this;
+  }
+
   /**
    * Serialize a data object to a file.
    *
@@ -130,4 +163,85 @@ public final class DataSerializer {
         new Object[] {(System.nanoTime() - startTime) / 1_000_000_000.0});
     return result;
   }
+
+  /**
+   * Serialize a data object to a file using {@code codec} instead of Java serialization.
+   * <p>
+   * The data is compressed in chunks of 1 MiB that are deflated in parallel. The file can only be read by
+   * {@link #load(DataCodec)} with the same codec.
+   *
+   * @param data the object to serialize
+   * @param codec the codec for writing {@code data}
+   * @throws SerializationException on problems with the serialization
+   */
+  public <T> void save(T data, DataCodec<T> codec) throws SerializationException {
+    LOGGER.info("Attempting serialization to {}", filename);
+    final long startTime = System.nanoTime();
+
+    try (FileOutputStream fos = new FileOutputStream(filename)) {
+      // write magic bytes and format marker at top of file (before compression)
+      fos.write(magicBytes);
+      fos.write(CODEC_FORMAT_MARKER);
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+          new ChunkedDeflaterOutputStream(fos, executor, CHUNK_SIZE, maxPendingChunks())))) {
+        out.writeUTF(getVersion());
+        codec.write(out, data);
+      }
+    } catch (Exception e) {
+      throw new SerializationException("Could not serialize data file.", e);
+    }
+
+    LOGGER.info("Serialization took {} sec.", (System.nanoTime() - startTime) / 1_000_000_000.0);
+  }
+
+  /**
+   * Deserialize a data object written by {@link #save(Object, DataCodec)} from a file.
+   *
+   * @param codec the codec for reading the object
+   * @return object yielded by deserialization
+   * @throws SerializationException on problems with the deserialization
+   */
+  public <T> T load(DataCodec<T> codec) throws SerializationException {
+    LOGGER.info("Attempting deserialization from {}", filename);
+    final long startTime = System.nanoTime();
+    final T result;
+
+    try (DataInputStream fileIn = new DataInputStream(new BufferedInputStream(new FileInputStream(filename)))) {
+      // Check magic bytes and format marker at top of file
+      final byte[] word = new byte[magicBytes.length];
+      fileIn.readFully(word);
+      if (!Arrays.equals(word, magicBytes)) {
+        throw new SerializationException(
+            filename + " does not look like a data file, magic number incorrect!");
+      }
+      final byte[] marker = new byte[CODEC_FORMAT_MARKER.length];
+      fileIn.readFully(marker);
+      if (!Arrays.equals(marker, CODEC_FORMAT_MARKER)) {
+        throw new SerializationException(
+            filename + " was not written with a codec, use load() without codec to read it");
+      }
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+          new ChunkedInflaterInputStream(fileIn, executor, maxPendingChunks())))) {
+        final String dbVersion = in.readUTF();
+        final VersionComparator comp = new VersionComparator();
+        if (comp.compare(dbVersion, minVersion) < 0) {
+          throw new SerializationException(
+              filename + " was created by " + dbVersion + " but we need at least " + minVersion);
+        }
+        result = codec.read(in);
+      }
+    } catch (SerializationException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new SerializationException("Could not deserialize data from file", e);
+    }
+
+    LOGGER.info("Done with deserialization, took {} sec.", (System.nanoTime() - startTime) / 1_000_000_000.0);
+    return result;
+  }
+
+  /** @return number of chunks in flight, enough to keep all processors busy with bounded memory */
+  private static int maxPendingChunks() {
+    return 2 * Runtime.getRuntime().availableProcessors();
+  }
 }
@@ -9,6 +9,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Class with static utility method to use in ontology loaders.
@@ -20,6 +23,12 @@ public class OntologyLoadingRoutines {
 
   private static final Logger logger = LoggerFactory.getLogger(OntologyLoadingRoutines.class);
 
+  private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+  // Number of bytes that are checked for the first line of an OBO flat file
+  private static final int OBO_SNIFF_LIMIT = 1024;
+  // A header tag like `format-version:` or a stanza like `[Term]`
+  private static final Pattern OBO_FIRST_LINE = Pattern.compile("[a-z][a-z0-9_-]*:|\\[[A-Za-z]+]");
+
   private OntologyLoadingRoutines(){}
 
   public static GraphDocument loadGraphDocument(File file) {
@@ -31,35 +40,100 @@ public class OntologyLoadingRoutines {
   }
 
   public static GraphDocument loadGraphDocument(InputStream inputStream) {
-    // The input file might be json or obo/owl. Try to make an educated guess.
-    try (InputStream bufferedStream = new BufferedInputStream(inputStream)) {
-      int readlimit = 16;
-      bufferedStream.mark(readlimit);
-      String firstBytes = readBytes(bufferedStream, readlimit);
-      logger.debug("Read first bytes: " + firstBytes);
-      if (isJsonGraphDoc(firstBytes)) {
-        logger.debug("Looks like a JSON file...");
-        try {
-          bufferedStream.reset();
-          return OgJsonReader.readInputStream(bufferedStream);
-        } catch (Exception e) {
-          throw new PhenolRuntimeException("Error loading JSON", e);
-        }
-      } else {
-        try {
-          bufferedStream.reset();
-        } catch (Exception e) {
-          throw new PhenolRuntimeException("Error loading OBO/OWL", e);
-        }
+    try (InputStream jsonStream = openJsonGraphDocument(inputStream)) {
+      try {
+        return OgJsonReader.readInputStream(jsonStream);
+      } catch (Exception e) {
+        throw new PhenolRuntimeException("Error loading JSON", e);
       }
-      logger.debug("Looks like a OBO/OWL file...");
-      logger.error("OBO/OWL support was removed since 2.0.0");
-      throw new PhenolRuntimeException("OBO/OWL support was removed since 2.0.0, use JSON instead");
     } catch (IOException e) {
       throw new PhenolRuntimeException("Unable to load ontology", e);
     }
   }
 
+  /**
+   * Check that the stream contains a JSON graph document, as OWL input is no longer supported and OBO flat files
+   * cannot be read as a {@link GraphDocument}. A gzip compressed document is decompressed, see
+   * {@link #openDecompressed(InputStream)}.
+   *
+   * @param inputStream stream with an ontology
+   * @return a buffered stream positioned at the start of the JSON document
+   * @throws IOException if the stream cannot be read
+   * @throws PhenolRuntimeException if the stream does not look like JSON
+   */
+  public static InputStream openJsonGraphDocument(InputStream inputStream) throws IOException {
+    // The input file might be json, obo or owl. Try to make an educated guess.
+    InputStream bufferedStream = new BufferedInputStream(openDecompressed(inputStream));
+    int readlimit = 16;
+    bufferedStream.mark(readlimit);
+    String firstBytes = readBytes(bufferedStream, readlimit);
+    logger.debug("Read first bytes: " + firstBytes);
+    bufferedStream.reset();
+    if (isJsonGraphDoc(firstBytes)) {
+      logger.debug("Looks like a JSON file...");
+      return bufferedStream;
+    }
+    boolean obo = isOboFlatFile(bufferedStream);
+    bufferedStream.close();
+    if (obo) {
+      logger.debug("Looks like an OBO file...");
+      throw new PhenolRuntimeException("OBO flat files are not JSON graph documents, load them with OntologyLoader or MinimalOntologyLoader");
+    }
+    logger.debug("Looks like an OWL file...");
+    logger.error("OWL support was removed since 2.0.0");
+    throw new PhenolRuntimeException("OWL support was removed since 2.0.0, use JSON or OBO instead");
+  }
+
+  /**
+   * Decompress the stream if it is gzip compressed, e.g. {@code hp.json.gz}, and return it as it is otherwise.
+   * <p>
+   * The compressed data is decompressed on a separate thread that stays a few blocks ahead of the reader, so the
+   * decompression is pipelined with the parsing of the ontology.
+   * </p>
+   *
+   * @param inputStream stream with a possibly compressed ontology
+   * @return stream with the uncompressed ontology that supports {@link InputStream#mark(int)}
+   * @throws IOException if the stream cannot be read or the gzip header is invalid
+   */
+  public static InputStream openDecompressed(InputStream inputStream) throws IOException {
+    InputStream bufferedStream = new BufferedInputStream(inputStream);
+    bufferedStream.mark(2);
+    int first = bufferedStream.read();
+    int second = bufferedStream.read();
+    bufferedStream.reset();
+    if (first == (GZIPInputStream.GZIP_MAGIC & 0xFF) && second == (GZIPInputStream.GZIP_MAGIC >> 8)) {
+      logger.debug("Looks like a gzip file...");
+      InputStream gzipStream = new GZIPInputStream(bufferedStream, GZIP_BUFFER_SIZE);
+      return new BufferedInputStream(PipelinedInputStream.start(gzipStream));
+    }
+    return bufferedStream;
+  }
+
+  /**
+   * Check whether the stream starts like an OBO flat file, i.e. with a header tag such as {@code format-version:} or
+   * with a stanza, after any blank and comment lines.
+   *
+   * @param inputStream stream with an ontology that supports {@link InputStream#mark(int)}, it is reset to the start
+   * @return {@code true} if the stream looks like an OBO flat file
+   * @throws IOException if the stream cannot be read
+   */
+  public static boolean isOboFlatFile(InputStream inputStream) throws IOException {
+    inputStream.mark(OBO_SNIFF_LIMIT);
+    byte[] firstBytes = inputStream.readNBytes(OBO_SNIFF_LIMIT);
+    inputStream.reset();
+    String text = new String(firstBytes, StandardCharsets.UTF_8);
+    if (text.startsWith("\uFEFF")) {
+      text = text.substring(1);
+    }
+    for (String line : text.split("\r?\n")) {
+      String trimmed = line.strip();
+      if (!trimmed.isEmpty() && trimmed.charAt(0) != '!') {
+        return OBO_FIRST_LINE.matcher(trimmed).lookingAt();
+      }
+    }
+    return false;
+  }
+
   private static String readBytes(InputStream bufferedStream, int readlimit) throws IOException {
     byte[] firstFewBytes = new byte[readlimit];
     if (bufferedStream.read(firstFewBytes) == readlimit) {
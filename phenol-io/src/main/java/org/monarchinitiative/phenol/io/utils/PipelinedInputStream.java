@@ -0,0 +1,134 @@
+package org.monarchinitiative.phenol.io.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads a source stream on a separate thread, e.g. to decompress it while the decompressed data is parsed.
+ * <p>
+ * The source is read in blocks that are handed over through a bounded queue, so at most a few MiB are read ahead.
+ * The source is closed by the reading thread when it is exhausted or when this stream is closed. Errors of the source
+ * are reported by the {@code read} methods after the data that was read before the error.
+ * </p>
+ */
+class PipelinedInputStream extends InputStream {
+
+  private static final int BLOCK_SIZE = 64 * 1024;
+  private static final int QUEUE_CAPACITY = 32;
+  // marks the end of the source, an error of the source is stored in failure before
+  private static final byte[] END = new byte[0];
+
+  private final BlockingQueue<byte[]> blocks = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+  private volatile boolean closed = false;
+  private volatile IOException failure;
+  private byte[] current = new byte[0];
+  private int position = 0;
+  private boolean endReached = false;
+
+  private PipelinedInputStream() {
+  }
+
+  /**
+   * Start reading {@code source} on a new daemon thread.
+   *
+   * @param source the stream to read ahead, it is closed by the reading thread
+   * @return stream with the data of {@code source}
+   */
+  static InputStream start(InputStream source) {
+    PipelinedInputStream stream = new PipelinedInputStream();
+    Thread thread = new Thread(() -> stream.readSource(source), "phenol-pipelined-input");
+    thread.setDaemon(true);
+    thread.start();
+    return stream;
+  }
+
+  private void readSource(InputStream source) {
+    try (source) {
+      while (!closed) {
+        byte[] block = new byte[BLOCK_SIZE];
+        int n = source.readNBytes(block, 0, BLOCK_SIZE);
+        if (n == 0) {
+          break;
+        }
+        blocks.put(n == BLOCK_SIZE ? block : Arrays.copyOf(block, n));
+      }
+    } catch (IOException e) {
+      failure = e;
+    } catch (InterruptedException e) {
+      failure = new InterruptedIOException("Reading was interrupted");
+      Thread.currentThread().interrupt();
+    } finally {
+      // close() empties the queue, so there is room for the end marker
+      try {
+        blocks.put(END);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (position == current.length && !nextBlock()) {
+      return -1;
+    }
+    return current[position++] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (position == current.length && !nextBlock()) {
+      return -1;
+    }
+    int n = Math.min(len, current.length - position);
+    System.arraycopy(current, position, b, off, n);
+    position += n;
+    return n;
+  }
+
+  @Override
+  public int available() {
+    return current.length - position;
+  }
+
+  /**
+   * @return {@code false} if the end of the source was reached.
+   */
+  private boolean nextBlock() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    if (endReached) {
+      return false;
+    }
+    try {
+      current = blocks.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for data");
+    }
+    position = 0;
+    if (current == END) {
+      endReached = true;
+      if (failure != null) {
+        throw new IOException("Unable to read the input", failure);
+      }
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    // unblock the reading thread, it stops after at most one more block
+    blocks.clear();
+  }
+}
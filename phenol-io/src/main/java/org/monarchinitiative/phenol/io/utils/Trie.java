@@ -1,8 +1,10 @@
 package org.monarchinitiative.phenol.io.utils;
 
 import java.util.Collection;
-import java.util.Map;
 
+/**
+ * A prefix tree for finding the longest of a set of words, e.g. IRI prefixes, that is a prefix of a value.
+ */
 class Trie {
 
   private final TrieNode root;
@@ -14,51 +16,28 @@ class Trie {
 
   void insert(String word) {
     TrieNode node = root;
-
     for (int level = 0, length = word.length(); level < length; level++) {
-      Map<Character, TrieNode> children = node.children();
-      char c = word.charAt(level);
-
-      TrieNode child = children.get(c);
-      if (child != null) {
-        // If there is already a child for current character of given word.
-        node = child;
-      } else {
-        // Else create a child.
-        TrieNode novel = new TrieNode();
-        children.put(c, novel);
-        node = novel;
-      }
+      node = node.getOrAddChild(word.charAt(level));
     }
-
-    node.setLeaf(true);
+    node.setWord(word);
   }
 
+  /**
+   * @return the longest inserted word that is a prefix of {@code value}, or an empty string if there is none.
+   */
   String search(String value) {
-    StringBuilder result = new StringBuilder();
-
     TrieNode node = root;
-
-    int prevMatch = 0;
+    String match = node.isLeaf() ? node.word() : "";
     for (int level = 0, length = value.length(); level < length; level++) {
-      Map<Character, TrieNode> children = node.children();
-      char c = value.charAt(level);
-
-      TrieNode child = children.get(c);
-      if (child != null) {
-        result.append(c);
-        node = child;
-
-        if (node.isLeaf())
-          prevMatch = level + 1;
-      } else {
+      node = node.child(value.charAt(level));
+      if (node == null) {
         break;
       }
+      if (node.isLeaf()) {
+        match = node.word();
+      }
     }
-
-    return node.isLeaf()
-      ? result.toString()
-      : result.substring(0, prevMatch);
+    return match;
   }
 
 }
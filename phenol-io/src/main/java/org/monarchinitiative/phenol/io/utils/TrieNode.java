@@ -1,26 +1,68 @@
 package org.monarchinitiative.phenol.io.utils;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
+/**
+ * A node of the {@link Trie}. The children are kept in an array that is sorted by their character, so a child
+ * is found by a binary search over primitive characters instead of a lookup in a map of boxed characters.
+ */
 class TrieNode {
 
-  private final Map<Character, TrieNode> children;
-  private boolean isLeaf;
+  private static final char[] NO_KEYS = new char[0];
+  private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+  private char[] keys = NO_KEYS;
+  private TrieNode[] children = NO_CHILDREN;
+  private int size = 0;
+  // the word that ends in this node, or null if the node is not a leaf
+  private String word;
 
   TrieNode() {
-    this.children = new HashMap<>();
   }
 
-  public Map<Character, TrieNode> children() {
-    return children;
+  /**
+   * @return the child for character {@code c} or {@code null} if there is no such child.
+   */
+  TrieNode child(char c) {
+    int idx = Arrays.binarySearch(keys, 0, size, c);
+    return idx < 0 ? null : children[idx];
+  }
+
+  /**
+   * @return the child for character {@code c}, which is created if there is no such child yet.
+   */
+  TrieNode getOrAddChild(char c) {
+    int idx = Arrays.binarySearch(keys, 0, size, c);
+    if (idx >= 0) {
+      return children[idx];
+    }
+    int insertion = -(idx + 1);
+    if (size == keys.length) {
+      int capacity = Math.max(2, 2 * size);
+      keys = Arrays.copyOf(keys, capacity);
+      children = Arrays.copyOf(children, capacity);
+    }
+    System.arraycopy(keys, insertion, keys, insertion + 1, size - insertion);
+    System.arraycopy(children, insertion, children, insertion + 1, size - insertion);
+    TrieNode child = new TrieNode();
+    keys[insertion] = c;
+    children[insertion] = child;
+    size++;
+    return child;
+  }
+
+  void setWord(String word) {
+    this.word = word;
   }
 
-  public void setLeaf(boolean leaf) {
-    isLeaf = leaf;
+  /**
+   * @return the word that ends in this node or {@code null} if the node is not a leaf.
+   */
+  String word() {
+    return word;
   }
 
-  public boolean isLeaf() {
-    return isLeaf;
+  boolean isLeaf() {
+    return word != null;
   }
 }
@@ -2,10 +2,12 @@ package org.monarchinitiative.phenol.io;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.monarchinitiative.phenol.instrumentation.LoadPhaseMetrics;
 import org.monarchinitiative.phenol.io.utils.CurieUtilBuilder;
 import org.monarchinitiative.phenol.ontology.data.*;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
@@ -111,6 +113,25 @@ public class MinimalOntologyLoaderTest {
     }
   }
 
+  @Test
+  public void loadPhasesAreReportedToListener() {
+    List<LoadPhaseMetrics> metrics = new ArrayList<>();
+    OntologyLoaderOptions options = OntologyLoaderOptions.builder()
+      .loadListener(metrics::add)
+      .build();
+
+    MinimalOntology hpo = MinimalOntologyLoader.loadOntology(Paths.get("src/test/resources/hp.module.json").toFile(),
+      CurieUtilBuilder.defaultCurieUtil(), options);
+
+    List<String> phases = metrics.stream()
+      .map(LoadPhaseMetrics::phase)
+      .collect(Collectors.toList());
+    assertThat(phases, contains("parse", "node-conversion", "edge-conversion", "term-indexing", "compatibility-check", "graph-build"));
+    assertThat(metrics.stream().allMatch(m -> m.loader().equals("MinimalOntologyLoader")), is(true));
+    // the obsolete terms are converted too
+    assertThat(metrics.get(1).itemCount(), greaterThan((long) hpo.getTerms().size()));
+  }
+
   @Nested
   public class LoadMondo {
     private final File mondoSmall = Paths.get("src/test/resources/mondo_small.json").toFile();
@@ -3,13 +3,25 @@ package org.monarchinitiative.phenol.io.obographs;
 import org.geneontology.obographs.core.model.*;
 import org.junit.jupiter.api.Test;
 import org.monarchinitiative.phenol.base.PhenolRuntimeException;
+import org.monarchinitiative.phenol.io.TermField;
 import org.monarchinitiative.phenol.io.utils.CurieUtil;
 import org.monarchinitiative.phenol.io.utils.CurieUtilBuilder;
+import org.monarchinitiative.phenol.io.utils.OntologyLoadingRoutines;
 import org.monarchinitiative.phenol.ontology.data.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -264,4 +276,258 @@ public class OboGraphDocumentAdaptorTest {
     assertEquals(TermId.of("HP:0000001"), ontology.getRootTermId());
   }
 
+  @Test
+  public void streamingGivesSameResultsAsGraphDocument() throws IOException {
+    Path path = Path.of("src/test/resources/hp_small.json");
+    OboGraphDocumentAdaptor expected = OboGraphDocumentAdaptor.builder()
+      .build(OntologyLoadingRoutines.loadGraphDocument(path.toFile()));
+
+    OboGraphDocumentAdaptor instance;
+    try (InputStream is = Files.newInputStream(path)) {
+      instance = OboGraphDocumentAdaptor.builder().buildFromJson(is);
+    }
+
+    assertFalse(instance.getTerms().isEmpty());
+    assertEquals(expected.getMetaInfo(), instance.getMetaInfo());
+    // TermSynonym does not implement equals
+    assertEquals(expected.getTerms().toString(), instance.getTerms().toString());
+    assertEquals(expected.getRelationships(), instance.getRelationships());
+  }
+
+  @Test
+  public void streamingEmptyGraphDocument() {
+    InputStream is = new ByteArrayInputStream("{\"graphs\": []}".getBytes());
+    assertThrows(PhenolRuntimeException.class, () -> OboGraphDocumentAdaptor.builder().buildFromJson(is), "GraphDocument is empty");
+  }
+
+  @Test
+  public void termFieldProjection() throws IOException {
+    Path path = Path.of("src/test/resources/hp_small.json");
+    OboGraphDocumentAdaptor full = OboGraphDocumentAdaptor.builder()
+      .build(OntologyLoadingRoutines.loadGraphDocument(path.toFile()));
+    OboGraphDocumentAdaptor projected = OboGraphDocumentAdaptor.builder()
+      .termFields(TermField.minimal())
+      .build(OntologyLoadingRoutines.loadGraphDocument(path.toFile()));
+    OboGraphDocumentAdaptor streamed;
+    try (InputStream is = Files.newInputStream(path)) {
+      streamed = OboGraphDocumentAdaptor.builder()
+        .termFields(TermField.minimal())
+        .buildFromJson(is);
+    }
+
+    assertEquals(projected.getTerms(), streamed.getTerms());
+    assertEquals(full.getRelationships(), streamed.getRelationships());
+    assertEquals(full.getMetaInfo(), streamed.getMetaInfo());
+    assertEquals(full.getTerms().size(), streamed.getTerms().size());
+    for (int i = 0; i < full.getTerms().size(); i++) {
+      Term expected = full.getTerms().get(i);
+      Term term = streamed.getTerms().get(i);
+      assertEquals(expected.id(), term.id());
+      assertEquals(expected.getName(), term.getName());
+      assertEquals(expected.isObsolete(), term.isObsolete());
+      assertEquals(expected.getAltTermIds(), term.getAltTermIds());
+      assertEquals("", term.getDefinition());
+      assertTrue(term.getSynonyms().isEmpty());
+      assertTrue(term.getXrefs().isEmpty());
+    }
+  }
+
+  @Test
+  public void skippedTermFieldsAreNotParsed() {
+    // the synonyms would not bind to SynonymPropertyValue
+    String json = "{\"graphs\": [{" +
+      "\"nodes\": [" +
+      "{\"id\": \"http://purl.obolibrary.org/obo/HP_0000001\", \"lbl\": \"All\", \"type\": \"CLASS\"}, " +
+      "{\"id\": \"http://purl.obolibrary.org/obo/HP_0000005\", \"lbl\": \"Mode of inheritance\", \"type\": \"CLASS\", " +
+      "\"meta\": {\"synonyms\": [{\"unknown\": 1}], \"deprecated\": true}}], " +
+      "\"edges\": [{\"sub\": \"http://purl.obolibrary.org/obo/HP_0000005\", \"pred\": \"is_a\", " +
+      "\"obj\": \"http://purl.obolibrary.org/obo/HP_0000001\"}]}]}";
+
+    assertThrows(PhenolRuntimeException.class,
+      () -> OboGraphDocumentAdaptor.builder().buildFromJson(new ByteArrayInputStream(json.getBytes())));
+
+    OboGraphDocumentAdaptor instance = OboGraphDocumentAdaptor.builder()
+      .termFields(TermField.minimal())
+      .buildFromJson(new ByteArrayInputStream(json.getBytes()));
+    Term moi = instance.getTerms().get(1);
+    assertEquals(TermId.of("HP:0000005"), moi.id());
+    assertTrue(moi.isObsolete());
+    assertTrue(moi.getSynonyms().isEmpty());
+  }
+
+  @Test
+  public void oboFlatFileGivesSameResultsAsJson() throws IOException {
+    OboGraphDocumentAdaptor expected;
+    try (InputStream is = Files.newInputStream(Path.of("src/test/resources/hp_small.json"))) {
+      expected = OboGraphDocumentAdaptor.builder().buildFromJson(is);
+    }
+
+    OboGraphDocumentAdaptor instance;
+    try (InputStream is = Files.newInputStream(Path.of("src/test/resources/hp_small.obo"))) {
+      instance = OboGraphDocumentAdaptor.builder().buildFromObo(is);
+    }
+
+    assertEquals(5, instance.getTerms().size());
+    // TermSynonym does not implement equals
+    assertEquals(expected.getTerms().toString(), instance.getTerms().toString());
+    assertEquals(expected.getRelationships(), instance.getRelationships());
+    assertEquals("2019-09-06", instance.getMetaInfo().get("release"));
+  }
+
+  @Test
+  public void buildFromStreamDetectsFormat() throws IOException {
+    OboGraphDocumentAdaptor json;
+    try (InputStream is = Files.newInputStream(Path.of("src/test/resources/hp_small.json"))) {
+      json = OboGraphDocumentAdaptor.builder().buildFromStream(is);
+    }
+    OboGraphDocumentAdaptor obo;
+    try (InputStream is = Files.newInputStream(Path.of("src/test/resources/hp_small.obo"))) {
+      obo = OboGraphDocumentAdaptor.builder().buildFromStream(is);
+    }
+
+    assertEquals(json.getTerms().toString(), obo.getTerms().toString());
+    assertEquals(json.getRelationships(), obo.getRelationships());
+  }
+
+  @Test
+  public void oboFlatFileStanzas() {
+    String obo = "format-version: 1.2\n" +
+      "ontology: hp\n" +
+      "\n" +
+      "! a comment line\n" +
+      "[Term]\n" +
+      "id: HP:0000001\n" +
+      "name: All\n" +
+      "\n" +
+      "[Term]\n" +
+      "id: HP:0000118\n" +
+      "name: Phenotypic abnormality\n" +
+      "alt_id: HP:0000119\n" +
+      "def: \"A \\\"quoted\\\" definition, with a comma.\" [PMID:1, HPO:curators \"curators, HPO\"] {source=\"x\"}\n" +
+      "comment: Root of all phenotypic abnormalities.\n" +
+      "subset: hposlim_core\n" +
+      "synonym: \"Organ abnormality\" RELATED layperson [] ! layperson synonym\n" +
+      "property_value: skos:exactMatch UMLS:C4021790\n" +
+      "is_a: HP:0000001 {source=\"x\"} ! All\n" +
+      "relationship: part_of HP:0000001 ! All\n" +
+      "\n" +
+      "[Term]\n" +
+      "id: HP:0000002\n" +
+      "name: Obsolete term\n" +
+      "is_obsolete: true\n" +
+      "\n" +
+      "[Instance]\n" +
+      "id: HP:9999999\n" +
+      "instance_of: HP:0000001\n" +
+      "\n" +
+      "[Typedef]\n" +
+      "id: part_of\n" +
+      "name: part of\n" +
+      "xref: BFO:0000050\n";
+
+    OboGraphDocumentAdaptor instance = OboGraphDocumentAdaptor.builder()
+      .buildFromObo(new ByteArrayInputStream(obo.getBytes()));
+
+    assertEquals(3, instance.getTerms().size());
+    Term abnormality = instance.getTerms().get(1);
+    assertEquals(TermId.of("HP:0000118"), abnormality.id());
+    assertEquals("Phenotypic abnormality", abnormality.getName());
+    assertEquals(List.of(TermId.of("HP:0000119")), abnormality.getAltTermIds());
+    assertEquals("A \"quoted\" definition, with a comma.", abnormality.getDefinition());
+    assertEquals(List.of("PMID:1", "HPO:curators"), abnormality.getDatabaseXrefs().stream().map(SimpleXref::getCurie).collect(Collectors.toList()));
+    assertEquals("Root of all phenotypic abnormalities.", abnormality.getComment());
+    assertEquals(List.of("http://purl.obolibrary.org/obo/hp#hposlim_core"), abnormality.getSubsets());
+    assertEquals(1, abnormality.getSynonyms().size());
+    TermSynonym synonym = abnormality.getSynonyms().get(0);
+    assertEquals("Organ abnormality", synonym.getValue());
+    assertEquals(TermSynonymScope.RELATED, synonym.getScope());
+    assertTrue(synonym.isLayperson());
+    assertEquals(List.of(TermId.of("UMLS:C4021790")), abnormality.getExactMatches());
+    assertTrue(instance.getTerms().get(2).isObsolete());
+
+    // the part_of shorthand is resolved with the Typedef at the end of the file
+    assertEquals(2, instance.getRelationships().size());
+    assertEquals(RelationshipType.IS_A, instance.getRelationships().get(0).getRelationshipType());
+    Relationship partOf = instance.getRelationships().get(1);
+    assertEquals(RelationshipType.PART_OF, partOf.getRelationshipType());
+    assertEquals(TermId.of("HP:0000118"), partOf.getSource());
+    assertEquals(TermId.of("HP:0000001"), partOf.getTarget());
+  }
+
+  @Test
+  public void parallelConversionKeepsDocumentOrder() {
+    List<Node> nodes = new ArrayList<>();
+    List<Edge> edges = new ArrayList<>();
+    for (int i = 1; i <= 10_000; i++) {
+      String id = String.format("http://purl.obolibrary.org/obo/HP_%07d", i);
+      nodes.add(new Node.Builder().id(id).label("Term " + i).type(Node.RDFTYPES.CLASS).build());
+      if (i > 1) {
+        edges.add(new Edge.Builder().sub(id).pred("is_a").obj(String.format("http://purl.obolibrary.org/obo/HP_%07d", i / 2)).build());
+      }
+    }
+    Graph graph = new Graph.Builder().nodes(nodes).edges(edges).build();
+    GraphDocument graphDocument = new GraphDocument.Builder().graphs(List.of(graph)).build();
+
+    OboGraphDocumentAdaptor serial = OboGraphDocumentAdaptor.builder()
+      .executor(Runnable::run)
+      .build(graphDocument);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      OboGraphDocumentAdaptor parallel = OboGraphDocumentAdaptor.builder()
+        .executor(executor)
+        .build(graphDocument);
+
+      assertEquals(10_000, parallel.getTerms().size());
+      assertEquals(TermId.of("HP:0000001"), parallel.getTerms().get(0).id());
+      assertEquals(serial.getTerms(), parallel.getTerms());
+      assertEquals(serial.getRelationships(), parallel.getRelationships());
+
+      // term ids are resolved once per load and shared
+      Map<TermId, TermId> canonical = new HashMap<>();
+      parallel.getTerms().forEach(term -> canonical.put(term.id(), term.id()));
+      for (Relationship relationship : parallel.getRelationships()) {
+        assertSame(canonical.get(relationship.getSource()), relationship.getSource());
+        assertSame(canonical.get(relationship.getTarget()), relationship.getTarget());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void oboCreatorIsReadWithoutExactMatches() {
+    String obo = "format-version: 1.2\n" +
+      "ontology: hp\n" +
+      "\n" +
+      "[Term]\n" +
+      "id: HP:0000001\n" +
+      "name: All\n" +
+      "\n" +
+      "[Term]\n" +
+      "id: HP:0000118\n" +
+      "name: Phenotypic abnormality\n" +
+      "property_value: terms:creator https://orcid.org/0000-0002-0736-9199\n" +
+      "is_a: HP:0000001 ! All\n";
+    String json = "{\"graphs\": [{" +
+      "\"nodes\": [" +
+      "{\"id\": \"http://purl.obolibrary.org/obo/HP_0000001\", \"lbl\": \"All\", \"type\": \"CLASS\"}, " +
+      "{\"id\": \"http://purl.obolibrary.org/obo/HP_0000118\", \"lbl\": \"Phenotypic abnormality\", \"type\": \"CLASS\", " +
+      "\"meta\": {\"basicPropertyValues\": [{\"pred\": \"http://purl.obolibrary.org/obo/terms_creator\", " +
+      "\"val\": \"https://orcid.org/0000-0002-0736-9199\"}]}}], " +
+      "\"edges\": [{\"sub\": \"http://purl.obolibrary.org/obo/HP_0000118\", \"pred\": \"is_a\", " +
+      "\"obj\": \"http://purl.obolibrary.org/obo/HP_0000001\"}]}]}";
+    Set<TermField> creation = Set.of(TermField.CREATION);
+
+    Term fromObo = OboGraphDocumentAdaptor.builder()
+      .termFields(creation)
+      .buildFromObo(new ByteArrayInputStream(obo.getBytes()))
+      .getTerms().get(1);
+    Term fromJson = OboGraphDocumentAdaptor.builder()
+      .termFields(creation)
+      .buildFromJson(new ByteArrayInputStream(json.getBytes()))
+      .getTerms().get(1);
+
+    assertEquals("https://orcid.org/0000-0002-0736-9199", fromJson.getCreatedBy());
+    assertEquals(fromJson.getCreatedBy(), fromObo.getCreatedBy());
+  }
 }
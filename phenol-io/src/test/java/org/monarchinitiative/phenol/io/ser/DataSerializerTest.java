@@ -0,0 +1,123 @@
+package org.monarchinitiative.phenol.io.ser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+import org.monarchinitiative.phenol.ontology.scoredist.ObjectScoreDistribution;
+import org.monarchinitiative.phenol.ontology.scoredist.ScoreDistribution;
+import org.monarchinitiative.phenol.ontology.similarity.PrecomputingPairwiseResnikSimilarity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataSerializerTest {
+
+  private static final byte[] MAGIC_BYTES = {'P', 'H', 'E', 'N'};
+
+  private static final TermId HP_1 = TermId.of("HP:0000001");
+  private static final TermId HP_2 = TermId.of("HP:0000002");
+  private static final TermId HP_3 = TermId.of("HP:0000003");
+
+  @TempDir
+  public Path tempDir;
+
+  private DataSerializer serializer(String name) {
+    return new DataSerializer(MAGIC_BYTES, "0.0.0", tempDir.resolve(name).toString());
+  }
+
+  @Test
+  public void termIdListRoundTrip() throws Exception {
+    DataSerializer serializer = serializer("termIds.bin");
+    List<TermId> termIds = List.of(HP_1, HP_2, HP_3);
+
+    serializer.save(termIds, DataCodecs.listOf(DataCodecs.termId()));
+
+    assertEquals(termIds, serializer.load(DataCodecs.listOf(DataCodecs.termId())));
+  }
+
+  @Test
+  public void scoreDistributionRoundTrip() throws Exception {
+    DataSerializer serializer = serializer("scoreDistribution.bin");
+    ObjectScoreDistribution distribution = new ObjectScoreDistribution(HP_1, 3, 100,
+      new double[]{0.5, 1.5, 2.5}, new double[]{0.25, 0.75, 1.0});
+    ScoreDistribution scoreDistribution = new ScoreDistribution(3, Map.of(HP_1, distribution));
+
+    serializer.save(scoreDistribution, DataCodecs.scoreDistribution());
+    ScoreDistribution loaded = serializer.load(DataCodecs.scoreDistribution());
+
+    assertEquals(3, loaded.getNumTerms());
+    assertEquals(scoreDistribution.getObjectIds(), loaded.getObjectIds());
+    ObjectScoreDistribution loadedDistribution = loaded.getObjectScoreDistribution(HP_1);
+    assertEquals(HP_1, loadedDistribution.getObjectId());
+    assertEquals(100, loadedDistribution.getSampleSize());
+    assertArrayEquals(distribution.getScoreArray(), loadedDistribution.getScoreArray());
+    assertArrayEquals(distribution.getCumulativeFrequencyArray(), loadedDistribution.getCumulativeFrequencyArray());
+  }
+
+  @Test
+  public void resnikSimilarityRoundTrip() throws Exception {
+    DataSerializer serializer = serializer("resnik.bin");
+    float[][] scores = {
+      {1.0f, 0.5f, 0.25f},
+      {0.5f, 2.0f, 0.75f},
+      {0.25f, 0.75f, 3.0f}};
+    PrecomputingPairwiseResnikSimilarity similarity = PrecomputingPairwiseResnikSimilarity.of(List.of(HP_1, HP_2, HP_3), scores);
+
+    serializer.save(similarity, DataCodecs.precomputingPairwiseResnikSimilarity());
+    PrecomputingPairwiseResnikSimilarity loaded = serializer.load(DataCodecs.precomputingPairwiseResnikSimilarity());
+
+    assertEquals(similarity.getTermIds(), loaded.getTermIds());
+    assertEquals(0.75, loaded.computeScore(HP_3, HP_2), 1E-6);
+    assertEquals(0.25, loaded.computeScore(HP_1, HP_3), 1E-6);
+    assertEquals(2.0, loaded.computeScore(HP_2, HP_2), 1E-6);
+  }
+
+  @Test
+  public void wrongMagicBytesAreRejected() throws Exception {
+    Path path = tempDir.resolve("other.bin");
+    new DataSerializer(new byte[]{'O', 'T', 'H', 'R'}, "0.0.0", path.toString())
+      .save(List.of(HP_1), DataCodecs.listOf(DataCodecs.termId()));
+
+    DataSerializer serializer = new DataSerializer(MAGIC_BYTES, "0.0.0", path.toString());
+    assertThrows(SerializationException.class, () -> serializer.load(DataCodecs.listOf(DataCodecs.termId())));
+  }
+
+  @Test
+  public void chunkedStreamsRoundTripSeveralChunks() throws IOException {
+    byte[] data = new byte[10_000];
+    Random random = new Random(42);
+    for (int i = 0; i < data.length; i++) {
+      // compressible but not trivial
+      data[i] = (byte) random.nextInt(16);
+    }
+
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (OutputStream out = new ChunkedDeflaterOutputStream(compressed, ForkJoinPool.commonPool(), 1024, 3)) {
+      out.write(data, 0, 4000);
+      out.write(data[4000]);
+      out.write(data, 4001, data.length - 4001);
+    }
+
+    try (InputStream in = new ChunkedInflaterInputStream(new ByteArrayInputStream(compressed.toByteArray()), ForkJoinPool.commonPool(), 3)) {
+      assertArrayEquals(data, in.readAllBytes());
+    }
+  }
+
+  @Test
+  public void corruptChunkHeaderIsRejected() {
+    byte[] corrupt = {0, 0, 0, 16, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+    InputStream in = new ChunkedInflaterInputStream(new ByteArrayInputStream(corrupt), ForkJoinPool.commonPool(), 2);
+
+    assertThrows(IOException.class, in::read);
+  }
+}
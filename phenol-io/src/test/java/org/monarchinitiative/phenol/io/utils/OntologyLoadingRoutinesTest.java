@@ -0,0 +1,93 @@
+package org.monarchinitiative.phenol.io.utils;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.phenol.base.PhenolRuntimeException;
+import org.monarchinitiative.phenol.io.OntologyLoader;
+import org.monarchinitiative.phenol.io.obographs.OboGraphDocumentAdaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OntologyLoadingRoutinesTest {
+
+  private static final Path HP_SMALL_JSON = Path.of("src/test/resources/hp_small.json");
+  private static final Path HP_SMALL_OBO = Path.of("src/test/resources/hp_small.obo");
+
+  @Test
+  public void gzippedJsonIsDecompressed() throws IOException {
+    assertSameOntology(HP_SMALL_JSON);
+  }
+
+  @Test
+  public void gzippedOboIsDecompressed() throws IOException {
+    assertSameOntology(HP_SMALL_OBO);
+  }
+
+  /**
+   * The ontology of the gzip compressed file is the same as the ontology of the file.
+   */
+  private static void assertSameOntology(Path path) throws IOException {
+    OboGraphDocumentAdaptor expected = OboGraphDocumentAdaptor.builder()
+      .buildFromStream(new ByteArrayInputStream(Files.readAllBytes(path)));
+
+    OboGraphDocumentAdaptor adaptor = OboGraphDocumentAdaptor.builder()
+      .buildFromStream(new ByteArrayInputStream(gzip(Files.readAllBytes(path))));
+
+    // TermSynonym does not implement equals
+    assertEquals(expected.getTerms().toString(), adaptor.getTerms().toString());
+    assertEquals(expected.getRelationships(), adaptor.getRelationships());
+  }
+
+  @Test
+  public void gzippedGraphDocumentIsDecompressed() throws IOException {
+    assertEquals(OntologyLoadingRoutines.loadGraphDocument(HP_SMALL_JSON.toFile()),
+      OntologyLoadingRoutines.loadGraphDocument(new ByteArrayInputStream(gzip(Files.readAllBytes(HP_SMALL_JSON)))));
+  }
+
+  @Test
+  public void uncompressedStreamIsReturnedAsItIs() throws IOException {
+    byte[] data = "{\"graphs\": []}".getBytes();
+    try (InputStream is = OntologyLoadingRoutines.openDecompressed(new ByteArrayInputStream(data))) {
+      assertArrayEquals(data, is.readAllBytes());
+    }
+  }
+
+  @Test
+  public void largeInputIsDecompressedInOrder() throws IOException {
+    // several blocks of the pipelined stream
+    byte[] data = new byte[1_000_000];
+    Random random = new Random(7);
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) random.nextInt(32);
+    }
+
+    try (InputStream is = OntologyLoadingRoutines.openDecompressed(new ByteArrayInputStream(gzip(data)))) {
+      assertArrayEquals(data, is.readAllBytes());
+    }
+  }
+
+  @Test
+  public void truncatedGzipFails() throws IOException {
+    byte[] compressed = gzip(Files.readAllBytes(HP_SMALL_JSON));
+    byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+
+    assertThrows(PhenolRuntimeException.class, () -> OntologyLoader.loadOntology(new ByteArrayInputStream(truncated)));
+  }
+
+  private static byte[] gzip(byte[] data) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (GZIPOutputStream os = new GZIPOutputStream(compressed)) {
+      os.write(data);
+    }
+    return compressed.toByteArray();
+  }
+}
@@ -0,0 +1,51 @@
+package org.monarchinitiative.phenol.io.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrieTest {
+
+  private final Trie trie = new Trie(List.of(
+    "http://purl.obolibrary.org/obo/HP_",
+    "http://purl.obolibrary.org/obo/GO_",
+    "http://purl.obolibrary.org/obo/",
+    "http://www.ebi.ac.uk/efo/EFO_"));
+
+  @Test
+  public void longestPrefixWins() {
+    assertEquals("http://purl.obolibrary.org/obo/HP_", trie.search("http://purl.obolibrary.org/obo/HP_0000001"));
+    assertEquals("http://purl.obolibrary.org/obo/GO_", trie.search("http://purl.obolibrary.org/obo/GO_0000001"));
+    assertEquals("http://www.ebi.ac.uk/efo/EFO_", trie.search("http://www.ebi.ac.uk/efo/EFO_0000001"));
+  }
+
+  @Test
+  public void fallsBackToShorterPrefix() {
+    assertEquals("http://purl.obolibrary.org/obo/", trie.search("http://purl.obolibrary.org/obo/MP_0000001"));
+    assertEquals("http://purl.obolibrary.org/obo/", trie.search("http://purl.obolibrary.org/obo/H"));
+  }
+
+  @Test
+  public void noMatch() {
+    assertEquals("", trie.search("http://purl.obolibrary.org/ob/HP_0000001"));
+    assertEquals("", trie.search("http://www.ebi.ac.uk/efo/"));
+    assertEquals("", trie.search(""));
+  }
+
+  @Test
+  public void manyChildren() {
+    StringBuilder alphabet = new StringBuilder();
+    for (char c = 'z'; c >= 'A'; c--) {
+      alphabet.append(c);
+    }
+    Trie letters = new Trie(List.of());
+    for (int i = 0; i < alphabet.length(); i++) {
+      letters.insert("x" + alphabet.charAt(i));
+    }
+    for (int i = 0; i < alphabet.length(); i++) {
+      assertEquals("x" + alphabet.charAt(i), letters.search("x" + alphabet.charAt(i) + "123"));
+    }
+  }
+}